@@ -27,10 +27,14 @@ DROP TABLE IF EXISTS `bills`;
 CREATE TABLE `bills` (
   `amount` decimal(38,2) NOT NULL,
   `tenure` int NOT NULL,
-  `id` bigint NOT NULL AUTO_INCREMENT,
+  `start_date` date NOT NULL,
+  `end_date` date NOT NULL,
+  `id` bigint NOT NULL,
+  `version` bigint DEFAULT NULL,
   `user_id` bigint NOT NULL,
   `category_id` varchar(255) NOT NULL,
   PRIMARY KEY (`id`),
+  KEY `idx_bills_user_dates` (`user_id`,`start_date`,`end_date`),
   KEY `FKn4my8n8xmvieiq3dqtdtggx1e` (`category_id`),
   KEY `FKk8vs7ac9xknv5xp18pdiehpp1` (`user_id`),
   CONSTRAINT `FKk8vs7ac9xknv5xp18pdiehpp1` FOREIGN KEY (`user_id`) REFERENCES `users` (`id`),
@@ -47,6 +51,51 @@ LOCK TABLES `bills` WRITE;
 /*!40000 ALTER TABLE `bills` ENABLE KEYS */;
 UNLOCK TABLES;
 
+--
+-- Table structure for table `bills_seq`
+--
+
+DROP TABLE IF EXISTS `bills_seq`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `bills_seq` (
+  `next_val` bigint DEFAULT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Dumping data for table `bills_seq`
+--
+
+LOCK TABLES `bills_seq` WRITE;
+/*!40000 ALTER TABLE `bills_seq` DISABLE KEYS */;
+INSERT INTO `bills_seq` VALUES (1);
+/*!40000 ALTER TABLE `bills_seq` ENABLE KEYS */;
+UNLOCK TABLES;
+
+--
+-- Table structure for table `budget_spend`
+--
+
+DROP TABLE IF EXISTS `budget_spend`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `budget_spend` (
+  `spent` decimal(21,2) NOT NULL,
+  `budget_id` bigint NOT NULL,
+  PRIMARY KEY (`budget_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Dumping data for table `budget_spend`
+--
+
+LOCK TABLES `budget_spend` WRITE;
+/*!40000 ALTER TABLE `budget_spend` DISABLE KEYS */;
+/*!40000 ALTER TABLE `budget_spend` ENABLE KEYS */;
+UNLOCK TABLES;
+
 --
 -- Table structure for table `budgets`
 --
@@ -56,7 +105,8 @@ DROP TABLE IF EXISTS `budgets`;
 /*!50503 SET character_set_client = utf8mb4 */;
 CREATE TABLE `budgets` (
   `amount` decimal(21,2) NOT NULL,
-  `id` bigint NOT NULL AUTO_INCREMENT,
+  `id` bigint NOT NULL,
+  `version` bigint DEFAULT NULL,
   `user_id` bigint NOT NULL,
   `currency` varchar(10) DEFAULT NULL,
   `title` varchar(100) DEFAULT NULL,
@@ -79,6 +129,28 @@ LOCK TABLES `budgets` WRITE;
 /*!40000 ALTER TABLE `budgets` ENABLE KEYS */;
 UNLOCK TABLES;
 
+--
+-- Table structure for table `budgets_seq`
+--
+
+DROP TABLE IF EXISTS `budgets_seq`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `budgets_seq` (
+  `next_val` bigint DEFAULT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Dumping data for table `budgets_seq`
+--
+
+LOCK TABLES `budgets_seq` WRITE;
+/*!40000 ALTER TABLE `budgets_seq` DISABLE KEYS */;
+INSERT INTO `budgets_seq` VALUES (1);
+/*!40000 ALTER TABLE `budgets_seq` ENABLE KEYS */;
+UNLOCK TABLES;
+
 --
 -- Table structure for table `categories`
 --
@@ -91,6 +163,7 @@ CREATE TABLE `categories` (
   `name` varchar(100) NOT NULL,
   `description` varchar(255) DEFAULT NULL,
   `id` varchar(255) NOT NULL,
+  `version` bigint DEFAULT NULL,
   `parent_id` varchar(255) DEFAULT NULL,
   PRIMARY KEY (`id`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
@@ -116,7 +189,8 @@ CREATE TABLE `transactions` (
   `amount` decimal(21,2) NOT NULL,
   `due` decimal(21,2) DEFAULT NULL,
   `date` datetime(6) NOT NULL,
-  `id` bigint NOT NULL AUTO_INCREMENT,
+  `id` bigint NOT NULL,
+  `version` bigint DEFAULT NULL,
   `user_id` bigint NOT NULL,
   `currency` varchar(10) DEFAULT NULL,
   `city` varchar(100) DEFAULT NULL,
@@ -128,9 +202,10 @@ CREATE TABLE `transactions` (
   `tags` varchar(255) DEFAULT NULL,
   `type` enum('EARNING','EXPENSE') NOT NULL,
   PRIMARY KEY (`id`),
-  KEY `FKntum960pj0pnemu9vkpbygtrs` (`primary_category_id`),
+  KEY `idx_transactions_user_type_date` (`user_id`,`type`,`date`,`primary_category_id`,`amount`),
+  KEY `idx_transactions_user_date` (`user_id`,`date`,`id`),
+  KEY `idx_transactions_category_date` (`primary_category_id`,`date`),
   KEY `FKnlu7uy7jmr3v8vw57mfwy718a` (`secondary_category_id`),
-  KEY `FKqwv7rmvc8va8rep7piikrojds` (`user_id`),
   CONSTRAINT `FKnlu7uy7jmr3v8vw57mfwy718a` FOREIGN KEY (`secondary_category_id`) REFERENCES `categories` (`id`),
   CONSTRAINT `FKntum960pj0pnemu9vkpbygtrs` FOREIGN KEY (`primary_category_id`) REFERENCES `categories` (`id`),
   CONSTRAINT `FKqwv7rmvc8va8rep7piikrojds` FOREIGN KEY (`user_id`) REFERENCES `users` (`id`)
@@ -146,6 +221,55 @@ LOCK TABLES `transactions` WRITE;
 /*!40000 ALTER TABLE `transactions` ENABLE KEYS */;
 UNLOCK TABLES;
 
+--
+-- Table structure for table `transactions_seq`
+--
+
+DROP TABLE IF EXISTS `transactions_seq`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `transactions_seq` (
+  `next_val` bigint DEFAULT NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Dumping data for table `transactions_seq`
+--
+
+LOCK TABLES `transactions_seq` WRITE;
+/*!40000 ALTER TABLE `transactions_seq` DISABLE KEYS */;
+INSERT INTO `transactions_seq` VALUES (1);
+/*!40000 ALTER TABLE `transactions_seq` ENABLE KEYS */;
+UNLOCK TABLES;
+
+--
+-- Table structure for table `transaction_daily_summaries`
+--
+
+DROP TABLE IF EXISTS `transaction_daily_summaries`;
+/*!40101 SET @saved_cs_client     = @@character_set_client */;
+/*!50503 SET character_set_client = utf8mb4 */;
+CREATE TABLE `transaction_daily_summaries` (
+  `amount` decimal(21,2) NOT NULL,
+  `summary_date` date NOT NULL,
+  `transaction_count` bigint NOT NULL,
+  `user_id` bigint NOT NULL,
+  `category_id` varchar(255) NOT NULL,
+  `type` enum('EARNING','EXPENSE') NOT NULL,
+  PRIMARY KEY (`user_id`,`summary_date`,`category_id`,`type`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_0900_ai_ci;
+/*!40101 SET character_set_client = @saved_cs_client */;
+
+--
+-- Dumping data for table `transaction_daily_summaries`
+--
+
+LOCK TABLES `transaction_daily_summaries` WRITE;
+/*!40000 ALTER TABLE `transaction_daily_summaries` DISABLE KEYS */;
+/*!40000 ALTER TABLE `transaction_daily_summaries` ENABLE KEYS */;
+UNLOCK TABLES;
+
 --
 -- Table structure for table `users`
 --
@@ -0,0 +1,51 @@
+#!/usr/bin/env python3
+"""
+Compares two JMH result files written by `./gradlew jmh` (build/results/jmh/<commit>.json).
+
+For every benchmark and parameter combination present in both files, prints the baseline and candidate
+scores and the relative change. A change is flagged when the two confidence intervals do not overlap.
+
+Usage:
+
+    scripts/benchmarks/jmh-compare.py build/results/jmh/<baseline>.json build/results/jmh/<candidate>.json
+"""
+import json
+import sys
+
+
+def load(path):
+    with open(path) as f:
+        results = {}
+        for result in json.load(f):
+            params = ",".join(f"{k}={v}" for k, v in sorted(result.get("params", {}).items()))
+            metric = result["primaryMetric"]
+            low, high = metric["scoreConfidence"]
+            results[(result["benchmark"], params)] = (metric["score"], low, high, metric["scoreUnit"])
+        return results
+
+
+def main():
+    if len(sys.argv) != 3:
+        sys.exit(__doc__)
+    baseline, candidate = load(sys.argv[1]), load(sys.argv[2])
+    rows = []
+    for key in sorted(baseline.keys() & candidate.keys()):
+        base_score, base_low, base_high, unit = baseline[key]
+        score, low, high, _ = candidate[key]
+        change = (score - base_score) / base_score * 100 if base_score else float("nan")
+        significant = high < base_low or low > base_high
+        name = key[0].rsplit(".", 2)[-2] + "." + key[0].rsplit(".", 1)[-1]
+        rows.append((name, key[1], f"{base_score:.3f}", f"{score:.3f}", unit, f"{change:+.1f}%",
+                     "*" if significant else ""))
+    header = ("Benchmark", "Params", "Baseline", "Candidate", "Unit", "Change", "")
+    widths = [max(len(str(row[i])) for row in rows + [header]) for i in range(len(header))]
+    for row in [header] + rows:
+        print("  ".join(str(cell).ljust(width) for cell, width in zip(row, widths)).rstrip())
+    for label, results in (("baseline", baseline), ("candidate", candidate)):
+        missing = sorted(results.keys() - (baseline.keys() & candidate.keys()))
+        for benchmark, params in missing:
+            print(f"only in {label}: {benchmark} {params}")
+
+
+if __name__ == "__main__":
+    main()
@@ -0,0 +1,71 @@
+#!/usr/bin/env bash
+#
+# Measures how long the application takes to serve requests after it is launched.
+#
+# Starts the application jar against an empty database and polls the API root every 50 ms, printing:
+#   - the time until the HTTP port answers at all (503 while the sample data is loaded),
+#   - the time until the first API request succeeds, i.e. the readiness gate has opened.
+# Run it on the jars of two revisions to compare them; every run recreates the schema, as the default
+# application.properties drop and create the tables on startup.
+#
+# Usage:
+#
+#   ./gradlew bootJar
+#   scripts/benchmarks/startup-time.sh build/libs/com.brhn-0.0.1-SNAPSHOT.jar [application arguments]
+#
+# For example, with 1M sample transactions loaded in the background:
+#
+#   scripts/benchmarks/startup-time.sh build/libs/com.brhn-0.0.1-SNAPSHOT.jar \
+#       --xpnsr.seed.enabled=true --xpnsr.seed.transactions-per-user=1000000
+#
+# RUNS (default 3) sets the number of runs, PORT (default 8080) the HTTP port and TIMEOUT (default 600)
+# the seconds to wait for a run.
+#
+set -euo pipefail
+
+JAR=${1:?usage: $0 <jar> [application arguments]}
+shift
+RUNS=${RUNS:-3}
+PORT=${PORT:-8080}
+TIMEOUT=${TIMEOUT:-600}
+URL="http://localhost:${PORT}/api"
+API_KEY=c779c66a194f4ddfbc22a9e2dacb5835
+
+millis() {
+  date +%s%3N
+}
+
+for run in $(seq 1 "$RUNS"); do
+  started=$(millis)
+  java -jar "$JAR" --server.port="$PORT" "$@" > "startup-time-${run}.log" 2>&1 &
+  pid=$!
+  trap 'kill $pid 2>/dev/null' EXIT
+
+  port_open=""
+  ready=""
+  while [ -z "$ready" ]; do
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "run ${run}: the application exited, see startup-time-${run}.log" >&2
+      exit 1
+    fi
+    if [ $(( $(millis) - started )) -gt $(( TIMEOUT * 1000 )) ]; then
+      echo "run ${run}: not ready after ${TIMEOUT} s, see startup-time-${run}.log" >&2
+      kill "$pid"
+      exit 1
+    fi
+    status=$(curl -s -o /dev/null -w '%{http_code}' -H "XPNSR-API-KEY: ${API_KEY}" "$URL" || true)
+    if [ "$status" != "000" ] && [ -z "$port_open" ]; then
+      port_open=$(( $(millis) - started ))
+    fi
+    if [ "$status" = "200" ]; then
+      ready=$(( $(millis) - started ))
+    else
+      sleep 0.05
+    fi
+  done
+
+  echo "run ${run}: port open after ${port_open} ms, first request served after ${ready} ms"
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  trap - EXIT
+done
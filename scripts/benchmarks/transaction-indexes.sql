@@ -0,0 +1,133 @@
+--
+-- Benchmark for the indexes of the `transactions` table.
+--
+-- Seeds 10M transactions into a scratch database and prints the query plan and the measured
+-- latency of the report, listing and per-category access paths, first with the composite
+-- indexes ignored (full table scan) and then with them in use.
+--
+-- Usage (MySQL 8.0.18+ for EXPLAIN ANALYZE):
+--
+--   mysql -u root -p -e "CREATE DATABASE xpnsr_bench"
+--   mysql -u root -p xpnsr_bench < schema.sql
+--   mysql -u root -p xpnsr_bench < scripts/benchmarks/transaction-indexes.sql
+--
+-- Seeding takes several minutes and about 2 GB of disk space.
+--
+
+SET SESSION cte_max_recursion_depth = 10000;
+SET @users = 100;
+SET @days = 3 * 365;
+
+--
+-- Seed users and categories
+--
+
+INSERT INTO `users` (`activated`, `created_date`, `login`, `password_hash`, `email`)
+WITH RECURSIVE seq (n) AS (SELECT 1 UNION ALL SELECT n + 1 FROM seq WHERE n < @users)
+SELECT 1, NOW(6), CONCAT('bench', n), '-', CONCAT('bench', n, '@example.com') FROM seq;
+
+INSERT INTO `categories` (`id`, `name`, `description`, `icon`, `parent_id`)
+WITH RECURSIVE seq (n) AS (SELECT 0 UNION ALL SELECT n + 1 FROM seq WHERE n < 19)
+SELECT CONCAT('bench-', n), CONCAT('Bench ', n), NULL, NULL, NULL FROM seq;
+
+SELECT MIN(`id`) INTO @first_user FROM `users` WHERE `login` LIKE 'bench%';
+
+-- Transaction ids come from the `transactions_seq` table the application allocates them from
+SELECT GREATEST(`next_val`, (SELECT COALESCE(MAX(`id`), 0) + 1 FROM `transactions`))
+INTO @first_transaction FROM `transactions_seq`;
+
+--
+-- Seed 10M transactions: 10 000 rows per batch, 1 000 batches
+--
+
+DROP TABLE IF EXISTS `bench_seq`;
+CREATE TABLE `bench_seq` (`n` int NOT NULL PRIMARY KEY);
+INSERT INTO `bench_seq`
+WITH RECURSIVE seq (n) AS (SELECT 0 UNION ALL SELECT n + 1 FROM seq WHERE n < 9999)
+SELECT n FROM seq;
+
+DROP PROCEDURE IF EXISTS `bench_seed_transactions`;
+DELIMITER //
+CREATE PROCEDURE `bench_seed_transactions`(IN batches int)
+BEGIN
+    DECLARE batch int DEFAULT 0;
+    WHILE batch < batches DO
+        INSERT INTO `transactions` (`id`, `amount`, `date`, `user_id`, `currency`, `title`,
+                                    `primary_category_id`, `secondary_category_id`, `type`)
+        SELECT @first_transaction + batch * 10000 + `n`,
+               ROUND(RAND() * 500, 2),
+               NOW(6) - INTERVAL FLOOR(RAND() * @days * 86400) SECOND,
+               @first_user + FLOOR(RAND() * @users),
+               'EUR',
+               'Benchmark',
+               CONCAT('bench-', FLOOR(RAND() * 20)),
+               CONCAT('bench-', FLOOR(RAND() * 20)),
+               IF(RAND() < 0.8, 'EXPENSE', 'EARNING')
+        FROM `bench_seq`;
+        COMMIT;
+        SET batch = batch + 1;
+    END WHILE;
+END //
+DELIMITER ;
+
+SET autocommit = 0;
+CALL `bench_seed_transactions`(1000);
+SET autocommit = 1;
+DROP PROCEDURE `bench_seed_transactions`;
+DROP TABLE `bench_seq`;
+-- Past the seeded ids, with room for the block of 50 ids the application allocates at once
+UPDATE `transactions_seq` SET `next_val` = (SELECT MAX(`id`) + 51 FROM `transactions`);
+ANALYZE TABLE `transactions`;
+
+SET @from = NOW(6) - INTERVAL 1 MONTH;
+SET @to = NOW(6);
+
+--
+-- Report: per-category sums of one user, type and month
+--
+
+EXPLAIN ANALYZE
+SELECT c.`id`, c.`name`, SUM(t.`amount`)
+FROM `transactions` t IGNORE INDEX (`idx_transactions_user_type_date`, `idx_transactions_user_date`)
+         JOIN `categories` c ON c.`id` = t.`primary_category_id`
+WHERE t.`user_id` = @first_user AND t.`type` = 'EXPENSE' AND t.`date` BETWEEN @from AND @to
+GROUP BY c.`id`, c.`name`;
+
+EXPLAIN ANALYZE
+SELECT c.`id`, c.`name`, SUM(t.`amount`)
+FROM `transactions` t
+         JOIN `categories` c ON c.`id` = t.`primary_category_id`
+WHERE t.`user_id` = @first_user AND t.`type` = 'EXPENSE' AND t.`date` BETWEEN @from AND @to
+GROUP BY c.`id`, c.`name`;
+
+--
+-- Listing: newest page of one user
+--
+
+EXPLAIN ANALYZE
+SELECT t.*
+FROM `transactions` t IGNORE INDEX (`idx_transactions_user_type_date`, `idx_transactions_user_date`)
+WHERE t.`user_id` = @first_user
+ORDER BY t.`date` DESC, t.`id` DESC
+LIMIT 20;
+
+EXPLAIN ANALYZE
+SELECT t.*
+FROM `transactions` t
+WHERE t.`user_id` = @first_user
+ORDER BY t.`date` DESC, t.`id` DESC
+LIMIT 20;
+
+--
+-- Per category: transactions of one category within a month
+--
+
+EXPLAIN ANALYZE
+SELECT COUNT(*), SUM(t.`amount`)
+FROM `transactions` t IGNORE INDEX (`idx_transactions_category_date`)
+WHERE t.`primary_category_id` = 'bench-7' AND t.`date` BETWEEN @from AND @to;
+
+EXPLAIN ANALYZE
+SELECT COUNT(*), SUM(t.`amount`)
+FROM `transactions` t
+WHERE t.`primary_category_id` = 'bench-7' AND t.`date` BETWEEN @from AND @to;
@@ -0,0 +1,68 @@
+#!/usr/bin/env bash
+#
+# Compares the latency of the application served on platform threads and on virtual threads under load.
+#
+# Starts the application jar twice, first with the default Tomcat thread pool and then with the
+# virtual-threads profile, and drives each with CONCURRENCY clients (default 2000) using hey
+# (https://github.com/rakyll/hey). After a warm-up run, it prints the throughput, the p50 and p99 latencies
+# and the status codes of the measured run. Requires Java 21 and a jar built with -PjavaVersion=21.
+#
+# Usage:
+#
+#   ./gradlew bootJar -PjavaVersion=21
+#   scripts/benchmarks/virtual-threads-load.sh build/libs/com.brhn-0.0.1-SNAPSHOT.jar [application arguments]
+#
+# Every start recreates the schema with the default application.properties, so seed the sample data with
+# the application arguments, for example:
+#
+#   scripts/benchmarks/virtual-threads-load.sh build/libs/com.brhn-0.0.1-SNAPSHOT.jar \
+#       --xpnsr.seed.enabled=true --xpnsr.seed.background=false --xpnsr.seed.transactions-per-user=100000
+#
+# PATHS (default a page of transactions and a monthly report) are the space-separated paths requested,
+# DURATION (default 60s) and WARMUP (default 15s) the length of the runs, and PORT (default 8080) the port.
+#
+set -euo pipefail
+
+JAR=${1:?usage: $0 <jar> [application arguments]}
+shift
+CONCURRENCY=${CONCURRENCY:-2000}
+DURATION=${DURATION:-60s}
+WARMUP=${WARMUP:-15s}
+PORT=${PORT:-8080}
+PATHS=${PATHS:-"/api/transactions/?page=0&size=20 /api/reports/monthly-EXPENSE"}
+API_KEY=c779c66a194f4ddfbc22a9e2dacb5835
+
+command -v hey > /dev/null || { echo "hey is required: go install github.com/rakyll/hey@latest" >&2; exit 1; }
+
+run() {
+  local mode=$1
+  shift
+  java -jar "$JAR" --server.port="$PORT" "$@" > "virtual-threads-load-${mode}.log" 2>&1 &
+  local pid=$!
+  trap 'kill $pid 2>/dev/null' EXIT
+
+  until [ "$(curl -s -o /dev/null -w '%{http_code}' -H "XPNSR-API-KEY: ${API_KEY}" "http://localhost:${PORT}/api" || true)" = "200" ]; do
+    kill -0 "$pid" 2>/dev/null || { echo "${mode}: the application exited, see virtual-threads-load-${mode}.log" >&2; exit 1; }
+    sleep 1
+  done
+
+  for path in $PATHS; do
+    local url="http://localhost:${PORT}${path}"
+    hey -z "$WARMUP" -c "$CONCURRENCY" -H "XPNSR-API-KEY: ${API_KEY}" "$url" > /dev/null
+    local report
+    report=$(hey -z "$DURATION" -c "$CONCURRENCY" -H "XPNSR-API-KEY: ${API_KEY}" "$url")
+    local rps p50 p99 codes
+    rps=$(awk '/Requests\/sec/ {print $2}' <<< "$report")
+    p50=$(awk '/ 50% in/ {print $3 * 1000}' <<< "$report")
+    p99=$(awk '/ 99% in/ {print $3 * 1000}' <<< "$report")
+    codes=$(awk '/Status code distribution/ {found = 1; next} found && /\[/ {printf "%s%s", sep, $1 "=" $2; sep = " "}' <<< "$report")
+    printf '%-9s %-45s %10s req/s  p50 %8s ms  p99 %8s ms  %s\n' "$mode" "$path" "$rps" "$p50" "$p99" "$codes"
+  done
+
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  trap - EXIT
+}
+
+run platform "$@"
+run virtual --spring.profiles.active=virtual-threads "$@"
@@ -0,0 +1,104 @@
+package com.brhn.xpnsr.apis;
+
+import com.brhn.xpnsr.models.TransactionType;
+import com.brhn.xpnsr.services.dtos.TransactionDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Pageable;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+/**
+ * Compares building the detail links of a page of transactions with WebMvcLinkBuilder, as the controllers
+ * used to do, against expanding the precomputed LinkTemplates of TransactionApi.
+ * Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LinkBuildingBenchmark {
+
+    @Param({"20", "1000"})
+    private int pageSize;
+
+    private List<TransactionDTO> page;
+    private LinkTemplates<TransactionDTO> detailLinks;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Built before the request is bound, as the controller builds them at startup
+        detailLinks = TransactionApi.detailLinkTemplates();
+
+        page = new ArrayList<>(pageSize);
+        for (long id = 1; id <= pageSize; id++) {
+            TransactionDTO transactionDTO = new TransactionDTO();
+            transactionDTO.setId(id);
+            transactionDTO.setType(TransactionType.EXPENSE);
+            transactionDTO.setAmount(BigDecimal.TEN);
+            transactionDTO.setPrimaryCategoryId("groceries");
+            transactionDTO.setSecondaryCategoryId(id % 2 == 0 ? "dining_out" : null);
+            page.add(transactionDTO);
+        }
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/transactions/");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public List<EntityModel<TransactionDTO>> webMvcLinkBuilder() {
+        List<EntityModel<TransactionDTO>> models = new ArrayList<>(page.size());
+        for (TransactionDTO transactionDTO : page) {
+            EntityModel<TransactionDTO> entityModel = EntityModel.of(transactionDTO);
+            Long transactionId = transactionDTO.getId();
+            entityModel.add(linkTo(methodOn(TransactionApi.class).get(transactionId, null)).withSelfRel().withType("GET"));
+            entityModel.add(linkTo(methodOn(TransactionApi.class).getAll(Pageable.unpaged(), null)).withRel(IanaLinkRelations.COLLECTION).withType("GET"));
+            entityModel.add(linkTo(methodOn(CategoryApi.class).getCategoryById(transactionDTO.getPrimaryCategoryId(), null)).withRel("primaryCategory").withType("GET"));
+            entityModel.add(linkTo(methodOn(CategoryApi.class).getCategoryById(transactionDTO.getSecondaryCategoryId(), null)).withRel("secondaryCategory").withType("GET"));
+            entityModel.add(linkTo(methodOn(TransactionApi.class).update(transactionId, transactionDTO, null)).withRel("edit").withType("PUT"));
+            entityModel.add(linkTo(methodOn(TransactionApi.class).delete(transactionId)).withRel("delete").withType("DELETE"));
+            models.add(entityModel);
+        }
+        return models;
+    }
+
+    @Benchmark
+    public List<EntityModel<TransactionDTO>> linkTemplates() {
+        List<EntityModel<TransactionDTO>> models = new ArrayList<>(page.size());
+        for (TransactionDTO transactionDTO : page) {
+            EntityModel<TransactionDTO> entityModel = EntityModel.of(transactionDTO);
+            detailLinks.addTo(entityModel);
+            models.add(entityModel);
+        }
+        return models;
+    }
+}
@@ -0,0 +1,110 @@
+package com.brhn.xpnsr.apis;
+
+import com.brhn.xpnsr.config.SparseFieldsetAdvice;
+import com.brhn.xpnsr.models.TransactionType;
+import com.brhn.xpnsr.services.dtos.CustomPagedModel;
+import com.brhn.xpnsr.services.dtos.TransactionDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.PagedModel;
+import org.springframework.hateoas.mediatype.MessageResolver;
+import org.springframework.hateoas.mediatype.hal.CurieProvider;
+import org.springframework.hateoas.mediatype.hal.HalConfiguration;
+import org.springframework.hateoas.mediatype.hal.Jackson2HalModule;
+import org.springframework.hateoas.server.core.EvoInflectorLinkRelationProvider;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures writing a page of transactions as HAL JSON, the body of the transaction listing: a
+ * CustomPagedModel of EntityModels carrying their detail links, with the paging links and metadata.
+ * Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PagedModelSerializationBenchmark {
+
+    @Param({"20", "1000"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private CustomPagedModel<TransactionDTO> page;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/transactions/");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        // Configured as the application's mapper: every property passes the sparse fieldset filter
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .filters(new SimpleFilterProvider()
+                        .addFilter(SparseFieldsetAdvice.FILTER_ID, SimpleBeanPropertyFilter.serializeAll()))
+                .build();
+        objectMapper.registerModule(new Jackson2HalModule());
+        objectMapper.setHandlerInstantiator(new Jackson2HalModule.HalHandlerInstantiator(
+                new EvoInflectorLinkRelationProvider(), CurieProvider.NONE, MessageResolver.DEFAULTS_ONLY,
+                new HalConfiguration(), new DefaultListableBeanFactory()));
+
+        LinkTemplates<TransactionDTO> detailLinks = TransactionApi.detailLinkTemplates();
+        List<EntityModel<TransactionDTO>> items = new ArrayList<>(pageSize);
+        for (long id = 1; id <= pageSize; id++) {
+            TransactionDTO transactionDTO = new TransactionDTO();
+            transactionDTO.setId(id);
+            transactionDTO.setVersion(0L);
+            transactionDTO.setDate(Timestamp.valueOf("2024-06-20 12:34:56"));
+            transactionDTO.setType(TransactionType.EXPENSE);
+            transactionDTO.setAmount(BigDecimal.valueOf(id * 100 + 99, 2));
+            transactionDTO.setTitle("Grocery Shopping");
+            transactionDTO.setCurrency("USD");
+            transactionDTO.setPrimaryCategoryId("groceries");
+            transactionDTO.setSecondaryCategoryId(id % 2 == 0 ? "dining_out" : null);
+            EntityModel<TransactionDTO> entityModel = EntityModel.of(transactionDTO);
+            detailLinks.addTo(entityModel);
+            items.add(entityModel);
+        }
+        page = new CustomPagedModel<>(items, new PagedModel.PageMetadata(pageSize, 0, pageSize * 10L));
+        page.addLinks(List.of(
+                Link.of("http://localhost/api/transactions/?page=0&size=" + pageSize).withSelfRel(),
+                Link.of("http://localhost/api/transactions/?page=1&size=" + pageSize).withRel("next")));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public byte[] writeHalJson() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
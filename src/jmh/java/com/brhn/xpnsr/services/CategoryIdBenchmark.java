@@ -0,0 +1,36 @@
+package com.brhn.xpnsr.services;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures deriving the ID of a category from its name, which runs on every category write and for every
+ * category of the sample data, for a short name, a name with punctuation and a long free-form name.
+ * Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CategoryIdBenchmark {
+
+    @Param({"Groceries", "  Dining & Take-Out  ", "Home Improvement, Repairs and Garden Supplies (2024)"})
+    private String name;
+
+    @Benchmark
+    public String generateCategoryId() {
+        return CategoryService.generateCategoryId(name);
+    }
+}
@@ -0,0 +1,147 @@
+package com.brhn.xpnsr.services;
+
+import com.brhn.xpnsr.config.CacheMetrics;
+import com.brhn.xpnsr.config.CacheProperties;
+import com.brhn.xpnsr.models.Category;
+import com.brhn.xpnsr.models.TransactionType;
+import com.brhn.xpnsr.repositories.CategoryAmount;
+import com.brhn.xpnsr.repositories.CategoryRepository;
+import com.brhn.xpnsr.repositories.TransactionDailySummaryRepository;
+import com.brhn.xpnsr.repositories.TransactionRepository;
+import com.brhn.xpnsr.repositories.UserRepository;
+import com.brhn.xpnsr.security.CurrentUserProvider;
+import com.brhn.xpnsr.services.dtos.ReportDTO;
+import com.brhn.xpnsr.services.mappers.CategoryMapper;
+import com.brhn.xpnsr.services.mappers.TransactionMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures TransactionService.getTransactionsReport on synthetic totals held in memory, so only the work done
+ * in the service is timed: resolving the category names from the catalog and building the report rows.
+ * An arbitrary range is aggregated on every call, while a calendar month is served from the report cache.
+ * Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionReportBenchmark {
+
+    private static final LocalDate RANGE_START = LocalDate.of(2024, 1, 5);
+    private static final LocalDate RANGE_END = LocalDate.of(2024, 2, 20);
+    private static final LocalDate MONTH_START = LocalDate.of(2024, 1, 1);
+    private static final LocalDate MONTH_END = LocalDate.of(2024, 1, 31);
+
+    @Param({"20", "500"})
+    private int categories;
+
+    private TransactionService transactionService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Category> catalog = new ArrayList<>(categories);
+        List<CategoryAmount> amounts = new ArrayList<>(categories);
+        for (int i = 0; i < categories; i++) {
+            Category category = new Category();
+            category.setId("category_" + i);
+            category.setName("Category " + i);
+            category.setType(TransactionType.EXPENSE);
+            category.setParentId(i < 10 ? null : "category_" + (i % 10));
+            catalog.add(category);
+            amounts.add(new Amount(category.getId(), category.getName(), BigDecimal.valueOf(i * 100L + 99, 2)));
+        }
+
+        CategoryRepository categoryRepository = stub(CategoryRepository.class, "findAll", catalog);
+        TransactionDailySummaryRepository summaryRepository = stub(TransactionDailySummaryRepository.class,
+                "sumAmountByCategory", amounts);
+        CurrentUserProvider currentUserProvider = new CurrentUserProvider(null) {
+            @Override
+            public Long getUserId() {
+                return 1L;
+            }
+        };
+        transactionService = new TransactionService(stub(TransactionRepository.class, null, null),
+                categoryRepository, new TransactionMapper(), stub(UserRepository.class, null, null),
+                summaryRepository, null, null, null, currentUserProvider,
+                new CategoryCatalog(categoryRepository, new CategoryMapper()),
+                new ReportCache(new CacheProperties(), new CacheMetrics()), null);
+        ReflectionTestUtils.setField(transactionService, "useDailySummaries", true);
+    }
+
+    @Benchmark
+    public List<ReportDTO> aggregateRange() {
+        return transactionService.getTransactionsReport(TransactionType.EXPENSE, RANGE_START, RANGE_END);
+    }
+
+    @Benchmark
+    public List<ReportDTO> cachedMonth() {
+        return transactionService.getTransactionsReport(TransactionType.EXPENSE, MONTH_START, MONTH_END);
+    }
+
+    /**
+     * Creates a repository answering a single query method with a fixed result.
+     *
+     * @param type   The repository interface.
+     * @param method The name of the method answered, or null to answer none.
+     * @param result The result of the method.
+     * @param <T>    The repository type.
+     * @return The stub repository.
+     */
+    private static <T> T stub(Class<T> type, String method, Object result) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, invoked, args) -> {
+            if (invoked.getName().equals(method)) {
+                return result;
+            }
+            if (invoked.getDeclaringClass() == Object.class) {
+                return switch (invoked.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> type.getSimpleName() + " stub";
+                };
+            }
+            throw new UnsupportedOperationException(invoked.getName());
+        }));
+    }
+
+    /**
+     * A synthetic per-category total.
+     */
+    private record Amount(String categoryId, String categoryName, BigDecimal amount) implements CategoryAmount {
+
+        @Override
+        public String getCategoryId() {
+            return categoryId;
+        }
+
+        @Override
+        public String getCategoryName() {
+            return categoryName;
+        }
+
+        @Override
+        public BigDecimal getAmount() {
+            return amount;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.brhn.xpnsr.services.alerts;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures what budget alerting adds to a transaction write: submitting the touched user and category to the
+ * BudgetAlertQueue and offering it after commit, against the same commit without alerting. Writers run on four
+ * threads while a drainer empties the queue as the evaluator would. With one category every write coalesces
+ * into the key already queued; with a thousand most writes queue a new key.
+ * Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class BudgetAlertQueueBenchmark {
+
+    @Param({"1", "1000"})
+    private int categories;
+
+    private BudgetAlertQueue queue;
+    private String[] categoryIds;
+    private Thread drainer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        queue = new BudgetAlertQueue(10_000);
+        categoryIds = new String[categories];
+        for (int i = 0; i < categories; i++) {
+            categoryIds[i] = "category_" + i;
+        }
+        drainer = new Thread(() -> {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    queue.take(Duration.ZERO, 1000);
+                    queue.takeOverflow();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "budget-alerts");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        drainer.interrupt();
+    }
+
+    @Benchmark
+    public void commitWithoutAlerts() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Benchmark
+    public void commitWithAlerts() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            queue.submit(1L, categoryIds[ThreadLocalRandom.current().nextInt(categories)]);
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
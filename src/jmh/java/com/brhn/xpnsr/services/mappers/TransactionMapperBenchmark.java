@@ -0,0 +1,76 @@
+package com.brhn.xpnsr.services.mappers;
+
+import com.brhn.xpnsr.models.Transaction;
+import com.brhn.xpnsr.models.TransactionType;
+import com.brhn.xpnsr.services.dtos.TransactionDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the TransactionMapper on a fully populated transaction: converting a request DTO to an entity,
+ * an entity to a response DTO, and the round trip a create request goes through.
+ * Run with {@code ./gradlew jmh}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionMapperBenchmark {
+
+    private TransactionMapper transactionMapper;
+    private TransactionDTO transactionDTO;
+    private Transaction transaction;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        transactionMapper = new TransactionMapper();
+
+        transactionDTO = new TransactionDTO();
+        transactionDTO.setId(42L);
+        transactionDTO.setDate(Timestamp.valueOf("2024-06-20 12:34:56"));
+        transactionDTO.setType(TransactionType.EXPENSE);
+        transactionDTO.setAmount(new BigDecimal("100.00"));
+        transactionDTO.setDue(BigDecimal.ZERO);
+        transactionDTO.setTitle("Grocery Shopping");
+        transactionDTO.setCurrency("USD");
+        transactionDTO.setCity("Berlin");
+        transactionDTO.setCountry("Germany");
+        transactionDTO.setDescription("Weekly groceries");
+        transactionDTO.setTags("food,weekly");
+        transactionDTO.setPrimaryCategoryId("groceries");
+        transactionDTO.setSecondaryCategoryId("dining_out");
+
+        transaction = transactionMapper.transactionDTOToTransaction(transactionDTO);
+        transaction.setVersion(3L);
+    }
+
+    @Benchmark
+    public Transaction toEntity() {
+        return transactionMapper.transactionDTOToTransaction(transactionDTO);
+    }
+
+    @Benchmark
+    public TransactionDTO toDTO() {
+        return transactionMapper.transactionToTransactionDTO(transaction);
+    }
+
+    @Benchmark
+    public TransactionDTO roundTrip() {
+        return transactionMapper.transactionToTransactionDTO(transactionMapper.transactionDTOToTransaction(transactionDTO));
+    }
+}
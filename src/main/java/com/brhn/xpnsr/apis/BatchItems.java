@@ -0,0 +1,60 @@
+package com.brhn.xpnsr.apis;
+
+import com.brhn.xpnsr.exceptions.BadRequestError;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+
+/**
+ * Reads the items of a batch request body lazily, one item at a time.
+ * Accepts either a JSON array or a stream of newline-delimited JSON documents (NDJSON).
+ */
+final class BatchItems {
+
+    private BatchItems() {
+    }
+
+    /**
+     * Creates an iterator over the items of a batch request body.
+     * Malformed input surfaces as a BadRequestError while iterating.
+     *
+     * @param objectMapper the mapper used to read the items
+     * @param body         the request body
+     * @param itemType     the type of the items
+     * @param <T>          the type of the items
+     * @return an iterator reading the items on demand
+     * @throws BadRequestError if the body cannot be read
+     */
+    static <T> Iterator<T> read(ObjectMapper objectMapper, InputStream body, Class<T> itemType) {
+        MappingIterator<T> items;
+        try {
+            // A root-level array is unwrapped, so arrays and NDJSON are read the same way
+            items = objectMapper.readerFor(itemType).readValues(body);
+        } catch (IOException e) {
+            throw new BadRequestError("Malformed batch: " + e.getMessage());
+        }
+
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                try {
+                    return items.hasNextValue();
+                } catch (IOException e) {
+                    throw new BadRequestError("Malformed batch: " + e.getMessage());
+                }
+            }
+
+            @Override
+            public T next() {
+                try {
+                    return items.nextValue();
+                } catch (IOException e) {
+                    throw new BadRequestError("Malformed batch: " + e.getMessage());
+                }
+            }
+        };
+    }
+}
@@ -1,9 +1,15 @@
 package com.brhn.xpnsr.apis;
 
+import com.brhn.xpnsr.exceptions.BadRequestError;
+import com.brhn.xpnsr.security.CurrentUserProvider;
 import com.brhn.xpnsr.services.BillService;
+import com.brhn.xpnsr.services.dtos.BatchResultDTO;
 import com.brhn.xpnsr.services.dtos.BillDTO;
 import com.brhn.xpnsr.services.dtos.CustomPagedModel;
 import com.brhn.xpnsr.services.dtos.LinksDTO;
+import com.brhn.xpnsr.services.dtos.TimeseriesBucketDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -21,11 +27,18 @@ import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.Objects;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.YearMonth;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
@@ -43,6 +56,9 @@ public class BillApi {
 
     private final BillService billService;
     private final PagedResourcesAssembler<BillDTO> pagedResourcesAssembler;
+    private final LinkTemplates<BillDTO> detailLinks;
+    private final ObjectMapper objectMapper;
+    private final CurrentUserProvider currentUserProvider;
 
 
     /**
@@ -50,11 +66,17 @@ public class BillApi {
      *
      * @param billService             The service used to manage bills.
      * @param pagedResourcesAssembler The assembler used for pagination of BillDTOs.
+     * @param objectMapper            The mapper used to read batch request bodies and write streamed schedules.
+     * @param currentUserProvider     The provider of the user schedules are streamed for.
      */
     @Autowired
-    public BillApi(BillService billService, PagedResourcesAssembler<BillDTO> pagedResourcesAssembler) {
+    public BillApi(BillService billService, PagedResourcesAssembler<BillDTO> pagedResourcesAssembler,
+                   ObjectMapper objectMapper, CurrentUserProvider currentUserProvider) {
         this.billService = billService;
         this.pagedResourcesAssembler = pagedResourcesAssembler;
+        this.detailLinks = detailLinkTemplates();
+        this.objectMapper = objectMapper;
+        this.currentUserProvider = currentUserProvider;
     }
 
     /**
@@ -70,42 +92,92 @@ public class BillApi {
         EntityModel<BillDTO> entityModel = EntityModel.of(billDTO);
         addDetailLinks(entityModel);
 
-        return ResponseEntity.created(entityModel.getRequiredLink(IanaLinkRelations.SELF).toUri()).body(entityModel);
+        return ResponseEntity.created(entityModel.getRequiredLink(IanaLinkRelations.SELF).toUri())
+                .eTag(EntityTags.of(billDTO.getVersion())).body(entityModel);
     }
 
     /**
      * Updates an existing bill by ID.
      *
-     * @param id   The ID of the bill to be updated.
-     * @param bill The BillDTO containing the updated details of the bill.
+     * @param id      The ID of the bill to be updated.
+     * @param bill    The BillDTO containing the updated details of the bill.
+     * @param ifMatch The ETag of the version the client last read, if the update is conditional.
      * @return ResponseEntity containing the updated BillDTO.
      */
     @PutMapping("/{id}")
-    @Operation(summary = "Update an existing bill", description = "Updates details of an existing bill by ID.", requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Updated details of the bill", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BillDTO.class), examples = @ExampleObject(value = "{\"tenure\": 12, \"amount\": 150.00, \"categoryId\": \"groceries\"}"))), responses = {@ApiResponse(responseCode = "200", description = "Bill updated successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BillDTO.class))), @ApiResponse(responseCode = "400", description = "Invalid input data"), @ApiResponse(responseCode = "401", description = "Unauthorized access"), @ApiResponse(responseCode = "404", description = "Bill or category not found"), @ApiResponse(responseCode = "500", description = "Internal server error")})
-    public ResponseEntity<EntityModel<BillDTO>> updateBill(@PathVariable @Parameter(description = "ID of the bill to be updated") Long id, @Valid @RequestBody BillDTO bill) {
-        BillDTO updatedBill = billService.updateBill(id, bill);
+    @Operation(summary = "Update an existing bill", description = "Updates details of an existing bill by ID.", requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Updated details of the bill", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BillDTO.class), examples = @ExampleObject(value = "{\"tenure\": 12, \"amount\": 150.00, \"categoryId\": \"groceries\"}"))), responses = {@ApiResponse(responseCode = "200", description = "Bill updated successfully", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BillDTO.class))), @ApiResponse(responseCode = "400", description = "Invalid input data"), @ApiResponse(responseCode = "401", description = "Unauthorized access"), @ApiResponse(responseCode = "404", description = "Bill or category not found"), @ApiResponse(responseCode = "412", description = "Bill modified since the version in If-Match"), @ApiResponse(responseCode = "500", description = "Internal server error")})
+    public ResponseEntity<EntityModel<BillDTO>> updateBill(@PathVariable @Parameter(description = "ID of the bill to be updated") Long id, @Valid @RequestBody BillDTO bill,
+                                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        BillDTO updatedBill = billService.updateBill(id, bill, EntityTags.expectedVersion(ifMatch));
 
         EntityModel<BillDTO> entityModel = EntityModel.of(updatedBill);
         addDetailLinks(entityModel);
 
-        return ResponseEntity.ok(entityModel);
+        return ResponseEntity.ok().eTag(EntityTags.of(updatedBill.getVersion())).body(entityModel);
+    }
+
+    /**
+     * Creates many bills in one request.
+     *
+     * @param body The request body, a JSON array or NDJSON stream of BillDTOs.
+     * @return ResponseEntity containing the IDs of the created bills and the errors of the rejected ones.
+     * @throws BadRequestError if the body is malformed or the batch is too large.
+     */
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Create bills in batch", description = "Adds many bills in one request. Accepts a JSON array or NDJSON. Invalid items are reported by their index and do not prevent the valid ones from being created.", requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Bills to create", content = {@Content(mediaType = "application/json", examples = @ExampleObject(value = "[{\"tenure\": 12, \"amount\": 100.00, \"categoryId\": \"groceries\"}]")), @Content(mediaType = "application/x-ndjson")}), responses = {@ApiResponse(responseCode = "200", description = "Batch processed", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BatchResultDTO.class))), @ApiResponse(responseCode = "400", description = "Malformed body or batch too large"), @ApiResponse(responseCode = "401", description = "Unauthorized access"), @ApiResponse(responseCode = "500", description = "Internal server error")})
+    public ResponseEntity<EntityModel<BatchResultDTO>> createBills(InputStream body) throws BadRequestError {
+        return batchResult(billService.addAll(BatchItems.read(objectMapper, body, BillDTO.class)));
+    }
+
+    /**
+     * Updates many bills in one request.
+     *
+     * @param body The request body, a JSON array or NDJSON stream of BillDTOs with their IDs.
+     * @return ResponseEntity containing the IDs of the updated bills and the errors of the rejected ones.
+     * @throws BadRequestError if the body is malformed or the batch is too large.
+     */
+    @PutMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Update bills in batch", description = "Updates many bills identified by their IDs in one request. Accepts a JSON array or NDJSON. Missing or invalid items are reported by their index and do not prevent the valid ones from being updated.", requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Bills to update", content = {@Content(mediaType = "application/json", examples = @ExampleObject(value = "[{\"id\": 1, \"tenure\": 12, \"amount\": 150.00, \"categoryId\": \"groceries\"}]")), @Content(mediaType = "application/x-ndjson")}), responses = {@ApiResponse(responseCode = "200", description = "Batch processed", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BatchResultDTO.class))), @ApiResponse(responseCode = "400", description = "Malformed body or batch too large"), @ApiResponse(responseCode = "401", description = "Unauthorized access"), @ApiResponse(responseCode = "500", description = "Internal server error")})
+    public ResponseEntity<EntityModel<BatchResultDTO>> updateBills(InputStream body) throws BadRequestError {
+        return batchResult(billService.updateAll(BatchItems.read(objectMapper, body, BillDTO.class)));
+    }
+
+    /**
+     * Deletes many bills in one request.
+     *
+     * @param body The request body, a JSON array or NDJSON stream of bill IDs.
+     * @return ResponseEntity containing the IDs of the deleted bills and the errors of the missing ones.
+     * @throws BadRequestError if the body is malformed or the batch is too large.
+     */
+    @DeleteMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Delete bills in batch", description = "Deletes many bills by their IDs in one request. Accepts a JSON array or NDJSON. Missing bills are reported by their index and do not prevent the others from being deleted.", requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "IDs of the bills to delete", content = {@Content(mediaType = "application/json", examples = @ExampleObject(value = "[1, 2, 3]")), @Content(mediaType = "application/x-ndjson")}), responses = {@ApiResponse(responseCode = "200", description = "Batch processed", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BatchResultDTO.class))), @ApiResponse(responseCode = "400", description = "Malformed body or batch too large"), @ApiResponse(responseCode = "401", description = "Unauthorized access"), @ApiResponse(responseCode = "500", description = "Internal server error")})
+    public ResponseEntity<EntityModel<BatchResultDTO>> deleteBills(InputStream body) throws BadRequestError {
+        return batchResult(billService.deleteAll(BatchItems.read(objectMapper, body, Long.class)));
     }
 
     /**
      * Retrieves a bill by ID.
      *
-     * @param id The ID of the bill to retrieve.
-     * @return ResponseEntity containing the retrieved BillDTO.
+     * The version of the bill is checked against If-None-Match before the bill is loaded.
+     *
+     * @param id          The ID of the bill to retrieve.
+     * @param ifNoneMatch The ETag of the copy the client holds, if any.
+     * @return ResponseEntity containing the retrieved BillDTO, or no body if the client's copy is current.
      */
     @GetMapping("/{id}")
-    @Operation(summary = "Get a bill by ID", description = "Retrieves a bill's details by its ID.", responses = {@ApiResponse(responseCode = "200", description = "Bill found", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BillDTO.class))), @ApiResponse(responseCode = "401", description = "Unauthorized access"), @ApiResponse(responseCode = "404", description = "Bill not found"), @ApiResponse(responseCode = "500", description = "Internal server error")})
-    public ResponseEntity<EntityModel<BillDTO>> getBillById(@PathVariable Long id) {
+    @Operation(summary = "Get a bill by ID", description = "Retrieves a bill's details by its ID.", responses = {@ApiResponse(responseCode = "200", description = "Bill found", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BillDTO.class))), @ApiResponse(responseCode = "304", description = "Bill not modified since the version in If-None-Match"), @ApiResponse(responseCode = "401", description = "Unauthorized access"), @ApiResponse(responseCode = "404", description = "Bill not found"), @ApiResponse(responseCode = "500", description = "Internal server error")})
+    public ResponseEntity<EntityModel<BillDTO>> getBillById(@PathVariable Long id,
+                                                            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String eTag = EntityTags.of(billService.getVersion(id));
+        if (EntityTags.isNotModified(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
         BillDTO billDTO = billService.getBillById(id);
 
         EntityModel<BillDTO> entityModel = EntityModel.of(billDTO);
         addDetailLinks(entityModel);
 
-        return ResponseEntity.ok(entityModel);
+        return ResponseEntity.ok().eTag(EntityTags.of(billDTO.getVersion())).body(entityModel);
     }
 
     /**
@@ -151,22 +223,87 @@ public class BillApi {
     }
 
     /**
-     * Adds detailed links to the given EntityModel.
+     * Streams the monthly instalments due by the current user's bills over a range of months.
+     * Months are written to the response as a JSON array while they are computed.
      *
-     * @param entityModel The EntityModel to which links are added.
+     * @param from The first month of the schedule (inclusive).
+     * @param to   The last month of the schedule (inclusive).
+     * @return A streamed JSON array of TimeseriesBucketDTO in chronological order.
      */
-    private void addDetailLinks(EntityModel<BillDTO> entityModel) {
-        BillDTO billDTO = entityModel.getContent();
-        Long billId = Objects.requireNonNull(billDTO).getId();
+    @GetMapping("/schedule")
+    @Operation(summary = "Get the schedule of bill instalments", description = "Streams the instalments due by the bills per month and category.", responses = {@ApiResponse(responseCode = "200", description = "Schedule generated", content = @Content(mediaType = "application/json", schema = @Schema(implementation = TimeseriesBucketDTO.class))), @ApiResponse(responseCode = "400", description = "Invalid range of months"), @ApiResponse(responseCode = "401", description = "Unauthorized access"), @ApiResponse(responseCode = "500", description = "Internal server error")})
+    public ResponseEntity<StreamingResponseBody> getBillSchedule(@RequestParam @Parameter(description = "First month of the schedule, e.g. 2024-01") YearMonth from,
+                                                                 @RequestParam @Parameter(description = "Last month of the schedule, e.g. 2024-12") YearMonth to) {
+        billService.validateScheduleRange(from, to); // Before the response is committed
+        Long userId = currentUserProvider.getUserId();
+
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                billService.streamSchedule(userId, from, to, bucket -> {
+                    try {
+                        objectMapper.writeValue(generator, bucket);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
 
-        // IANA Links
-        entityModel.add(linkTo(methodOn(BillApi.class).getBillById(billId)).withSelfRel().withType("GET"));
+    /**
+     * Forecasts the instalments due by the current user's bills over the coming months.
+     *
+     * @param months The number of months of the forecast.
+     * @param from   The first month of the forecast, the current month if not given.
+     * @return ResponseEntity containing the per-category totals of the forecast.
+     */
+    @GetMapping("/forecast")
+    @Operation(summary = "Forecast bill instalments", description = "Sums the instalments due by the bills per category over the coming months.", responses = {@ApiResponse(responseCode = "200", description = "Forecast generated", content = @Content(mediaType = "application/json", schema = @Schema(implementation = TimeseriesBucketDTO.class))), @ApiResponse(responseCode = "400", description = "Invalid number of months"), @ApiResponse(responseCode = "401", description = "Unauthorized access"), @ApiResponse(responseCode = "500", description = "Internal server error")})
+    public ResponseEntity<TimeseriesBucketDTO> getBillForecast(@RequestParam(defaultValue = "12") @Parameter(description = "Number of months to forecast") int months,
+                                                               @RequestParam(required = false) @Parameter(description = "First month of the forecast, e.g. 2024-01") YearMonth from) {
+        return ResponseEntity.ok(billService.forecast(from != null ? from : YearMonth.now(), months));
+    }
+
+    /**
+     * Wraps the result of a batch request with a link to the list of bills.
+     *
+     * @param result The result of the batch.
+     * @return ResponseEntity containing the result.
+     */
+    private ResponseEntity<EntityModel<BatchResultDTO>> batchResult(BatchResultDTO result) {
+        EntityModel<BatchResultDTO> entityModel = EntityModel.of(result);
         entityModel.add(linkTo(methodOn(BillApi.class).getAllBills(Pageable.unpaged())).withRel(IanaLinkRelations.COLLECTION).withType("GET"));
-        entityModel.add(linkTo(methodOn(CategoryApi.class).getCategoryById(billDTO.getCategoryId())).withRel("category").withType("GET"));
 
-        // Control Links
-        entityModel.add(linkTo(methodOn(BillApi.class).updateBill(billId, billDTO)).withRel("edit").withType("PUT"));
-        entityModel.add(linkTo(methodOn(BillApi.class).deleteBill(billId)).withRel("delete").withType("DELETE"));
+        return ResponseEntity.ok(entityModel);
+    }
+
+    /**
+     * Builds the templates of the detail links of a BillDTO.
+     *
+     * @return The LinkTemplates expanded for every BillDTO returned.
+     */
+    static LinkTemplates<BillDTO> detailLinkTemplates() {
+        return LinkTemplates.<BillDTO>builder()
+                // IANA Links
+                .add(linkTo(methodOn(BillApi.class).getBillById(null, null)).withSelfRel().withType("GET"), BillDTO::getId)
+                .add(linkTo(methodOn(BillApi.class).getAllBills(Pageable.unpaged())).withRel(IanaLinkRelations.COLLECTION).withType("GET"))
+                .add(linkTo(methodOn(CategoryApi.class).getCategoryById(null, null)).withRel("category").withType("GET"), BillDTO::getCategoryId)
+                // Control Links
+                .add(linkTo(methodOn(BillApi.class).updateBill(null, null, null)).withRel("edit").withType("PUT"), BillDTO::getId)
+                .add(linkTo(methodOn(BillApi.class).deleteBill(null)).withRel("delete").withType("DELETE"), BillDTO::getId)
+                .build();
+    }
+
+    /**
+     * Adds detailed links to the given EntityModel.
+     *
+     * @param entityModel The EntityModel to which links are added.
+     */
+    private void addDetailLinks(EntityModel<BillDTO> entityModel) {
+        detailLinks.addTo(entityModel);
     }
 
 
@@ -1,10 +1,17 @@
 package com.brhn.xpnsr.apis;
 
+import com.brhn.xpnsr.exceptions.BadRequestError;
 import com.brhn.xpnsr.exceptions.NotFoundError;
+import com.brhn.xpnsr.security.CurrentUserProvider;
 import com.brhn.xpnsr.services.BudgetService;
+import com.brhn.xpnsr.services.BudgetUtilizationService;
+import com.brhn.xpnsr.services.CollectionVersions;
+import com.brhn.xpnsr.services.dtos.BatchResultDTO;
 import com.brhn.xpnsr.services.dtos.BudgetDTO;
+import com.brhn.xpnsr.services.dtos.BudgetUtilizationDTO;
 import com.brhn.xpnsr.services.dtos.CustomPagedModel;
 import com.brhn.xpnsr.services.dtos.LinksDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -18,15 +25,20 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.hateoas.Link;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.Objects;
+import java.io.InputStream;
+import java.util.List;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
@@ -44,17 +56,33 @@ public class BudgetApi {
 
     private final BudgetService budgetService;
     private final PagedResourcesAssembler<BudgetDTO> pagedResourcesAssembler;
+    private final CollectionVersions collectionVersions;
+    private final CurrentUserProvider currentUserProvider;
+    private final BudgetUtilizationService budgetUtilizationService;
+    private final LinkTemplates<BudgetDTO> detailLinks;
+    private final ObjectMapper objectMapper;
 
     /**
      * Constructor for BudgetApi.
      *
      * @param budgetService           The service used to manage budgets.
      * @param pagedResourcesAssembler The assembler used for pagination of BudgetDTOs.
+     * @param collectionVersions      The modification counters the ETag of the listing is derived from.
+     * @param currentUserProvider     The provider of the user the ETag of the listing is scoped to.
+     * @param budgetUtilizationService The service reporting how much of the budgets is spent.
+     * @param objectMapper            The mapper used to read batch request bodies.
      */
     @Autowired
-    public BudgetApi(BudgetService budgetService, PagedResourcesAssembler<BudgetDTO> pagedResourcesAssembler) {
+    public BudgetApi(BudgetService budgetService, PagedResourcesAssembler<BudgetDTO> pagedResourcesAssembler,
+                     CollectionVersions collectionVersions, CurrentUserProvider currentUserProvider,
+                     BudgetUtilizationService budgetUtilizationService, ObjectMapper objectMapper) {
         this.budgetService = budgetService;
         this.pagedResourcesAssembler = pagedResourcesAssembler;
+        this.collectionVersions = collectionVersions;
+        this.currentUserProvider = currentUserProvider;
+        this.budgetUtilizationService = budgetUtilizationService;
+        this.detailLinks = detailLinkTemplates();
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -86,7 +114,8 @@ public class BudgetApi {
         EntityModel<BudgetDTO> entityModel = EntityModel.of(createdBudget);
         addDetailLinks(entityModel);
 
-        return ResponseEntity.created(entityModel.getRequiredLink(IanaLinkRelations.SELF).toUri()).body(entityModel);
+        return ResponseEntity.created(entityModel.getRequiredLink(IanaLinkRelations.SELF).toUri())
+                .eTag(EntityTags.of(createdBudget.getVersion())).body(entityModel);
     }
 
     /**
@@ -94,6 +123,7 @@ public class BudgetApi {
      *
      * @param id        The ID of the budget to be updated.
      * @param budgetDTO The BudgetDTO containing the updated details of the budget.
+     * @param ifMatch   The ETag of the version the client last read, if the update is conditional.
      * @return ResponseEntity containing the updated BudgetDTO.
      */
     @PutMapping("/{id}")
@@ -112,22 +142,113 @@ public class BudgetApi {
                     @ApiResponse(responseCode = "400", description = "Invalid input data"),
                     @ApiResponse(responseCode = "401", description = "Unauthorized access"),
                     @ApiResponse(responseCode = "404", description = "Budget or category or user not found"),
+                    @ApiResponse(responseCode = "412", description = "Budget modified since the version in If-Match"),
                     @ApiResponse(responseCode = "500", description = "Internal server error")
             })
     public ResponseEntity<EntityModel<BudgetDTO>> updateBudget(@PathVariable @Parameter(description = "ID of the budget to be updated") Long id,
-                                                               @Valid @RequestBody BudgetDTO budgetDTO) {
-        BudgetDTO updatedBudget = budgetService.update(id, budgetDTO);
+                                                               @Valid @RequestBody BudgetDTO budgetDTO,
+                                                               @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        BudgetDTO updatedBudget = budgetService.update(id, budgetDTO, EntityTags.expectedVersion(ifMatch));
         EntityModel<BudgetDTO> entityModel = EntityModel.of(updatedBudget);
         addDetailLinks(entityModel);
 
-        return ResponseEntity.ok(entityModel);
+        return ResponseEntity.ok().eTag(EntityTags.of(updatedBudget.getVersion())).body(entityModel);
+    }
+
+    /**
+     * Creates many budgets in one request.
+     *
+     * @param body The request body, a JSON array or NDJSON stream of BudgetDTOs.
+     * @return ResponseEntity containing the IDs of the created budgets and the errors of the rejected ones.
+     * @throws BadRequestError if the body is malformed or the batch is too large.
+     */
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Create budgets in batch", description = "Adds many budgets in one request. Accepts a JSON array or NDJSON. Invalid items are reported by their index and do not prevent the valid ones from being created.",
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Budgets to create",
+                    content = {
+                            @Content(mediaType = "application/json",
+                                    examples = @ExampleObject(value = "[{\"title\": \"Monthly Groceries\", \"amount\": 500.00, \"currency\": \"USD\", \"categoryId\": \"groceries\", \"userId\": 1}]")),
+                            @Content(mediaType = "application/x-ndjson")
+                    }
+            ),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Batch processed",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = BatchResultDTO.class))),
+                    @ApiResponse(responseCode = "400", description = "Malformed body or batch too large"),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized access"),
+                    @ApiResponse(responseCode = "500", description = "Internal server error")
+            })
+    public ResponseEntity<EntityModel<BatchResultDTO>> createBudgets(InputStream body) throws BadRequestError {
+        return batchResult(budgetService.addAll(BatchItems.read(objectMapper, body, BudgetDTO.class)));
+    }
+
+    /**
+     * Updates many budgets in one request.
+     *
+     * @param body The request body, a JSON array or NDJSON stream of BudgetDTOs with their IDs.
+     * @return ResponseEntity containing the IDs of the updated budgets and the errors of the rejected ones.
+     * @throws BadRequestError if the body is malformed or the batch is too large.
+     */
+    @PutMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Update budgets in batch", description = "Updates many budgets identified by their IDs in one request. Accepts a JSON array or NDJSON. Missing or invalid items are reported by their index and do not prevent the valid ones from being updated.",
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Budgets to update",
+                    content = {
+                            @Content(mediaType = "application/json",
+                                    examples = @ExampleObject(value = "[{\"id\": 1, \"title\": \"Monthly Groceries\", \"amount\": 600.00, \"currency\": \"USD\", \"categoryId\": \"groceries\", \"userId\": 1}]")),
+                            @Content(mediaType = "application/x-ndjson")
+                    }
+            ),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Batch processed",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = BatchResultDTO.class))),
+                    @ApiResponse(responseCode = "400", description = "Malformed body or batch too large"),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized access"),
+                    @ApiResponse(responseCode = "500", description = "Internal server error")
+            })
+    public ResponseEntity<EntityModel<BatchResultDTO>> updateBudgets(InputStream body) throws BadRequestError {
+        return batchResult(budgetService.updateAll(BatchItems.read(objectMapper, body, BudgetDTO.class)));
+    }
+
+    /**
+     * Deletes many budgets in one request.
+     *
+     * @param body The request body, a JSON array or NDJSON stream of budget IDs.
+     * @return ResponseEntity containing the IDs of the deleted budgets and the errors of the missing ones.
+     * @throws BadRequestError if the body is malformed or the batch is too large.
+     */
+    @DeleteMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Delete budgets in batch", description = "Deletes many budgets by their IDs in one request. Accepts a JSON array or NDJSON. Missing budgets are reported by their index and do not prevent the others from being deleted.",
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "IDs of the budgets to delete",
+                    content = {
+                            @Content(mediaType = "application/json", examples = @ExampleObject(value = "[1, 2, 3]")),
+                            @Content(mediaType = "application/x-ndjson")
+                    }
+            ),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Batch processed",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = BatchResultDTO.class))),
+                    @ApiResponse(responseCode = "400", description = "Malformed body or batch too large"),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized access"),
+                    @ApiResponse(responseCode = "500", description = "Internal server error")
+            })
+    public ResponseEntity<EntityModel<BatchResultDTO>> deleteBudgets(InputStream body) throws BadRequestError {
+        return batchResult(budgetService.deleteAll(BatchItems.read(objectMapper, body, Long.class)));
     }
 
     /**
      * Retrieves a budget by ID.
      *
-     * @param id The ID of the budget to retrieve.
-     * @return ResponseEntity containing the retrieved BudgetDTO.
+     * The version of the budget is checked against If-None-Match before the budget is loaded.
+     *
+     * @param id          The ID of the budget to retrieve.
+     * @param ifNoneMatch The ETag of the copy the client holds, if any.
+     * @return ResponseEntity containing the retrieved BudgetDTO, or no body if the client's copy is current.
      */
     @GetMapping("/{id}")
     @Operation(summary = "Get a budget by ID", description = "Retrieves a budget's details by its ID.",
@@ -135,23 +256,33 @@ public class BudgetApi {
                     @ApiResponse(responseCode = "200", description = "Budget found",
                             content = @Content(mediaType = "application/json",
                                     schema = @Schema(implementation = BudgetDTO.class))),
+                    @ApiResponse(responseCode = "304", description = "Budget not modified since the version in If-None-Match"),
                     @ApiResponse(responseCode = "401", description = "Unauthorized access"),
                     @ApiResponse(responseCode = "404", description = "Budget not found"),
                     @ApiResponse(responseCode = "500", description = "Internal server error")
             })
-    public ResponseEntity<EntityModel<BudgetDTO>> getBudgetById(@PathVariable Long id) {
+    public ResponseEntity<EntityModel<BudgetDTO>> getBudgetById(@PathVariable Long id,
+                                                                @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String eTag = EntityTags.of(budgetService.getVersion(id));
+        if (EntityTags.isNotModified(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
         BudgetDTO budgetDTO = budgetService.getBudgetById(id);
         EntityModel<BudgetDTO> entityModel = EntityModel.of(budgetDTO);
         addDetailLinks(entityModel);
 
-        return ResponseEntity.ok(entityModel);
+        return ResponseEntity.ok().eTag(EntityTags.of(budgetDTO.getVersion())).body(entityModel);
     }
 
     /**
      * Retrieves a paginated list of all budgets.
      *
-     * @param pageable The pagination information.
-     * @return ResponseEntity containing a paginated list of BudgetDTOs.
+     * The listing is tagged with the modification counter of the budgets, so it is checked against
+     * If-None-Match before any budget is loaded.
+     *
+     * @param pageable    The pagination information.
+     * @param ifNoneMatch The ETag of the copy the client holds, if any.
+     * @return ResponseEntity containing a paginated list of BudgetDTOs, or no body if the client's copy is current.
      */
     @GetMapping("/")
     @Operation(summary = "List all budgets", description = "Retrieves a paginated list of all budgets.",
@@ -159,11 +290,18 @@ public class BudgetApi {
                     @ApiResponse(responseCode = "200", description = "Budgets retrieved",
                             content = @Content(mediaType = "application/json",
                                     schema = @Schema(implementation = CustomPagedModel.class))),
+                    @ApiResponse(responseCode = "304", description = "Budgets not modified since the version in If-None-Match"),
                     @ApiResponse(responseCode = "400", description = "Invalid pagination parameters"),
                     @ApiResponse(responseCode = "401", description = "Unauthorized access"),
                     @ApiResponse(responseCode = "500", description = "Internal server error")
             })
-    public ResponseEntity<CustomPagedModel<BudgetDTO>> getAllBudgets(@ParameterObject Pageable pageable) {
+    public ResponseEntity<CustomPagedModel<BudgetDTO>> getAllBudgets(@ParameterObject Pageable pageable,
+                                                                     @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String eTag = EntityTags.of(collectionVersions.stamp(CollectionVersions.BUDGETS),
+                currentUserProvider.getUserId(), EntityTags.pageOf(pageable));
+        if (EntityTags.isNotModified(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
         Page<BudgetDTO> budgetsPage = budgetService.getAllBudgets(pageable);
         PagedModel<EntityModel<BudgetDTO>> pagedModel = pagedResourcesAssembler.toModel(budgetsPage, budgetDTO -> {
             EntityModel<BudgetDTO> entityModel = EntityModel.of(budgetDTO);
@@ -178,7 +316,50 @@ public class BudgetApi {
         Link addBudgetLink = linkTo(methodOn(BudgetApi.class).createBudget(null)).withRel("add").withType("POST");
         customPagedModel.add(addBudgetLink);
 
-        return ResponseEntity.ok(customPagedModel);
+        return ResponseEntity.ok().eTag(eTag).body(customPagedModel);
+    }
+
+    /**
+     * Retrieves how much of a budget has been spent.
+     *
+     * @param id The ID of the budget.
+     * @return ResponseEntity containing the BudgetUtilizationDTO of the budget.
+     * @throws NotFoundError if the budget is not found.
+     */
+    @GetMapping("/{id}/utilization")
+    @Operation(summary = "Get the utilization of a budget", description = "Retrieves the amount spent against a budget, the amount remaining and the percentage used. The amount spent is the sum of the expenses of the budget's category.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Utilization retrieved",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = BudgetUtilizationDTO.class))),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized access"),
+                    @ApiResponse(responseCode = "404", description = "Budget not found"),
+                    @ApiResponse(responseCode = "500", description = "Internal server error")
+            })
+    public ResponseEntity<EntityModel<BudgetUtilizationDTO>> getBudgetUtilization(@PathVariable @Parameter(description = "ID of the budget") Long id) throws NotFoundError {
+        return ResponseEntity.ok(toUtilizationModel(budgetUtilizationService.get(id)));
+    }
+
+    /**
+     * Retrieves how much of every budget of the current user has been spent.
+     *
+     * @return ResponseEntity containing the BudgetUtilizationDTOs of the budgets, ordered by budget ID.
+     */
+    @GetMapping("/utilization")
+    @Operation(summary = "Get the utilization of all budgets", description = "Retrieves the amount spent, the amount remaining and the percentage used of every budget of the current user.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Utilizations retrieved"),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized access"),
+                    @ApiResponse(responseCode = "500", description = "Internal server error")
+            })
+    public ResponseEntity<CollectionModel<EntityModel<BudgetUtilizationDTO>>> getAllBudgetUtilizations() {
+        List<EntityModel<BudgetUtilizationDTO>> utilizations = budgetUtilizationService.getAll().stream()
+                .map(this::toUtilizationModel)
+                .toList();
+        CollectionModel<EntityModel<BudgetUtilizationDTO>> collectionModel = CollectionModel.of(utilizations);
+        collectionModel.add(linkTo(methodOn(BudgetApi.class).getAllBudgetUtilizations()).withSelfRel().withType("GET"));
+
+        return ResponseEntity.ok(collectionModel);
     }
 
     /**
@@ -200,27 +381,62 @@ public class BudgetApi {
         budgetService.delete(id);
 
         LinksDTO linksDTO = new LinksDTO();
-        linksDTO.add(linkTo(methodOn(BudgetApi.class).getAllBudgets(Pageable.unpaged())).withRel(IanaLinkRelations.COLLECTION).withType("GET"));
+        linksDTO.add(linkTo(methodOn(BudgetApi.class).getAllBudgets(Pageable.unpaged(), null)).withRel(IanaLinkRelations.COLLECTION).withType("GET"));
 
         return ResponseEntity.ok(linksDTO);
     }
 
+    /**
+     * Wraps the result of a batch request with a link to the list of budgets.
+     *
+     * @param result The result of the batch.
+     * @return ResponseEntity containing the result.
+     */
+    private ResponseEntity<EntityModel<BatchResultDTO>> batchResult(BatchResultDTO result) {
+        EntityModel<BatchResultDTO> entityModel = EntityModel.of(result);
+        entityModel.add(linkTo(methodOn(BudgetApi.class).getAllBudgets(Pageable.unpaged(), null)).withRel(IanaLinkRelations.COLLECTION).withType("GET"));
+
+        return ResponseEntity.ok(entityModel);
+    }
+
+    /**
+     * Builds the templates of the detail links of a BudgetDTO.
+     *
+     * @return The LinkTemplates expanded for every BudgetDTO returned.
+     */
+    static LinkTemplates<BudgetDTO> detailLinkTemplates() {
+        return LinkTemplates.<BudgetDTO>builder()
+                // IANA Links
+                .add(linkTo(methodOn(BudgetApi.class).getBudgetById(null, null)).withSelfRel().withType("GET"), BudgetDTO::getId)
+                .add(linkTo(methodOn(BudgetApi.class).getAllBudgets(Pageable.unpaged(), null)).withRel(IanaLinkRelations.COLLECTION).withType("GET"))
+                .add(linkTo(methodOn(CategoryApi.class).getCategoryById(null, null)).withRel("category").withType("GET"), BudgetDTO::getCategoryId)
+                .add(linkTo(methodOn(BudgetApi.class).getBudgetUtilization(null)).withRel("utilization").withType("GET"), BudgetDTO::getId)
+                // Control Links
+                .add(linkTo(methodOn(BudgetApi.class).updateBudget(null, null, null)).withRel("edit").withType("PUT"), BudgetDTO::getId)
+                .add(linkTo(methodOn(BudgetApi.class).deleteBudget(null)).withRel("delete").withType("DELETE"), BudgetDTO::getId)
+                .build();
+    }
+
+    /**
+     * Wraps the utilization of a budget in an EntityModel with its links.
+     *
+     * @param utilization The BudgetUtilizationDTO.
+     * @return The EntityModel of the BudgetUtilizationDTO.
+     */
+    private EntityModel<BudgetUtilizationDTO> toUtilizationModel(BudgetUtilizationDTO utilization) {
+        EntityModel<BudgetUtilizationDTO> entityModel = EntityModel.of(utilization);
+        entityModel.add(linkTo(methodOn(BudgetApi.class).getBudgetUtilization(utilization.getBudgetId())).withSelfRel().withType("GET"));
+        entityModel.add(linkTo(methodOn(BudgetApi.class).getBudgetById(utilization.getBudgetId(), null)).withRel("budget").withType("GET"));
+        entityModel.add(linkTo(methodOn(BudgetApi.class).getAllBudgetUtilizations()).withRel(IanaLinkRelations.COLLECTION).withType("GET"));
+        return entityModel;
+    }
+
     /**
      * Adds detailed links to the given EntityModel.
      *
      * @param entityModel The EntityModel to which links are added.
      */
     private void addDetailLinks(EntityModel<BudgetDTO> entityModel) {
-        BudgetDTO budgetDTO = entityModel.getContent();
-        Long budgetId = Objects.requireNonNull(budgetDTO).getId();
-
-        // IANA Links
-        entityModel.add(linkTo(methodOn(BudgetApi.class).getBudgetById(budgetId)).withSelfRel().withType("GET"));
-        entityModel.add(linkTo(methodOn(BudgetApi.class).getAllBudgets(Pageable.unpaged())).withRel(IanaLinkRelations.COLLECTION).withType("GET"));
-        entityModel.add(linkTo(methodOn(CategoryApi.class).getCategoryById(budgetDTO.getCategoryId())).withRel("category").withType("GET"));
-
-        // Control Links
-        entityModel.add(linkTo(methodOn(BudgetApi.class).updateBudget(budgetId, budgetDTO)).withRel("edit").withType("PUT"));
-        entityModel.add(linkTo(methodOn(BudgetApi.class).deleteBudget(budgetId)).withRel("delete").withType("DELETE"));
+        detailLinks.addTo(entityModel);
     }
 }
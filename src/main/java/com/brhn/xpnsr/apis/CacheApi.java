@@ -0,0 +1,136 @@
+package com.brhn.xpnsr.apis;
+
+import com.brhn.xpnsr.config.CacheMetrics;
+import com.brhn.xpnsr.config.LoadLatencyStatsCounter;
+import com.brhn.xpnsr.exceptions.NotFoundError;
+import com.brhn.xpnsr.services.dtos.CacheStatsDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.hateoas.CollectionModel;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+/**
+ * REST controller exposing the statistics of the in-memory caches of the XPNSR application.
+ */
+@RestController
+@Tag(name = "Cache API", description = "APIs for monitoring the caches of XPNSR")
+@RequestMapping("/api/admin/caches")
+public class CacheApi {
+
+    private final CacheMetrics cacheMetrics;
+
+    /**
+     * Constructs a new CacheApi instance with the specified cache registry.
+     *
+     * @param cacheMetrics the registry of the caches and of their statistics
+     */
+    @Autowired
+    public CacheApi(CacheMetrics cacheMetrics) {
+        this.cacheMetrics = cacheMetrics;
+    }
+
+    /**
+     * Retrieves the statistics of all caches.
+     *
+     * @return ResponseEntity containing the CacheStatsDTOs of the caches, in alphabetical order
+     */
+    @GetMapping("/")
+    @Operation(summary = "Get the statistics of all caches", description = "Retrieves the hit ratio, eviction counts and load latency percentiles of every cache since startup. Caches created on demand are listed once they are first used.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Statistics retrieved"),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized access"),
+                    @ApiResponse(responseCode = "500", description = "Internal server error")
+            })
+    public ResponseEntity<CollectionModel<EntityModel<CacheStatsDTO>>> getAll() {
+        List<EntityModel<CacheStatsDTO>> caches = cacheMetrics.getNames().stream()
+                .map(name -> toEntityModel(name, cacheMetrics.getCache(name)))
+                .toList();
+        CollectionModel<EntityModel<CacheStatsDTO>> collectionModel = CollectionModel.of(caches);
+        collectionModel.add(linkTo(methodOn(CacheApi.class).getAll()).withSelfRel().withType("GET"));
+
+        return ResponseEntity.ok(collectionModel);
+    }
+
+    /**
+     * Retrieves the statistics of a cache.
+     *
+     * @param name the name of the cache
+     * @return ResponseEntity containing the CacheStatsDTO of the cache
+     */
+    @GetMapping("/{name}")
+    @Operation(summary = "Get the statistics of a cache", description = "Retrieves the hit ratio, eviction counts and load latency percentiles of a cache since startup.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Statistics retrieved",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = CacheStatsDTO.class))),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized access"),
+                    @ApiResponse(responseCode = "404", description = "Cache not found"),
+                    @ApiResponse(responseCode = "500", description = "Internal server error")
+            })
+    public ResponseEntity<EntityModel<CacheStatsDTO>> get(@PathVariable String name) {
+        Cache<?, ?> cache = cacheMetrics.getCache(name);
+        if (cache == null) {
+            throw new NotFoundError("Cache not found with name " + name);
+        }
+        return ResponseEntity.ok(toEntityModel(name, cache));
+    }
+
+    /**
+     * Wraps the statistics of a cache in an EntityModel with its links.
+     *
+     * @param name  the name of the cache
+     * @param cache the cache
+     * @return the EntityModel of the CacheStatsDTO
+     */
+    private EntityModel<CacheStatsDTO> toEntityModel(String name, Cache<?, ?> cache) {
+        CacheStatsDTO cacheStatsDTO = toCacheStatsDTO(name, cache.stats(), cache.estimatedSize(),
+                cacheMetrics.statsCounter(name));
+        EntityModel<CacheStatsDTO> entityModel = EntityModel.of(cacheStatsDTO);
+        entityModel.add(linkTo(methodOn(CacheApi.class).get(name)).withSelfRel().withType("GET"));
+        entityModel.add(linkTo(methodOn(CacheApi.class).getAll()).withRel("caches").withType("GET"));
+        return entityModel;
+    }
+
+    /**
+     * Converts Caffeine statistics to a CacheStatsDTO.
+     *
+     * @param name          the name of the cache
+     * @param stats         the statistics of the cache
+     * @param estimatedSize the approximate number of entries in the cache
+     * @param statsCounter  the counter holding the load latency histogram of the cache
+     * @return the CacheStatsDTO
+     */
+    private static CacheStatsDTO toCacheStatsDTO(String name, CacheStats stats, long estimatedSize,
+                                                 LoadLatencyStatsCounter statsCounter) {
+        CacheStatsDTO cacheStatsDTO = new CacheStatsDTO();
+        cacheStatsDTO.setName(name);
+        cacheStatsDTO.setEstimatedSize(estimatedSize);
+        cacheStatsDTO.setHitCount(stats.hitCount());
+        cacheStatsDTO.setMissCount(stats.missCount());
+        cacheStatsDTO.setHitRate(stats.hitRate());
+        cacheStatsDTO.setLoadSuccessCount(stats.loadSuccessCount());
+        cacheStatsDTO.setLoadFailureCount(stats.loadFailureCount());
+        cacheStatsDTO.setAverageLoadPenaltyMillis(stats.averageLoadPenalty() / 1_000_000d);
+        cacheStatsDTO.setEvictionCount(stats.evictionCount());
+        cacheStatsDTO.setLoadLatencyP50Millis(statsCounter.loadLatencyPercentileMillis(0.50));
+        cacheStatsDTO.setLoadLatencyP95Millis(statsCounter.loadLatencyPercentileMillis(0.95));
+        cacheStatsDTO.setLoadLatencyP99Millis(statsCounter.loadLatencyPercentileMillis(0.99));
+        return cacheStatsDTO;
+    }
+}
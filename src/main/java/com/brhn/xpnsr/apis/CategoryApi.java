@@ -23,11 +23,12 @@ import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.Objects;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
@@ -45,6 +46,7 @@ public class CategoryApi {
 
     private final CategoryService categoryService;
     private final PagedResourcesAssembler<CategoryDTO> pagedResourcesAssembler;
+    private final LinkTemplates<CategoryDTO> detailLinks;
 
     /**
      * Constructs a new CategoryApi instance with the specified CategoryService.
@@ -56,6 +58,7 @@ public class CategoryApi {
     public CategoryApi(CategoryService categoryService, PagedResourcesAssembler<CategoryDTO> pagedResourcesAssembler) {
         this.categoryService = categoryService;
         this.pagedResourcesAssembler = pagedResourcesAssembler;
+        this.detailLinks = detailLinkTemplates();
     }
 
     /**
@@ -80,6 +83,7 @@ public class CategoryApi {
                                     schema = @Schema(implementation = CategoryDTO.class))),
                     @ApiResponse(responseCode = "400", description = "Invalid input data"),
                     @ApiResponse(responseCode = "401", description = "Unauthorized access"),
+                    @ApiResponse(responseCode = "409", description = "Category already exists"),
                     @ApiResponse(responseCode = "500", description = "Internal server error")
             })
     public ResponseEntity<EntityModel<CategoryDTO>> add(@Valid @RequestBody CategoryDTO c) throws BadRequestError {
@@ -87,14 +91,16 @@ public class CategoryApi {
         EntityModel<CategoryDTO> entityModel = EntityModel.of(category);
         addDetailLinks(entityModel);
 
-        return ResponseEntity.created(entityModel.getRequiredLink(IanaLinkRelations.SELF).toUri()).body(entityModel);
+        return ResponseEntity.created(entityModel.getRequiredLink(IanaLinkRelations.SELF).toUri())
+                .eTag(EntityTags.of(category.getVersion())).body(entityModel);
     }
 
     /**
      * Updates an existing category.
      *
-     * @param id the ID of the category to be updated
-     * @param c  the category data transfer object containing updated category details
+     * @param id      the ID of the category to be updated
+     * @param c       the category data transfer object containing updated category details
+     * @param ifMatch the ETag of the version the client last read, if the update is conditional
      * @return the updated category as an entity model wrapped in a response entity
      * @throws NotFoundError   if the category with the given ID is not found
      * @throws BadRequestError if the request is invalid
@@ -115,22 +121,27 @@ public class CategoryApi {
                     @ApiResponse(responseCode = "400", description = "Invalid input data"),
                     @ApiResponse(responseCode = "401", description = "Unauthorized access"),
                     @ApiResponse(responseCode = "404", description = "Category not found"),
+                    @ApiResponse(responseCode = "412", description = "Category modified since the version in If-Match"),
                     @ApiResponse(responseCode = "500", description = "Internal server error")
             })
     public ResponseEntity<EntityModel<CategoryDTO>> update(@PathVariable @Parameter(description = "ID of the category to be updated") String id,
-                                                           @Valid @RequestBody CategoryDTO c) throws NotFoundError, BadRequestError {
-        CategoryDTO categoryDTO = categoryService.update(id, c);
+                                                           @Valid @RequestBody CategoryDTO c,
+                                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) throws NotFoundError, BadRequestError {
+        CategoryDTO categoryDTO = categoryService.update(id, c, EntityTags.expectedVersion(ifMatch));
         EntityModel<CategoryDTO> entityModel = EntityModel.of(categoryDTO);
         addDetailLinks(entityModel);
 
-        return ResponseEntity.ok(entityModel);
+        return ResponseEntity.ok().eTag(EntityTags.of(categoryDTO.getVersion())).body(entityModel);
     }
 
     /**
      * Retrieves a category's details by its ID.
      *
-     * @param id the ID of the category to retrieve
-     * @return the retrieved category as an entity model wrapped in a response entity
+     * The version of the category is read from the in-memory catalog and checked against If-None-Match first.
+     *
+     * @param id          the ID of the category to retrieve
+     * @param ifNoneMatch the ETag of the copy the client holds, if any
+     * @return the retrieved category as an entity model wrapped in a response entity, or no body if the client's copy is current
      * @throws NotFoundError if the category with the given ID is not found
      */
     @GetMapping("/{id}")
@@ -139,16 +150,22 @@ public class CategoryApi {
                     @ApiResponse(responseCode = "200", description = "Category found",
                             content = @Content(mediaType = "application/json",
                                     schema = @Schema(implementation = CategoryDTO.class))),
+                    @ApiResponse(responseCode = "304", description = "Category not modified since the version in If-None-Match"),
                     @ApiResponse(responseCode = "401", description = "Unauthorized access"),
                     @ApiResponse(responseCode = "404", description = "Category not found"),
                     @ApiResponse(responseCode = "500", description = "Internal server error")
             })
-    public ResponseEntity<EntityModel<CategoryDTO>> getCategoryById(@PathVariable String id) throws NotFoundError {
+    public ResponseEntity<EntityModel<CategoryDTO>> getCategoryById(@PathVariable String id,
+                                                                    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) throws NotFoundError {
+        String eTag = EntityTags.of(categoryService.getVersion(id));
+        if (EntityTags.isNotModified(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
         CategoryDTO categoryDTO = categoryService.getCategoryById(id);
         EntityModel<CategoryDTO> entityModel = EntityModel.of(categoryDTO);
         addDetailLinks(entityModel);
 
-        return ResponseEntity.ok(entityModel);
+        return ResponseEntity.ok().eTag(EntityTags.of(categoryDTO.getVersion())).body(entityModel);
     }
 
     /**
@@ -209,23 +226,29 @@ public class CategoryApi {
         return ResponseEntity.ok(linksDTO);
     }
 
+    /**
+     * Builds the templates of the detail links of a CategoryDTO.
+     *
+     * @return The LinkTemplates expanded for every CategoryDTO returned.
+     */
+    static LinkTemplates<CategoryDTO> detailLinkTemplates() {
+        return LinkTemplates.<CategoryDTO>builder()
+                // IANA Links
+                .add(linkTo(methodOn(CategoryApi.class).getCategoryById(null, null)).withSelfRel().withType("GET"), CategoryDTO::getId)
+                .add(linkTo(methodOn(CategoryApi.class).getAllCategories(Pageable.unpaged())).withRel(IanaLinkRelations.COLLECTION).withType("GET"))
+                // Control Links
+                .add(linkTo(methodOn(CategoryApi.class).update(null, null, null)).withRel("edit").withType("PUT"), CategoryDTO::getId)
+                .add(linkTo(methodOn(CategoryApi.class).delete(null)).withRel("delete").withType("DELETE"), CategoryDTO::getId)
+                .build();
+    }
+
     /**
      * Adds detailed links to the given EntityModel.
      *
      * @param entityModel The EntityModel to which links are added.
      */
     private void addDetailLinks(EntityModel<CategoryDTO> entityModel) {
-        CategoryDTO categoryDTO = entityModel.getContent();
-        String categoryId = Objects.requireNonNull(categoryDTO).getId();
-
-        // IANA Links
-        entityModel.add(linkTo(methodOn(CategoryApi.class).getCategoryById(categoryId)).withSelfRel().withType("GET"));
-        entityModel.add(linkTo(methodOn(CategoryApi.class).getAllCategories(Pageable.unpaged())).withRel(IanaLinkRelations.COLLECTION).withType(
-                "GET"));
-
-        // Control Links
-        entityModel.add(linkTo(methodOn(CategoryApi.class).update(categoryId, categoryDTO)).withRel("edit").withType("PUT"));
-        entityModel.add(linkTo(methodOn(CategoryApi.class).delete(categoryId)).withRel("delete").withType("DELETE"));
+        detailLinks.addTo(entityModel);
     }
 
 
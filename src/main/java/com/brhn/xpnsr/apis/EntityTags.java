@@ -0,0 +1,89 @@
+package com.brhn.xpnsr.apis;
+
+import com.brhn.xpnsr.exceptions.PreconditionFailedError;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Builds the strong ETags of the resources and reads the versions clients send back in If-Match.
+ * The ETag of an entity is its version; the ETag of a listing or report is built from the modification
+ * counters of the collections it is read from and from anything else its content depends on.
+ */
+final class EntityTags {
+
+    private EntityTags() {
+    }
+
+    /**
+     * Builds a strong ETag from its parts.
+     *
+     * @param parts The version, or the stamp and scope of a listing.
+     * @return The quoted ETag.
+     */
+    static String of(Object... parts) {
+        return Arrays.stream(parts).map(String::valueOf).collect(Collectors.joining("-", "\"", "\""));
+    }
+
+    /**
+     * Describes the page and the order of a listing as a part of its ETag, without the spaces and commas of
+     * {@code Pageable.toString()}, which are not allowed in an ETag or separate the ETags of If-None-Match.
+     *
+     * @param pageable The page requested.
+     * @return The page number, size and sort orders, or {@code unpaged}.
+     */
+    static String pageOf(Pageable pageable) {
+        String sort = pageable.getSort().stream()
+                .map(order -> order.getProperty() + "." + order.getDirection().name().toLowerCase())
+                .collect(Collectors.joining("+"));
+        return pageable.isPaged()
+                ? "p" + pageable.getPageNumber() + "." + pageable.getPageSize() + (sort.isEmpty() ? "" : "." + sort)
+                : "unpaged" + (sort.isEmpty() ? "" : "." + sort);
+    }
+
+    /**
+     * Checks whether an If-None-Match header matches an ETag, in which case the client's copy is still current.
+     * ETags are compared weakly, as required for If-None-Match.
+     *
+     * @param ifNoneMatch The value of the If-None-Match header, if any.
+     * @param eTag        The current ETag of the resource.
+     * @return true if the resource has not been modified, false otherwise.
+     */
+    static boolean isNotModified(String ifNoneMatch, String eTag) {
+        if (StringUtils.isBlank(ifNoneMatch)) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || StringUtils.removeStart(tag, "W/").equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads the version expected by an If-Match header.
+     *
+     * @param ifMatch The value of the If-Match header, if any.
+     * @return The expected version, or null if the header is absent or {@code *}.
+     * @throws PreconditionFailedError if the header is not a single strong ETag of a version.
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (StringUtils.isBlank(ifMatch) || Objects.equals(ifMatch.trim(), "*")) {
+            return null;
+        }
+        String eTag = ifMatch.trim();
+        if (eTag.length() > 2 && eTag.startsWith("\"") && eTag.endsWith("\"")) {
+            try {
+                return Long.valueOf(eTag.substring(1, eTag.length() - 1));
+            } catch (NumberFormatException e) {
+                // Not the ETag of a version, so it cannot match
+            }
+        }
+        throw new PreconditionFailedError("If-Match does not match the current version: " + ifMatch);
+    }
+}
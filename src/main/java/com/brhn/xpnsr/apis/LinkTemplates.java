@@ -0,0 +1,208 @@
+package com.brhn.xpnsr.apis;
+
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.LinkRelation;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Registry of the precomputed detail links of a resource.
+ * Every template is resolved once from the controller mappings with WebMvcLinkBuilder when the registry is built,
+ * outside of any request. Expanding the links of an item is then plain string concatenation, so large pages no
+ * longer create a method proxy and expand a URI template for every link of every item.
+ *
+ * @param <T> The type of the resource the links are built for.
+ */
+public final class LinkTemplates<T> {
+
+    private static final String BASE_URI_ATTRIBUTE = LinkTemplates.class.getName() + ".baseUri";
+
+    private final List<Template<T>> templates;
+
+    /**
+     * Constructs a registry from its templates.
+     *
+     * @param templates The templates in the order their links are added.
+     */
+    private LinkTemplates(List<Template<T>> templates) {
+        this.templates = List.copyOf(templates);
+    }
+
+    /**
+     * Creates a builder for the link templates of a resource.
+     *
+     * @param <T> The type of the resource.
+     * @return A new builder.
+     */
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Returns a registry restricted to the templates of the given relations.
+     *
+     * @param relations The relations to keep.
+     * @return The restricted LinkTemplates.
+     */
+    public LinkTemplates<T> only(LinkRelation... relations) {
+        Set<String> rels = Arrays.stream(relations).map(LinkRelation::value).collect(Collectors.toSet());
+        return new LinkTemplates<>(templates.stream().filter(template -> rels.contains(template.rel)).toList());
+    }
+
+    /**
+     * Adds the links of the content of the given EntityModel, relative to the base URI of the current request.
+     *
+     * @param entityModel The EntityModel to which links are added.
+     */
+    public void addTo(EntityModel<T> entityModel) {
+        addTo(entityModel, currentBaseUri());
+    }
+
+    /**
+     * Adds the links of the content of the given EntityModel, relative to the given base URI.
+     *
+     * @param entityModel The EntityModel to which links are added.
+     * @param baseUri The scheme, host and servlet mapping prepended to every link.
+     */
+    public void addTo(EntityModel<T> entityModel, String baseUri) {
+        T content = Objects.requireNonNull(entityModel.getContent());
+        for (Template<T> template : templates) {
+            entityModel.add(template.expand(baseUri, content));
+        }
+    }
+
+    /**
+     * Returns the base URI of the current request, the same one WebMvcLinkBuilder prefixes its links with.
+     * It is computed once per request and kept as a request attribute; outside of a request it is empty,
+     * which yields relative links.
+     *
+     * @return The base URI without a trailing slash.
+     */
+    public static String currentBaseUri() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return "";
+        }
+        String baseUri = (String) attributes.getAttribute(BASE_URI_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (baseUri == null) {
+            baseUri = ServletUriComponentsBuilder.fromCurrentServletMapping().toUriString();
+            attributes.setAttribute(BASE_URI_ATTRIBUTE, baseUri, RequestAttributes.SCOPE_REQUEST);
+        }
+        return baseUri;
+    }
+
+    /**
+     * Builder collecting the link templates of a resource.
+     *
+     * @param <T> The type of the resource.
+     */
+    public static final class Builder<T> {
+
+        private final List<Template<T>> templates = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Adds a link that is the same for every item, such as the collection link.
+         *
+         * @param link The link built with WebMvcLinkBuilder outside of a request.
+         * @return This builder.
+         */
+        public Builder<T> add(Link link) {
+            templates.add(new Template<>(link, null));
+            return this;
+        }
+
+        /**
+         * Adds a link with a single path variable taken from the item. The link must be built with a null
+         * argument for that variable, so that its href still carries the placeholder.
+         *
+         * @param link The templated link built with WebMvcLinkBuilder outside of a request.
+         * @param variable The function extracting the value of the path variable from an item.
+         * @return This builder.
+         * @throws IllegalArgumentException if the href of the link has no placeholder.
+         */
+        public Builder<T> add(Link link, Function<T, ?> variable) {
+            templates.add(new Template<>(link, Objects.requireNonNull(variable)));
+            return this;
+        }
+
+        /**
+         * Builds the registry.
+         *
+         * @return The immutable LinkTemplates.
+         */
+        public LinkTemplates<T> build() {
+            return new LinkTemplates<>(templates);
+        }
+    }
+
+    /**
+     * A single link template, split around its path variable.
+     *
+     * @param <T> The type of the resource.
+     */
+    private static final class Template<T> {
+
+        private final String prefix;
+        private final String placeholder;
+        private final String suffix;
+        private final String rel;
+        private final String type;
+        private final Function<T, ?> variable;
+
+        Template(Link link, Function<T, ?> variable) {
+            String href = link.getHref();
+            int start = href.indexOf('{');
+            int end = href.indexOf('}', start);
+            if (variable != null && (start < 0 || end < 0)) {
+                throw new IllegalArgumentException("The link '" + href + "' has no path variable");
+            }
+            this.prefix = variable == null ? href : href.substring(0, start);
+            this.placeholder = variable == null ? "" : href.substring(start, end + 1);
+            this.suffix = variable == null ? "" : href.substring(end + 1);
+            this.rel = link.getRel().value();
+            this.type = link.getType();
+            this.variable = variable;
+        }
+
+        /**
+         * Expands the template for an item. A missing value keeps the placeholder, as WebMvcLinkBuilder does.
+         *
+         * @param baseUri The base URI prepended to the link.
+         * @param content The item.
+         * @return The expanded link.
+         */
+        Link expand(String baseUri, T content) {
+            String href;
+            if (variable == null) {
+                href = baseUri + prefix;
+            } else {
+                Object value = variable.apply(content);
+                href = baseUri + prefix + (value == null ? placeholder : encode(value)) + suffix;
+            }
+            Link link = Link.of(href, rel);
+            return type == null ? link : link.withType(type);
+        }
+
+        private static String encode(Object value) {
+            if (value instanceof Number) {
+                return value.toString();
+            }
+            return UriUtils.encodePathSegment(value.toString(), StandardCharsets.UTF_8);
+        }
+    }
+}
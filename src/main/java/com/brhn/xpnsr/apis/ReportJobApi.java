@@ -0,0 +1,148 @@
+package com.brhn.xpnsr.apis;
+
+import com.brhn.xpnsr.exceptions.NotFoundError;
+import com.brhn.xpnsr.models.ReportJobStatus;
+import com.brhn.xpnsr.services.ReportJobService;
+import com.brhn.xpnsr.services.dtos.ReportJobDTO;
+import com.brhn.xpnsr.services.dtos.ReportJobRequestDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+/**
+ * REST controller computing reports over large date ranges in the background.
+ * A job is submitted, polled until it is completed, and its result is then read from its result resource.
+ */
+@RestController
+@Tag(name = "Report Job API", description = "APIs for computing reports of XPNSR in the background")
+@RequestMapping("/api/reports/jobs")
+public class ReportJobApi {
+
+    private static final String RETRY_AFTER_SECONDS = "1"; // Suggested polling interval of jobs in progress
+
+    private final ReportJobService reportJobService;
+
+    /**
+     * Constructs a new ReportJobApi instance with the specified ReportJobService.
+     *
+     * @param reportJobService the service running the report jobs
+     */
+    @Autowired
+    public ReportJobApi(ReportJobService reportJobService) {
+        this.reportJobService = reportJobService;
+    }
+
+    /**
+     * Submits a report job. An identical job already queued, running or completed on the current data is
+     * returned instead of a new one.
+     *
+     * @param request the report to compute
+     * @param apiKey  the API key of the client, which the limit of jobs in progress applies to
+     * @return ResponseEntity containing the ReportJobDTO of the job, with its location
+     */
+    @PostMapping
+    @Operation(summary = "Submit a report job", description = "Computes a categories, tree or time-series report in the background. Submitting a report identical to one in progress, or completed since the data last changed, returns the existing job.",
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Report to compute",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ReportJobRequestDTO.class),
+                            examples = @ExampleObject(value = "{\"kind\": \"TIMESERIES\", \"type\": \"EXPENSE\", \"from\": \"2020-01-01\", \"to\": \"2024-12-31\", \"bucket\": \"MONTH\"}")
+                    )
+            ),
+            responses = {
+                    @ApiResponse(responseCode = "202", description = "Job accepted",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = ReportJobDTO.class))),
+                    @ApiResponse(responseCode = "400", description = "Invalid input data"),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized access"),
+                    @ApiResponse(responseCode = "429", description = "Too many jobs in progress for the API key, or queue full"),
+                    @ApiResponse(responseCode = "500", description = "Internal server error")
+            })
+    public ResponseEntity<EntityModel<ReportJobDTO>> submitJob(@Valid @RequestBody ReportJobRequestDTO request,
+                                                               @RequestHeader("XPNSR-API-KEY") String apiKey) {
+        EntityModel<ReportJobDTO> entityModel = toEntityModel(reportJobService.submit(request, apiKey));
+
+        return ResponseEntity.accepted()
+                .location(entityModel.getRequiredLink(IanaLinkRelations.SELF).toUri())
+                .body(entityModel);
+    }
+
+    /**
+     * Retrieves the status of a report job.
+     *
+     * @param id the ID of the job
+     * @return ResponseEntity containing the ReportJobDTO of the job, with a Retry-After header while it is in
+     * progress
+     */
+    @GetMapping("/{id}")
+    @Operation(summary = "Get a report job", description = "Retrieves the status of a report job. Jobs in progress are answered with a Retry-After header; completed jobs link to their result.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Job retrieved",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = ReportJobDTO.class))),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized access"),
+                    @ApiResponse(responseCode = "404", description = "Job not found or expired"),
+                    @ApiResponse(responseCode = "500", description = "Internal server error")
+            })
+    public ResponseEntity<EntityModel<ReportJobDTO>> getJob(@PathVariable String id) {
+        ReportJobDTO job = reportJobService.get(id);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (job.getStatus() == ReportJobStatus.QUEUED || job.getStatus() == ReportJobStatus.RUNNING) {
+            response.header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+        }
+        return response.body(toEntityModel(job));
+    }
+
+    /**
+     * Retrieves the result of a completed report job.
+     *
+     * @param id the ID of the job
+     * @return ResponseEntity containing the report, shaped as the synchronous report of the same kind
+     */
+    @GetMapping("/{id}/result")
+    @Operation(summary = "Get the result of a report job", description = "Retrieves the report computed by a job that has succeeded.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Report retrieved"),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized access"),
+                    @ApiResponse(responseCode = "404", description = "Job not found, expired or not succeeded"),
+                    @ApiResponse(responseCode = "500", description = "Internal server error")
+            })
+    public ResponseEntity<Object> getJobResult(@PathVariable String id) throws NotFoundError {
+        return ResponseEntity.ok(reportJobService.getResult(id));
+    }
+
+    /**
+     * Wraps a job in an EntityModel with its links, including its result once it has succeeded.
+     *
+     * @param job the ReportJobDTO
+     * @return the EntityModel of the ReportJobDTO
+     */
+    private EntityModel<ReportJobDTO> toEntityModel(ReportJobDTO job) {
+        EntityModel<ReportJobDTO> entityModel = EntityModel.of(job);
+        entityModel.add(linkTo(methodOn(ReportJobApi.class).getJob(job.getId())).withSelfRel().withType("GET"));
+        if (job.getStatus() == ReportJobStatus.SUCCEEDED) {
+            entityModel.add(linkTo(methodOn(ReportJobApi.class).getJobResult(job.getId())).withRel("result").withType("GET"));
+        }
+        entityModel.add(linkTo(methodOn(ReportsApi.class).getReportsRoot()).withRel("reports").withType("GET"));
+        return entityModel;
+    }
+}
@@ -1,16 +1,33 @@
 package com.brhn.xpnsr.apis;
 
+import com.brhn.xpnsr.exceptions.BadRequestError;
+import com.brhn.xpnsr.models.ReportBucket;
 import com.brhn.xpnsr.models.TransactionType;
+import com.brhn.xpnsr.security.CurrentUserProvider;
+import com.brhn.xpnsr.services.CollectionVersions;
 import com.brhn.xpnsr.services.TransactionService;
+import com.brhn.xpnsr.services.dtos.CategoryReportDTO;
 import com.brhn.xpnsr.services.dtos.LinksDTO;
 import com.brhn.xpnsr.services.dtos.ReportDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.hateoas.Link;
 import org.springframework.hateoas.server.mvc.WebMvcLinkBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.time.Year;
 import java.time.YearMonth;
@@ -26,44 +43,155 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 @RequestMapping("/api/reports")
 public class ReportsApi {
     private final TransactionService transactionService;
+    private final ObjectMapper objectMapper;
+    private final CollectionVersions collectionVersions;
+    private final CurrentUserProvider currentUserProvider;
 
     /**
      * Constructs a new ReportsApi instance with the specified TransactionService.
      *
-     * @param transactionService the service for handling transaction operations
+     * @param transactionService  the service for handling transaction operations
+     * @param objectMapper        the mapper used to write streamed reports
+     * @param collectionVersions  the modification counters the ETags of the reports are derived from
+     * @param currentUserProvider the provider of the user the reports are generated for
      */
-    public ReportsApi(TransactionService transactionService) {
+    public ReportsApi(TransactionService transactionService, ObjectMapper objectMapper,
+                      CollectionVersions collectionVersions, CurrentUserProvider currentUserProvider) {
         this.transactionService = transactionService;
+        this.objectMapper = objectMapper;
+        this.collectionVersions = collectionVersions;
+        this.currentUserProvider = currentUserProvider;
     }
 
     /**
      * Retrieves a monthly report based on the specified transaction type.
      *
      * @param transactionType the type of transaction (EARNING or EXPENSE)
-     * @return a list of ReportDTO containing transaction details for the current month
+     * @param ifNoneMatch     the ETag of the report the client holds, if any
+     * @return a list of ReportDTO containing transaction details for the current month,
+     * or no body if the client's report is current
      */
     @GetMapping("/monthly-{transactionType}")
-    public List<ReportDTO> getMonthlyReport(@PathVariable TransactionType transactionType) {
+    public ResponseEntity<List<ReportDTO>> getMonthlyReport(@PathVariable TransactionType transactionType,
+                                                        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         YearMonth currentMonth = YearMonth.now();
         LocalDate startDate = currentMonth.atDay(1);
         LocalDate endDate = currentMonth.atEndOfMonth();
 
-        return transactionService.getTransactionsReport(transactionType, startDate, endDate);
+        return conditionalReport(transactionType, startDate, endDate, ifNoneMatch);
     }
 
     /**
      * Retrieves a yearly report based on the specified transaction type.
      *
      * @param transactionType the type of transaction (EARNING or EXPENSE)
-     * @return a list of ReportDTO containing transaction details for the current year
+     * @param ifNoneMatch     the ETag of the report the client holds, if any
+     * @return a list of ReportDTO containing transaction details for the current year,
+     * or no body if the client's report is current
      */
     @GetMapping("/yearly-{transactionType}")
-    public List<ReportDTO> getYearlyReport(@PathVariable TransactionType transactionType) {
+    public ResponseEntity<List<ReportDTO>> getYearlyReport(@PathVariable TransactionType transactionType,
+                                                        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         Year currentYear = Year.now();
         LocalDate startDate = currentYear.atDay(1);
         LocalDate endDate = currentYear.atMonth(12).atEndOfMonth();
 
-        return transactionService.getTransactionsReport(transactionType, startDate, endDate);
+        return conditionalReport(transactionType, startDate, endDate, ifNoneMatch);
+    }
+
+    /**
+     * Retrieves a monthly report based on the specified transaction type with the totals rolled up the
+     * category tree, so that every category includes the amounts of its subcategories.
+     *
+     * @param transactionType the type of transaction (EARNING or EXPENSE)
+     * @param depth           the number of tree levels to return, the whole tree when omitted
+     * @return a list of CategoryReportDTO trees for the current month, one per root category
+     */
+    @GetMapping("/monthly-{transactionType}/tree")
+    public List<CategoryReportDTO> getMonthlyReportTree(@PathVariable TransactionType transactionType,
+                                                        @RequestParam(required = false) Integer depth) {
+        YearMonth currentMonth = YearMonth.now();
+        LocalDate startDate = currentMonth.atDay(1);
+        LocalDate endDate = currentMonth.atEndOfMonth();
+
+        return transactionService.getTransactionsReportTree(transactionType, startDate, endDate, depth);
+    }
+
+    /**
+     * Retrieves a yearly report based on the specified transaction type with the totals rolled up the
+     * category tree, so that every category includes the amounts of its subcategories.
+     *
+     * @param transactionType the type of transaction (EARNING or EXPENSE)
+     * @param depth           the number of tree levels to return, the whole tree when omitted
+     * @return a list of CategoryReportDTO trees for the current year, one per root category
+     */
+    @GetMapping("/yearly-{transactionType}/tree")
+    public List<CategoryReportDTO> getYearlyReportTree(@PathVariable TransactionType transactionType,
+                                                       @RequestParam(required = false) Integer depth) {
+        Year currentYear = Year.now();
+        LocalDate startDate = currentYear.atDay(1);
+        LocalDate endDate = currentYear.atMonth(12).atEndOfMonth();
+
+        return transactionService.getTransactionsReportTree(transactionType, startDate, endDate, depth);
+    }
+
+    /**
+     * Streams a time-series report of the specified transaction type over an arbitrary date range.
+     * Buckets are written to the response as a JSON array while the daily summaries are read,
+     * so the report is never materialized in memory.
+     *
+     * @param type   the type of transaction (EARNING or EXPENSE)
+     * @param from   the first day of the range (inclusive)
+     * @param to     the last day of the range (inclusive)
+     * @param bucket the width of the buckets (day, week or month)
+     * @return a streamed JSON array of TimeseriesBucketDTO in chronological order
+     */
+    @GetMapping("/timeseries")
+    public ResponseEntity<StreamingResponseBody> getTimeseriesReport(
+            @RequestParam TransactionType type,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "day") ReportBucket bucket) {
+        if (from.isAfter(to)) {
+            throw new BadRequestError("The start date must not be after the end date");
+        }
+        Long userId = currentUserProvider.getUserId(); // Before the response is committed
+
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                transactionService.streamTransactionsTimeseries(userId, type, from, to, bucket, timeseriesBucket -> {
+                    try {
+                        objectMapper.writeValue(generator, timeseriesBucket);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * Generates a report unless the client's copy is current. The ETag changes whenever a transaction or a
+     * category is written, so it is checked before anything is read from the database.
+     *
+     * @param transactionType the type of transaction (EARNING or EXPENSE)
+     * @param startDate       the first day of the report
+     * @param endDate         the last day of the report
+     * @param ifNoneMatch     the ETag of the report the client holds, if any
+     * @return ResponseEntity containing the report, or no body if the client's report is current
+     */
+    private ResponseEntity<List<ReportDTO>> conditionalReport(TransactionType transactionType, LocalDate startDate,
+                                                              LocalDate endDate, String ifNoneMatch) {
+        String eTag = EntityTags.of(collectionVersions.stamp(CollectionVersions.TRANSACTIONS, CollectionVersions.CATEGORIES),
+                currentUserProvider.getUserId(), transactionType, startDate, endDate);
+        if (EntityTags.isNotModified(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        return ResponseEntity.ok().eTag(eTag)
+                .body(transactionService.getTransactionsReport(transactionType, startDate, endDate));
     }
 
     /**
@@ -76,10 +204,14 @@ public class ReportsApi {
         LinksDTO reportsRoot = new LinksDTO();
 
         // IANA Links
-        reportsRoot.add(WebMvcLinkBuilder.linkTo(methodOn(ReportsApi.class).getMonthlyReport(TransactionType.EXPENSE)).withRel("monthly-expenses").withType("GET"));
-        reportsRoot.add(WebMvcLinkBuilder.linkTo(methodOn(ReportsApi.class).getMonthlyReport(TransactionType.EARNING)).withRel("monthly-earnings").withType("GET"));
-        reportsRoot.add(WebMvcLinkBuilder.linkTo(methodOn(ReportsApi.class).getYearlyReport(TransactionType.EXPENSE)).withRel("yearly-expenses").withType("GET"));
-        reportsRoot.add(WebMvcLinkBuilder.linkTo(methodOn(ReportsApi.class).getYearlyReport(TransactionType.EARNING)).withRel("yearly-earnings").withType("GET"));
+        reportsRoot.add(WebMvcLinkBuilder.linkTo(methodOn(ReportsApi.class).getMonthlyReport(TransactionType.EXPENSE, null)).withRel("monthly-expenses").withType("GET"));
+        reportsRoot.add(WebMvcLinkBuilder.linkTo(methodOn(ReportsApi.class).getMonthlyReport(TransactionType.EARNING, null)).withRel("monthly-earnings").withType("GET"));
+        reportsRoot.add(WebMvcLinkBuilder.linkTo(methodOn(ReportsApi.class).getYearlyReport(TransactionType.EXPENSE, null)).withRel("yearly-expenses").withType("GET"));
+        reportsRoot.add(WebMvcLinkBuilder.linkTo(methodOn(ReportsApi.class).getYearlyReport(TransactionType.EARNING, null)).withRel("yearly-earnings").withType("GET"));
+        reportsRoot.add(WebMvcLinkBuilder.linkTo(methodOn(ReportsApi.class).getMonthlyReportTree(TransactionType.EXPENSE, null)).withRel("monthly-expenses-tree").withType("GET"));
+        reportsRoot.add(WebMvcLinkBuilder.linkTo(methodOn(ReportsApi.class).getYearlyReportTree(TransactionType.EXPENSE, null)).withRel("yearly-expenses-tree").withType("GET"));
+        reportsRoot.add(Link.of(WebMvcLinkBuilder.linkTo(ReportsApi.class).toUri() + "/timeseries{?type,from,to,bucket}").withRel("timeseries").withType("GET"));
+        reportsRoot.add(WebMvcLinkBuilder.linkTo(ReportJobApi.class).withRel("jobs").withType("POST"));
 
         return ResponseEntity.ok(reportsRoot);
     }
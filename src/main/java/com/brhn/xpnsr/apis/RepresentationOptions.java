@@ -0,0 +1,55 @@
+package com.brhn.xpnsr.apis;
+
+import com.brhn.xpnsr.models.LinkMode;
+import io.swagger.v3.oas.annotations.Parameter;
+
+import java.util.Set;
+
+/**
+ * Query options shaping the items of a collection response.
+ */
+public class RepresentationOptions {
+
+    @Parameter(description = "Comma-separated properties to return for every item, all of them when omitted",
+            example = "id,date,amount,primaryCategoryId")
+    private Set<String> fields;
+
+    @Parameter(description = "Links to return for every item: none, self or full", example = "self")
+    private LinkMode links = LinkMode.FULL;
+
+    /**
+     * Retrieves the properties to return for every item.
+     *
+     * @return The property names, or null for all of them.
+     */
+    public Set<String> getFields() {
+        return fields;
+    }
+
+    /**
+     * Sets the properties to return for every item.
+     *
+     * @param fields The property names to set.
+     */
+    public void setFields(Set<String> fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * Retrieves the links to return for every item.
+     *
+     * @return The link mode.
+     */
+    public LinkMode getLinks() {
+        return links;
+    }
+
+    /**
+     * Sets the links to return for every item.
+     *
+     * @param links The link mode to set.
+     */
+    public void setLinks(LinkMode links) {
+        this.links = links;
+    }
+}
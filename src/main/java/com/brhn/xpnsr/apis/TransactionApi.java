@@ -1,10 +1,19 @@
 package com.brhn.xpnsr.apis;
 
+import com.brhn.xpnsr.config.SparseFieldsetAdvice;
+import com.brhn.xpnsr.exceptions.BadRequestError;
 import com.brhn.xpnsr.exceptions.NotFoundError;
+import com.brhn.xpnsr.models.ExportFormat;
+import com.brhn.xpnsr.security.CurrentUserProvider;
 import com.brhn.xpnsr.services.TransactionService;
+import com.brhn.xpnsr.services.dtos.BatchResultDTO;
+import com.brhn.xpnsr.services.dtos.CompactPagedModel;
+import com.brhn.xpnsr.services.dtos.CursorSliceDTO;
 import com.brhn.xpnsr.services.dtos.CustomPagedModel;
 import com.brhn.xpnsr.services.dtos.LinksDTO;
 import com.brhn.xpnsr.services.dtos.TransactionDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -16,17 +25,28 @@ import jakarta.validation.Valid;
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.hateoas.EntityModel;
 import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.hateoas.Link;
 import org.springframework.hateoas.PagedModel;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.Objects;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
@@ -42,19 +62,38 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 @Validated
 public class TransactionApi {
 
+    private static final int MAX_SCROLL_SIZE = 100;
+
     private final TransactionService transactionService;
     private final PagedResourcesAssembler<TransactionDTO> pagedResourcesAssembler;
+    private final ObjectMapper objectMapper;
+    private final LinkTemplates<TransactionDTO> detailLinks;
+    private final LinkTemplates<TransactionDTO> selfLinks;
+    private final Set<String> transactionFields;
+    private final CurrentUserProvider currentUserProvider;
 
     /**
      * Constructs a new TransactionApi instance with the specified TransactionService.
      *
      * @param transactionService      the service for handling transaction operations
      * @param pagedResourcesAssembler the assembler used for pagination of TransactionDTOs
+     * @param objectMapper            the mapper used to read batch request bodies, write exports and list the
+     *                                fields of a transaction
+     * @param currentUserProvider     the provider of the user transactions are exported for
      */
     @Autowired
-    public TransactionApi(TransactionService transactionService, PagedResourcesAssembler<TransactionDTO> pagedResourcesAssembler) {
+    public TransactionApi(TransactionService transactionService, PagedResourcesAssembler<TransactionDTO> pagedResourcesAssembler,
+                          ObjectMapper objectMapper, CurrentUserProvider currentUserProvider) {
         this.transactionService = transactionService;
         this.pagedResourcesAssembler = pagedResourcesAssembler;
+        this.objectMapper = objectMapper;
+        this.currentUserProvider = currentUserProvider;
+        this.detailLinks = detailLinkTemplates();
+        this.selfLinks = detailLinks.only(IanaLinkRelations.SELF);
+        this.transactionFields = objectMapper.getSerializationConfig()
+                .introspect(objectMapper.constructType(TransactionDTO.class)).findProperties().stream()
+                .map(BeanPropertyDefinition::getName)
+                .collect(Collectors.toUnmodifiableSet());
     }
 
     /**
@@ -85,14 +124,50 @@ public class TransactionApi {
         EntityModel<TransactionDTO> entityModel = EntityModel.of(transactionDTO);
         addDetailLinks(entityModel);
 
-        return ResponseEntity.created(entityModel.getRequiredLink(IanaLinkRelations.SELF).toUri()).body(entityModel);
+        return ResponseEntity.created(entityModel.getRequiredLink(IanaLinkRelations.SELF).toUri())
+                .eTag(EntityTags.of(transactionDTO.getVersion())).body(entityModel);
+    }
+
+    /**
+     * Creates many transactions in one request.
+     * The body is read item by item, so large bank statement imports do not have to be held in memory.
+     *
+     * @param body the request body, a JSON array or NDJSON stream of transaction data transfer objects
+     * @return the IDs of the created transactions and the errors of the rejected ones
+     * @throws BadRequestError if the body is malformed or the batch is too large
+     */
+    @PostMapping(value = "/batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @Operation(summary = "Create transactions in batch", description = "Adds many transactions in one request. Accepts a JSON array or NDJSON. Invalid items are reported by their index and do not prevent the valid ones from being created.",
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Transactions to create",
+                    content = {
+                            @Content(mediaType = "application/json",
+                                    examples = @ExampleObject(value = "[{\"date\": \"2024-06-20T12:34:56.789Z\", \"type\": \"EXPENSE\", \"amount\": 100.00, \"currency\": \"USD\", \"title\": \"Grocery Shopping\", \"primaryCategoryId\": \"groceries\"}]")),
+                            @Content(mediaType = "application/x-ndjson")
+                    }
+            ),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Batch processed",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = BatchResultDTO.class))),
+                    @ApiResponse(responseCode = "400", description = "Malformed body or batch too large"),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized access"),
+                    @ApiResponse(responseCode = "500", description = "Internal server error")
+            })
+    public ResponseEntity<EntityModel<BatchResultDTO>> addBatch(InputStream body) throws BadRequestError {
+        BatchResultDTO result = transactionService.addAll(BatchItems.read(objectMapper, body, TransactionDTO.class));
+        EntityModel<BatchResultDTO> entityModel = EntityModel.of(result);
+        entityModel.add(linkTo(methodOn(TransactionApi.class).getAll(Pageable.unpaged(), null)).withRel(IanaLinkRelations.COLLECTION).withType("GET"));
+
+        return ResponseEntity.ok(entityModel);
     }
 
     /**
      * Updates an existing transaction by ID.
      *
-     * @param id the ID of the transaction to be updated
-     * @param t  the transaction data transfer object containing updated transaction details
+     * @param id      the ID of the transaction to be updated
+     * @param t       the transaction data transfer object containing updated transaction details
+     * @param ifMatch the ETag of the version the client last read, if the update is conditional
      * @return ResponseEntity containing the updated transaction
      * @throws NotFoundError if the transaction with the specified ID is not found
      */
@@ -112,22 +187,28 @@ public class TransactionApi {
                     @ApiResponse(responseCode = "400", description = "Invalid input data"),
                     @ApiResponse(responseCode = "401", description = "Unauthorized access"),
                     @ApiResponse(responseCode = "404", description = "Transaction not found"),
+                    @ApiResponse(responseCode = "412", description = "Transaction modified since the version in If-Match"),
                     @ApiResponse(responseCode = "500", description = "Internal server error")
             })
     public ResponseEntity<EntityModel<TransactionDTO>> update(@PathVariable @Parameter(description = "ID of the transaction to be updated") Long id,
-                                                              @Valid @RequestBody TransactionDTO t) throws NotFoundError {
-        TransactionDTO updatedTransaction = transactionService.update(id, t);
+                                                              @Valid @RequestBody TransactionDTO t,
+                                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) throws NotFoundError {
+        TransactionDTO updatedTransaction = transactionService.update(id, t, EntityTags.expectedVersion(ifMatch));
         EntityModel<TransactionDTO> entityModel = EntityModel.of(updatedTransaction);
         addDetailLinks(entityModel);
 
-        return ResponseEntity.ok(entityModel);
+        return ResponseEntity.ok().eTag(EntityTags.of(updatedTransaction.getVersion())).body(entityModel);
     }
 
     /**
      * Retrieves a transaction by ID.
      *
-     * @param id the ID of the transaction to retrieve
-     * @return ResponseEntity containing the retrieved transaction
+     * The version of the transaction is checked against If-None-Match before the transaction is loaded,
+     * so polling clients whose copy is current cost a single indexed lookup.
+     *
+     * @param id          the ID of the transaction to retrieve
+     * @param ifNoneMatch the ETag of the copy the client holds, if any
+     * @return ResponseEntity containing the retrieved transaction, or no body if the client's copy is current
      * @throws NotFoundError if the transaction with the specified ID is not found
      */
     @GetMapping("/{id}")
@@ -136,52 +217,190 @@ public class TransactionApi {
                     @ApiResponse(responseCode = "200", description = "Transaction found",
                             content = @Content(mediaType = "application/json",
                                     schema = @Schema(implementation = TransactionDTO.class))),
+                    @ApiResponse(responseCode = "304", description = "Transaction not modified since the version in If-None-Match"),
                     @ApiResponse(responseCode = "401", description = "Unauthorized access"),
                     @ApiResponse(responseCode = "404", description = "Transaction not found"),
                     @ApiResponse(responseCode = "500", description = "Internal server error")
             })
-    public ResponseEntity<EntityModel<TransactionDTO>> get(@PathVariable Long id) throws NotFoundError {
+    public ResponseEntity<EntityModel<TransactionDTO>> get(@PathVariable Long id,
+                                                           @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) throws NotFoundError {
+        String eTag = EntityTags.of(transactionService.getVersion(id));
+        if (EntityTags.isNotModified(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
         TransactionDTO transactionDTO = transactionService.get(id);
         EntityModel<TransactionDTO> entityModel = EntityModel.of(transactionDTO);
         addDetailLinks(entityModel);
 
-        return ResponseEntity.ok(entityModel);
+        return ResponseEntity.ok().eTag(EntityTags.of(transactionDTO.getVersion())).body(entityModel);
     }
 
     /**
      * Retrieves a paginated list of all transactions.
+     * The items can be narrowed down to some fields and returned with fewer links, or none, for compact listings.
      *
      * @param pageable the pagination information
+     * @param options  the fields and links to return for every transaction
      * @return ResponseEntity containing a paginated list of TransactionDTOs
+     * @throws BadRequestError if an unknown field is requested
      */
     @GetMapping("/")
-    @Operation(summary = "List all transactions", description = "Retrieves a paginated list of all transactions.",
+    @Operation(summary = "List all transactions", description = "Retrieves a paginated list of all transactions. Use `fields` and `links` for compact listings.",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Transactions retrieved",
                             content = @Content(mediaType = "application/json",
                                     schema = @Schema(implementation = CustomPagedModel.class))),
-                    @ApiResponse(responseCode = "400", description = "Invalid pagination parameters"),
+                    @ApiResponse(responseCode = "400", description = "Invalid pagination parameters or unknown fields"),
                     @ApiResponse(responseCode = "401", description = "Unauthorized access"),
                     @ApiResponse(responseCode = "500", description = "Internal server error")
             })
-    public ResponseEntity<CustomPagedModel<TransactionDTO>> getAll(@ParameterObject Pageable pageable) {
+    public ResponseEntity<PagedModel<?>> getAll(@ParameterObject Pageable pageable,
+                                                @ParameterObject RepresentationOptions options) throws BadRequestError {
+        if (options.getFields() != null) {
+            Set<String> unknownFields = new TreeSet<>(options.getFields());
+            unknownFields.removeAll(transactionFields);
+            if (!unknownFields.isEmpty()) {
+                throw new BadRequestError("Unknown fields: " + String.join(", ", unknownFields));
+            }
+            SparseFieldsetAdvice.select(options.getFields());
+        }
+
         Page<TransactionDTO> transactionsPage = transactionService.getAll(pageable);
+        PagedModel<?> pagedModel = switch (options.getLinks()) {
+            case NONE -> toCompactPagedModel(transactionsPage);
+            case SELF -> toCustomPagedModel(transactionsPage, selfLinks);
+            case FULL -> toCustomPagedModel(transactionsPage, detailLinks);
+        };
+
+        Link addTransactionLink = linkTo(methodOn(TransactionApi.class).add(null)).withRel("add").withType("POST");
+        pagedModel.add(addTransactionLink);
+
+        return ResponseEntity.ok(pagedModel);
+    }
+
+    /**
+     * Wraps every transaction of a page into an EntityModel carrying the given links.
+     *
+     * @param transactionsPage the page of transactions
+     * @param links            the link templates expanded for every transaction
+     * @return the CustomPagedModel with the pagination links
+     */
+    private CustomPagedModel<TransactionDTO> toCustomPagedModel(Page<TransactionDTO> transactionsPage,
+                                                                LinkTemplates<TransactionDTO> links) {
         PagedModel<EntityModel<TransactionDTO>> pagedModel = pagedResourcesAssembler.toModel(transactionsPage, transactionDTO -> {
             EntityModel<TransactionDTO> entityModel = EntityModel.of(transactionDTO);
-            addDetailLinks(entityModel);
+            links.addTo(entityModel);
             return entityModel;
         });
 
         CustomPagedModel<TransactionDTO> customPagedModel = new CustomPagedModel<>(pagedModel.getContent(),
                 pagedModel.getMetadata());
         customPagedModel.addLinks(pagedModel.getLinks());
+        return customPagedModel;
+    }
 
-        Link addTransactionLink = linkTo(methodOn(TransactionApi.class).add(null)).withRel("add").withType("POST");
-        customPagedModel.add(addTransactionLink);
+    /**
+     * Returns the transactions of a page as plain items, without wrapping them into EntityModels.
+     *
+     * @param transactionsPage the page of transactions
+     * @return the CompactPagedModel with the pagination links
+     */
+    private CompactPagedModel<TransactionDTO> toCompactPagedModel(Page<TransactionDTO> transactionsPage) {
+        // Only the pagination links and metadata are taken from the assembler, so it is given no items to wrap
+        Page<TransactionDTO> emptyPage = new PageImpl<>(List.of(), transactionsPage.getPageable(),
+                transactionsPage.getTotalElements());
+        PagedModel<?> pagedModel = pagedResourcesAssembler.toEmptyModel(emptyPage, TransactionDTO.class);
+
+        CompactPagedModel<TransactionDTO> compactPagedModel = new CompactPagedModel<>(transactionsPage.getContent(),
+                pagedModel.getMetadata());
+        compactPagedModel.addLinks(pagedModel.getLinks());
+        return compactPagedModel;
+    }
+
+    /**
+     * Retrieves a slice of the current user's transactions, newest first, using keyset pagination.
+     * The next slice is reached through the opaque cursor carried in the "next" link.
+     *
+     * @param cursor the cursor returned in the "next" link of the previous slice, absent for the first slice
+     * @param size   the maximum number of transactions in the slice
+     * @return ResponseEntity containing a slice of TransactionDTOs without page totals
+     * @throws BadRequestError if the cursor is malformed or the size is out of range
+     */
+    @GetMapping("/scroll")
+    @Operation(summary = "Scroll through transactions", description = "Retrieves transactions newest first using a continuation cursor. Latency does not depend on how deep the client scrolls.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Transactions retrieved",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = CustomPagedModel.class))),
+                    @ApiResponse(responseCode = "400", description = "Invalid cursor or size"),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized access"),
+                    @ApiResponse(responseCode = "500", description = "Internal server error")
+            })
+    public ResponseEntity<CustomPagedModel<TransactionDTO>> scroll(
+            @RequestParam(required = false) @Parameter(description = "Cursor from the next link of the previous slice") String cursor,
+            @RequestParam(defaultValue = "20") @Parameter(description = "Number of transactions per slice (1-100)") int size) throws BadRequestError {
+        if (size < 1 || size > MAX_SCROLL_SIZE) {
+            throw new BadRequestError("Size must be between 1 and " + MAX_SCROLL_SIZE);
+        }
+
+        CursorSliceDTO<TransactionDTO> slice = transactionService.scroll(cursor, size);
+        List<EntityModel<TransactionDTO>> items = slice.getContent().stream().map(transactionDTO -> {
+            EntityModel<TransactionDTO> entityModel = EntityModel.of(transactionDTO);
+            addDetailLinks(entityModel);
+            return entityModel;
+        }).collect(Collectors.toList());
+
+        CustomPagedModel<TransactionDTO> customPagedModel = new CustomPagedModel<>(items, null);
+        customPagedModel.add(linkTo(methodOn(TransactionApi.class).scroll(cursor, size)).withSelfRel().withType("GET"));
+        customPagedModel.add(linkTo(methodOn(TransactionApi.class).scroll(null, size)).withRel(IanaLinkRelations.FIRST).withType("GET"));
+        if (slice.hasNext()) {
+            customPagedModel.add(linkTo(methodOn(TransactionApi.class).scroll(slice.getNextCursor(), size)).withRel(IanaLinkRelations.NEXT).withType("GET"));
+        }
+        customPagedModel.add(linkTo(methodOn(TransactionApi.class).add(null)).withRel("add").withType("POST"));
 
         return ResponseEntity.ok(customPagedModel);
     }
 
+    /**
+     * Exports the current user's transactions within a date range as CSV or NDJSON.
+     * Rows are streamed to the client while they are read, so the export is never held in memory.
+     *
+     * @param format the export format (csv or ndjson)
+     * @param from   the first day of the range (inclusive)
+     * @param to     the last day of the range (inclusive)
+     * @return a streamed response body with one row per transaction, oldest first
+     * @throws BadRequestError if the start date is after the end date
+     */
+    @GetMapping("/export")
+    @Operation(summary = "Export transactions", description = "Streams the transactions within a date range as CSV or NDJSON.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Export streamed",
+                            content = {@Content(mediaType = "text/csv"), @Content(mediaType = "application/x-ndjson")}),
+                    @ApiResponse(responseCode = "400", description = "Invalid format or date range"),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized access"),
+                    @ApiResponse(responseCode = "500", description = "Internal server error")
+            })
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(defaultValue = "csv") @Parameter(description = "Export format: csv or ndjson") ExportFormat format,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @Parameter(description = "First day of the range") LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) @Parameter(description = "Last day of the range") LocalDate to) throws BadRequestError {
+        if (from.isAfter(to)) {
+            throw new BadRequestError("The start date must not be after the end date");
+        }
+        Long userId = currentUserProvider.getUserId(); // Before the response is committed
+
+        StreamingResponseBody body = outputStream -> {
+            try (TransactionExportWriter writer = new TransactionExportWriter(format, outputStream, objectMapper)) {
+                transactionService.exportTransactions(userId, from, to, writer::write);
+            }
+        };
+        String filename = "transactions-" + from + "-" + to + "." + format.getExtension();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getMediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+
     /**
      * Deletes a transaction by its ID.
      *
@@ -201,27 +420,35 @@ public class TransactionApi {
         transactionService.delete(id);
 
         LinksDTO linksDTO = new LinksDTO();
-        linksDTO.add(linkTo(methodOn(TransactionApi.class).getAll(Pageable.unpaged())).withRel(IanaLinkRelations.COLLECTION).withType("GET"));
+        linksDTO.add(linkTo(methodOn(TransactionApi.class).getAll(Pageable.unpaged(), null)).withRel(IanaLinkRelations.COLLECTION).withType("GET"));
 
         return ResponseEntity.ok(linksDTO);
     }
 
+    /**
+     * Builds the templates of the detail links of a TransactionDTO.
+     *
+     * @return The LinkTemplates expanded for every TransactionDTO returned.
+     */
+    static LinkTemplates<TransactionDTO> detailLinkTemplates() {
+        return LinkTemplates.<TransactionDTO>builder()
+                // IANA Links
+                .add(linkTo(methodOn(TransactionApi.class).get(null, null)).withSelfRel().withType("GET"), TransactionDTO::getId)
+                .add(linkTo(methodOn(TransactionApi.class).getAll(Pageable.unpaged(), null)).withRel(IanaLinkRelations.COLLECTION).withType("GET"))
+                .add(linkTo(methodOn(CategoryApi.class).getCategoryById(null, null)).withRel("primaryCategory").withType("GET"), TransactionDTO::getPrimaryCategoryId)
+                .add(linkTo(methodOn(CategoryApi.class).getCategoryById(null, null)).withRel("secondaryCategory").withType("GET"), TransactionDTO::getSecondaryCategoryId)
+                // Control Links
+                .add(linkTo(methodOn(TransactionApi.class).update(null, null, null)).withRel("edit").withType("PUT"), TransactionDTO::getId)
+                .add(linkTo(methodOn(TransactionApi.class).delete(null)).withRel("delete").withType("DELETE"), TransactionDTO::getId)
+                .build();
+    }
+
     /**
      * Adds detailed links to the given EntityModel.
      *
      * @param entityModel The EntityModel to which links are added.
      */
     private void addDetailLinks(EntityModel<TransactionDTO> entityModel) {
-        TransactionDTO transactionDTO = entityModel.getContent();
-        Long transactionId = Objects.requireNonNull(transactionDTO).getId();
-        // IANA Links
-        entityModel.add(linkTo(methodOn(TransactionApi.class).get(transactionId)).withSelfRel().withType("GET"));
-        entityModel.add(linkTo(methodOn(TransactionApi.class).getAll(Pageable.unpaged())).withRel(IanaLinkRelations.COLLECTION).withType("GET"));
-        entityModel.add(linkTo(methodOn(CategoryApi.class).getCategoryById(transactionDTO.getPrimaryCategoryId())).withRel("primaryCategory").withType("GET"));
-        entityModel.add(linkTo(methodOn(CategoryApi.class).getCategoryById(transactionDTO.getSecondaryCategoryId())).withRel("secondaryCategory").withType("GET"));
-
-        // Control Links
-        entityModel.add(linkTo(methodOn(TransactionApi.class).update(transactionId, transactionDTO)).withRel("edit").withType("PUT"));
-        entityModel.add(linkTo(methodOn(TransactionApi.class).delete(transactionId)).withRel("delete").withType("DELETE"));
+        detailLinks.addTo(entityModel);
     }
 }
@@ -0,0 +1,111 @@
+package com.brhn.xpnsr.apis;
+
+import com.brhn.xpnsr.models.ExportFormat;
+import com.brhn.xpnsr.services.dtos.TransactionDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes exported transactions to a response stream one row at a time in CSV or NDJSON.
+ */
+final class TransactionExportWriter implements Closeable {
+
+    private static final String[] CSV_HEADER = {"id", "date", "type", "amount", "due", "title", "currency", "city",
+            "country", "description", "tags", "primaryCategoryId", "secondaryCategoryId"};
+
+    private final ExportFormat format;
+    private final Writer writer;
+    private final JsonGenerator generator;
+
+    /**
+     * Constructs a writer for the given format.
+     *
+     * @param format       the export format
+     * @param outputStream the stream receiving the export
+     * @param objectMapper the mapper used to write NDJSON rows
+     * @throws IOException if the stream cannot be written
+     */
+    TransactionExportWriter(ExportFormat format, OutputStream outputStream, ObjectMapper objectMapper) throws IOException {
+        this.format = format;
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        if (format == ExportFormat.NDJSON) {
+            this.generator = objectMapper.getFactory().createGenerator(writer);
+            this.generator.setRootValueSeparator(null);
+        } else {
+            this.generator = null;
+            writer.write(String.join(",", CSV_HEADER));
+            writer.write("\r\n");
+        }
+    }
+
+    /**
+     * Writes one transaction as a row of the export.
+     *
+     * @param transactionDTO the transaction to write
+     * @throws UncheckedIOException if the stream cannot be written
+     */
+    void write(TransactionDTO transactionDTO) {
+        try {
+            if (format == ExportFormat.NDJSON) {
+                generator.writeObject(transactionDTO);
+                generator.flush();
+                writer.write('\n');
+            } else {
+                writeCsvRow(transactionDTO);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes one transaction as a CSV record.
+     *
+     * @param t the transaction to write
+     * @throws IOException if the stream cannot be written
+     */
+    private void writeCsvRow(TransactionDTO t) throws IOException {
+        Object[] values = {t.getId(), t.getDate() == null ? null : t.getDate().toInstant(), t.getType(), t.getAmount(),
+                t.getDue(), t.getTitle(), t.getCurrency(), t.getCity(), t.getCountry(), t.getDescription(), t.getTags(),
+                t.getPrimaryCategoryId(), t.getSecondaryCategoryId()};
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] != null) {
+                writer.write(escapeCsv(values[i].toString()));
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * Quotes a CSV field if it contains a separator, a quote or a line break.
+     *
+     * @param value the field value
+     * @return the escaped field
+     */
+    private static String escapeCsv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (generator != null) {
+            generator.close();
+        }
+        writer.close();
+    }
+}
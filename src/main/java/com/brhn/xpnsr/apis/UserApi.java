@@ -27,7 +27,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.Objects;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
@@ -45,6 +44,7 @@ public class UserApi {
 
     private final UserService userService;
     private final PagedResourcesAssembler<UserDTO> pagedResourcesAssembler;
+    private final LinkTemplates<UserDTO> detailLinks;
 
     /**
      * Constructs a new UserApi instance with the specified UserService.
@@ -56,6 +56,7 @@ public class UserApi {
     public UserApi(UserService userService, PagedResourcesAssembler<UserDTO> pagedResourcesAssembler) {
         this.userService = userService;
         this.pagedResourcesAssembler = pagedResourcesAssembler;
+        this.detailLinks = detailLinkTemplates();
     }
 
     /**
@@ -211,21 +212,28 @@ public class UserApi {
         return ResponseEntity.ok(linksDTO);
     }
 
+    /**
+     * Builds the templates of the detail links of a UserDTO.
+     *
+     * @return The LinkTemplates expanded for every UserDTO returned.
+     */
+    static LinkTemplates<UserDTO> detailLinkTemplates() {
+        return LinkTemplates.<UserDTO>builder()
+                // IANA Links
+                .add(linkTo(methodOn(UserApi.class).getUserById(null)).withSelfRel().withType("GET"), UserDTO::getId)
+                .add(linkTo(methodOn(UserApi.class).getAllUsers(Pageable.unpaged())).withRel(IanaLinkRelations.COLLECTION).withType("GET"))
+                // Control Links
+                .add(linkTo(methodOn(UserApi.class).updateUser(null, null)).withRel("edit").withType("PUT"), UserDTO::getId)
+                .add(linkTo(methodOn(UserApi.class).deleteUser(null)).withRel("delete").withType("DELETE"), UserDTO::getId)
+                .build();
+    }
+
     /**
      * Adds detailed links to the given EntityModel.
      *
      * @param entityModel The EntityModel to which links are added.
      */
     private void addDetailLinks(EntityModel<UserDTO> entityModel) {
-        UserDTO userDTO = entityModel.getContent();
-        Long userId = Objects.requireNonNull(userDTO).getId();
-
-        // IANA Links
-        entityModel.add(linkTo(methodOn(UserApi.class).getUserById(userId)).withSelfRel().withType("GET"));
-        entityModel.add(linkTo(methodOn(UserApi.class).getAllUsers(Pageable.unpaged())).withRel(IanaLinkRelations.COLLECTION).withType("GET"));
-
-        // Control Links
-        entityModel.add(linkTo(methodOn(UserApi.class).updateUser(userId, userDTO)).withRel("edit").withType("PUT"));
-        entityModel.add(linkTo(methodOn(UserApi.class).deleteUser(userId)).withRel("delete").withType("DELETE"));
+        detailLinks.addTo(entityModel);
     }
 }
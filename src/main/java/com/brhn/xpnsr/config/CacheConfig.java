@@ -1,30 +1,35 @@
 package com.brhn.xpnsr.config;
 
-import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import java.util.concurrent.TimeUnit;
-
 @Configuration
 @EnableCaching // Enable Spring's caching support
+@EnableConfigurationProperties(CacheProperties.class) // Per-cache settings from xpnsr.cache.*
 public class CacheConfig {
 
-    // Bean definition for configuring Caffeine cache settings
-    @Bean
-    public Caffeine<Object, Object> caffeineConfig() {
-        return Caffeine.newBuilder()
-                .expireAfterWrite(60, TimeUnit.MINUTES); // Set cache entries to expire after 60 minutes
-    }
-
-    // Bean definition for configuring the CacheManager to use Caffeine
+    // Bean definition for configuring the CacheManager to use Caffeine, with the settings of each cache
     @Bean
-    public CacheManager cacheManager(Caffeine<Object, Object> caffeine) {
-        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager();
-        caffeineCacheManager.setCaffeine(caffeine); // Set the Caffeine instance
-        return caffeineCacheManager;
+    public CacheManager cacheManager(CacheProperties cacheProperties, CacheMetrics cacheMetrics) {
+        return new CaffeineCacheManager() {
+            @Override
+            protected Cache<Object, Object> createNativeCaffeineCache(String name) {
+                CacheProperties.Spec spec = cacheProperties.resolve(name);
+                if (spec.getRefreshAfterWrite() != null) {
+                    // Refreshing needs a loader, which annotation-driven caches do not have
+                    throw new IllegalStateException("Cache '" + name + "' cannot refresh after write");
+                }
+                Cache<Object, Object> cache = spec.newBuilder()
+                        .recordStats(() -> cacheMetrics.statsCounter(name))
+                        .build();
+                cacheMetrics.register(name, cache);
+                return cache;
+            }
+        };
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,58 @@
+package com.brhn.xpnsr.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Registry of the Caffeine caches of the application and of their statistics counters, whether the caches are
+ * managed by Spring or built by a component.
+ */
+@Component
+public class CacheMetrics {
+
+    private final ConcurrentMap<String, LoadLatencyStatsCounter> counters = new ConcurrentSkipListMap<>();
+    private final ConcurrentMap<String, Cache<?, ?>> caches = new ConcurrentSkipListMap<>();
+
+    /**
+     * Returns the statistics counter of a cache, to be passed to {@code Caffeine.recordStats}.
+     *
+     * @param name The name of the cache.
+     * @return The counter of the cache.
+     */
+    public LoadLatencyStatsCounter statsCounter(String name) {
+        return counters.computeIfAbsent(name, key -> new LoadLatencyStatsCounter());
+    }
+
+    /**
+     * Registers a built cache so that it is reported.
+     *
+     * @param name  The name of the cache.
+     * @param cache The cache, the synchronous view for an asynchronous cache.
+     */
+    public void register(String name, Cache<?, ?> cache) {
+        caches.put(name, cache);
+    }
+
+    /**
+     * Retrieves the names of the registered caches in alphabetical order.
+     *
+     * @return The cache names.
+     */
+    public Set<String> getNames() {
+        return caches.keySet();
+    }
+
+    /**
+     * Retrieves a registered cache.
+     *
+     * @param name The name of the cache.
+     * @return The cache, or null if no cache has the name.
+     */
+    public Cache<?, ?> getCache(String name) {
+        return caches.get(name);
+    }
+}
@@ -0,0 +1,241 @@
+package com.brhn.xpnsr.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Caffeine settings of the caches, bound from the {@code xpnsr.cache.*} properties.
+ * Every cache uses the defaults, overridden setting by setting by its entry in {@code specs}:
+ * <pre>
+ * xpnsr.cache.defaults.maximum-size=10000
+ * xpnsr.cache.specs.principals.expire-after-write=10m
+ * </pre>
+ * The api-keys and reports caches are asynchronous and compute the expiration of their entries, so they fail
+ * to start with weak-values, soft-values or expire-after-access, and the reports cache with refresh-after-write.
+ */
+@ConfigurationProperties(prefix = "xpnsr.cache")
+public class CacheProperties {
+
+    private Spec defaults = new Spec();
+    private Map<String, Spec> specs = new LinkedHashMap<>();
+
+    public Spec getDefaults() {
+        return defaults;
+    }
+
+    public void setDefaults(Spec defaults) {
+        this.defaults = defaults;
+    }
+
+    public Map<String, Spec> getSpecs() {
+        return specs;
+    }
+
+    public void setSpecs(Map<String, Spec> specs) {
+        this.specs = specs;
+    }
+
+    /**
+     * Resolves the settings of a cache by applying its own settings over the defaults.
+     *
+     * @param name The name of the cache.
+     * @return The effective settings of the cache.
+     */
+    public Spec resolve(String name) {
+        Spec spec = specs.get(name);
+        return spec == null ? defaults : spec.orElse(defaults);
+    }
+
+    /**
+     * Settings of a single cache. Unset settings are inherited from the defaults, or left to Caffeine.
+     */
+    public static class Spec {
+
+        private Long maximumSize;         // Maximum number of entries
+        private Long maximumWeight;       // Maximum total weight, an entry weighing its number of elements
+        private Duration expireAfterWrite;
+        private Duration expireAfterAccess;
+        private Duration refreshAfterWrite; // Only for caches with a loader
+        private Boolean weakKeys;
+        private Boolean weakValues;
+        private Boolean softValues;
+
+        public Long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(Long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Long getMaximumWeight() {
+            return maximumWeight;
+        }
+
+        public void setMaximumWeight(Long maximumWeight) {
+            this.maximumWeight = maximumWeight;
+        }
+
+        public Duration getExpireAfterWrite() {
+            return expireAfterWrite;
+        }
+
+        public void setExpireAfterWrite(Duration expireAfterWrite) {
+            this.expireAfterWrite = expireAfterWrite;
+        }
+
+        public Duration getExpireAfterAccess() {
+            return expireAfterAccess;
+        }
+
+        public void setExpireAfterAccess(Duration expireAfterAccess) {
+            this.expireAfterAccess = expireAfterAccess;
+        }
+
+        public Duration getRefreshAfterWrite() {
+            return refreshAfterWrite;
+        }
+
+        public void setRefreshAfterWrite(Duration refreshAfterWrite) {
+            this.refreshAfterWrite = refreshAfterWrite;
+        }
+
+        public Boolean getWeakKeys() {
+            return weakKeys;
+        }
+
+        public void setWeakKeys(Boolean weakKeys) {
+            this.weakKeys = weakKeys;
+        }
+
+        public Boolean getWeakValues() {
+            return weakValues;
+        }
+
+        public void setWeakValues(Boolean weakValues) {
+            this.weakValues = weakValues;
+        }
+
+        public Boolean getSoftValues() {
+            return softValues;
+        }
+
+        public void setSoftValues(Boolean softValues) {
+            this.softValues = softValues;
+        }
+
+        /**
+         * Merges these settings with fallbacks for the settings that are not set.
+         *
+         * @param fallback The settings used when one of these is not set.
+         * @return The merged settings.
+         */
+        public Spec orElse(Spec fallback) {
+            Spec merged = new Spec();
+            merged.maximumSize = maximumSize != null ? maximumSize : fallback.maximumSize;
+            merged.maximumWeight = maximumWeight != null ? maximumWeight : fallback.maximumWeight;
+            merged.expireAfterWrite = expireAfterWrite != null ? expireAfterWrite : fallback.expireAfterWrite;
+            merged.expireAfterAccess = expireAfterAccess != null ? expireAfterAccess : fallback.expireAfterAccess;
+            merged.refreshAfterWrite = refreshAfterWrite != null ? refreshAfterWrite : fallback.refreshAfterWrite;
+            merged.weakKeys = weakKeys != null ? weakKeys : fallback.weakKeys;
+            merged.weakValues = weakValues != null ? weakValues : fallback.weakValues;
+            merged.softValues = softValues != null ? softValues : fallback.softValues;
+            if (maximumSize != null && maximumWeight == null) {
+                merged.maximumWeight = null; // A cache bounded by size does not inherit a weight bound
+            } else if (maximumWeight != null && maximumSize == null) {
+                merged.maximumSize = null;
+            }
+            return merged;
+        }
+
+        /**
+         * Creates a Caffeine builder with the size bound and the reference strength of these settings.
+         *
+         * @return The Caffeine builder.
+         */
+        private Caffeine<Object, Object> newBoundedBuilder() {
+            Caffeine<Object, Object> builder = Caffeine.newBuilder();
+            if (maximumWeight != null) {
+                builder.maximumWeight(maximumWeight).weigher((key, value) -> weightOf(value));
+            } else if (maximumSize != null) {
+                builder.maximumSize(maximumSize);
+            }
+            if (Boolean.TRUE.equals(weakKeys)) {
+                builder.weakKeys();
+            }
+            if (Boolean.TRUE.equals(softValues)) {
+                builder.softValues();
+            } else if (Boolean.TRUE.equals(weakValues)) {
+                builder.weakValues();
+            }
+            return builder;
+        }
+
+        /**
+         * Creates a Caffeine builder for an asynchronous cache computing the expiration of its entries, with the
+         * size bound and the key strength of these settings. Such a cache cannot hold weak or soft values and its
+         * own expiration replaces expire-after-access, so these settings are rejected rather than ignored.
+         *
+         * @param name    The name of the cache, reported when a setting is rejected.
+         * @param loading Whether the cache has a loader, without which it cannot refresh after write.
+         * @return The Caffeine builder.
+         * @throws IllegalStateException if one of these settings cannot be applied to the cache.
+         */
+        public Caffeine<Object, Object> newAsyncBuilder(String name, boolean loading) {
+            List<String> unsupported = new ArrayList<>();
+            if (Boolean.TRUE.equals(weakValues)) {
+                unsupported.add("weak-values");
+            }
+            if (Boolean.TRUE.equals(softValues)) {
+                unsupported.add("soft-values");
+            }
+            if (expireAfterAccess != null) {
+                unsupported.add("expire-after-access");
+            }
+            if (refreshAfterWrite != null && !loading) {
+                unsupported.add("refresh-after-write");
+            }
+            if (!unsupported.isEmpty()) {
+                throw new IllegalStateException("Cache '" + name + "' does not support "
+                        + String.join(", ", unsupported));
+            }
+            return newBoundedBuilder();
+        }
+
+        /**
+         * Creates a Caffeine builder with all of these settings.
+         *
+         * @return The Caffeine builder.
+         */
+        public Caffeine<Object, Object> newBuilder() {
+            Caffeine<Object, Object> builder = newBoundedBuilder();
+            if (expireAfterWrite != null) {
+                builder.expireAfterWrite(expireAfterWrite);
+            }
+            if (expireAfterAccess != null) {
+                builder.expireAfterAccess(expireAfterAccess);
+            }
+            if (refreshAfterWrite != null) {
+                builder.refreshAfterWrite(refreshAfterWrite);
+            }
+            return builder;
+        }
+
+        private static int weightOf(Object value) {
+            if (value instanceof Collection<?> collection) {
+                return Math.max(1, collection.size());
+            }
+            if (value instanceof Map<?, ?> map) {
+                return Math.max(1, map.size());
+            }
+            return 1;
+        }
+    }
+}
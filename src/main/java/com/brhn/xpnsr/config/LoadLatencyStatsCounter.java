@@ -0,0 +1,86 @@
+package com.brhn.xpnsr.config;
+
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.github.benmanes.caffeine.cache.stats.ConcurrentStatsCounter;
+import com.github.benmanes.caffeine.cache.stats.StatsCounter;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Caffeine statistics counter that also keeps a histogram of the load latencies, so percentiles can be reported.
+ * Latencies are counted in power-of-two microsecond buckets: recording is a single atomic increment, and a
+ * percentile is reported as the upper bound of the bucket it falls in.
+ */
+public class LoadLatencyStatsCounter implements StatsCounter {
+
+    private static final int BUCKETS = 40; // Up to 2^39 microseconds, about 6 days
+
+    private final StatsCounter delegate = new ConcurrentStatsCounter();
+    private final AtomicLongArray loadLatencies = new AtomicLongArray(BUCKETS);
+
+    @Override
+    public void recordHits(int count) {
+        delegate.recordHits(count);
+    }
+
+    @Override
+    public void recordMisses(int count) {
+        delegate.recordMisses(count);
+    }
+
+    @Override
+    public void recordLoadSuccess(long loadTime) {
+        delegate.recordLoadSuccess(loadTime);
+        recordLatency(loadTime);
+    }
+
+    @Override
+    public void recordLoadFailure(long loadTime) {
+        delegate.recordLoadFailure(loadTime);
+        recordLatency(loadTime);
+    }
+
+    @Override
+    public void recordEviction(int weight, RemovalCause cause) {
+        delegate.recordEviction(weight, cause);
+    }
+
+    @Override
+    public CacheStats snapshot() {
+        return delegate.snapshot();
+    }
+
+    /**
+     * Computes a percentile of the load latencies recorded so far.
+     *
+     * @param percentile The percentile, between 0 and 1.
+     * @return The latency in milliseconds, or 0 if nothing was loaded.
+     */
+    public double loadLatencyPercentileMillis(double percentile) {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = loadLatencies.get(i);
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return (1L << i) / 1000d;
+            }
+        }
+        return (1L << (BUCKETS - 1)) / 1000d;
+    }
+
+    private void recordLatency(long loadTimeNanos) {
+        long micros = Math.max(0, loadTimeNanos / 1000);
+        int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+        loadLatencies.incrementAndGet(bucket);
+    }
+}
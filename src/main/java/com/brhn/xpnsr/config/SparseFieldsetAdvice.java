@@ -0,0 +1,64 @@
+package com.brhn.xpnsr.config;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.Set;
+
+/**
+ * Narrows the JSON serialization of a response to the sparse fieldset a controller selected for the request.
+ * DTOs opt in with {@code @JsonFilter(SparseFieldsetAdvice.FILTER_ID)}; the excluded properties are skipped by
+ * the serializer itself, so they are never read nor written.
+ */
+@RestControllerAdvice
+public class SparseFieldsetAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String FILTER_ID = "sparseFieldset";
+
+    private static final String FIELDS_ATTRIBUTE = SparseFieldsetAdvice.class.getName() + ".fields";
+
+    /**
+     * Selects the properties serialized for the filtered DTOs of the current response.
+     *
+     * @param fields The names of the properties to serialize.
+     */
+    public static void select(Set<String> fields) {
+        RequestContextHolder.currentRequestAttributes()
+                .setAttribute(FIELDS_ATTRIBUTE, Set.copyOf(fields), RequestAttributes.SCOPE_REQUEST);
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return AbstractJackson2HttpMessageConverter.class.isAssignableFrom(converterType);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (body == null || !(request instanceof ServletServerHttpRequest servletRequest)) {
+            return body;
+        }
+        Set<String> fields = (Set<String>) servletRequest.getServletRequest().getAttribute(FIELDS_ATTRIBUTE);
+        if (fields == null) {
+            return body;
+        }
+        MappingJacksonValue container = body instanceof MappingJacksonValue value ? value : new MappingJacksonValue(body);
+        container.setFilters(new SimpleFilterProvider()
+                .addFilter(FILTER_ID, SimpleBeanPropertyFilter.filterOutAllExcept(fields)));
+        return container;
+    }
+}
@@ -1,6 +1,13 @@
 package com.brhn.xpnsr.config;
 
+import com.brhn.xpnsr.converters.ExportFormatConverter;
+import com.brhn.xpnsr.converters.LinkModeConverter;
+import com.brhn.xpnsr.converters.ReportBucketConverter;
 import com.brhn.xpnsr.converters.TransactionTypeConverter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.format.FormatterRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -9,13 +16,34 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 public class WebConfig implements WebMvcConfigurer {
 
     private final TransactionTypeConverter transactionTypeConverter;
+    private final ReportBucketConverter reportBucketConverter;
+    private final ExportFormatConverter exportFormatConverter;
+    private final LinkModeConverter linkModeConverter;
 
-    public WebConfig(TransactionTypeConverter transactionTypeConverter) {
+    public WebConfig(TransactionTypeConverter transactionTypeConverter, ReportBucketConverter reportBucketConverter,
+                     ExportFormatConverter exportFormatConverter, LinkModeConverter linkModeConverter) {
         this.transactionTypeConverter = transactionTypeConverter;
+        this.reportBucketConverter = reportBucketConverter;
+        this.exportFormatConverter = exportFormatConverter;
+        this.linkModeConverter = linkModeConverter;
     }
 
     @Override
     public void addFormatters(FormatterRegistry registry) {
         registry.addConverter(transactionTypeConverter);
+        registry.addConverter(reportBucketConverter);
+        registry.addConverter(exportFormatConverter);
+        registry.addConverter(linkModeConverter);
+    }
+
+    /**
+     * Serializes every property of the DTOs carrying a sparse fieldset filter unless a response narrows it down.
+     *
+     * @return The customizer registering the default filter.
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer sparseFieldsetFilterCustomizer() {
+        return builder -> builder.filters(new SimpleFilterProvider()
+                .addFilter(SparseFieldsetAdvice.FILTER_ID, SimpleBeanPropertyFilter.serializeAll()));
     }
 }
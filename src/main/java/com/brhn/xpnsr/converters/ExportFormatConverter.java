@@ -0,0 +1,18 @@
+package com.brhn.xpnsr.converters;
+
+import com.brhn.xpnsr.models.ExportFormat;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ExportFormatConverter implements Converter<String, ExportFormat> {
+
+    @Override
+    public ExportFormat convert(String source) {
+        try {
+            return ExportFormat.valueOf(source.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid export format: " + source);
+        }
+    }
+}
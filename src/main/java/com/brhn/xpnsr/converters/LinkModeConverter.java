@@ -0,0 +1,18 @@
+package com.brhn.xpnsr.converters;
+
+import com.brhn.xpnsr.models.LinkMode;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+@Component
+public class LinkModeConverter implements Converter<String, LinkMode> {
+
+    @Override
+    public LinkMode convert(String source) {
+        try {
+            return LinkMode.valueOf(source.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid link mode: " + source);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.brhn.xpnsr.converters;
+
+import com.brhn.xpnsr.models.ReportBucket;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ReportBucketConverter implements Converter<String, ReportBucket> {
+
+    @Override
+    public ReportBucket convert(String source) {
+        try {
+            return ReportBucket.valueOf(source.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid report bucket: " + source);
+        }
+    }
+}
@@ -3,12 +3,14 @@ package com.brhn.xpnsr.data;
 import com.brhn.xpnsr.models.*;
 import com.brhn.xpnsr.repositories.ApplicationRepository;
 import com.brhn.xpnsr.repositories.CategoryRepository;
+import com.brhn.xpnsr.repositories.TransactionDailySummaryRepository;
 import com.brhn.xpnsr.repositories.TransactionRepository;
 import com.brhn.xpnsr.repositories.UserRepository;
 import com.brhn.xpnsr.repositories.BillRepository;
+import com.brhn.xpnsr.security.ApiKeyCache;
+import com.brhn.xpnsr.services.TransactionSummaryService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
@@ -16,12 +18,23 @@ import org.springframework.beans.factory.annotation.Autowired;
 
 import java.math.BigDecimal;
 import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * Loader of the data into an empty database. The applications, the sample user and the categories the API
+ * cannot be used without are always loaded, once the application is ready. The bulk sample data, bills and
+ * generated users and transactions, is only loaded when {@code xpnsr.seed.enabled} is set, on its own thread
+ * unless {@code xpnsr.seed.background} is false, so the HTTP port is open immediately; until loading has finished,
+ * the SampleDataGate answers API requests with 503 Service Unavailable. Every step is skipped when its table
+ * already has rows, so restarting against a loaded database loads nothing.
+ */
 @Component
-public class DataLoader implements CommandLineRunner {
+public class DataLoader {
 
     private static final Logger log = LoggerFactory.getLogger(DataLoader.class);
 
@@ -31,22 +44,75 @@ public class DataLoader implements CommandLineRunner {
     private final CategoryRepository categoryRepository;
     private final TransactionRepository transactionRepository;
     private final BillRepository billRepository;
+    private final TransactionDailySummaryRepository summaryRepository;
+
+    private final TransactionSummaryService summaryService;
+    private final SampleDataGenerator sampleDataGenerator;
+
+    private final AtomicBoolean started = new AtomicBoolean();
+    private volatile boolean loading = true; // Whether the data is still being loaded
 
     @Autowired
     public DataLoader(ApplicationRepository applicationRepository, UserRepository userRepository,
                       CategoryRepository categoryRepository, TransactionRepository transactionRepository,
-                      BillRepository billRepository) {
+                      BillRepository billRepository, TransactionDailySummaryRepository summaryRepository,
+                      TransactionSummaryService summaryService, SampleDataGenerator sampleDataGenerator) {
         this.applicationRepository = applicationRepository;
         this.userRepository = userRepository;
         this.categoryRepository = categoryRepository;
         this.transactionRepository = transactionRepository;
         this.billRepository = billRepository;
+        this.summaryRepository = summaryRepository;
+        this.summaryService = summaryService;
+        this.sampleDataGenerator = sampleDataGenerator;
+    }
+
+    /**
+     * Checks whether the data is still being loaded. Requests wait from the moment the port opens.
+     *
+     * @return true until the loading has finished or failed.
+     */
+    public boolean isLoading() {
+        return loading;
+    }
+
+    // This method is executed once the application is ready, and loads the data once
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAfterStartup() {
+        if (!started.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            loadBootstrapData();
+        } catch (RuntimeException e) {
+            log.error("Could not load the applications, sample user and categories", e);
+        }
+        if (!sampleDataGenerator.getProperties().isEnabled()) {
+            loading = false;
+        } else if (sampleDataGenerator.getProperties().isBackground()) {
+            Thread thread = new Thread(this::loadAndOpen, "seed-data");
+            thread.setDaemon(true);
+            thread.start();
+        } else {
+            loadAndOpen();
+        }
+    }
+
+    // Load the bulk sample data, then let the requests through, even if loading failed
+    private void loadAndOpen() {
+        long started = System.currentTimeMillis();
+        try {
+            load();
+            log.info("Sample data loaded in {} ms", System.currentTimeMillis() - started);
+        } catch (RuntimeException e) {
+            log.error("Could not load sample data", e);
+        } finally {
+            loading = false;
+        }
     }
 
-    // This method is executed upon application startup
-    @Override
-    public void run(String... args) throws Exception {
-        // Check if sample data needs to be loaded
+    // Load the data the API cannot be used without, which is small enough to load before requests are served
+    private void loadBootstrapData() {
         if (applicationRepository.count() == 0) {
             log.info("Generating sample application data...");
             loadSampleApplications();
@@ -62,37 +128,46 @@ public class DataLoader implements CommandLineRunner {
             loadSampleCategories();
         }
 
-        if (transactionRepository.count() == 0) {
-            log.info("Generating sample transactions data...");
-            loadSampleTransactions();
+        if (transactionRepository.count() > 0 && summaryRepository.count() == 0) {
+            log.info("Building daily transaction summaries...");
+            summaryService.rebuild();
         }
+    }
+
+    // Load the bulk sample data missing from the database
+    private void load() {
+        sampleDataGenerator.generateUsers(userRepository.count());
 
         if (billRepository.count() == 0) {
             log.info("Generating sample bill data...");
             loadSampleBills();
         }
+
+        if (transactionRepository.count() == 0) {
+            loadSampleTransactions();
+        }
     }
 
-    // Load sample applications into the database
+    // Load sample applications into the database, storing only the hashes of their API keys
     private void loadSampleApplications() {
         Application app0 = new Application();
         app0.setName("Test");
-        app0.setApiKey("c779c66a194f4ddfbc22a9e2dacb5835");
+        app0.setApiKey(ApiKeyCache.hash("c779c66a194f4ddfbc22a9e2dacb5835"));
 
         Application app1 = new Application();
         app1.setName("Android");
-        app1.setApiKey(generateApiKey());
+        app1.setApiKey(ApiKeyCache.hash(generateApiKey(app1.getName())));
 
         Application app2 = new Application();
         app2.setName("Web");
-        app2.setApiKey(generateApiKey());
+        app2.setApiKey(ApiKeyCache.hash(generateApiKey(app2.getName())));
 
         applicationRepository.save(app0);
         applicationRepository.save(app1);
         applicationRepository.save(app2);
     }
 
-    // Load sample users into the database
+    // Load the sample user into the database
     private void loadSampleUsers() {
         User user = new User();
         user.setLogin("sample_user");
@@ -136,39 +211,14 @@ public class DataLoader implements CommandLineRunner {
         categoryRepository.save(gifts);
     }
 
-    // Load sample transactions into the database
+    // Generate sample transactions for every user, then build their daily summaries in one pass, as the
+    // transactions are inserted directly
     private void loadSampleTransactions() {
-        User user = userRepository.findAll().iterator().next(); // Fetch first user
-
-        // Fetch sample categories by ID
-        Category groceriesCategory = categoryRepository.findById("groceries").orElseThrow();
-        Category salaryCategory = categoryRepository.findById("salary").orElseThrow();
-        Category utilitiesCategory = categoryRepository.findById("utilities").orElseThrow();
-        Category diningOutCategory = categoryRepository.findById("dining_out").orElseThrow();
-        Category entertainmentCategory = categoryRepository.findById("entertainment").orElseThrow();
-        Category travelCategory = categoryRepository.findById("travel").orElseThrow();
-        Category healthCategory = categoryRepository.findById("health").orElseThrow();
-        Category educationCategory = categoryRepository.findById("education").orElseThrow();
-        Category savingsCategory = categoryRepository.findById("savings").orElseThrow();
-        Category giftsCategory = categoryRepository.findById("gifts").orElseThrow();
-
-        // Timestamp for transactions
-        Timestamp currentTime = new Timestamp(System.currentTimeMillis());
-
-        // Create and save sample transactions
-        for (int i = 0; i < 10; i++) {
-            createAndSaveTransaction(currentTime, TransactionType.EXPENSE, new BigDecimal("100.00"), groceriesCategory, "Weekly groceries", user);
-            createAndSaveTransaction(currentTime, TransactionType.EARNING, new BigDecimal("2000.00"), salaryCategory,
-                    "Monthly salary", user);
-            createAndSaveTransaction(currentTime, TransactionType.EXPENSE, new BigDecimal("150.00"), utilitiesCategory, "Monthly utilities", user);
-            createAndSaveTransaction(currentTime, TransactionType.EXPENSE, new BigDecimal("75.00"), diningOutCategory, "Dining out with friends", user);
-            createAndSaveTransaction(currentTime, TransactionType.EXPENSE, new BigDecimal("50.00"), entertainmentCategory, "Cinema tickets", user);
-            createAndSaveTransaction(currentTime, TransactionType.EXPENSE, new BigDecimal("500.00"), travelCategory, "Weekend getaway", user);
-            createAndSaveTransaction(currentTime, TransactionType.EXPENSE, new BigDecimal("200.00"), healthCategory, "Dental appointment", user);
-            createAndSaveTransaction(currentTime, TransactionType.EXPENSE, new BigDecimal("300.00"), educationCategory, "Online courses", user);
-            createAndSaveTransaction(currentTime, TransactionType.EARNING, new BigDecimal("150.00"), savingsCategory, "Monthly savings contribution", user);
-            createAndSaveTransaction(currentTime, TransactionType.EXPENSE, new BigDecimal("100.00"), giftsCategory, "Birthday gift for a friend", user);
-        }
+        log.info("Generating sample transactions data...");
+        List<Long> userIds = userRepository.findAll().stream().map(User::getId).toList();
+        sampleDataGenerator.generateTransactions(userIds, categoryRepository.findAll());
+        log.info("Building daily transaction summaries...");
+        summaryService.rebuild();
     }
 
     // Load sample bills into the database
@@ -177,15 +227,18 @@ public class DataLoader implements CommandLineRunner {
         List<User> users = userRepository.findAll();
         List<Category> categories = categoryRepository.findAll();
 
+        List<Bill> bills = new ArrayList<>();
         for (int i = 0; i < 100; i++) {
             Bill bill = new Bill();
             bill.setTenure(random.nextInt(12) + 1); // Tenure between 1 and 12 months
             bill.setAmount(BigDecimal.valueOf(random.nextInt(500) + 1)); // Amount between 1 and 500
+            bill.setStartDate(LocalDate.now().withDayOfMonth(1).minusMonths(random.nextInt(12))); // Started within the last year
             bill.setUser(users.get(random.nextInt(users.size())));
             bill.setCategory(categories.get(random.nextInt(categories.size())));
 
-            billRepository.save(bill);
+            bills.add(bill);
         }
+        billRepository.saveAll(bills); // Written in JDBC batches
     }
 
     // Helper method to create a category
@@ -199,31 +252,9 @@ public class DataLoader implements CommandLineRunner {
         return category;
     }
 
-    // Helper method to create and save a transaction
-    private void createAndSaveTransaction(Timestamp date, TransactionType type, BigDecimal amount, Category primaryCategory, String description, User user) {
-        Transaction transaction = new Transaction();
-        transaction.setDate(date);
-        transaction.setType(type);
-        transaction.setAmount(amount);
-        transaction.setPrimaryCategory(primaryCategory);
-        transaction.setDescription(description);
-        transaction.setUser(user);
-        transaction.setCurrency("EUR");
-        transactionRepository.save(transaction);
-    }
-
-    // Helper method to generate a random API key
-    private String generateApiKey() {
+    // Helper method to generate a random API key, which is never logged as only its hash is stored
+    private String generateApiKey(String applicationName) {
+        log.info("Generated API key of application '{}'", applicationName);
         return UUID.randomUUID().toString().replace("-", "");
     }
-
-    // This method is executed after the application has started
-    @EventListener(ApplicationReadyEvent.class)
-    public void runAfterStartup() {
-        try {
-            this.run();
-        } catch (Exception e) {
-            log.error("Error running DataLoader", e);
-        }
-    }
 }
@@ -0,0 +1,54 @@
+package com.brhn.xpnsr.data;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Readiness gate answering API requests with 503 Service Unavailable while the sample data is being loaded.
+ * It runs before the API key filter, so a key looked up before its application is loaded is not cached as
+ * invalid, and clients and load balancers retry instead of reading a partially seeded database.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE) // Before the security filter chain
+public class SampleDataGate extends OncePerRequestFilter {
+
+    private static final String RETRY_AFTER_SECONDS = "5";
+
+    private final DataLoader dataLoader;
+
+    /**
+     * Constructs a SampleDataGate.
+     *
+     * @param dataLoader The loader of the sample data.
+     */
+    @Autowired
+    public SampleDataGate(DataLoader dataLoader) {
+        this.dataLoader = dataLoader;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (dataLoader.isLoading() && request.getRequestURI().startsWith("/api")) {
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding("UTF-8");
+            response.getWriter().write("{\"error\": \"Sample data is being loaded\", " +
+                    "\"code\": " + HttpServletResponse.SC_SERVICE_UNAVAILABLE + "}");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,207 @@
+package com.brhn.xpnsr.data;
+
+import com.brhn.xpnsr.models.Category;
+import com.brhn.xpnsr.models.Transaction;
+import com.brhn.xpnsr.models.User;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generator of synthetic users and transactions, sized and shaped by the SeedProperties.
+ * Transactions are inserted in chunks, each committed in its own database transaction and written in JDBC
+ * batches, with the persistence context cleared after every batch, so memory stays flat whatever the volume.
+ * Progress is logged while the chunks are written.
+ */
+@Component
+@EnableConfigurationProperties(SeedProperties.class)
+public class SampleDataGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(SampleDataGenerator.class);
+
+    private static final double AMOUNT_SPREAD = 0.8; // Standard deviation of the logarithm of the amounts
+    private static final BigDecimal MINIMUM_AMOUNT = new BigDecimal("0.01");
+    private static final long PROGRESS_INTERVAL_MILLIS = 5_000;
+
+    private final SeedProperties properties;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int jdbcBatchSize; // Number of writes flushed together in a batch
+
+    /**
+     * Constructs a SampleDataGenerator.
+     *
+     * @param properties         The volume and shape of the data to generate.
+     * @param entityManager      The entity manager used to insert, flush and clear the batches.
+     * @param transactionManager The transaction manager every chunk is committed with.
+     */
+    @Autowired
+    public SampleDataGenerator(SeedProperties properties, EntityManager entityManager,
+                               PlatformTransactionManager transactionManager) {
+        this.properties = properties;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Retrieves the volume and shape of the data to generate.
+     *
+     * @return The SeedProperties.
+     */
+    public SeedProperties getProperties() {
+        return properties;
+    }
+
+    /**
+     * Generates the users beyond the sample user, up to the configured number of users.
+     *
+     * @param existing The number of users already in the database.
+     */
+    public void generateUsers(long existing) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        for (long from = existing; from < properties.getUsers(); from += properties.getChunkSize()) {
+            long to = Math.min(from + properties.getChunkSize(), properties.getUsers());
+            long first = from;
+            transactionTemplate.executeWithoutResult(status -> {
+                for (long i = first; i < to; i++) {
+                    entityManager.persist(createUser(i, now));
+                    if ((i - first + 1) % jdbcBatchSize == 0) {
+                        entityManager.flush();
+                        entityManager.clear();
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Generates the configured number of transactions for every user, drawing their categories by weight,
+     * their amounts around the median of their category and their dates within the configured span.
+     *
+     * @param userIds    The IDs of the users the transactions belong to.
+     * @param categories The categories the transactions are drawn from.
+     * @return The number of transactions generated.
+     */
+    public long generateTransactions(List<Long> userIds, List<Category> categories) {
+        Random random = properties.getRandomSeed() != null ? new Random(properties.getRandomSeed()) : new Random();
+        CategoryDraw draw = new CategoryDraw(categories, properties);
+        LocalDate today = LocalDate.now();
+        LocalDate start = today.minus(properties.getSpan());
+        int days = (int) Math.max(1, ChronoUnit.DAYS.between(start, today) + 1);
+
+        long total = (long) userIds.size() * properties.getTransactionsPerUser();
+        long started = System.currentTimeMillis();
+        long lastProgress = started;
+        long generated = 0;
+        while (generated < total) {
+            long from = generated;
+            long to = Math.min(from + properties.getChunkSize(), total);
+            transactionTemplate.executeWithoutResult(status -> {
+                for (long i = from; i < to; i++) {
+                    Long userId = userIds.get((int) (i / properties.getTransactionsPerUser()));
+                    entityManager.persist(createTransaction(userId, draw.next(random), start, days, random));
+                    if ((i - from + 1) % jdbcBatchSize == 0) {
+                        entityManager.flush();
+                        entityManager.clear();
+                    }
+                }
+            });
+            generated = to;
+            long now = System.currentTimeMillis();
+            if (now - lastProgress >= PROGRESS_INTERVAL_MILLIS) {
+                log.info("Generated {} of {} transactions ({} rows/s)", generated, total,
+                        generated * 1000 / Math.max(1, now - started));
+                lastProgress = now;
+            }
+        }
+        long elapsed = Math.max(1, System.currentTimeMillis() - started);
+        log.info("Generated {} transactions in {} ms ({} rows/s)", total, elapsed, total * 1000 / elapsed);
+        return total;
+    }
+
+    // Helper method to create a generated user, numbered after the sample user
+    private User createUser(long index, Timestamp now) {
+        User user = new User();
+        user.setLogin("seed_user_" + index);
+        user.setPasswordHash("seed_user_hash");
+        user.setFirstName("Seed");
+        user.setLastName("User " + index);
+        user.setEmail("seed.user." + index + "@example.com");
+        user.setActivated(true);
+        user.setCreatedBy("system");
+        user.setCreatedDate(now);
+        user.setLastModifiedBy("system");
+        user.setLastModifiedDate(now);
+        return user;
+    }
+
+    // Helper method to create a transaction of a category, on a random day of the span and mostly during the day
+    private Transaction createTransaction(Long userId, Category category, LocalDate start, int days, Random random) {
+        int minuteOfDay = (6 + random.nextInt(8) + random.nextInt(8)) * 60 + random.nextInt(60); // Peaks at 13:00
+        BigDecimal median = properties.resolve(category.getId()).getMedianAmount();
+        BigDecimal amount = median.multiply(BigDecimal.valueOf(Math.exp(AMOUNT_SPREAD * random.nextGaussian())))
+                .setScale(2, RoundingMode.HALF_UP)
+                .max(MINIMUM_AMOUNT);
+
+        Transaction transaction = new Transaction();
+        transaction.setDate(Timestamp.valueOf(start.plusDays(random.nextInt(days)).atStartOfDay()
+                .plusMinutes(minuteOfDay)));
+        transaction.setType(category.getType());
+        transaction.setAmount(amount);
+        transaction.setTitle(category.getName());
+        transaction.setPrimaryCategory(entityManager.getReference(Category.class, category.getId()));
+        transaction.setUser(entityManager.getReference(User.class, userId));
+        transaction.setCurrency(properties.getCurrency());
+        return transaction;
+    }
+
+    /**
+     * Draws categories with a probability proportional to their configured weight.
+     */
+    private static final class CategoryDraw {
+
+        private final List<Category> categories = new ArrayList<>();
+        private final long[] cumulativeWeights;
+
+        CategoryDraw(List<Category> categories, SeedProperties properties) {
+            long[] weights = new long[categories.size()];
+            long sum = 0;
+            for (Category category : categories) {
+                int weight = properties.resolve(category.getId()).getWeight();
+                if (weight > 0) {
+                    sum += weight;
+                    weights[this.categories.size()] = sum;
+                    this.categories.add(category);
+                }
+            }
+            if (this.categories.isEmpty()) {
+                throw new IllegalStateException("No category to generate transactions in");
+            }
+            this.cumulativeWeights = Arrays.copyOf(weights, this.categories.size());
+        }
+
+        Category next(Random random) {
+            long point = (long) (random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1]);
+            int index = Arrays.binarySearch(cumulativeWeights, point + 1);
+            return categories.get(index >= 0 ? index : -index - 1);
+        }
+    }
+}
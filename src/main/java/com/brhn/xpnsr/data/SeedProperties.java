@@ -0,0 +1,142 @@
+package com.brhn.xpnsr.data;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.math.BigDecimal;
+import java.time.Period;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Whether sample data is generated on an empty database, and its volume and shape, bound from the
+ * {@code xpnsr.seed.*} properties. Each category is drawn with its weight and its amounts spread around its
+ * median, so reports see a few dominant categories and a long tail, as real data does:
+ * <pre>
+ * xpnsr.seed.enabled=true
+ * xpnsr.seed.users=1000
+ * xpnsr.seed.transactions-per-user=50000
+ * xpnsr.seed.span=3y
+ * xpnsr.seed.categories.groceries.weight=30
+ * xpnsr.seed.categories.groceries.median-amount=45
+ * </pre>
+ */
+@ConfigurationProperties(prefix = "xpnsr.seed")
+public class SeedProperties {
+
+    private boolean enabled;                // Generate sample data, which is opt-in
+    private boolean background = true;      // Generate the sample data off the startup thread
+    private int users = 1;                  // Users generated, the first one being the sample user
+    private int transactionsPerUser = 100;  // Transactions generated for every user
+    private Period span = Period.ofYears(1); // Transactions are dated within this period before today
+    private int chunkSize = 10_000;         // Transactions committed together
+    private Long randomSeed;                // Seed of the generator, for reproducible data
+    private String currency = "EUR";
+    private Map<String, CategorySpec> categories = new LinkedHashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isBackground() {
+        return background;
+    }
+
+    public void setBackground(boolean background) {
+        this.background = background;
+    }
+
+    public int getUsers() {
+        return users;
+    }
+
+    public void setUsers(int users) {
+        this.users = users;
+    }
+
+    public int getTransactionsPerUser() {
+        return transactionsPerUser;
+    }
+
+    public void setTransactionsPerUser(int transactionsPerUser) {
+        this.transactionsPerUser = transactionsPerUser;
+    }
+
+    public Period getSpan() {
+        return span;
+    }
+
+    public void setSpan(Period span) {
+        this.span = span;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public Long getRandomSeed() {
+        return randomSeed;
+    }
+
+    public void setRandomSeed(Long randomSeed) {
+        this.randomSeed = randomSeed;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    public Map<String, CategorySpec> getCategories() {
+        return categories;
+    }
+
+    public void setCategories(Map<String, CategorySpec> categories) {
+        this.categories = categories;
+    }
+
+    /**
+     * Resolves the settings of a category, falling back to the defaults for the categories not configured.
+     *
+     * @param categoryId The ID of the category.
+     * @return The settings of the category.
+     */
+    public CategorySpec resolve(String categoryId) {
+        return categories.getOrDefault(categoryId, new CategorySpec());
+    }
+
+    /**
+     * How often a category is drawn and how large its amounts are.
+     */
+    public static class CategorySpec {
+
+        private int weight = 1;                                    // Relative frequency of the category
+        private BigDecimal medianAmount = BigDecimal.valueOf(50); // Half of the amounts are below this one
+
+        public int getWeight() {
+            return weight;
+        }
+
+        public void setWeight(int weight) {
+            this.weight = weight;
+        }
+
+        public BigDecimal getMedianAmount() {
+            return medianAmount;
+        }
+
+        public void setMedianAmount(BigDecimal medianAmount) {
+            this.medianAmount = medianAmount;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.brhn.xpnsr.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Custom exception representing a Conflict error (HTTP 409), raised when a resource to create already exists.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ConflictError extends BaseError {
+
+    /**
+     * Constructor to initialize ConflictError with a custom error message.
+     * @param message The error message to be returned.
+     */
+    public ConflictError(String message) {
+        super(message, HttpStatus.CONFLICT);
+    }
+}
@@ -1,6 +1,7 @@
 package com.brhn.xpnsr.exceptions;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.validation.FieldError;
@@ -49,6 +50,21 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(er, ex.getStatus());
     }
 
+    /**
+     * Handles ObjectOptimisticLockingFailureException, which occurs when an entity is modified by another
+     * request between being read and being written.
+     *
+     * @param ex      The exception object.
+     * @param request The current web request.
+     * @return ResponseEntity containing the ErrorResponse and HttpStatus.PRECONDITION_FAILED.
+     */
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleOptimisticLockingFailure(ObjectOptimisticLockingFailureException ex, WebRequest request) {
+        HttpStatus status = HttpStatus.PRECONDITION_FAILED;
+        ErrorResponse er = new ErrorResponse(status.value(), "The resource has been modified concurrently");
+        return new ResponseEntity<>(er, status);
+    }
+
     /**
      * Handles HttpMessageNotReadableException that occurs when the request JSON is malformed.
      *
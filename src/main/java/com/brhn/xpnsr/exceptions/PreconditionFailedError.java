@@ -0,0 +1,20 @@
+package com.brhn.xpnsr.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Custom exception representing a Precondition Failed error (HTTP 412), raised when a resource has
+ * been modified since the version the client sent in If-Match.
+ */
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public class PreconditionFailedError extends BaseError {
+
+    /**
+     * Constructor to initialize PreconditionFailedError with a custom error message.
+     * @param message The error message to be returned.
+     */
+    public PreconditionFailedError(String message) {
+        super(message, HttpStatus.PRECONDITION_FAILED);
+    }
+}
@@ -0,0 +1,20 @@
+package com.brhn.xpnsr.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Custom exception representing a Too Many Requests error (HTTP 429), raised when a client exceeds a limit
+ * on the work it may have in progress.
+ */
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class TooManyRequestsError extends BaseError {
+
+    /**
+     * Constructor to initialize TooManyRequestsError with a custom error message.
+     * @param message The error message to be returned.
+     */
+    public TooManyRequestsError(String message) {
+        super(message, HttpStatus.TOO_MANY_REQUESTS);
+    }
+}
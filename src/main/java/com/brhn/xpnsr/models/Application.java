@@ -19,8 +19,8 @@ public class Application {
     @Column(name = "name", nullable = false, length = 100)
     private String name; // Name of the application
 
-    @Column(name = "api_key", nullable = false)
-    private String apiKey; // Hashed API key, stored with salt
+    @Column(name = "api_key", nullable = false, length = 64)
+    private String apiKey; // Hex SHA-256 hash of the API key
 
     /**
      * Retrieves the unique identifier of the application.
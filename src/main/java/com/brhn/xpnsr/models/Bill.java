@@ -6,21 +6,30 @@ import jakarta.validation.constraints.NotNull;
 import org.springframework.data.annotation.Id;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.Objects;
 
 /**
  * Represents a bill entity with attributes like tenure, amount, associated user, and category.
+ * The amount is paid in monthly instalments over the tenure, the first one due on the start date.
  */
 @Entity
-@Table(name = "bills")
+@Table(name = "bills", indexes = {
+        // Schedule and forecast: bills of a user with an instalment due within a range
+        @Index(name = "idx_bills_user_dates", columnList = "user_id, start_date, end_date")
+})
 public class Bill {
 
     private static final long serialVersionUID = 1L;
 
     @Id
     @jakarta.persistence.Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id; // Unique identifier for the bill
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bills_seq")
+    @SequenceGenerator(name = "bills_seq", sequenceName = "bills_seq", allocationSize = 50)
+    private Long id; // Unique identifier for the bill, pooled so inserts can be batched
+
+    @Version
+    private Long version; // Incremented on every update of the bill, used for ETags and optimistic locking
 
     @NotNull(message = "Tenure cannot be null")
     @Min(value = 0, message = "Tenure must be a positive integer")
@@ -32,6 +41,12 @@ public class Bill {
     @Column(nullable = false)
     private BigDecimal amount; // Amount of the bill
 
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate; // Due date of the first instalment
+
+    @Column(name = "end_date", nullable = false)
+    private LocalDate endDate; // Due date of the last instalment, derived from the start date and the tenure
+
     @NotNull
     @ManyToOne
     @JoinColumn(name = "user_id", nullable = false)
@@ -60,6 +75,24 @@ public class Bill {
         this.id = id;
     }
 
+    /**
+     * Retrieves the version of the bill, incremented on every update.
+     *
+     * @return The version of the bill, or null if it has not been saved yet.
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the version of the bill. The update is rejected if it does not match the stored version.
+     *
+     * @param version The version the bill was read at.
+     */
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     /**
      * Retrieves the tenure period of the bill.
      *
@@ -96,6 +129,45 @@ public class Bill {
         this.amount = amount;
     }
 
+    /**
+     * Retrieves the due date of the first instalment of the bill.
+     *
+     * @return The start date of the bill.
+     */
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    /**
+     * Sets the due date of the first instalment of the bill.
+     *
+     * @param startDate The start date to set for the bill.
+     */
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    /**
+     * Retrieves the due date of the last instalment of the bill, computed whenever the bill is saved.
+     *
+     * @return The end date of the bill.
+     */
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    /**
+     * Defaults the start date to today and derives the end date before the bill is saved.
+     */
+    @PrePersist
+    @PreUpdate
+    void computeEndDate() {
+        if (startDate == null) {
+            startDate = LocalDate.now();
+        }
+        endDate = startDate.plusMonths(Math.max(tenure, 1) - 1L);
+    }
+
     /**
      * Retrieves the user associated with the bill.
      *
@@ -169,6 +241,7 @@ public class Bill {
                 "id=" + id +
                 ", tenure=" + tenure +
                 ", amount=" + amount +
+                ", startDate=" + startDate +
                 ", user=" + user +
                 ", category=" + category +
                 '}';
@@ -21,8 +21,12 @@ public class Budget {
 
     @jakarta.persistence.Id
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id; // Unique identifier for the budget
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "budgets_seq")
+    @SequenceGenerator(name = "budgets_seq", sequenceName = "budgets_seq", allocationSize = 50)
+    private Long id; // Unique identifier for the budget, pooled so inserts can be batched
+
+    @Version
+    private Long version; // Incremented on every update of the budget, used for ETags and optimistic locking
 
     @NotNull(message = "Title cannot be null")
     @Size(min = 1, max = 100, message = "Title must be between 1 and 100 characters")
@@ -70,6 +74,24 @@ public class Budget {
         this.id = id;
     }
 
+    /**
+     * Retrieves the version of the budget, incremented on every update.
+     *
+     * @return The version of the budget, or null if it has not been saved yet.
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the version of the budget. The update is rejected if it does not match the stored version.
+     *
+     * @param version The version the budget was read at.
+     */
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     /**
      * Retrieves the title of the budget.
      *
@@ -0,0 +1,113 @@
+package com.brhn.xpnsr.models;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * Represents the running total of the expenses counted against a budget.
+ * Rows are created with their budget and are maintained incrementally from transaction writes, so utilization
+ * is read without scanning the transactions of the budget's category.
+ */
+@Entity
+@Table(name = "budget_spend")
+public class BudgetSpend {
+
+    @Id
+    @Column(name = "budget_id", nullable = false)
+    private Long budgetId; // Budget the expenses are counted against
+
+    @Column(nullable = false, precision = 21, scale = 2)
+    private BigDecimal spent; // Sum of the expenses of the budget's user in the budget's category
+
+    /**
+     * Default constructor required by JPA.
+     */
+    public BudgetSpend() {
+    }
+
+    /**
+     * Constructs the spend counter of a budget.
+     *
+     * @param budgetId The ID of the budget.
+     * @param spent    The amount already spent.
+     */
+    public BudgetSpend(Long budgetId, BigDecimal spent) {
+        this.budgetId = budgetId;
+        this.spent = spent;
+    }
+
+    /**
+     * Retrieves the ID of the budget the expenses are counted against.
+     *
+     * @return The budget ID.
+     */
+    public Long getBudgetId() {
+        return budgetId;
+    }
+
+    /**
+     * Sets the ID of the budget the expenses are counted against.
+     *
+     * @param budgetId The budget ID to set.
+     */
+    public void setBudgetId(Long budgetId) {
+        this.budgetId = budgetId;
+    }
+
+    /**
+     * Retrieves the amount spent against the budget.
+     *
+     * @return The amount spent.
+     */
+    public BigDecimal getSpent() {
+        return spent;
+    }
+
+    /**
+     * Sets the amount spent against the budget.
+     *
+     * @param spent The amount spent to set.
+     */
+    public void setSpent(BigDecimal spent) {
+        this.spent = spent;
+    }
+
+    /**
+     * Checks if this spend counter is equal to another object based on its budget ID.
+     *
+     * @param o The object to compare.
+     * @return True if the objects are equal (same class and budget ID), false otherwise.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BudgetSpend that = (BudgetSpend) o;
+        return Objects.equals(budgetId, that.budgetId);
+    }
+
+    /**
+     * Computes the hash code of this spend counter based on its budget ID.
+     *
+     * @return The computed hash code.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(budgetId);
+    }
+
+    /**
+     * Generates a string representation of the spend counter.
+     *
+     * @return The string representation of the spend counter.
+     */
+    @Override
+    public String toString() {
+        return "BudgetSpend{" +
+                "budgetId=" + budgetId +
+                ", spent=" + spent +
+                '}';
+    }
+}
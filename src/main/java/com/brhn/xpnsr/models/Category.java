@@ -23,6 +23,9 @@ public class Category implements Serializable {
     @Id
     private String id; // Unique identifier for the category
 
+    @Version
+    private Long version; // Incremented on every update of the category, used for ETags and optimistic locking
+
     @NotNull(message = "Name cannot be null")
     @Size(min = 1, max = 100, message = "Name must be between 1 and 100 characters")
     @Column(nullable = false, length = 100)
@@ -53,6 +56,24 @@ public class Category implements Serializable {
         this.id = id;
     }
 
+    /**
+     * Retrieves the version of the category, incremented on every update.
+     *
+     * @return The version of the category, or null if it has not been saved yet.
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the version of the category. The update is rejected if it does not match the stored version.
+     *
+     * @param version The version the category was read at.
+     */
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     /**
      * Retrieves the unique identifier of the category.
      *
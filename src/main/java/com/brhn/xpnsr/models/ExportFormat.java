@@ -0,0 +1,35 @@
+package com.brhn.xpnsr.models;
+
+/**
+ * Format of a streamed data export.
+ */
+public enum ExportFormat {
+    CSV("text/csv", "csv"),                      // Comma-separated values with a header row
+    NDJSON("application/x-ndjson", "ndjson");    // One JSON document per line
+
+    private final String mediaType;
+    private final String extension;
+
+    ExportFormat(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    /**
+     * Retrieves the media type of the format.
+     *
+     * @return The media type.
+     */
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Retrieves the file extension of the format.
+     *
+     * @return The file extension, without the dot.
+     */
+    public String getExtension() {
+        return extension;
+    }
+}
@@ -0,0 +1,10 @@
+package com.brhn.xpnsr.models;
+
+/**
+ * Hypermedia links rendered for every item of a collection response.
+ */
+public enum LinkMode {
+    NONE,   // Plain items without links
+    SELF,   // Only the self link of every item
+    FULL    // Every detail and control link of every item
+}
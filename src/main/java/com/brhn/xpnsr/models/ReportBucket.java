@@ -0,0 +1,42 @@
+package com.brhn.xpnsr.models;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Width of the buckets a time-series report groups its totals into.
+ */
+public enum ReportBucket {
+    DAY,   // One bucket per calendar day
+    WEEK,  // One bucket per ISO week, starting on Monday
+    MONTH; // One bucket per calendar month
+
+    /**
+     * Returns the first day of the bucket containing the given day.
+     *
+     * @param day The day to locate.
+     * @return The first day of its bucket.
+     */
+    public LocalDate startOf(LocalDate day) {
+        return switch (this) {
+            case DAY -> day;
+            case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> day.withDayOfMonth(1);
+        };
+    }
+
+    /**
+     * Returns the first day of the bucket following the bucket that starts on the given day.
+     *
+     * @param bucketStart The first day of a bucket.
+     * @return The first day of the next bucket.
+     */
+    public LocalDate next(LocalDate bucketStart) {
+        return switch (this) {
+            case DAY -> bucketStart.plusDays(1);
+            case WEEK -> bucketStart.plusWeeks(1);
+            case MONTH -> bucketStart.plusMonths(1);
+        };
+    }
+}
@@ -0,0 +1,11 @@
+package com.brhn.xpnsr.models;
+
+/**
+ * Status of an asynchronous report job.
+ */
+public enum ReportJobStatus {
+    QUEUED,    // Waiting for a worker
+    RUNNING,   // Being computed
+    SUCCEEDED, // Computed, its result can be read
+    FAILED     // Aborted by an error
+}
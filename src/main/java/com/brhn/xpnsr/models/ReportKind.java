@@ -0,0 +1,10 @@
+package com.brhn.xpnsr.models;
+
+/**
+ * Kind of report computed by an asynchronous report job.
+ */
+public enum ReportKind {
+    CATEGORIES, // Totals per category, as the monthly and yearly reports
+    TREE,       // Totals rolled up the category tree
+    TIMESERIES  // Totals per day, week or month
+}
@@ -15,13 +15,24 @@ import java.util.Objects;
  * currency, city, country, description, tags, primary category, secondary category, and user.
  */
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        // Report access path; covers the per-category sums without reading the rows
+        @Index(name = "idx_transactions_user_type_date", columnList = "user_id, type, date, primary_category_id, amount"),
+        // Listing and export access path, newest first
+        @Index(name = "idx_transactions_user_date", columnList = "user_id, date, id"),
+        // Per-category access path
+        @Index(name = "idx_transactions_category_date", columnList = "primary_category_id, date")
+})
 public class Transaction {
 
     @jakarta.persistence.Id
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id; // Unique identifier for the transaction
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_seq", allocationSize = 50)
+    private Long id; // Unique identifier for the transaction, pooled so inserts can be batched
+
+    @Version
+    private Long version; // Incremented on every update of the transaction, used for ETags and optimistic locking
 
     @NotNull(message = "Date cannot be null")
     @Column(nullable = false)
@@ -97,6 +108,24 @@ public class Transaction {
         this.id = id;
     }
 
+    /**
+     * Retrieves the version of the transaction, incremented on every update.
+     *
+     * @return The version of the transaction, or null if it has not been saved yet.
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the version of the transaction. The update is rejected if it does not match the stored version.
+     *
+     * @param version The version the transaction was read at.
+     */
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     /**
      * Retrieves the date and time of the transaction.
      *
@@ -0,0 +1,176 @@
+package com.brhn.xpnsr.models;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Represents the pre-aggregated total of a user's transactions for one day, primary category and type.
+ * Rows are maintained incrementally by the transaction service so reports never scan the transactions table.
+ */
+@Entity
+@Table(name = "transaction_daily_summaries")
+@IdClass(TransactionDailySummaryId.class)
+public class TransactionDailySummary {
+
+    @Id
+    @Column(name = "user_id", nullable = false)
+    private Long userId; // User owning the summarized transactions
+
+    @Id
+    @Column(name = "summary_date", nullable = false)
+    private LocalDate day; // Calendar day of the summarized transactions
+
+    @Id
+    @Column(name = "category_id", nullable = false)
+    private String categoryId; // Primary category of the summarized transactions
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "type", nullable = false, length = 10)
+    private TransactionType type; // Type of the summarized transactions
+
+    @Column(nullable = false, precision = 21, scale = 2)
+    private BigDecimal amount; // Sum of the transaction amounts
+
+    @Column(name = "transaction_count", nullable = false)
+    private Long transactionCount; // Number of summarized transactions
+
+    /**
+     * Retrieves the ID of the user owning the summarized transactions.
+     *
+     * @return The user ID.
+     */
+    public Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * Sets the ID of the user owning the summarized transactions.
+     *
+     * @param userId The user ID to set.
+     */
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    /**
+     * Retrieves the calendar day of the summarized transactions.
+     *
+     * @return The day.
+     */
+    public LocalDate getDay() {
+        return day;
+    }
+
+    /**
+     * Sets the calendar day of the summarized transactions.
+     *
+     * @param day The day to set.
+     */
+    public void setDay(LocalDate day) {
+        this.day = day;
+    }
+
+    /**
+     * Retrieves the ID of the primary category of the summarized transactions.
+     *
+     * @return The category ID.
+     */
+    public String getCategoryId() {
+        return categoryId;
+    }
+
+    /**
+     * Sets the ID of the primary category of the summarized transactions.
+     *
+     * @param categoryId The category ID to set.
+     */
+    public void setCategoryId(String categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    /**
+     * Retrieves the type of the summarized transactions.
+     *
+     * @return The transaction type.
+     */
+    public TransactionType getType() {
+        return type;
+    }
+
+    /**
+     * Sets the type of the summarized transactions.
+     *
+     * @param type The transaction type to set.
+     */
+    public void setType(TransactionType type) {
+        this.type = type;
+    }
+
+    /**
+     * Retrieves the sum of the summarized transaction amounts.
+     *
+     * @return The total amount.
+     */
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    /**
+     * Sets the sum of the summarized transaction amounts.
+     *
+     * @param amount The total amount to set.
+     */
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    /**
+     * Retrieves the number of summarized transactions.
+     *
+     * @return The transaction count.
+     */
+    public Long getTransactionCount() {
+        return transactionCount;
+    }
+
+    /**
+     * Sets the number of summarized transactions.
+     *
+     * @param transactionCount The transaction count to set.
+     */
+    public void setTransactionCount(Long transactionCount) {
+        this.transactionCount = transactionCount;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TransactionDailySummary that = (TransactionDailySummary) o;
+        return Objects.equals(userId, that.userId) &&
+                Objects.equals(day, that.day) &&
+                Objects.equals(categoryId, that.categoryId) &&
+                type == that.type;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(userId, day, categoryId, type);
+    }
+
+    @Override
+    public String toString() {
+        return "TransactionDailySummary{" +
+                "userId=" + userId +
+                ", day=" + day +
+                ", categoryId='" + categoryId + '\'' +
+                ", type=" + type +
+                ", amount=" + amount +
+                ", transactionCount=" + transactionCount +
+                '}';
+    }
+}
@@ -0,0 +1,93 @@
+package com.brhn.xpnsr.models;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Composite identifier of a {@link TransactionDailySummary}: one row per user, day, category and type.
+ */
+public class TransactionDailySummaryId implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 5L;
+
+    private Long userId;
+    private LocalDate day;
+    private String categoryId;
+    private TransactionType type;
+
+    /**
+     * Default constructor required by JPA.
+     */
+    public TransactionDailySummaryId() {
+    }
+
+    /**
+     * Constructs a summary identifier from its parts.
+     *
+     * @param userId     The ID of the user owning the transactions.
+     * @param day        The calendar day of the transactions.
+     * @param categoryId The ID of the primary category of the transactions.
+     * @param type       The type of the transactions.
+     */
+    public TransactionDailySummaryId(Long userId, LocalDate day, String categoryId, TransactionType type) {
+        this.userId = userId;
+        this.day = day;
+        this.categoryId = categoryId;
+        this.type = type;
+    }
+
+    /**
+     * Retrieves the ID of the user owning the transactions.
+     *
+     * @return The user ID.
+     */
+    public Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * Retrieves the calendar day of the transactions.
+     *
+     * @return The day.
+     */
+    public LocalDate getDay() {
+        return day;
+    }
+
+    /**
+     * Retrieves the ID of the primary category of the transactions.
+     *
+     * @return The category ID.
+     */
+    public String getCategoryId() {
+        return categoryId;
+    }
+
+    /**
+     * Retrieves the type of the transactions.
+     *
+     * @return The transaction type.
+     */
+    public TransactionType getType() {
+        return type;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TransactionDailySummaryId that = (TransactionDailySummaryId) o;
+        return Objects.equals(userId, that.userId) &&
+                Objects.equals(day, that.day) &&
+                Objects.equals(categoryId, that.categoryId) &&
+                type == that.type;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(userId, day, categoryId, type);
+    }
+}
@@ -1,7 +1,6 @@
 package com.brhn.xpnsr.repositories;
 
 import com.brhn.xpnsr.models.Application;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.Optional;
@@ -13,11 +12,11 @@ import java.util.UUID;
 public interface ApplicationRepository extends JpaRepository<Application, UUID> {
 
     /**
-     * Retrieves an Application entity by its API key, caching the result if possible.
+     * Retrieves an Application entity by the hash of its API key.
+     * Lookups are cached by {@link com.brhn.xpnsr.security.ApiKeyCache}.
      *
-     * @param key The API key to search for.
+     * @param apiKeyHash The SHA-256 hash of the API key to search for.
      * @return An Optional containing the Application entity if found, otherwise empty.
      */
-    @Cacheable(value = "applications", key = "#key")
-    Optional<Application> findApplicationByApiKey(String key);
+    Optional<Application> findApplicationByApiKey(String apiKeyHash);
 }
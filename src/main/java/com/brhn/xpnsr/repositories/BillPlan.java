@@ -0,0 +1,38 @@
+package com.brhn.xpnsr.repositories;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Projection of the fields of a bill needed to lay out its instalments.
+ */
+public interface BillPlan {
+
+    /**
+     * Retrieves the ID of the category of the bill.
+     *
+     * @return The category ID.
+     */
+    String getCategoryId();
+
+    /**
+     * Retrieves the total amount of the bill.
+     *
+     * @return The amount.
+     */
+    BigDecimal getAmount();
+
+    /**
+     * Retrieves the number of monthly instalments of the bill.
+     *
+     * @return The tenure in months.
+     */
+    Integer getTenure();
+
+    /**
+     * Retrieves the date of the first instalment of the bill.
+     *
+     * @return The start date.
+     */
+    LocalDate getStartDate();
+}
@@ -1,10 +1,55 @@
 package com.brhn.xpnsr.repositories;
 
 import com.brhn.xpnsr.models.Bill;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 /**
  * Repository interface for managing Bill entities.
  */
 public interface BillRepository extends JpaRepository<Bill, Long> {
+
+    /**
+     * Retrieves the version of a bill without loading the entity.
+     *
+     * @param id The ID of the bill.
+     * @return The version of the bill, or empty if it does not exist.
+     */
+    @Query("SELECT b.version FROM Bill b WHERE b.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * Retrieves which of some bills exist without loading them.
+     *
+     * @param ids The IDs of the bills.
+     * @return The IDs of the bills that exist.
+     */
+    @Query("SELECT b.id FROM Bill b WHERE b.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Streams the bills of a user with at least one instalment within a day range.
+     * The stream must be consumed inside a transaction and closed afterwards.
+     *
+     * @param userId The ID of the user.
+     * @param from   The first day of the range (inclusive).
+     * @param to     The last day of the range (inclusive).
+     * @return A stream of BillPlan projections.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT b.category.id AS categoryId, b.amount AS amount, b.tenure AS tenure, b.startDate AS startDate " +
+            "FROM Bill b WHERE b.user.id = :userId AND b.startDate <= :to AND b.endDate >= :from")
+    Stream<BillPlan> streamPlans(@Param("userId") Long userId, @Param("from") LocalDate from,
+                                 @Param("to") LocalDate to);
 }
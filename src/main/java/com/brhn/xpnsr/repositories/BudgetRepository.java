@@ -2,9 +2,33 @@ package com.brhn.xpnsr.repositories;
 
 import com.brhn.xpnsr.models.Budget;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository interface for managing Budget entities.
  */
 public interface BudgetRepository extends JpaRepository<Budget, Long> {
+
+    /**
+     * Retrieves the version of a budget without loading the entity.
+     *
+     * @param id The ID of the budget.
+     * @return The version of the budget, or empty if it does not exist.
+     */
+    @Query("SELECT b.version FROM Budget b WHERE b.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * Retrieves which of some budgets exist without loading them.
+     *
+     * @param ids The IDs of the budgets.
+     * @return The IDs of the budgets that exist.
+     */
+    @Query("SELECT b.id FROM Budget b WHERE b.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,88 @@
+package com.brhn.xpnsr.repositories;
+
+import com.brhn.xpnsr.models.BudgetSpend;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for managing BudgetSpend entities.
+ */
+public interface BudgetSpendRepository extends JpaRepository<BudgetSpend, Long> {
+
+    /**
+     * Reads a budget together with its spend counter.
+     *
+     * @param budgetId The ID of the budget.
+     * @return An Optional containing the BudgetUtilization projection if the budget exists, or empty otherwise.
+     */
+    @Query("SELECT b.id AS budgetId, b.user.id AS userId, b.title AS title, b.category.id AS categoryId, " +
+            "b.currency AS currency, b.amount AS amount, s.spent AS spent " +
+            "FROM Budget b LEFT JOIN BudgetSpend s ON s.budgetId = b.id WHERE b.id = :budgetId")
+    Optional<BudgetUtilization> findUtilizationByBudgetId(@Param("budgetId") Long budgetId);
+
+    /**
+     * Reads all budgets of a user together with their spend counters, in one query.
+     *
+     * @param userId The ID of the user.
+     * @return A list of BudgetUtilization projections ordered by budget ID.
+     */
+    @Query("SELECT b.id AS budgetId, b.user.id AS userId, b.title AS title, b.category.id AS categoryId, " +
+            "b.currency AS currency, b.amount AS amount, s.spent AS spent " +
+            "FROM Budget b LEFT JOIN BudgetSpend s ON s.budgetId = b.id WHERE b.user.id = :userId ORDER BY b.id")
+    List<BudgetUtilization> findUtilizationByUserId(@Param("userId") Long userId);
+
+    /**
+     * Reads the budgets of a user in some categories together with their spend counters, in one query.
+     *
+     * @param userId      The ID of the user.
+     * @param categoryIds The IDs of the categories.
+     * @return A list of BudgetUtilization projections ordered by budget ID.
+     */
+    @Query("SELECT b.id AS budgetId, b.user.id AS userId, b.title AS title, b.category.id AS categoryId, " +
+            "b.currency AS currency, b.amount AS amount, s.spent AS spent " +
+            "FROM Budget b LEFT JOIN BudgetSpend s ON s.budgetId = b.id " +
+            "WHERE b.user.id = :userId AND b.category.id IN :categoryIds ORDER BY b.id")
+    List<BudgetUtilization> findUtilizationByUserIdAndCategoryIds(@Param("userId") Long userId,
+                                                                  @Param("categoryIds") Collection<String> categoryIds);
+
+    /**
+     * Reads all budgets together with their spend counters, in one query.
+     *
+     * @return A list of BudgetUtilization projections ordered by budget ID.
+     */
+    @Query("SELECT b.id AS budgetId, b.user.id AS userId, b.title AS title, b.category.id AS categoryId, " +
+            "b.currency AS currency, b.amount AS amount, s.spent AS spent " +
+            "FROM Budget b LEFT JOIN BudgetSpend s ON s.budgetId = b.id ORDER BY b.id")
+    List<BudgetUtilization> findAllUtilization();
+
+    /**
+     * Adds an amount to the spend counters of all budgets of a user in a category.
+     *
+     * @param userId     The ID of the user.
+     * @param categoryId The ID of the category.
+     * @param amount     The amount to add, negative to subtract.
+     * @return The number of budgets updated.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE BudgetSpend s SET s.spent = s.spent + :amount WHERE s.budgetId IN " +
+            "(SELECT b.id FROM Budget b WHERE b.user.id = :userId AND b.category.id = :categoryId)")
+    int addToBudgets(@Param("userId") Long userId, @Param("categoryId") String categoryId,
+                     @Param("amount") BigDecimal amount);
+
+    /**
+     * Recomputes every spend counter from the daily transaction summaries in a single statement.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE budget_spend SET spent = COALESCE((" +
+            "SELECT SUM(s.amount) FROM transaction_daily_summaries s " +
+            "JOIN budgets b ON s.user_id = b.user_id AND s.category_id = b.category_id " +
+            "WHERE b.id = budget_spend.budget_id AND s.type = 'EXPENSE'), 0)", nativeQuery = true)
+    void recomputeAll();
+}
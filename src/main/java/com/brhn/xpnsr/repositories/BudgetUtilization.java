@@ -0,0 +1,58 @@
+package com.brhn.xpnsr.repositories;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection of a budget together with its running spend counter, as returned by the utilization queries.
+ */
+public interface BudgetUtilization {
+
+    /**
+     * Retrieves the ID of the budget.
+     *
+     * @return The budget ID.
+     */
+    Long getBudgetId();
+
+    /**
+     * Retrieves the ID of the user owning the budget.
+     *
+     * @return The user ID.
+     */
+    Long getUserId();
+
+    /**
+     * Retrieves the title of the budget.
+     *
+     * @return The budget title.
+     */
+    String getTitle();
+
+    /**
+     * Retrieves the ID of the category of the budget.
+     *
+     * @return The category ID.
+     */
+    String getCategoryId();
+
+    /**
+     * Retrieves the currency of the budget.
+     *
+     * @return The currency.
+     */
+    String getCurrency();
+
+    /**
+     * Retrieves the amount allocated for the budget.
+     *
+     * @return The budget amount.
+     */
+    BigDecimal getAmount();
+
+    /**
+     * Retrieves the amount spent against the budget.
+     *
+     * @return The amount spent, or null if the budget has no spend counter.
+     */
+    BigDecimal getSpent();
+}
@@ -0,0 +1,30 @@
+package com.brhn.xpnsr.repositories;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection of an aggregated amount for a single category, as returned by the report queries.
+ */
+public interface CategoryAmount {
+
+    /**
+     * Retrieves the ID of the category.
+     *
+     * @return The category ID.
+     */
+    String getCategoryId();
+
+    /**
+     * Retrieves the name of the category.
+     *
+     * @return The category name.
+     */
+    String getCategoryName();
+
+    /**
+     * Retrieves the summed amount of the category.
+     *
+     * @return The total amount.
+     */
+    BigDecimal getAmount();
+}
@@ -0,0 +1,31 @@
+package com.brhn.xpnsr.repositories;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Projection of the amount summarized for a single day and category.
+ */
+public interface DailyCategoryAmount {
+
+    /**
+     * Retrieves the calendar day of the amount.
+     *
+     * @return The day.
+     */
+    LocalDate getDay();
+
+    /**
+     * Retrieves the ID of the category.
+     *
+     * @return The category ID.
+     */
+    String getCategoryId();
+
+    /**
+     * Retrieves the summarized amount.
+     *
+     * @return The amount.
+     */
+    BigDecimal getAmount();
+}
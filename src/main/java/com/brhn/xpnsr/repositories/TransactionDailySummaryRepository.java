@@ -0,0 +1,134 @@
+package com.brhn.xpnsr.repositories;
+
+import com.brhn.xpnsr.models.TransactionDailySummary;
+import com.brhn.xpnsr.models.TransactionDailySummaryId;
+import com.brhn.xpnsr.models.TransactionType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+/**
+ * Repository interface for managing TransactionDailySummary entities.
+ */
+public interface TransactionDailySummaryRepository extends JpaRepository<TransactionDailySummary, TransactionDailySummaryId> {
+
+    /**
+     * Sums the daily summaries of a user per category for a transaction type within a day range.
+     * The aggregation runs in the database, so one row per category is returned.
+     *
+     * @param userId   The ID of the user.
+     * @param type     The type of transaction (EARNING or EXPENSE).
+     * @param startDay The first day of the range (inclusive).
+     * @param endDay   The last day of the range (inclusive).
+     * @return A list of CategoryAmount projections, one per category.
+     */
+    @Query("SELECT s.categoryId AS categoryId, c.name AS categoryName, SUM(s.amount) AS amount " +
+            "FROM TransactionDailySummary s JOIN Category c ON c.id = s.categoryId " +
+            "WHERE s.userId = :userId AND s.type = :type AND s.day BETWEEN :startDay AND :endDay " +
+            "GROUP BY s.categoryId, c.name")
+    List<CategoryAmount> sumAmountByCategory(@Param("userId") Long userId, @Param("type") TransactionType type,
+                                             @Param("startDay") LocalDate startDay, @Param("endDay") LocalDate endDay);
+
+    /**
+     * Sums all daily summaries of a user per category for a transaction type, within some categories.
+     *
+     * @param userId      The ID of the user.
+     * @param categoryIds The IDs of the primary categories.
+     * @param type        The type of transaction (EARNING or EXPENSE).
+     * @return A list of CategoryAmount projections, one per category with transactions.
+     */
+    @Query("SELECT s.categoryId AS categoryId, c.name AS categoryName, SUM(s.amount) AS amount " +
+            "FROM TransactionDailySummary s JOIN Category c ON c.id = s.categoryId " +
+            "WHERE s.userId = :userId AND s.categoryId IN :categoryIds AND s.type = :type " +
+            "GROUP BY s.categoryId, c.name")
+    List<CategoryAmount> sumAmountByCategoryIds(@Param("userId") Long userId,
+                                                @Param("categoryIds") Collection<String> categoryIds,
+                                                @Param("type") TransactionType type);
+
+    /**
+     * Sums all daily summaries of a user in a category for a transaction type.
+     *
+     * @param userId     The ID of the user.
+     * @param categoryId The ID of the primary category.
+     * @param type       The type of transaction (EARNING or EXPENSE).
+     * @return The total amount, or null if the user has no such transactions.
+     */
+    @Query("SELECT SUM(s.amount) FROM TransactionDailySummary s " +
+            "WHERE s.userId = :userId AND s.categoryId = :categoryId AND s.type = :type")
+    BigDecimal sumAmount(@Param("userId") Long userId, @Param("categoryId") String categoryId,
+                         @Param("type") TransactionType type);
+
+    /**
+     * Streams the daily amounts of a user for a transaction type within a day range, ordered by day.
+     * The stream must be consumed inside a transaction and closed afterwards.
+     *
+     * @param userId   The ID of the user.
+     * @param type     The type of transaction (EARNING or EXPENSE).
+     * @param startDay The first day of the range (inclusive).
+     * @param endDay   The last day of the range (inclusive).
+     * @return A stream of DailyCategoryAmount projections in day order.
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT s.day AS day, s.categoryId AS categoryId, s.amount AS amount " +
+            "FROM TransactionDailySummary s " +
+            "WHERE s.userId = :userId AND s.type = :type AND s.day BETWEEN :startDay AND :endDay " +
+            "ORDER BY s.day")
+    Stream<DailyCategoryAmount> streamDailyAmounts(@Param("userId") Long userId, @Param("type") TransactionType type,
+                                                   @Param("startDay") LocalDate startDay,
+                                                   @Param("endDay") LocalDate endDay);
+
+    /**
+     * Adds an amount and a transaction count to a daily summary row, creating the row if it does not exist.
+     *
+     * @param userId     The ID of the user.
+     * @param day        The calendar day.
+     * @param categoryId The ID of the primary category.
+     * @param type       The name of the transaction type.
+     * @param amount     The amount to add, negative to subtract.
+     * @param count      The number of transactions to add, negative to subtract.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "INSERT INTO transaction_daily_summaries " +
+            "(user_id, summary_date, category_id, type, amount, transaction_count) " +
+            "VALUES (:userId, :day, :categoryId, :type, :amount, :count) " +
+            "ON DUPLICATE KEY UPDATE amount = amount + VALUES(amount), " +
+            "transaction_count = transaction_count + VALUES(transaction_count)", nativeQuery = true)
+    void upsert(@Param("userId") Long userId, @Param("day") LocalDate day, @Param("categoryId") String categoryId,
+                @Param("type") String type, @Param("amount") BigDecimal amount, @Param("count") long count);
+
+    /**
+     * Removes a summary row once it no longer summarizes any transaction.
+     *
+     * @param userId     The ID of the user.
+     * @param day        The calendar day.
+     * @param categoryId The ID of the primary category.
+     * @param type       The transaction type.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM TransactionDailySummary s WHERE s.userId = :userId AND s.day = :day " +
+            "AND s.categoryId = :categoryId AND s.type = :type AND s.transactionCount <= 0")
+    void deleteIfEmpty(@Param("userId") Long userId, @Param("day") LocalDate day,
+                       @Param("categoryId") String categoryId, @Param("type") TransactionType type);
+
+    /**
+     * Recomputes every summary row from the transactions table in a single statement.
+     * The table is expected to be empty when this is called.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "INSERT INTO transaction_daily_summaries " +
+            "(user_id, summary_date, category_id, type, amount, transaction_count) " +
+            "SELECT user_id, CAST(date AS DATE), primary_category_id, type, SUM(amount), COUNT(*) " +
+            "FROM transactions GROUP BY user_id, CAST(date AS DATE), primary_category_id, type", nativeQuery = true)
+    void insertFromTransactions();
+}
@@ -2,10 +2,20 @@ package com.brhn.xpnsr.repositories;
 
 import com.brhn.xpnsr.models.Transaction;
 import com.brhn.xpnsr.models.TransactionType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.sql.Timestamp;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 /**
  * Repository interface for managing Transaction entities.
@@ -13,12 +23,75 @@ import java.util.List;
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
 
     /**
-     * Retrieves a list of Transaction entities by type and date range.
+     * Retrieves the version of a transaction without loading the entity.
+     *
+     * @param id The ID of the transaction.
+     * @return The version of the transaction, or empty if it does not exist.
+     */
+    @Query("SELECT t.version FROM Transaction t WHERE t.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * Sums the amounts of a user's transactions per primary category for a type and date range.
+     * The aggregation runs in the database, so one row per category is returned.
      *
+     * @param userId    The ID of the user.
      * @param type      The type of transaction (EARNING or EXPENSE).
      * @param startDate The start date of the date range.
      * @param endDate   The end date of the date range.
-     * @return A list of Transaction entities matching the criteria.
+     * @return A list of CategoryAmount projections, one per primary category.
+     */
+    @Query("SELECT c.id AS categoryId, c.name AS categoryName, SUM(t.amount) AS amount " +
+            "FROM Transaction t JOIN t.primaryCategory c " +
+            "WHERE t.user.id = :userId AND t.type = :type AND t.date BETWEEN :startDate AND :endDate " +
+            "GROUP BY c.id, c.name")
+    List<CategoryAmount> sumAmountByPrimaryCategory(@Param("userId") Long userId, @Param("type") TransactionType type,
+                                                    @Param("startDate") Timestamp startDate,
+                                                    @Param("endDate") Timestamp endDate);
+
+    /**
+     * Retrieves the newest transactions of a user, ordered by date and ID descending.
+     *
+     * @param userId The ID of the user.
+     * @param limit  The maximum number of transactions to return.
+     * @return A list of transactions with their categories fetched.
+     */
+    @Query("SELECT t FROM Transaction t JOIN FETCH t.primaryCategory LEFT JOIN FETCH t.secondaryCategory " +
+            "JOIN FETCH t.user u WHERE u.id = :userId ORDER BY t.date DESC, t.id DESC")
+    List<Transaction> findNewestByUser(@Param("userId") Long userId, Limit limit);
+
+    /**
+     * Retrieves the transactions of a user that come after a (date, ID) position in descending order.
+     * The seek predicate lets the database start reading at the position instead of skipping rows.
+     *
+     * @param userId The ID of the user.
+     * @param date   The date of the last transaction already returned.
+     * @param id     The ID of the last transaction already returned.
+     * @param limit  The maximum number of transactions to return.
+     * @return A list of transactions with their categories fetched.
+     */
+    @Query("SELECT t FROM Transaction t JOIN FETCH t.primaryCategory LEFT JOIN FETCH t.secondaryCategory " +
+            "JOIN FETCH t.user u WHERE u.id = :userId AND (t.date < :date OR (t.date = :date AND t.id < :id)) " +
+            "ORDER BY t.date DESC, t.id DESC")
+    List<Transaction> findByUserBefore(@Param("userId") Long userId, @Param("date") Timestamp date,
+                                       @Param("id") Long id, Limit limit);
+
+    /**
+     * Streams the transactions of a user within a date range, oldest first, through a forward-only cursor.
+     * The stream must be consumed inside a transaction and closed afterwards.
+     *
+     * @param userId    The ID of the user.
+     * @param startDate The start of the range (inclusive).
+     * @param endDate   The end of the range (exclusive).
+     * @return A stream of transactions with their categories fetched.
      */
-    List<Transaction> findByTypeAndDateBetween(TransactionType type, Timestamp startDate, Timestamp endDate);
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Transaction t JOIN FETCH t.primaryCategory LEFT JOIN FETCH t.secondaryCategory " +
+            "JOIN FETCH t.user u WHERE u.id = :userId AND t.date >= :startDate AND t.date < :endDate " +
+            "ORDER BY t.date, t.id")
+    Stream<Transaction> streamByUserAndDateRange(@Param("userId") Long userId, @Param("startDate") Timestamp startDate,
+                                                 @Param("endDate") Timestamp endDate);
 }
@@ -17,4 +17,12 @@ public interface UserRepository extends JpaRepository<User, Long> {
      * @return Optional<User> containing the User entity if found, otherwise empty.
      */
     Optional<User> findByEmail(String email);
+
+    /**
+     * Retrieves an Optional User entity based on the login.
+     *
+     * @param login The login of the user.
+     * @return Optional<User> containing the User entity if found, otherwise empty.
+     */
+    Optional<User> findByLogin(String login);
 }
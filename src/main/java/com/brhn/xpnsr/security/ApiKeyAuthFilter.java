@@ -1,12 +1,10 @@
 package com.brhn.xpnsr.security;
 
-import com.brhn.xpnsr.models.Application;
-import com.brhn.xpnsr.repositories.ApplicationRepository;
+import com.brhn.xpnsr.exceptions.NotFoundError;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -17,7 +15,6 @@ import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Optional;
 
 /**
  * Custom authentication filter to authenticate requests based on API key.
@@ -27,7 +24,10 @@ import java.util.Optional;
 public class ApiKeyAuthFilter extends OncePerRequestFilter {
 
     @Autowired
-    private ApplicationRepository applicationRepository; // Repository to fetch applications by API key
+    private ApiKeyCache apiKeyCache; // Cache of API key validations
+
+    @Autowired
+    private PrincipalResolver principalResolver; // Cached resolver of logins to user principals
 
     private static final String API_KEY_HEADER = "XPNSR-API-KEY"; // Header name for API key
     private static final String SAMPLE_API_KEY = "c779c66a194f4ddfbc22a9e2dacb5835"; // Example API key for demonstration
@@ -50,7 +50,7 @@ public class ApiKeyAuthFilter extends OncePerRequestFilter {
                 return; // Stop filter chain for unauthorized requests
             }
 
-            authenticateWithApiKey("sample_user", apiKey); // Authenticate the request with the API key
+            authenticateWithApiKey(CurrentUserProvider.DEFAULT_LOGIN, apiKey); // Authenticate the request with the API key
         }
 
         filterChain.doFilter(request, response); // Continue filter chain for authorized requests
@@ -58,13 +58,20 @@ public class ApiKeyAuthFilter extends OncePerRequestFilter {
 
     /**
      * Authenticate the request with the provided API key.
+     * The user is resolved once here, so services can reference it by ID without loading it.
      *
      * @param username The username associated with the API key (typically service account).
      * @param apiKey   The API key used for authentication.
      */
     private void authenticateWithApiKey(String username, String apiKey) {
+        Object principal;
+        try {
+            principal = principalResolver.resolve(username); // Resolve the user behind the username
+        } catch (NotFoundError e) {
+            principal = username; // Fall back to the plain username if the user does not exist
+        }
         UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
-                username, // Principal, using the passed username
+                principal, // Principal, resolved from the passed username
                 null, // Credentials, not using password for API key auth
                 AuthorityUtils.createAuthorityList("ROLE_API_USER") // Authorities
         );
@@ -74,17 +81,12 @@ public class ApiKeyAuthFilter extends OncePerRequestFilter {
     }
 
     /**
-     * Validate the provided API key by checking against the ApplicationRepository.
+     * Validate the provided API key against the cached applications.
      *
      * @param apiKey The API key to validate.
      * @return true if the API key is valid, false otherwise.
      */
     private boolean validateApiKey(String apiKey) {
-        if (StringUtils.isBlank(apiKey)) {
-            return false; // Blank API keys are not valid
-        }
-
-        Optional<Application> app = applicationRepository.findApplicationByApiKey(apiKey); // Find application by API key
-        return app.isPresent(); // Return true if application with API key exists
+        return apiKeyCache.isValid(apiKey); // Blank and unknown API keys are not valid
     }
 }
\ No newline at end of file
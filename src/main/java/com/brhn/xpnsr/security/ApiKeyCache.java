@@ -0,0 +1,134 @@
+package com.brhn.xpnsr.security;
+
+import com.brhn.xpnsr.config.CacheMetrics;
+import com.brhn.xpnsr.config.CacheProperties;
+import com.brhn.xpnsr.models.Application;
+import com.brhn.xpnsr.repositories.ApplicationRepository;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Cache of API key validations, keyed by the SHA-256 hash of the key so raw keys are neither stored nor kept
+ * in memory.
+ * Concurrent lookups of a key that is not cached share a single database load. Valid keys are refreshed in the
+ * background once they are older than the refresh interval, so they do not block requests when they expire;
+ * unknown keys are remembered for a short time only, so a burst of invalid requests is answered from memory.
+ * The cache is configured as {@code xpnsr.cache.specs.api-keys}; its expiry applies to valid keys only.
+ */
+@Component
+public class ApiKeyCache {
+
+    /**
+     * The name the cache is configured and reported under.
+     */
+    public static final String CACHE_NAME = "api-keys";
+
+    private static final Duration DEFAULT_EXPIRE_AFTER_WRITE = Duration.ofMinutes(10);
+
+    private final ApplicationRepository applicationRepository;
+    private final AsyncLoadingCache<String, Optional<UUID>> applicationIds;
+
+    /**
+     * Constructs an ApiKeyCache with the necessary repository and cache settings.
+     *
+     * @param applicationRepository The repository for accessing Application entities.
+     * @param cacheProperties       The cache settings, of which the api-keys ones are used.
+     * @param cacheMetrics          The registry the statistics of the cache are reported to.
+     * @param negativeTtl           How long an unknown key is cached.
+     */
+    @Autowired
+    public ApiKeyCache(ApplicationRepository applicationRepository, CacheProperties cacheProperties,
+                       CacheMetrics cacheMetrics,
+                       @Value("${xpnsr.security.api-keys.negative-ttl:30s}") Duration negativeTtl) {
+        this.applicationRepository = applicationRepository;
+        CacheProperties.Spec spec = cacheProperties.resolve(CACHE_NAME);
+        Duration expireAfterWrite = spec.getExpireAfterWrite() != null
+                ? spec.getExpireAfterWrite() : DEFAULT_EXPIRE_AFTER_WRITE;
+        Caffeine<String, Optional<UUID>> builder = spec.newAsyncBuilder(CACHE_NAME, true)
+                .expireAfter(new ExpireAfterWrite(expireAfterWrite.toNanos(), negativeTtl.toNanos()));
+        if (spec.getRefreshAfterWrite() != null) {
+            builder.refreshAfterWrite(spec.getRefreshAfterWrite());
+        }
+        this.applicationIds = builder
+                .recordStats(() -> cacheMetrics.statsCounter(CACHE_NAME))
+                .buildAsync(this::load);
+        cacheMetrics.register(CACHE_NAME, applicationIds.synchronous());
+    }
+
+    /**
+     * Checks whether an API key belongs to an application.
+     *
+     * @param apiKey The API key sent by the client.
+     * @return true if the key is valid, false otherwise.
+     */
+    public boolean isValid(String apiKey) {
+        if (StringUtils.isBlank(apiKey)) {
+            return false;
+        }
+        return applicationIds.get(hash(apiKey)).join().isPresent();
+    }
+
+    /**
+     * Computes the hash an API key is stored and looked up by.
+     *
+     * @param apiKey The API key.
+     * @return The lowercase hexadecimal SHA-256 hash of the key.
+     */
+    public static String hash(String apiKey) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(apiKey.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Expiry resetting the lifetime of an entry whenever it is loaded or refreshed, shorter for unknown keys.
+     *
+     * @param validNanos   The lifetime of a valid key, in nanoseconds.
+     * @param unknownNanos The lifetime of an unknown key, in nanoseconds.
+     */
+    private record ExpireAfterWrite(long validNanos, long unknownNanos) implements Expiry<String, Optional<UUID>> {
+
+        @Override
+        public long expireAfterCreate(String apiKeyHash, Optional<UUID> applicationId, long currentTime) {
+            return applicationId.isPresent() ? validNanos : unknownNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(String apiKeyHash, Optional<UUID> applicationId, long currentTime,
+                                      long currentDuration) {
+            return expireAfterCreate(apiKeyHash, applicationId, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String apiKeyHash, Optional<UUID> applicationId, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
+        }
+    }
+
+    /**
+     * Loads the application of a hashed API key from the database.
+     *
+     * @param apiKeyHash The hash of the API key.
+     * @return The ID of the application, or empty if the key is unknown.
+     */
+    private Optional<UUID> load(String apiKeyHash) {
+        return applicationRepository.findApplicationByApiKey(apiKeyHash).map(Application::getId);
+    }
+}
@@ -25,7 +25,9 @@ public class AuthenticationProvider {
             return null; // No user authenticated
         }
         Object principal = authentication.getPrincipal();
-        if (principal instanceof UserDetails) {
+        if (principal instanceof UserPrincipal) {
+            return ((UserPrincipal) principal).getLogin(); // Return login of the resolved user
+        } else if (principal instanceof UserDetails) {
             return ((UserDetails) principal).getUsername(); // Return username from UserDetails
         } else if (principal instanceof String) {
             return (String) principal; // Return username as String
@@ -33,6 +35,20 @@ public class AuthenticationProvider {
         return null; // Principal is neither UserDetails nor String
     }
 
+    /**
+     * Retrieves the principal of the currently authenticated user.
+     *
+     * @return UserPrincipal of the authenticated user, or null if the request is not authenticated with one.
+     */
+    public static UserPrincipal getCurrentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return null; // No user authenticated
+        }
+        Object principal = authentication.getPrincipal();
+        return principal instanceof UserPrincipal ? (UserPrincipal) principal : null;
+    }
+
     /**
      * Configures a BCryptPasswordEncoder bean for password hashing.
      *
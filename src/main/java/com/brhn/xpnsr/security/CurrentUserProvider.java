@@ -0,0 +1,41 @@
+package com.brhn.xpnsr.security;
+
+import com.brhn.xpnsr.exceptions.NotFoundError;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Provides the ID of the user the current request is made on behalf of.
+ */
+@Component
+public class CurrentUserProvider {
+
+    public static final String DEFAULT_LOGIN = "sample_user"; // User that API keys act on behalf of
+
+    private final PrincipalResolver principalResolver;
+
+    /**
+     * Constructs a CurrentUserProvider with the resolver used when no principal is authenticated.
+     *
+     * @param principalResolver The resolver for user principals.
+     */
+    @Autowired
+    public CurrentUserProvider(PrincipalResolver principalResolver) {
+        this.principalResolver = principalResolver;
+    }
+
+    /**
+     * Retrieves the ID of the current user. Outside an authenticated request, such as during
+     * data loading, the default user is used.
+     *
+     * @return The ID of the current user.
+     * @throws NotFoundError if the default user does not exist.
+     */
+    public Long getUserId() throws NotFoundError {
+        UserPrincipal principal = AuthenticationProvider.getCurrentPrincipal();
+        if (principal == null) {
+            principal = principalResolver.resolve(DEFAULT_LOGIN);
+        }
+        return principal.getUserId();
+    }
+}
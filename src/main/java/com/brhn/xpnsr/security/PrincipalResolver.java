@@ -0,0 +1,43 @@
+package com.brhn.xpnsr.security;
+
+import com.brhn.xpnsr.exceptions.NotFoundError;
+import com.brhn.xpnsr.repositories.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Resolves logins to authenticated principals.
+ * Resolutions are cached in the "principals" cache, which is evicted whenever a user is updated or deleted.
+ */
+@Component
+public class PrincipalResolver {
+
+    public static final String PRINCIPALS_CACHE = "principals";
+
+    private final UserRepository userRepository;
+
+    /**
+     * Constructs a PrincipalResolver with the necessary repository.
+     *
+     * @param userRepository The repository for accessing User entities.
+     */
+    @Autowired
+    public PrincipalResolver(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Resolves the principal of the user with the given login.
+     *
+     * @param login The login of the user.
+     * @return The UserPrincipal of the user.
+     * @throws NotFoundError if no user has the login.
+     */
+    @Cacheable(value = PRINCIPALS_CACHE, key = "#login")
+    public UserPrincipal resolve(String login) throws NotFoundError {
+        return userRepository.findByLogin(login)
+                .map(user -> new UserPrincipal(user.getId(), user.getLogin()))
+                .orElseThrow(() -> new NotFoundError("User not found with username: " + login));
+    }
+}
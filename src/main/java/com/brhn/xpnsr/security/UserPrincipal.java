@@ -0,0 +1,65 @@
+package com.brhn.xpnsr.security;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Authenticated caller of the API, carrying the ID of the user requests are made on behalf of.
+ * Services use the ID to reference the user without loading its row.
+ */
+public class UserPrincipal implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private final Long userId;
+    private final String login;
+
+    /**
+     * Constructs a principal for a user.
+     *
+     * @param userId The ID of the user.
+     * @param login  The login of the user.
+     */
+    public UserPrincipal(Long userId, String login) {
+        this.userId = userId;
+        this.login = login;
+    }
+
+    /**
+     * Retrieves the ID of the user.
+     *
+     * @return The user ID.
+     */
+    public Long getUserId() {
+        return userId;
+    }
+
+    /**
+     * Retrieves the login of the user.
+     *
+     * @return The login.
+     */
+    public String getLogin() {
+        return login;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        UserPrincipal that = (UserPrincipal) o;
+        return Objects.equals(userId, that.userId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(userId);
+    }
+
+    @Override
+    public String toString() {
+        return login;
+    }
+}
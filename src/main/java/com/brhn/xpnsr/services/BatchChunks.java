@@ -0,0 +1,83 @@
+package com.brhn.xpnsr.services;
+
+import com.brhn.xpnsr.exceptions.BadRequestError;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Splits the items of a batch request into chunks of the JDBC batch size, so every chunk is written with a few
+ * statements and then cleared from the persistence context. Items keep their position in the batch, which is
+ * how rejected items are reported.
+ */
+final class BatchChunks {
+
+    private BatchChunks() {
+    }
+
+    /**
+     * Reads the items of a batch and hands them over one chunk at a time.
+     *
+     * @param items     The items of the batch, in batch order.
+     * @param chunkSize The number of items per chunk.
+     * @param maxItems  The maximum number of items accepted in the batch.
+     * @param itemName  The plural name of the items, used in the error message.
+     * @param chunk     The consumer writing a chunk of items.
+     * @param <T>       The type of the items.
+     * @return The number of items received.
+     * @throws BadRequestError if the batch contains more items than allowed.
+     */
+    static <T> int process(Iterator<T> items, int chunkSize, int maxItems, String itemName,
+                           Consumer<List<Item<T>>> chunk) {
+        List<Item<T>> pending = new ArrayList<>(chunkSize);
+        int index = 0;
+        while (items.hasNext()) {
+            if (index == maxItems) {
+                throw new BadRequestError("A batch cannot contain more than " + maxItems + " " + itemName);
+            }
+            pending.add(new Item<>(index++, items.next()));
+            if (pending.size() == chunkSize) {
+                chunk.accept(pending);
+                pending = new ArrayList<>(chunkSize);
+            }
+        }
+        if (!pending.isEmpty()) {
+            chunk.accept(pending);
+        }
+        return index;
+    }
+
+    /**
+     * Validates an item of a batch against its constraints.
+     *
+     * @param validator The validator.
+     * @param item      The item to validate.
+     * @return The constraint violations joined in one message, or null if the item is valid.
+     */
+    static String violations(Validator validator, Object item) {
+        Set<ConstraintViolation<Object>> violations = validator.validate(item);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    /**
+     * An item of a batch with its zero-based position.
+     *
+     * @param index The position of the item in the batch.
+     * @param value The item.
+     * @param <T>   The type of the item.
+     */
+    record Item<T>(int index, T value) {
+    }
+}
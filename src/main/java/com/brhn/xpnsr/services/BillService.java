@@ -2,18 +2,44 @@ package com.brhn.xpnsr.services;
 
 import com.brhn.xpnsr.exceptions.BadRequestError;
 import com.brhn.xpnsr.exceptions.NotFoundError;
+import com.brhn.xpnsr.exceptions.PreconditionFailedError;
 import com.brhn.xpnsr.models.Bill;
 import com.brhn.xpnsr.models.User;
+import com.brhn.xpnsr.repositories.BillPlan;
 import com.brhn.xpnsr.repositories.BillRepository;
 import com.brhn.xpnsr.repositories.CategoryRepository;
 import com.brhn.xpnsr.repositories.UserRepository;
-import com.brhn.xpnsr.security.AuthenticationProvider;
+import com.brhn.xpnsr.security.CurrentUserProvider;
+import com.brhn.xpnsr.services.dtos.BatchResultDTO;
 import com.brhn.xpnsr.services.dtos.BillDTO;
+import com.brhn.xpnsr.services.dtos.CategoryDTO;
+import com.brhn.xpnsr.services.dtos.ReportDTO;
+import com.brhn.xpnsr.services.dtos.TimeseriesBucketDTO;
 import com.brhn.xpnsr.services.mappers.BillMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service class for handling operations related to bills.
@@ -21,27 +47,56 @@ import org.springframework.stereotype.Service;
 @Service
 public class BillService {
 
+    private static final int MAX_SCHEDULE_MONTHS = 1200;
+
     private final BillRepository billRepository;
     private final UserRepository userRepository;
-
     private final CategoryRepository categoryRepository;
 
+    private final CategoryCatalog categoryCatalog;
+
     private final BillMapper billMapper;
 
+    private final CurrentUserProvider currentUserProvider;
+
+    private final CollectionVersions collectionVersions;
+
+    private final EntityManager entityManager;
+
+    private final Validator validator;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int jdbcBatchSize; // Number of writes flushed together in a batch
+
+    @Value("${xpnsr.bills.batch.max-items:1000}")
+    private int maxBatchItems; // Maximum number of bills accepted in one batch
+
     /**
      * Constructs a BillService with necessary repositories and mappers.
      *
      * @param billRepository     The repository for accessing Bill entities.
      * @param userRepository     The repository for accessing User entities.
-     * @param categoryRepository
+     * @param categoryRepository The repository for accessing Category entities.
+     * @param categoryCatalog    The in-memory catalog of categories.
      * @param billMapper         The mapper for converting between Bill and BillDTO.
+     * @param currentUserProvider The provider of the current user.
+     * @param collectionVersions The modification counters of the collections.
+     * @param entityManager      The entity manager used to flush and clear batches.
+     * @param validator          The validator used for items of a batch.
      */
     @Autowired
-    public BillService(BillRepository billRepository, UserRepository userRepository, CategoryRepository categoryRepository, BillMapper billMapper) {
+    public BillService(BillRepository billRepository, UserRepository userRepository, CategoryRepository categoryRepository,
+                       CategoryCatalog categoryCatalog, BillMapper billMapper, CurrentUserProvider currentUserProvider,
+                       CollectionVersions collectionVersions, EntityManager entityManager, Validator validator) {
         this.billRepository = billRepository;
         this.userRepository = userRepository;
         this.categoryRepository = categoryRepository;
+        this.categoryCatalog = categoryCatalog;
         this.billMapper = billMapper;
+        this.currentUserProvider = currentUserProvider;
+        this.collectionVersions = collectionVersions;
+        this.entityManager = entityManager;
+        this.validator = validator;
     }
 
     /**
@@ -53,40 +108,52 @@ public class BillService {
      */
     public BillDTO createBill(BillDTO b) {
         Bill bill = billMapper.billDTOToBill(b);
-        String username = AuthenticationProvider.getCurrentUsername();
-        User user = userRepository.findByEmail("sample.user@example.com")
-                .orElseThrow(() -> new NotFoundError("User not found with username: " + username));
+        bill.setId(null); // Existing bills are only overwritten by a versioned update
+        User user = userRepository.getReferenceById(currentUserProvider.getUserId());
         bill.setUser(user);
 
-        categoryRepository.findById(b.getCategoryId())
-                .orElseThrow(() -> new BadRequestError("Category does not exist"));
+        if (!categoryCatalog.get().contains(b.getCategoryId())) {
+            throw new BadRequestError("Category does not exist");
+        }
+        bill.setCategory(categoryRepository.getReferenceById(b.getCategoryId()));
 
-        bill = billRepository.save(bill);
+        bill = billRepository.saveAndFlush(bill); // Flushed so the new version is returned
+        collectionVersions.increment(CollectionVersions.BILLS);
         return billMapper.billToBillDTO(bill);
     }
 
     /**
      * Updates an existing bill identified by its ID.
      *
-     * @param id The ID of the bill to update.
-     * @param b  The updated BillDTO.
+     * @param id              The ID of the bill to update.
+     * @param b               The updated BillDTO.
+     * @param expectedVersion The version the client last read, or null to update any version.
      * @return The updated BillDTO.
-     * @throws RuntimeException if the bill with the specified ID cannot be found.
-     * @throws NotFoundError    if the associated user cannot be found.
+     * @throws NotFoundError           if the bill with the specified ID cannot be found.
+     * @throws BadRequestError         if the category does not exist.
+     * @throws PreconditionFailedError if the bill is no longer at the expected version.
      */
-    public BillDTO updateBill(Long id, BillDTO b) {
-        billRepository.findById(id).orElseThrow(() -> new NotFoundError("Bill not found with id " + id));
+    public BillDTO updateBill(Long id, BillDTO b, Long expectedVersion) {
+        Bill existing = billRepository.findById(id).orElseThrow(() -> new NotFoundError("Bill not found with id " + id));
+        if (expectedVersion != null && !expectedVersion.equals(existing.getVersion())) {
+            throw new PreconditionFailedError("Bill " + id + " has been modified since version " + expectedVersion);
+        }
         Bill bill = billMapper.billDTOToBill(b);
         bill.setId(id);
-        String username = AuthenticationProvider.getCurrentUsername();
-        User user = userRepository.findByEmail("sample.user@example.com")
-                .orElseThrow(() -> new NotFoundError("User not found with username: " + username));
+        bill.setVersion(existing.getVersion()); // A concurrent update in between fails the save
+        if (bill.getStartDate() == null) {
+            bill.setStartDate(existing.getStartDate());
+        }
+        User user = userRepository.getReferenceById(currentUserProvider.getUserId());
         bill.setUser(user);
 
-        categoryRepository.findById(b.getCategoryId())
-                .orElseThrow(() -> new BadRequestError("Category does not exist"));
+        if (!categoryCatalog.get().contains(b.getCategoryId())) {
+            throw new BadRequestError("Category does not exist");
+        }
+        bill.setCategory(categoryRepository.getReferenceById(b.getCategoryId()));
 
-        bill = billRepository.save(bill);
+        bill = billRepository.saveAndFlush(bill); // Flushed so the new version is returned
+        collectionVersions.increment(CollectionVersions.BILLS);
         return billMapper.billToBillDTO(bill);
     }
 
@@ -102,6 +169,17 @@ public class BillService {
         return billMapper.billToBillDTO(bill);
     }
 
+    /**
+     * Retrieves the version of a bill without loading it.
+     *
+     * @param id The ID of the bill.
+     * @return The version of the bill.
+     * @throws NotFoundError if the bill with the specified ID cannot be found.
+     */
+    public Long getVersion(Long id) {
+        return billRepository.findVersionById(id).orElseThrow(() -> new NotFoundError("Bill not found with id " + id));
+    }
+
     /**
      * Retrieves all bills paginated.
      *
@@ -122,5 +200,291 @@ public class BillService {
     public void deleteBill(Long id) {
         Bill bill = billRepository.findById(id).orElseThrow(() -> new NotFoundError("Bill not found with id " + id));
         billRepository.delete(bill);
+        collectionVersions.increment(CollectionVersions.BILLS);
+    }
+
+    /**
+     * Adds a batch of bills. Categories are checked against the in-memory catalog, the bills are inserted in
+     * JDBC batches and invalid ones are reported by their position without aborting the batch.
+     *
+     * @param billDTOs The bills to add, in batch order.
+     * @return A BatchResultDTO with the IDs of the added bills and the errors of the rejected ones.
+     * @throws BadRequestError if the batch contains more bills than allowed.
+     */
+    @Transactional
+    public BatchResultDTO addAll(Iterator<BillDTO> billDTOs) {
+        Long userId = currentUserProvider.getUserId();
+        CategorySnapshot categories = categoryCatalog.get();
+        BatchResultDTO result = new BatchResultDTO();
+        result.setReceived(BatchChunks.process(billDTOs, jdbcBatchSize, maxBatchItems, "bills", chunk -> {
+            List<Bill> pending = new ArrayList<>(chunk.size());
+            for (BatchChunks.Item<BillDTO> item : chunk) {
+                String error = validateBatchItem(item.value(), categories);
+                if (error != null) {
+                    result.addError(item.index(), error);
+                    continue;
+                }
+                Bill bill = billMapper.billDTOToBill(item.value());
+                bill.setId(null);
+                bill.setUser(userRepository.getReferenceById(userId));
+                bill.setCategory(categoryRepository.getReferenceById(item.value().getCategoryId()));
+                pending.add(bill);
+            }
+            billRepository.saveAll(pending);
+            entityManager.flush();
+            entityManager.clear();
+            pending.forEach(bill -> result.addId(bill.getId()));
+        }));
+        collectionVersions.increment(CollectionVersions.BILLS);
+        return result;
+    }
+
+    /**
+     * Updates a batch of bills identified by their IDs. The bills of a chunk are loaded with one query and
+     * written in JDBC batches; missing or invalid ones are reported by their position without aborting the batch.
+     *
+     * @param billDTOs The bills to update, in batch order.
+     * @return A BatchResultDTO with the IDs of the updated bills and the errors of the rejected ones.
+     * @throws BadRequestError if the batch contains more bills than allowed.
+     */
+    @Transactional
+    public BatchResultDTO updateAll(Iterator<BillDTO> billDTOs) {
+        Long userId = currentUserProvider.getUserId();
+        CategorySnapshot categories = categoryCatalog.get();
+        BatchResultDTO result = new BatchResultDTO();
+        result.setReceived(BatchChunks.process(billDTOs, jdbcBatchSize, maxBatchItems, "bills", chunk -> {
+            Map<Long, Bill> existing = billRepository.findAllById(chunk.stream()
+                            .map(item -> item.value() == null ? null : item.value().getId())
+                            .filter(Objects::nonNull)
+                            .toList()).stream()
+                    .collect(Collectors.toMap(Bill::getId, Function.identity()));
+            for (BatchChunks.Item<BillDTO> item : chunk) {
+                BillDTO b = item.value();
+                String error = validateBatchItem(b, categories);
+                if (error == null && b.getId() == null) {
+                    error = "Bill id is required";
+                } else if (error == null && !existing.containsKey(b.getId())) {
+                    error = "Bill not found with id " + b.getId();
+                }
+                if (error != null) {
+                    result.addError(item.index(), error);
+                    continue;
+                }
+                Bill previous = existing.get(b.getId());
+                Bill bill = billMapper.billDTOToBill(b);
+                bill.setVersion(previous.getVersion());
+                if (bill.getStartDate() == null) {
+                    bill.setStartDate(previous.getStartDate());
+                }
+                bill.setUser(userRepository.getReferenceById(userId));
+                bill.setCategory(categoryRepository.getReferenceById(b.getCategoryId()));
+                billRepository.save(bill); // Merged into the bill loaded above, no extra query
+                result.addId(b.getId());
+            }
+            entityManager.flush();
+            entityManager.clear();
+        }));
+        collectionVersions.increment(CollectionVersions.BILLS);
+        return result;
+    }
+
+    /**
+     * Deletes a batch of bills by their IDs, using one statement per chunk.
+     * Missing bills are reported by their position without aborting the batch.
+     *
+     * @param ids The IDs of the bills to delete, in batch order.
+     * @return A BatchResultDTO with the IDs of the deleted bills and the errors of the missing ones.
+     * @throws BadRequestError if the batch contains more bills than allowed.
+     */
+    @Transactional
+    public BatchResultDTO deleteAll(Iterator<Long> ids) {
+        BatchResultDTO result = new BatchResultDTO();
+        result.setReceived(BatchChunks.process(ids, jdbcBatchSize, maxBatchItems, "bills", chunk -> {
+            List<Long> found = new ArrayList<>(billRepository.findExistingIds(chunk.stream()
+                    .map(BatchChunks.Item::value)
+                    .filter(Objects::nonNull)
+                    .toList()));
+            List<Long> deleted = new ArrayList<>(found.size());
+            for (BatchChunks.Item<Long> item : chunk) {
+                if (item.value() == null) {
+                    result.addError(item.index(), "Bill id is required");
+                } else if (!found.remove(item.value())) { // A repeated ID is deleted once
+                    result.addError(item.index(), "Bill not found with id " + item.value());
+                } else {
+                    deleted.add(item.value());
+                    result.addId(item.value());
+                }
+            }
+            if (!deleted.isEmpty()) {
+                billRepository.deleteAllByIdInBatch(deleted);
+            }
+        }));
+        collectionVersions.increment(CollectionVersions.BILLS);
+        return result;
+    }
+
+    /**
+     * Validates an item of a batch against its constraints and the categories of the batch.
+     *
+     * @param billDTO    The item to validate.
+     * @param categories The snapshot of the categories.
+     * @return The validation error, or null if the item is valid.
+     */
+    private String validateBatchItem(BillDTO billDTO, CategorySnapshot categories) {
+        if (billDTO == null) {
+            return "Bill cannot be null";
+        }
+        String violations = BatchChunks.violations(validator, billDTO);
+        if (violations != null) {
+            return violations;
+        }
+        if (!categories.contains(billDTO.getCategoryId())) {
+            return "Category does not exist";
+        }
+        return null;
+    }
+
+    /**
+     * Checks that a schedule range can be computed, so that it is rejected before a response is streamed.
+     *
+     * @param from The first month of the schedule (inclusive).
+     * @param to   The last month of the schedule (inclusive).
+     * @throws BadRequestError if the first month is after the last one or the range is too long.
+     */
+    public void validateScheduleRange(YearMonth from, YearMonth to) throws BadRequestError {
+        if (from.isAfter(to)) {
+            throw new BadRequestError("The first month must not be after the last month");
+        }
+        if (from.until(to, ChronoUnit.MONTHS) + 1 > MAX_SCHEDULE_MONTHS) {
+            throw new BadRequestError("The schedule must not span more than " + MAX_SCHEDULE_MONTHS + " months");
+        }
+    }
+
+    /**
+     * Streams the instalments due by a user's bills, one month at a time with per-category totals.
+     * Each bill is read once and only records where its instalments start and stop within the range, so the
+     * work grows with the number of bills and months, not with their tenures. Every instalment is the amount
+     * divided by the tenure and rounded to cents; the last one takes the rounding remainder. Months without
+     * instalments are emitted with a zero total.
+     *
+     * @param userId   The ID of the user, resolved by the caller before the response is streamed.
+     * @param from     The first month of the schedule (inclusive).
+     * @param to       The last month of the schedule (inclusive).
+     * @param consumer The consumer receiving the months in chronological order.
+     * @throws BadRequestError if the first month is after the last one or the range is too long.
+     */
+    @Transactional(readOnly = true)
+    public void streamSchedule(Long userId, YearMonth from, YearMonth to, Consumer<TimeseriesBucketDTO> consumer) {
+        validateScheduleRange(from, to);
+        int months = (int) from.until(to, ChronoUnit.MONTHS) + 1;
+        Map<String, String> categoryNames = categoryCatalog.get().getAll().stream()
+                .collect(Collectors.toMap(CategoryDTO::getId, CategoryDTO::getName));
+
+        // Change of the monthly total of each category at the start of each month of the range
+        Map<String, BigDecimal[]> changes = new LinkedHashMap<>();
+        try (Stream<BillPlan> plans = billRepository.streamPlans(userId, from.atDay(1), to.atEndOfMonth())) {
+            plans.forEach(plan -> addInstalments(plan, from, months,
+                    changes.computeIfAbsent(plan.getCategoryId(), categoryId -> new BigDecimal[months + 1])));
+        }
+
+        Map<String, BigDecimal> totals = new HashMap<>();
+        for (int month = 0; month < months; month++) {
+            Map<String, BigDecimal> monthTotals = new LinkedHashMap<>();
+            for (Map.Entry<String, BigDecimal[]> entry : changes.entrySet()) {
+                BigDecimal change = entry.getValue()[month];
+                BigDecimal total = change == null ? totals.getOrDefault(entry.getKey(), BigDecimal.ZERO)
+                        : totals.merge(entry.getKey(), change, BigDecimal::add);
+                if (total.signum() != 0) {
+                    monthTotals.put(entry.getKey(), total);
+                }
+            }
+            consumer.accept(toScheduleBucket(from.plusMonths(month), from.plusMonths(month), monthTotals,
+                    categoryNames));
+        }
+    }
+
+    /**
+     * Forecasts the instalments due by the current user's bills over the coming months.
+     *
+     * @param from   The first month of the forecast (inclusive).
+     * @param months The number of months of the forecast.
+     * @return A single TimeseriesBucketDTO with the per-category totals of the whole forecast.
+     * @throws BadRequestError if the number of months is not positive or too large.
+     */
+    @Transactional(readOnly = true)
+    public TimeseriesBucketDTO forecast(YearMonth from, int months) {
+        if (months < 1) {
+            throw new BadRequestError("The forecast must span at least one month");
+        }
+        YearMonth to = from.plusMonths(months - 1L);
+        Map<String, BigDecimal> totals = new LinkedHashMap<>();
+        streamSchedule(currentUserProvider.getUserId(), from, to, bucket -> bucket.getCategories()
+                .forEach(category -> totals.merge(category.getCategory(), category.getAmount(), BigDecimal::add)));
+        return toScheduleBucket(from, to, totals, Map.of());
+    }
+
+    /**
+     * Records where the instalments of a bill start and stop changing the monthly totals of its category.
+     *
+     * @param plan    The bill.
+     * @param from    The first month of the range.
+     * @param months  The number of months of the range.
+     * @param changes The changes of the monthly total of the bill's category, indexed by month of the range.
+     */
+    private static void addInstalments(BillPlan plan, YearMonth from, int months, BigDecimal[] changes) {
+        int tenure = plan.getTenure();
+        if (tenure <= 0) {
+            return;
+        }
+        BigDecimal instalment = plan.getAmount().divide(BigDecimal.valueOf(tenure), 2, RoundingMode.HALF_UP);
+        BigDecimal last = plan.getAmount().subtract(instalment.multiply(BigDecimal.valueOf(tenure - 1L)));
+        long first = from.until(YearMonth.from(plan.getStartDate()), ChronoUnit.MONTHS);
+        long lastMonth = first + tenure - 1;
+
+        // Regular instalments from the first month up to the one before the last
+        long start = Math.max(first, 0);
+        long end = Math.min(lastMonth - 1, months - 1L);
+        if (start <= end) {
+            addChange(changes, (int) start, instalment);
+            addChange(changes, (int) end + 1, instalment.negate());
+        }
+        // Last instalment
+        if (lastMonth >= 0 && lastMonth < months) {
+            addChange(changes, (int) lastMonth, last);
+            addChange(changes, (int) lastMonth + 1, last.negate());
+        }
+    }
+
+    private static void addChange(BigDecimal[] changes, int month, BigDecimal change) {
+        changes[month] = changes[month] == null ? change : changes[month].add(change);
+    }
+
+    /**
+     * Builds a bucket spanning whole months from per-category totals.
+     *
+     * @param from          The first month of the bucket.
+     * @param to            The last month of the bucket.
+     * @param totals        The totals keyed by category ID, or by category name when no names are given.
+     * @param categoryNames The category names keyed by category ID.
+     * @return The TimeseriesBucketDTO for the months.
+     */
+    private static TimeseriesBucketDTO toScheduleBucket(YearMonth from, YearMonth to, Map<String, BigDecimal> totals,
+                                                        Map<String, String> categoryNames) {
+        List<ReportDTO> categories = new ArrayList<>(totals.size());
+        BigDecimal total = BigDecimal.ZERO;
+        for (Map.Entry<String, BigDecimal> entry : totals.entrySet()) {
+            ReportDTO reportDTO = new ReportDTO();
+            reportDTO.setCategory(categoryNames.getOrDefault(entry.getKey(), entry.getKey()));
+            reportDTO.setAmount(entry.getValue());
+            categories.add(reportDTO);
+            total = total.add(entry.getValue());
+        }
+
+        TimeseriesBucketDTO bucketDTO = new TimeseriesBucketDTO();
+        bucketDTO.setStart(from.atDay(1));
+        bucketDTO.setEnd(to.atEndOfMonth());
+        bucketDTO.setTotal(total);
+        bucketDTO.setCategories(categories);
+        return bucketDTO;
     }
-}
\ No newline at end of file
+}
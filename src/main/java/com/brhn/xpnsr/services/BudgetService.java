@@ -1,21 +1,34 @@
 package com.brhn.xpnsr.services;
 
+import com.brhn.xpnsr.exceptions.BadRequestError;
 import com.brhn.xpnsr.exceptions.NotFoundError;
+import com.brhn.xpnsr.exceptions.PreconditionFailedError;
 import com.brhn.xpnsr.models.Budget;
-import com.brhn.xpnsr.models.Category;
 import com.brhn.xpnsr.models.User;
 import com.brhn.xpnsr.repositories.BudgetRepository;
 import com.brhn.xpnsr.repositories.CategoryRepository;
 import com.brhn.xpnsr.repositories.UserRepository;
-import com.brhn.xpnsr.security.AuthenticationProvider;
+import com.brhn.xpnsr.security.CurrentUserProvider;
+import com.brhn.xpnsr.services.dtos.BatchResultDTO;
 import com.brhn.xpnsr.services.dtos.BudgetDTO;
 import com.brhn.xpnsr.services.mappers.BudgetMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Optional;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Service class for handling operations related to budgets.
@@ -25,24 +38,52 @@ public class BudgetService {
 
     private final BudgetRepository budgetRepository;
     private final UserRepository userRepository;
-
     private final CategoryRepository categoryRepository;
+
+    private final CategoryCatalog categoryCatalog;
     private final BudgetMapper budgetMapper;
+    private final CurrentUserProvider currentUserProvider;
+    private final CollectionVersions collectionVersions;
+    private final BudgetUtilizationService budgetUtilizationService;
+    private final EntityManager entityManager;
+    private final Validator validator;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int jdbcBatchSize; // Number of writes flushed together in a batch
+
+    @Value("${xpnsr.budgets.batch.max-items:1000}")
+    private int maxBatchItems; // Maximum number of budgets accepted in one batch
 
     /**
      * Constructs a BudgetService with necessary repositories and mappers.
      *
      * @param budgetRepository The repository for accessing Budget entities.
      * @param userRepository   The repository for accessing User entities.
+     * @param categoryRepository The repository for accessing Category entities.
+     * @param categoryCatalog  The in-memory catalog of categories.
      * @param budgetMapper     The mapper for converting between Budget and BudgetDTO.
+     * @param currentUserProvider The provider of the current user.
+     * @param collectionVersions The modification counters of the collections.
+     * @param budgetUtilizationService The service maintaining the spend counters of the budgets.
+     * @param entityManager    The entity manager used to flush and clear batches.
+     * @param validator        The validator used for items of a batch.
      */
     @Autowired
     public BudgetService(BudgetRepository budgetRepository, UserRepository userRepository,
-                         CategoryRepository categoryRepository, BudgetMapper budgetMapper) {
+                         CategoryRepository categoryRepository, CategoryCatalog categoryCatalog,
+                         BudgetMapper budgetMapper, CurrentUserProvider currentUserProvider,
+                         CollectionVersions collectionVersions, BudgetUtilizationService budgetUtilizationService,
+                         EntityManager entityManager, Validator validator) {
         this.budgetRepository = budgetRepository;
         this.userRepository = userRepository;
         this.categoryRepository = categoryRepository;
+        this.categoryCatalog = categoryCatalog;
         this.budgetMapper = budgetMapper;
+        this.currentUserProvider = currentUserProvider;
+        this.collectionVersions = collectionVersions;
+        this.budgetUtilizationService = budgetUtilizationService;
+        this.entityManager = entityManager;
+        this.validator = validator;
     }
 
     /**
@@ -52,47 +93,79 @@ public class BudgetService {
      * @return The created BudgetDTO.
      * @throws NotFoundError if the associated user cannot be found.
      */
+    @Transactional
     public BudgetDTO add(BudgetDTO b) {
         Budget budget = budgetMapper.budgetDTOToBudget(b);
+        budget.setId(null); // Existing budgets are only overwritten by a versioned update
 
-        String username = AuthenticationProvider.getCurrentUsername();
-        User user = userRepository.findByEmail("sample.user@example.com")
-                .orElseThrow(() -> new NotFoundError("User not found with username: " + username));
+        User user = userRepository.getReferenceById(currentUserProvider.getUserId());
         budget.setUser(user);
 
-        categoryRepository.findById(b.getCategoryId()).orElseThrow(() -> new NotFoundError("Category not " +
-                "found"));
+        if (!categoryCatalog.get().contains(b.getCategoryId())) {
+            throw new NotFoundError("Category not found");
+        }
+        budget.setCategory(categoryRepository.getReferenceById(b.getCategoryId()));
 
-        budget = budgetRepository.save(budget);
+        budget = budgetRepository.saveAndFlush(budget); // Flushed so the new version is returned
+        budgetUtilizationService.initialize(budget);
+        collectionVersions.increment(CollectionVersions.BUDGETS);
         return budgetMapper.budgetToBudgetDTO(budget);
     }
 
     /**
      * Updates an existing budget identified by its ID.
      *
-     * @param id The ID of the budget to update.
-     * @param b  The updated BudgetDTO.
+     * @param id              The ID of the budget to update.
+     * @param b               The updated BudgetDTO.
+     * @param expectedVersion The version the client last read, or null to update any version.
      * @return The updated BudgetDTO.
-     * @throws RuntimeException if the budget with the specified ID cannot be found.
-     * @throws NotFoundError    if the associated user cannot be found.
+     * @throws NotFoundError           if the budget or its category cannot be found.
+     * @throws PreconditionFailedError if the budget is no longer at the expected version.
      */
-    public BudgetDTO update(Long id, BudgetDTO b) {
-        budgetRepository.findById(id)
+    @Transactional
+    public BudgetDTO update(Long id, BudgetDTO b, Long expectedVersion) {
+        Budget existing = budgetRepository.findById(id)
                 .orElseThrow(() -> new NotFoundError("Budget not found with id " + id));
+        if (expectedVersion != null && !expectedVersion.equals(existing.getVersion())) {
+            throw new PreconditionFailedError("Budget " + id + " has been modified since version " + expectedVersion);
+        }
         Budget budget = budgetMapper.budgetDTOToBudget(b);
         budget.setId(id);
-        String username = AuthenticationProvider.getCurrentUsername();
-        User user = userRepository.findByEmail("sample.user@example.com")
-                .orElseThrow(() -> new NotFoundError("User not found with username: " + username));
+        budget.setVersion(existing.getVersion()); // A concurrent update in between fails the save
+        Long previousUserId = existing.getUser().getId();
+        String previousCategoryId = existing.getCategory().getId();
+        BigDecimal previousAmount = existing.getAmount();
+        User user = userRepository.getReferenceById(currentUserProvider.getUserId());
         budget.setUser(user);
 
-        categoryRepository.findById(b.getCategoryId()).orElseThrow(() -> new NotFoundError("Category not " +
-                "found"));
+        if (!categoryCatalog.get().contains(b.getCategoryId())) {
+            throw new NotFoundError("Category not found");
+        }
+        budget.setCategory(categoryRepository.getReferenceById(b.getCategoryId()));
 
-        budget = budgetRepository.save(budget);
+        budget = budgetRepository.saveAndFlush(budget); // Flushed so the new version is returned
+        if (!Objects.equals(previousUserId, budget.getUser().getId())
+                || !Objects.equals(previousCategoryId, budget.getCategory().getId())) {
+            budgetUtilizationService.initialize(budget); // The budget now counts other expenses
+        } else if (previousAmount.compareTo(budget.getAmount()) != 0) {
+            budgetUtilizationService.amountChanged(budget);
+        }
+        collectionVersions.increment(CollectionVersions.BUDGETS);
         return budgetMapper.budgetToBudgetDTO(budget);
     }
 
+    /**
+     * Retrieves the version of a budget without loading it.
+     *
+     * @param id The ID of the budget.
+     * @return The version of the budget.
+     * @throws NotFoundError if the budget with the specified ID cannot be found.
+     */
+    public Long getVersion(Long id) throws NotFoundError {
+        return budgetRepository.findVersionById(id)
+                .orElseThrow(() -> new NotFoundError("Budget not found with id " + id));
+    }
+
     /**
      * Retrieves a budget by its ID.
      *
@@ -123,9 +196,172 @@ public class BudgetService {
      * @param id The ID of the budget to delete.
      * @throws NotFoundError if the budget with the specified ID cannot be found.
      */
+    @Transactional
     public void delete(Long id) throws NotFoundError {
         Budget budget = budgetRepository.findById(id)
                 .orElseThrow(() -> new NotFoundError("Budget not found with id " + id));
+        budgetUtilizationService.remove(id);
         budgetRepository.delete(budget);
+        collectionVersions.increment(CollectionVersions.BUDGETS);
+    }
+
+    /**
+     * Adds a batch of budgets. Categories are checked against the in-memory catalog, the budgets are inserted
+     * in JDBC batches with their spend counters and invalid ones are reported by their position without
+     * aborting the batch.
+     *
+     * @param budgetDTOs The budgets to add, in batch order.
+     * @return A BatchResultDTO with the IDs of the added budgets and the errors of the rejected ones.
+     * @throws BadRequestError if the batch contains more budgets than allowed.
+     */
+    @Transactional
+    public BatchResultDTO addAll(Iterator<BudgetDTO> budgetDTOs) {
+        Long userId = currentUserProvider.getUserId();
+        CategorySnapshot categories = categoryCatalog.get();
+        BatchResultDTO result = new BatchResultDTO();
+        result.setReceived(BatchChunks.process(budgetDTOs, jdbcBatchSize, maxBatchItems, "budgets", chunk -> {
+            List<Budget> pending = new ArrayList<>(chunk.size());
+            for (BatchChunks.Item<BudgetDTO> item : chunk) {
+                String error = validateBatchItem(item.value(), categories);
+                if (error != null) {
+                    result.addError(item.index(), error);
+                    continue;
+                }
+                Budget budget = budgetMapper.budgetDTOToBudget(item.value());
+                budget.setId(null);
+                budget.setUser(userRepository.getReferenceById(userId));
+                budget.setCategory(categoryRepository.getReferenceById(item.value().getCategoryId()));
+                pending.add(budget);
+            }
+            if (!pending.isEmpty()) {
+                budgetRepository.saveAll(pending);
+                entityManager.flush();
+                budgetUtilizationService.initializeAll(userId, pending);
+                entityManager.flush();
+                entityManager.clear();
+                pending.forEach(budget -> result.addId(budget.getId()));
+            }
+        }));
+        collectionVersions.increment(CollectionVersions.BUDGETS);
+        return result;
+    }
+
+    /**
+     * Updates a batch of budgets identified by their IDs. The budgets of a chunk are loaded with one query and
+     * written in JDBC batches; missing or invalid ones are reported by their position without aborting the batch.
+     *
+     * @param budgetDTOs The budgets to update, in batch order.
+     * @return A BatchResultDTO with the IDs of the updated budgets and the errors of the rejected ones.
+     * @throws BadRequestError if the batch contains more budgets than allowed.
+     */
+    @Transactional
+    public BatchResultDTO updateAll(Iterator<BudgetDTO> budgetDTOs) {
+        Long userId = currentUserProvider.getUserId();
+        CategorySnapshot categories = categoryCatalog.get();
+        BatchResultDTO result = new BatchResultDTO();
+        result.setReceived(BatchChunks.process(budgetDTOs, jdbcBatchSize, maxBatchItems, "budgets", chunk -> {
+            Map<Long, Budget> existing = budgetRepository.findAllById(chunk.stream()
+                            .map(item -> item.value() == null ? null : item.value().getId())
+                            .filter(Objects::nonNull)
+                            .toList()).stream()
+                    .collect(Collectors.toMap(Budget::getId, Function.identity()));
+            List<Budget> reinitialized = new ArrayList<>();
+            List<Budget> resized = new ArrayList<>();
+            for (BatchChunks.Item<BudgetDTO> item : chunk) {
+                BudgetDTO b = item.value();
+                String error = validateBatchItem(b, categories);
+                if (error == null && b.getId() == null) {
+                    error = "Budget id is required";
+                } else if (error == null && !existing.containsKey(b.getId())) {
+                    error = "Budget not found with id " + b.getId();
+                }
+                if (error != null) {
+                    result.addError(item.index(), error);
+                    continue;
+                }
+                Budget previous = existing.get(b.getId());
+                Long previousUserId = previous.getUser().getId();
+                String previousCategoryId = previous.getCategory().getId();
+                BigDecimal previousAmount = previous.getAmount();
+
+                Budget budget = budgetMapper.budgetDTOToBudget(b);
+                budget.setVersion(previous.getVersion());
+                budget.setUser(userRepository.getReferenceById(userId));
+                budget.setCategory(categoryRepository.getReferenceById(b.getCategoryId()));
+                budget = budgetRepository.save(budget); // Merged into the budget loaded above, no extra query
+
+                if (!Objects.equals(previousUserId, userId)
+                        || !Objects.equals(previousCategoryId, b.getCategoryId())) {
+                    reinitialized.add(budget);
+                } else if (previousAmount.compareTo(budget.getAmount()) != 0) {
+                    resized.add(budget);
+                }
+                result.addId(budget.getId());
+            }
+            entityManager.flush();
+            reinitialized.forEach(budgetUtilizationService::initialize); // The budgets now count other expenses
+            resized.forEach(budgetUtilizationService::amountChanged);
+            entityManager.flush();
+            entityManager.clear();
+        }));
+        collectionVersions.increment(CollectionVersions.BUDGETS);
+        return result;
+    }
+
+    /**
+     * Deletes a batch of budgets by their IDs, with their spend counters, using one statement per chunk.
+     * Missing budgets are reported by their position without aborting the batch.
+     *
+     * @param ids The IDs of the budgets to delete, in batch order.
+     * @return A BatchResultDTO with the IDs of the deleted budgets and the errors of the missing ones.
+     * @throws BadRequestError if the batch contains more budgets than allowed.
+     */
+    @Transactional
+    public BatchResultDTO deleteAll(Iterator<Long> ids) {
+        BatchResultDTO result = new BatchResultDTO();
+        result.setReceived(BatchChunks.process(ids, jdbcBatchSize, maxBatchItems, "budgets", chunk -> {
+            List<Long> found = new ArrayList<>(budgetRepository.findExistingIds(chunk.stream()
+                    .map(BatchChunks.Item::value)
+                    .filter(Objects::nonNull)
+                    .toList()));
+            List<Long> deleted = new ArrayList<>(found.size());
+            for (BatchChunks.Item<Long> item : chunk) {
+                if (item.value() == null) {
+                    result.addError(item.index(), "Budget id is required");
+                } else if (!found.remove(item.value())) { // A repeated ID is deleted once
+                    result.addError(item.index(), "Budget not found with id " + item.value());
+                } else {
+                    deleted.add(item.value());
+                    result.addId(item.value());
+                }
+            }
+            if (!deleted.isEmpty()) {
+                budgetUtilizationService.removeAll(deleted);
+                budgetRepository.deleteAllByIdInBatch(deleted);
+            }
+        }));
+        collectionVersions.increment(CollectionVersions.BUDGETS);
+        return result;
+    }
+
+    /**
+     * Validates an item of a batch against its constraints and the categories of the batch.
+     *
+     * @param budgetDTO  The item to validate.
+     * @param categories The snapshot of the categories.
+     * @return The validation error, or null if the item is valid.
+     */
+    private String validateBatchItem(BudgetDTO budgetDTO, CategorySnapshot categories) {
+        if (budgetDTO == null) {
+            return "Budget cannot be null";
+        }
+        String violations = BatchChunks.violations(validator, budgetDTO);
+        if (violations != null) {
+            return violations;
+        }
+        if (!categories.contains(budgetDTO.getCategoryId())) {
+            return "Category not found";
+        }
+        return null;
     }
-}
\ No newline at end of file
+}
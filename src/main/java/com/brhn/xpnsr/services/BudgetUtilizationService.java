@@ -0,0 +1,218 @@
+package com.brhn.xpnsr.services;
+
+import com.brhn.xpnsr.exceptions.NotFoundError;
+import com.brhn.xpnsr.models.Budget;
+import com.brhn.xpnsr.models.BudgetSpend;
+import com.brhn.xpnsr.models.TransactionType;
+import com.brhn.xpnsr.repositories.BudgetSpendRepository;
+import com.brhn.xpnsr.repositories.BudgetUtilization;
+import com.brhn.xpnsr.repositories.CategoryAmount;
+import com.brhn.xpnsr.repositories.TransactionDailySummaryRepository;
+import com.brhn.xpnsr.security.CurrentUserProvider;
+import com.brhn.xpnsr.services.alerts.BudgetAlertEvaluator;
+import com.brhn.xpnsr.services.alerts.BudgetAlertQueue;
+import com.brhn.xpnsr.services.dtos.BudgetUtilizationDTO;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Service class keeping a running spend counter per budget and reporting how much of each budget is used.
+ * A budget counts the expenses of its user in its category. The counter is seeded from the daily summaries when
+ * the budget is created or moved to another category, and is then adjusted on every transaction write, so
+ * utilization is read with one query per request, whatever the number of transactions. Every change of a
+ * counter is also submitted to the BudgetAlertQueue, which evaluates the alert thresholds in the background.
+ */
+@Service
+public class BudgetUtilizationService {
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private final BudgetSpendRepository budgetSpendRepository;
+    private final TransactionDailySummaryRepository summaryRepository;
+    private final CurrentUserProvider currentUserProvider;
+    private final BudgetAlertQueue budgetAlertQueue;
+    private final BudgetAlertEvaluator budgetAlertEvaluator;
+    private final EntityManager entityManager;
+
+    /**
+     * Constructs a BudgetUtilizationService with the necessary repositories.
+     *
+     * @param budgetSpendRepository The repository for accessing BudgetSpend entities.
+     * @param summaryRepository     The repository for accessing TransactionDailySummary entities.
+     * @param currentUserProvider   The provider of the current user.
+     * @param budgetAlertQueue      The queue of the budgets whose alert thresholds must be evaluated.
+     * @param budgetAlertEvaluator  The evaluator forgetting the alerted thresholds of deleted budgets.
+     * @param entityManager         The entity manager used to insert the counters of new budgets.
+     */
+    @Autowired
+    public BudgetUtilizationService(BudgetSpendRepository budgetSpendRepository,
+                                    TransactionDailySummaryRepository summaryRepository,
+                                    CurrentUserProvider currentUserProvider, BudgetAlertQueue budgetAlertQueue,
+                                    BudgetAlertEvaluator budgetAlertEvaluator, EntityManager entityManager) {
+        this.budgetSpendRepository = budgetSpendRepository;
+        this.summaryRepository = summaryRepository;
+        this.currentUserProvider = currentUserProvider;
+        this.budgetAlertQueue = budgetAlertQueue;
+        this.budgetAlertEvaluator = budgetAlertEvaluator;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Retrieves the utilization of a budget.
+     *
+     * @param budgetId The ID of the budget.
+     * @return The BudgetUtilizationDTO of the budget.
+     * @throws NotFoundError if the budget with the specified ID cannot be found.
+     */
+    public BudgetUtilizationDTO get(Long budgetId) throws NotFoundError {
+        return budgetSpendRepository.findUtilizationByBudgetId(budgetId)
+                .map(BudgetUtilizationService::toDTO)
+                .orElseThrow(() -> new NotFoundError("Budget not found with id " + budgetId));
+    }
+
+    /**
+     * Retrieves the utilization of all budgets of the current user.
+     *
+     * @return The BudgetUtilizationDTOs ordered by budget ID.
+     */
+    public List<BudgetUtilizationDTO> getAll() {
+        return budgetSpendRepository.findUtilizationByUserId(currentUserProvider.getUserId()).stream()
+                .map(BudgetUtilizationService::toDTO)
+                .toList();
+    }
+
+    /**
+     * Seeds the spend counter of a budget with the expenses already recorded in its category.
+     *
+     * @param budget The budget that has been created or updated.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void initialize(Budget budget) {
+        BigDecimal spent = summaryRepository.sumAmount(budget.getUser().getId(), budget.getCategory().getId(),
+                TransactionType.EXPENSE);
+        budgetSpendRepository.save(new BudgetSpend(budget.getId(), spent != null ? spent : BigDecimal.ZERO));
+        budgetAlertQueue.submit(budget.getUser().getId(), budget.getCategory().getId());
+    }
+
+    /**
+     * Seeds the spend counters of new budgets of one user, reading the expenses of all their categories with a
+     * single query. The counters are inserted, not merged, so they are written in JDBC batches.
+     *
+     * @param userId  The ID of the user of the budgets.
+     * @param budgets The budgets that have been created.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void initializeAll(Long userId, List<Budget> budgets) {
+        Set<String> categoryIds = budgets.stream()
+                .map(budget -> budget.getCategory().getId())
+                .collect(Collectors.toSet());
+        Map<String, BigDecimal> spent = summaryRepository.sumAmountByCategoryIds(userId, categoryIds,
+                        TransactionType.EXPENSE).stream()
+                .collect(Collectors.toMap(CategoryAmount::getCategoryId, CategoryAmount::getAmount));
+        for (Budget budget : budgets) {
+            entityManager.persist(new BudgetSpend(budget.getId(),
+                    spent.getOrDefault(budget.getCategory().getId(), BigDecimal.ZERO)));
+        }
+        categoryIds.forEach(categoryId -> budgetAlertQueue.submit(userId, categoryId));
+    }
+
+    /**
+     * Submits a budget whose amount may have changed to the alert evaluation.
+     *
+     * @param budget The budget that has been updated.
+     */
+    public void amountChanged(Budget budget) {
+        budgetAlertQueue.submit(budget.getUser().getId(), budget.getCategory().getId());
+    }
+
+    /**
+     * Discards the spend counter and the alerted thresholds of a budget.
+     *
+     * @param budgetId The ID of the budget that has been deleted.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void remove(Long budgetId) {
+        if (budgetSpendRepository.existsById(budgetId)) {
+            budgetSpendRepository.deleteById(budgetId);
+        }
+        budgetAlertEvaluator.forget(List.of(budgetId));
+    }
+
+    /**
+     * Discards the spend counters of budgets with a single statement, and their alerted thresholds.
+     *
+     * @param budgetIds The IDs of the budgets that are deleted.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void removeAll(Collection<Long> budgetIds) {
+        budgetSpendRepository.deleteAllByIdInBatch(budgetIds);
+        budgetAlertEvaluator.forget(budgetIds);
+    }
+
+    /**
+     * Adds the amount of transactions to the budgets of their user and category. Earnings are ignored.
+     *
+     * @param userId     The ID of the user of the transactions.
+     * @param categoryId The ID of the primary category of the transactions.
+     * @param type       The type of the transactions.
+     * @param amount     The total amount of the transactions, negative when they are removed.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void add(Long userId, String categoryId, TransactionType type, BigDecimal amount) {
+        if (type == TransactionType.EXPENSE && amount.signum() != 0) {
+            if (budgetSpendRepository.addToBudgets(userId, categoryId, amount) > 0) {
+                budgetAlertQueue.submit(userId, categoryId);
+            }
+        }
+    }
+
+    /**
+     * Recomputes every spend counter from the daily summaries.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void rebuild() {
+        budgetSpendRepository.recomputeAll();
+    }
+
+    /**
+     * Converts a BudgetUtilization projection to a BudgetUtilizationDTO.
+     *
+     * @param utilization The projection.
+     * @return The BudgetUtilizationDTO.
+     */
+    private static BudgetUtilizationDTO toDTO(BudgetUtilization utilization) {
+        BigDecimal spent = utilization.getSpent() != null ? utilization.getSpent() : BigDecimal.ZERO;
+        BudgetUtilizationDTO dto = new BudgetUtilizationDTO();
+        dto.setBudgetId(utilization.getBudgetId());
+        dto.setTitle(utilization.getTitle());
+        dto.setCategoryId(utilization.getCategoryId());
+        dto.setCurrency(utilization.getCurrency());
+        dto.setAmount(utilization.getAmount());
+        dto.setSpent(spent);
+        dto.setRemaining(utilization.getAmount().subtract(spent));
+        dto.setUtilization(percentage(spent, utilization.getAmount()));
+        return dto;
+    }
+
+    /**
+     * Computes the percentage of a budget that has been spent.
+     *
+     * @param spent  The amount spent.
+     * @param amount The amount allocated for the budget.
+     * @return The percentage with two decimals, or null for a budget of zero.
+     */
+    public static BigDecimal percentage(BigDecimal spent, BigDecimal amount) {
+        return amount.signum() == 0 ? null : spent.multiply(HUNDRED).divide(amount, 2, RoundingMode.HALF_UP);
+    }
+}
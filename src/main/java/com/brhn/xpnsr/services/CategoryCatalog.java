@@ -0,0 +1,73 @@
+package com.brhn.xpnsr.services;
+
+import com.brhn.xpnsr.repositories.CategoryRepository;
+import com.brhn.xpnsr.services.mappers.CategoryMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory catalog of the categories, so category lookups and tree walks take no database access.
+ * The catalog holds an immutable snapshot that is reloaded lazily after every category write.
+ */
+@Component
+public class CategoryCatalog {
+
+    private final CategoryRepository categoryRepository;
+    private final CategoryMapper categoryMapper;
+    private final AtomicReference<CategorySnapshot> snapshot = new AtomicReference<>();
+    private final AtomicLong generation = new AtomicLong(); // Incremented on every write
+
+    /**
+     * Constructs a CategoryCatalog with the necessary repository and mapper.
+     *
+     * @param categoryRepository The repository for accessing Category entities.
+     * @param categoryMapper The mapper for converting between Category and CategoryDTO.
+     */
+    @Autowired
+    public CategoryCatalog(CategoryRepository categoryRepository, CategoryMapper categoryMapper) {
+        this.categoryRepository = categoryRepository;
+        this.categoryMapper = categoryMapper;
+    }
+
+    /**
+     * Retrieves the current snapshot of the categories, loading it if a write has invalidated it.
+     *
+     * @return The current CategorySnapshot.
+     */
+    public CategorySnapshot get() {
+        long current = generation.get();
+        CategorySnapshot cached = snapshot.get();
+        if (cached != null && cached.getGeneration() == current) {
+            return cached;
+        }
+
+        // A write during the load bumps the generation, so a stale snapshot is replaced on the next read
+        CategorySnapshot loaded = new CategorySnapshot(current, categoryRepository.findAll().stream()
+                .map(categoryMapper::categoryToCategoryDTO)
+                .collect(Collectors.toList()));
+        snapshot.set(loaded);
+        return loaded;
+    }
+
+    /**
+     * Invalidates the snapshot after a category write. If a transaction is active, the snapshot is
+     * invalidated again once it completes, so snapshots loaded before the commit are not kept.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    generation.incrementAndGet();
+                }
+            });
+        }
+    }
+}
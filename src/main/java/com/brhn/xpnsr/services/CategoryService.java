@@ -1,7 +1,9 @@
 package com.brhn.xpnsr.services;
 
 import com.brhn.xpnsr.exceptions.BadRequestError;
+import com.brhn.xpnsr.exceptions.ConflictError;
 import com.brhn.xpnsr.exceptions.NotFoundError;
+import com.brhn.xpnsr.exceptions.PreconditionFailedError;
 import com.brhn.xpnsr.models.Category;
 import com.brhn.xpnsr.repositories.CategoryRepository;
 import com.brhn.xpnsr.services.dtos.CategoryDTO;
@@ -12,8 +14,6 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
-import java.util.Optional;
-
 /**
  * Service class for managing operations related to categories.
  */
@@ -22,17 +22,24 @@ public class CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final CategoryMapper categoryMapper;
+    private final CategoryCatalog categoryCatalog;
+    private final CollectionVersions collectionVersions;
 
     /**
      * Constructs a CategoryService with necessary repositories and mappers.
      *
      * @param categoryRepository The repository for accessing Category entities.
      * @param categoryMapper The mapper for converting between Category and CategoryDTO.
+     * @param categoryCatalog The in-memory catalog of categories.
+     * @param collectionVersions The modification counters of the collections.
      */
     @Autowired
-    public CategoryService(CategoryRepository categoryRepository, CategoryMapper categoryMapper) {
+    public CategoryService(CategoryRepository categoryRepository, CategoryMapper categoryMapper,
+                           CategoryCatalog categoryCatalog, CollectionVersions collectionVersions) {
         this.categoryRepository = categoryRepository;
         this.categoryMapper = categoryMapper;
+        this.categoryCatalog = categoryCatalog;
+        this.collectionVersions = collectionVersions;
     }
 
     /**
@@ -41,14 +48,21 @@ public class CategoryService {
      * @param c The CategoryDTO containing category information.
      * @return The created CategoryDTO.
      * @throws BadRequestError if the parent category specified in the DTO does not exist.
+     * @throws ConflictError if a category with the ID generated from the name already exists.
      */
-    public CategoryDTO add(CategoryDTO c) throws BadRequestError {
+    public CategoryDTO add(CategoryDTO c) throws BadRequestError, ConflictError {
         Category category = categoryMapper.categoryDTOToCategory(c);
         if (!this.isParentValid(c.getParentId())) {
             throw new BadRequestError(String.format("The parent with ID '%s' does not exist.", c.getParentId()));
         }
         category.setId(CategoryService.generateCategoryId(c.getName()));
-        categoryRepository.save(category);
+        if (categoryRepository.existsById(category.getId())) {
+            // Existing categories are only overwritten by a versioned update
+            throw new ConflictError(String.format("A category with ID '%s' already exists.", category.getId()));
+        }
+        category = categoryRepository.saveAndFlush(category); // Flushed so the new version is returned
+        categoryCatalog.invalidate();
+        collectionVersions.increment(CollectionVersions.CATEGORIES);
         return categoryMapper.categoryToCategoryDTO(category);
     }
 
@@ -60,12 +74,30 @@ public class CategoryService {
      */
     private boolean isParentValid(String parentId) {
         if (StringUtils.isNotEmpty(parentId)) {
-            Optional<Category> parentCategory = categoryRepository.findById(parentId);
-            return parentCategory.isPresent();
+            return categoryCatalog.get().contains(parentId);
         }
         return true;
     }
 
+    /**
+     * Checks if a category would become its own ancestor by moving it under a parent.
+     *
+     * @param id The ID of the category to move.
+     * @param parentId The ID of the new parent category.
+     * @return true if the parent is the category itself or one of its descendants; false otherwise.
+     */
+    private boolean isDescendantOrSelf(String id, String parentId) {
+        CategorySnapshot categories = categoryCatalog.get();
+        String ancestorId = parentId;
+        for (int depth = 0; ancestorId != null && depth <= categories.getAll().size(); depth++) {
+            if (ancestorId.equals(id)) {
+                return true;
+            }
+            ancestorId = categories.find(ancestorId).map(CategoryDTO::getParentId).orElse(null);
+        }
+        return false;
+    }
+
     /**
      * Generates a category ID from the category name.
      *
@@ -85,21 +117,31 @@ public class CategoryService {
      *
      * @param id The ID of the category to update.
      * @param c The updated CategoryDTO.
+     * @param expectedVersion The version the client last read, or null to update any version.
      * @return The updated CategoryDTO.
      * @throws NotFoundError if the category with the specified ID cannot be found.
      * @throws BadRequestError if the parent category specified in the DTO does not exist.
+     * @throws PreconditionFailedError if the category is no longer at the expected version.
      */
-    public CategoryDTO update(String id, CategoryDTO c) throws NotFoundError, BadRequestError {
+    public CategoryDTO update(String id, CategoryDTO c, Long expectedVersion) throws NotFoundError, BadRequestError {
         Category category = categoryRepository.findById(id).orElseThrow(() -> new NotFoundError("Category not found with id " + id));
+        if (expectedVersion != null && !expectedVersion.equals(category.getVersion())) {
+            throw new PreconditionFailedError("Category " + id + " has been modified since version " + expectedVersion);
+        }
         if (!isParentValid(c.getParentId())) {
             throw new BadRequestError(String.format("The parent with ID '%s' does not exist.", c.getParentId()));
         }
+        if (StringUtils.isNotEmpty(c.getParentId()) && isDescendantOrSelf(id, c.getParentId())) {
+            throw new BadRequestError(String.format("The category with ID '%s' cannot be its own ancestor.", id));
+        }
         // cannot change id
         category.setName(c.getName());
         category.setIcon(c.getIcon());
         category.setDescription(c.getDescription());
         category.setParentId(c.getParentId());
-        category = categoryRepository.save(category);
+        category = categoryRepository.saveAndFlush(category); // Flushed so the new version is returned
+        categoryCatalog.invalidate();
+        collectionVersions.increment(CollectionVersions.CATEGORIES);
         return categoryMapper.categoryToCategoryDTO(category);
     }
 
@@ -115,6 +157,18 @@ public class CategoryService {
         return categoryMapper.categoryToCategoryDTO(category);
     }
 
+    /**
+     * Retrieves the version of a category from the in-memory catalog.
+     *
+     * @param id The ID of the category.
+     * @return The version of the category.
+     * @throws NotFoundError if the category with the specified ID cannot be found.
+     */
+    public Long getVersion(String id) throws NotFoundError {
+        return categoryCatalog.get().find(id).map(CategoryDTO::getVersion)
+                .orElseThrow(() -> new NotFoundError("Category not found with id " + id));
+    }
+
     /**
      * Retrieves all categories paginated.
      *
@@ -135,5 +189,7 @@ public class CategoryService {
     public void delete(String id) throws NotFoundError {
         Category category = categoryRepository.findById(id).orElseThrow(() -> new NotFoundError("Category not found with id " + id));
         categoryRepository.delete(category);
+        categoryCatalog.invalidate();
+        collectionVersions.increment(CollectionVersions.CATEGORIES);
     }
 }
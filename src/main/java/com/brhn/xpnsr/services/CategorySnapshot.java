@@ -0,0 +1,164 @@
+package com.brhn.xpnsr.services;
+
+import com.brhn.xpnsr.services.dtos.CategoryDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Immutable snapshot of all categories with a parent to children index.
+ * The index is a forest: every category is reachable from exactly one root, even when the parents of some
+ * categories form a cycle, so walks over the tree neither loop nor miss categories.
+ * The categories in a snapshot are shared between threads and must not be modified.
+ */
+public final class CategorySnapshot {
+
+    private static final Logger log = LoggerFactory.getLogger(CategorySnapshot.class);
+
+    private final long generation;
+    private final Map<String, CategoryDTO> categoriesById;
+    private final Map<String, List<String>> childIdsByParentId;
+    private final List<String> rootIds;
+
+    /**
+     * Builds a snapshot from a list of categories.
+     *
+     * @param generation The generation of the catalog the snapshot was loaded in.
+     * @param categories The categories, in the order they should be listed.
+     */
+    CategorySnapshot(long generation, List<CategoryDTO> categories) {
+        this.generation = generation;
+
+        Map<String, CategoryDTO> byId = new LinkedHashMap<>();
+        for (CategoryDTO category : categories) {
+            byId.put(category.getId(), category);
+        }
+
+        Map<String, List<String>> children = new HashMap<>();
+        List<String> roots = new ArrayList<>();
+        for (CategoryDTO category : categories) {
+            // Categories whose parent does not exist are treated as roots so they are never unreachable
+            if (category.getParentId() == null || !byId.containsKey(category.getParentId())) {
+                roots.add(category.getId());
+            } else {
+                children.computeIfAbsent(category.getParentId(), parentId -> new ArrayList<>()).add(category.getId());
+            }
+        }
+        breakCycles(byId, children, roots);
+        children.replaceAll((parentId, childIds) -> List.copyOf(childIds));
+
+        this.categoriesById = Collections.unmodifiableMap(byId);
+        this.childIdsByParentId = Map.copyOf(children);
+        this.rootIds = List.copyOf(roots);
+    }
+
+    /**
+     * Makes a root of one category of every parent cycle, as no category of a cycle or below one can be reached
+     * from the roots. The link from its parent to the category is dropped from the index, so that walks end.
+     *
+     * @param byId     The categories keyed by ID.
+     * @param children The mutable index of the child IDs keyed by parent ID.
+     * @param roots    The mutable list of the root IDs.
+     */
+    private static void breakCycles(Map<String, CategoryDTO> byId, Map<String, List<String>> children,
+                                    List<String> roots) {
+        Set<String> reachable = new HashSet<>();
+        markReachable(roots, children, reachable);
+        for (String id : byId.keySet()) {
+            if (reachable.contains(id)) {
+                continue;
+            }
+            // Every parent of an unreachable category exists, so following them ends up in a cycle
+            String cycleId = id;
+            Set<String> visited = new HashSet<>();
+            while (visited.add(cycleId)) {
+                cycleId = byId.get(cycleId).getParentId();
+            }
+            log.warn("Category {} is in a cycle of parent categories and is treated as a root", cycleId);
+            children.get(byId.get(cycleId).getParentId()).remove(cycleId);
+            roots.add(cycleId);
+            markReachable(List.of(cycleId), children, reachable);
+        }
+    }
+
+    // Adds the categories below and including the given ones to the reachable categories
+    private static void markReachable(List<String> fromIds, Map<String, List<String>> children,
+                                      Set<String> reachable) {
+        Deque<String> pending = new ArrayDeque<>(fromIds);
+        while (!pending.isEmpty()) {
+            String id = pending.pop();
+            if (reachable.add(id)) {
+                children.getOrDefault(id, List.of()).forEach(pending::push);
+            }
+        }
+    }
+
+    /**
+     * Retrieves the generation of the catalog the snapshot was loaded in.
+     *
+     * @return The generation.
+     */
+    long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Checks whether a category exists.
+     *
+     * @param id The ID of the category.
+     * @return True if the category exists, false otherwise.
+     */
+    public boolean contains(String id) {
+        return id != null && categoriesById.containsKey(id);
+    }
+
+    /**
+     * Finds a category by its ID.
+     *
+     * @param id The ID of the category.
+     * @return An Optional containing the category if it exists, otherwise empty.
+     */
+    public Optional<CategoryDTO> find(String id) {
+        return id == null ? Optional.empty() : Optional.ofNullable(categoriesById.get(id));
+    }
+
+    /**
+     * Retrieves all categories.
+     *
+     * @return An unmodifiable collection of all categories.
+     */
+    public Collection<CategoryDTO> getAll() {
+        return categoriesById.values();
+    }
+
+    /**
+     * Retrieves the IDs of the direct children of a category.
+     *
+     * @param parentId The ID of the parent category.
+     * @return An unmodifiable list of child IDs, empty if the category has no children.
+     */
+    public List<String> getChildIds(String parentId) {
+        return childIdsByParentId.getOrDefault(parentId, List.of());
+    }
+
+    /**
+     * Retrieves the IDs of the categories without a parent.
+     *
+     * @return An unmodifiable list of root category IDs.
+     */
+    public List<String> getRootIds() {
+        return rootIds;
+    }
+}
@@ -0,0 +1,73 @@
+package com.brhn.xpnsr.services;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Modification counters of the collections, from which the ETags of listings and reports are derived.
+ * A counter is incremented on every write to its collection, once when the write happens and again when its
+ * transaction completes, so a listing read while the write was in flight is not tagged with the final value.
+ * Counters start over on every startup, so stamps also carry the startup time.
+ */
+@Component
+public class CollectionVersions {
+
+    public static final String TRANSACTIONS = "transactions";
+    public static final String BUDGETS = "budgets";
+    public static final String BILLS = "bills";
+    public static final String CATEGORIES = "categories";
+
+    private final long epoch = System.currentTimeMillis();
+    private final ConcurrentMap<String, AtomicLong> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Retrieves the modification counter of a collection.
+     *
+     * @param collection The name of the collection.
+     * @return The number of writes to the collection since startup.
+     */
+    public long get(String collection) {
+        return counter(collection).get();
+    }
+
+    /**
+     * Records a write to a collection.
+     *
+     * @param collection The name of the collection.
+     */
+    public void increment(String collection) {
+        AtomicLong counter = counter(collection);
+        counter.incrementAndGet();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    counter.incrementAndGet();
+                }
+            });
+        }
+    }
+
+    /**
+     * Builds a stamp that changes whenever one of the collections is written or the application restarts.
+     *
+     * @param collections The names of the collections.
+     * @return The startup time followed by the counters of the collections.
+     */
+    public String stamp(String... collections) {
+        return epoch + Arrays.stream(collections)
+                .map(collection -> "-" + get(collection))
+                .collect(Collectors.joining());
+    }
+
+    private AtomicLong counter(String collection) {
+        return counters.computeIfAbsent(collection, key -> new AtomicLong());
+    }
+}
@@ -0,0 +1,210 @@
+package com.brhn.xpnsr.services;
+
+import com.brhn.xpnsr.config.CacheMetrics;
+import com.brhn.xpnsr.config.CacheProperties;
+import com.brhn.xpnsr.models.TransactionType;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Cache of the per-category report totals of a user, transaction type and calendar period (a month or a year).
+ * An entry is invalidated whenever a transaction dated within its period is written, once when the write happens
+ * and again when its transaction completes, so totals read while the write was in flight are not kept.
+ * Entries of closed periods never expire and are only dropped on such a write or when the cache is full; entries
+ * of the current periods also expire after the configured time, as a bound on writes made outside the services.
+ * Concurrent misses of an entry wait for a single load, which runs on the calling thread, inside its transaction,
+ * but outside the locks of the cache, so a virtual thread waiting on the database does not pin its carrier thread.
+ */
+@Component
+public class ReportCache {
+
+    /**
+     * The name the cache is configured and reported under.
+     */
+    public static final String CACHE_NAME = "reports";
+
+    private static final Duration DEFAULT_EXPIRE_AFTER_WRITE = Duration.ofMinutes(10);
+
+    private final AsyncCache<Key, Map<String, BigDecimal>> totals;
+
+    /**
+     * Constructs a ReportCache with the cache settings.
+     *
+     * @param cacheProperties The cache settings, of which the reports ones are used.
+     * @param cacheMetrics    The registry the statistics of the cache are reported to.
+     */
+    @Autowired
+    public ReportCache(CacheProperties cacheProperties, CacheMetrics cacheMetrics) {
+        CacheProperties.Spec spec = cacheProperties.resolve(CACHE_NAME);
+        Duration expireAfterWrite = spec.getExpireAfterWrite() != null
+                ? spec.getExpireAfterWrite() : DEFAULT_EXPIRE_AFTER_WRITE;
+        Caffeine<Key, Map<String, BigDecimal>> builder = spec.newAsyncBuilder(CACHE_NAME, false)
+                .expireAfter(new PinClosedPeriods(expireAfterWrite.toNanos()));
+        this.totals = builder
+                .recordStats(() -> cacheMetrics.statsCounter(CACHE_NAME))
+                .buildAsync();
+        cacheMetrics.register(CACHE_NAME, totals.synchronous());
+    }
+
+    /**
+     * Retrieves the per-category totals of a date range, loading them if they are not cached.
+     * Only ranges covering exactly one calendar month or year are cached.
+     *
+     * @param userId    The ID of the user.
+     * @param type      The type of transactions summed.
+     * @param startDate The start date (inclusive) of the range.
+     * @param endDate   The end date (inclusive) of the range.
+     * @param loader    The query computing the totals, keyed by category ID.
+     * @return The totals keyed by category ID, which must not be modified.
+     */
+    public Map<String, BigDecimal> get(Long userId, TransactionType type, LocalDate startDate, LocalDate endDate,
+                                       Supplier<Map<String, BigDecimal>> loader) {
+        if (!isCalendarPeriod(startDate, endDate)) {
+            return loader.get();
+        }
+        CompletableFuture<Map<String, BigDecimal>> loading = new CompletableFuture<>();
+        CompletableFuture<Map<String, BigDecimal>> cached = totals.get(new Key(userId, type, startDate, endDate),
+                (key, executor) -> loading);
+        if (cached != loading) {
+            try {
+                return cached.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof Error error) {
+                    throw error;
+                }
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+        try {
+            Map<String, BigDecimal> loaded = Collections.unmodifiableMap(loader.get());
+            loading.complete(loaded);
+            return loaded;
+        } catch (Throwable e) { // Errors too, or the requests waiting on the load would block forever
+            loading.completeExceptionally(e); // Removed from the cache, so the next request loads again
+            throw e;
+        }
+    }
+
+    /**
+     * Invalidates the month and the year of a written transaction, now and when the current transaction completes.
+     *
+     * @param userId The ID of the owner of the transaction.
+     * @param type   The type of the transaction.
+     * @param day    The day of the transaction.
+     */
+    public void invalidate(Long userId, TransactionType type, LocalDate day) {
+        invalidateAll(periodKeys(userId, type, day));
+    }
+
+    /**
+     * Invalidates every entry, now and when the current transaction completes.
+     */
+    public void clear() {
+        totals.synchronous().invalidateAll();
+        afterCompletion(totals.synchronous()::invalidateAll);
+    }
+
+    /**
+     * Builds the keys of the month and the year containing a day.
+     *
+     * @param userId The ID of the user.
+     * @param type   The type of transactions.
+     * @param day    The day.
+     * @return The month key and the year key.
+     */
+    static List<Key> periodKeys(Long userId, TransactionType type, LocalDate day) {
+        YearMonth month = YearMonth.from(day);
+        Year year = Year.from(day);
+        return List.of(new Key(userId, type, month.atDay(1), month.atEndOfMonth()),
+                new Key(userId, type, year.atDay(1), year.atMonth(12).atEndOfMonth()));
+    }
+
+    /**
+     * Invalidates a set of entries, now and when the current transaction completes.
+     *
+     * @param keys The keys of the entries.
+     */
+    void invalidateAll(Collection<Key> keys) {
+        totals.synchronous().invalidateAll(keys);
+        afterCompletion(() -> totals.synchronous().invalidateAll(keys));
+    }
+
+    private static void afterCompletion(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    action.run(); // On rollback too, as totals read inside the transaction saw its writes
+                }
+            });
+        }
+    }
+
+    private static boolean isCalendarPeriod(LocalDate startDate, LocalDate endDate) {
+        YearMonth month = YearMonth.from(startDate);
+        if (startDate.equals(month.atDay(1)) && endDate.equals(month.atEndOfMonth())) {
+            return true;
+        }
+        Year year = Year.from(startDate);
+        return startDate.equals(year.atDay(1)) && endDate.equals(year.atMonth(12).atEndOfMonth());
+    }
+
+    /**
+     * Key of the totals of a user, transaction type and calendar period.
+     *
+     * @param userId    The ID of the user.
+     * @param type      The type of transactions.
+     * @param startDate The first day of the period.
+     * @param endDate   The last day of the period.
+     */
+    record Key(Long userId, TransactionType type, LocalDate startDate, LocalDate endDate) {
+    }
+
+    /**
+     * Expiry keeping the totals of closed periods until they are invalidated, and those of open periods for a
+     * limited time.
+     */
+    private static final class PinClosedPeriods implements Expiry<Key, Map<String, BigDecimal>> {
+
+        private final long openNanos;
+
+        PinClosedPeriods(long openNanos) {
+            this.openNanos = openNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(Key key, Map<String, BigDecimal> value, long currentTime) {
+            return key.endDate().isBefore(LocalDate.now()) ? Long.MAX_VALUE : openNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(Key key, Map<String, BigDecimal> value, long currentTime,
+                                      long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Key key, Map<String, BigDecimal> value, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
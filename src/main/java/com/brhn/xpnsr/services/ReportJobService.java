@@ -0,0 +1,307 @@
+package com.brhn.xpnsr.services;
+
+import com.brhn.xpnsr.config.CacheMetrics;
+import com.brhn.xpnsr.config.CacheProperties;
+import com.brhn.xpnsr.exceptions.BadRequestError;
+import com.brhn.xpnsr.exceptions.NotFoundError;
+import com.brhn.xpnsr.exceptions.TooManyRequestsError;
+import com.brhn.xpnsr.models.ReportBucket;
+import com.brhn.xpnsr.models.ReportJobStatus;
+import com.brhn.xpnsr.models.ReportKind;
+import com.brhn.xpnsr.models.TransactionType;
+import com.brhn.xpnsr.security.ApiKeyCache;
+import com.brhn.xpnsr.security.CurrentUserProvider;
+import com.brhn.xpnsr.services.dtos.ReportJobDTO;
+import com.brhn.xpnsr.services.dtos.ReportJobRequestDTO;
+import com.brhn.xpnsr.services.dtos.TimeseriesBucketDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service class computing reports in the background, for ranges too large to be computed within a request.
+ * Jobs are run by a fixed number of workers, on virtual threads when they are enabled, and wait in a bounded
+ * queue; a job submitted to a full queue is rejected rather than queued without limit. A job identical to one
+ * queued, running or completed since the transactions and categories last changed is not submitted again:
+ * the existing job is returned instead. Every API key may have a limited number of jobs queued or running.
+ * Jobs and their results are kept in memory, in the report-jobs cache, until they expire or are evicted.
+ */
+@Service
+public class ReportJobService {
+
+    /**
+     * The name the cache of the jobs is configured and reported under.
+     */
+    public static final String CACHE_NAME = "report-jobs";
+
+    private static final Logger log = LoggerFactory.getLogger(ReportJobService.class);
+
+    private final TransactionService transactionService;
+    private final CurrentUserProvider currentUserProvider;
+    private final CollectionVersions collectionVersions;
+    private final int maxJobsPerKey;
+
+    private final ThreadPoolExecutor executor;
+    private final Cache<String, ReportJob> jobs;
+    private final Map<JobKey, ReportJob> jobsByKey = new ConcurrentHashMap<>();
+    private final Map<String, Integer> activeJobsByApiKey = new ConcurrentHashMap<>();
+
+    /**
+     * Constructs a ReportJobService.
+     *
+     * @param transactionService  The service computing the reports.
+     * @param currentUserProvider The provider of the user the reports are computed for.
+     * @param collectionVersions  The modification counters telling whether a completed job is still current.
+     * @param cacheProperties     The cache settings, of which the report-jobs ones are used.
+     * @param cacheMetrics        The registry the statistics of the cache of the jobs are reported to.
+     * @param workers             The number of jobs computed at once.
+     * @param queueCapacity       The number of jobs waiting for a worker before new ones are rejected.
+     * @param maxJobsPerKey       The number of jobs an API key may have queued or running.
+     * @param virtualThreads      Whether the workers are virtual threads.
+     */
+    @Autowired
+    public ReportJobService(TransactionService transactionService, CurrentUserProvider currentUserProvider,
+                            CollectionVersions collectionVersions, CacheProperties cacheProperties,
+                            CacheMetrics cacheMetrics,
+                            @Value("${xpnsr.reports.jobs.workers:2}") int workers,
+                            @Value("${xpnsr.reports.jobs.queue-capacity:100}") int queueCapacity,
+                            @Value("${xpnsr.reports.jobs.max-per-key:2}") int maxJobsPerKey,
+                            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.transactionService = transactionService;
+        this.currentUserProvider = currentUserProvider;
+        this.collectionVersions = collectionVersions;
+        this.maxJobsPerKey = maxJobsPerKey;
+
+        ThreadFactory threadFactory = virtualThreads
+                ? new VirtualThreadTaskExecutor("report-job-").getVirtualThreadFactory()
+                : new CustomizableThreadFactory("report-job-");
+        this.executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory);
+        this.jobs = cacheProperties.resolve(CACHE_NAME).newBuilder()
+                .<String, ReportJob>removalListener((id, job, cause) -> {
+                    if (job != null) {
+                        jobsByKey.remove(job.key, job);
+                    }
+                })
+                .recordStats(() -> cacheMetrics.statsCounter(CACHE_NAME))
+                .build();
+        cacheMetrics.register(CACHE_NAME, jobs);
+    }
+
+    /**
+     * Submits a report job, unless an identical one is queued, running or completed on the current data.
+     *
+     * @param request The report to compute.
+     * @param apiKey  The API key of the client, which the limit of jobs in progress applies to.
+     * @return The ReportJobDTO of the submitted job, or of the identical job found.
+     * @throws BadRequestError      if the start date is after the end date.
+     * @throws TooManyRequestsError if the API key has too many jobs in progress or the queue is full.
+     */
+    public ReportJobDTO submit(ReportJobRequestDTO request, String apiKey) {
+        if (request.getFrom().isAfter(request.getTo())) {
+            throw new BadRequestError("The start date must not be after the end date");
+        }
+        JobKey key = JobKey.of(currentUserProvider.getUserId(), request,
+                collectionVersions.stamp(CollectionVersions.TRANSACTIONS, CollectionVersions.CATEGORIES));
+        ReportJob existing = jobsByKey.get(key);
+        if (existing != null && existing.status != ReportJobStatus.FAILED) {
+            return existing.toDTO();
+        }
+
+        String client = ApiKeyCache.hash(apiKey);
+        acquire(client);
+        ReportJob job = new ReportJob(UUID.randomUUID().toString(), key, client);
+        ReportJob winner = jobsByKey.merge(key, job,
+                (current, submitted) -> current.status != ReportJobStatus.FAILED ? current : submitted);
+        if (winner != job) {
+            release(client); // An identical job was submitted concurrently
+            return winner.toDTO();
+        }
+        jobs.put(job.id, job);
+        try {
+            executor.execute(new DelegatingSecurityContextRunnable(() -> run(job))); // Reports are of the current user
+        } catch (RejectedExecutionException e) {
+            job.status = ReportJobStatus.FAILED;
+            jobsByKey.remove(key, job); // Not left to the removal listener, which runs asynchronously
+            jobs.invalidate(job.id);
+            release(client);
+            throw new TooManyRequestsError("Too many report jobs are queued, retry later");
+        }
+        return job.toDTO();
+    }
+
+    /**
+     * Retrieves a report job of the current user.
+     *
+     * @param id The ID of the job.
+     * @return The ReportJobDTO of the job.
+     * @throws NotFoundError if the job does not exist, has expired or belongs to another user.
+     */
+    public ReportJobDTO get(String id) throws NotFoundError {
+        return find(id).toDTO();
+    }
+
+    /**
+     * Retrieves the result of a completed report job of the current user.
+     *
+     * @param id The ID of the job.
+     * @return The report: a list of ReportDTO, CategoryReportDTO or TimeseriesBucketDTO depending on its kind.
+     * @throws NotFoundError if the job does not exist, has expired, belongs to another user or has not succeeded.
+     */
+    public Object getResult(String id) throws NotFoundError {
+        ReportJob job = find(id);
+        if (job.status != ReportJobStatus.SUCCEEDED) {
+            throw new NotFoundError("Report job " + id + " has no result, its status is " + job.status);
+        }
+        return job.result;
+    }
+
+    /**
+     * Stops the workers, abandoning the queued jobs.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private ReportJob find(String id) {
+        ReportJob job = jobs.getIfPresent(id);
+        if (job == null || !job.key.userId().equals(currentUserProvider.getUserId())) {
+            throw new NotFoundError("Report job not found with id " + id);
+        }
+        return job;
+    }
+
+    private void run(ReportJob job) {
+        job.startedAt = Instant.now();
+        job.status = ReportJobStatus.RUNNING;
+        try {
+            job.result = compute(job.key);
+            job.completedAt = Instant.now();
+            job.status = ReportJobStatus.SUCCEEDED;
+        } catch (RuntimeException e) {
+            log.error("Report job {} failed", job.id, e);
+            job.error = e.getMessage();
+            job.completedAt = Instant.now();
+            job.status = ReportJobStatus.FAILED;
+        } finally {
+            release(job.client);
+        }
+    }
+
+    private Object compute(JobKey key) {
+        return switch (key.kind()) {
+            case CATEGORIES -> transactionService.getTransactionsReport(key.type(), key.from(), key.to());
+            case TREE -> transactionService.getTransactionsReportTree(key.type(), key.from(), key.to(), key.depth());
+            case TIMESERIES -> {
+                List<TimeseriesBucketDTO> buckets = new ArrayList<>();
+                transactionService.streamTransactionsTimeseries(key.userId(), key.type(), key.from(), key.to(),
+                        key.bucket(), buckets::add);
+                yield buckets;
+            }
+        };
+    }
+
+    private void acquire(String client) {
+        boolean[] acquired = new boolean[1];
+        activeJobsByApiKey.compute(client, (k, active) -> {
+            int count = active == null ? 0 : active;
+            acquired[0] = count < maxJobsPerKey;
+            return acquired[0] ? count + 1 : active;
+        });
+        if (!acquired[0]) {
+            throw new TooManyRequestsError("At most " + maxJobsPerKey + " report jobs may be in progress per API key");
+        }
+    }
+
+    private void release(String client) {
+        activeJobsByApiKey.computeIfPresent(client, (k, active) -> active > 1 ? active - 1 : null);
+    }
+
+    /**
+     * What makes two jobs identical: the user, the report, and the versions of the data it is computed from.
+     * The bucket only applies to time-series reports and the depth to tree reports.
+     *
+     * @param userId The ID of the user.
+     * @param kind   The kind of report.
+     * @param type   The type of the transactions reported.
+     * @param from   The first day of the report.
+     * @param to     The last day of the report.
+     * @param bucket The width of the buckets, for a time-series report.
+     * @param depth  The number of levels, for a tree report.
+     * @param stamp  The versions of the transactions and categories when the job was submitted.
+     */
+    private record JobKey(Long userId, ReportKind kind, TransactionType type, LocalDate from, LocalDate to,
+                          ReportBucket bucket, Integer depth, String stamp) {
+
+        static JobKey of(Long userId, ReportJobRequestDTO request, String stamp) {
+            ReportBucket bucket = request.getKind() == ReportKind.TIMESERIES
+                    ? (request.getBucket() != null ? request.getBucket() : ReportBucket.DAY) : null;
+            Integer depth = request.getKind() == ReportKind.TREE ? request.getDepth() : null;
+            return new JobKey(userId, request.getKind(), request.getType(), request.getFrom(), request.getTo(),
+                    bucket, depth, stamp);
+        }
+    }
+
+    /**
+     * A report job, updated by its worker and read by the requests polling it.
+     */
+    private static final class ReportJob {
+
+        private final String id;
+        private final JobKey key;
+        private final String client; // Hash of the API key the job counts against
+        private final Instant submittedAt = Instant.now();
+        private volatile ReportJobStatus status = ReportJobStatus.QUEUED;
+        private volatile Instant startedAt;
+        private volatile Instant completedAt;
+        private volatile Object result;
+        private volatile String error;
+
+        ReportJob(String id, JobKey key, String client) {
+            this.id = id;
+            this.key = key;
+            this.client = client;
+        }
+
+        ReportJobDTO toDTO() {
+            ReportJobRequestDTO request = new ReportJobRequestDTO();
+            request.setKind(key.kind());
+            request.setType(key.type());
+            request.setFrom(key.from());
+            request.setTo(key.to());
+            request.setBucket(key.bucket());
+            request.setDepth(key.depth());
+
+            ReportJobDTO dto = new ReportJobDTO();
+            dto.setId(id);
+            dto.setRequest(request);
+            dto.setSubmittedAt(submittedAt);
+            dto.setStartedAt(startedAt);
+            dto.setCompletedAt(completedAt);
+            dto.setError(error);
+            dto.setStatus(status); // Read last, so a completed status comes with its completion time
+            return dto;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.brhn.xpnsr.services;
+
+import com.brhn.xpnsr.exceptions.BadRequestError;
+import com.brhn.xpnsr.models.Transaction;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Position of a transaction in the (date, id) descending order used for keyset pagination.
+ * The position is exchanged with clients as an opaque, URL-safe token.
+ */
+public final class TransactionCursor {
+
+    private final Timestamp date;
+    private final Long id;
+
+    private TransactionCursor(Timestamp date, Long id) {
+        this.date = date;
+        this.id = id;
+    }
+
+    /**
+     * Creates the cursor positioned on a transaction.
+     *
+     * @param transaction The last transaction of a page.
+     * @return The cursor continuing after that transaction.
+     */
+    public static TransactionCursor of(Transaction transaction) {
+        return new TransactionCursor(transaction.getDate(), transaction.getId());
+    }
+
+    /**
+     * Decodes a cursor from its token.
+     *
+     * @param token The token previously returned by {@link #encode()}.
+     * @return The decoded cursor.
+     * @throws BadRequestError if the token is malformed.
+     */
+    public static TransactionCursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = value.split(":");
+            if (parts.length != 3) {
+                throw new BadRequestError("Invalid cursor");
+            }
+            Instant instant = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+            return new TransactionCursor(Timestamp.from(instant), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new BadRequestError("Invalid cursor");
+        }
+    }
+
+    /**
+     * Encodes the cursor as an opaque token.
+     *
+     * @return The URL-safe token.
+     */
+    public String encode() {
+        Instant instant = date.toInstant();
+        String value = instant.getEpochSecond() + ":" + instant.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Retrieves the date of the transaction the cursor is positioned on.
+     *
+     * @return The transaction date.
+     */
+    public Timestamp getDate() {
+        return date;
+    }
+
+    /**
+     * Retrieves the ID of the transaction the cursor is positioned on.
+     *
+     * @return The transaction ID.
+     */
+    public Long getId() {
+        return id;
+    }
+}
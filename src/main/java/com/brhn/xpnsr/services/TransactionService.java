@@ -2,30 +2,53 @@ package com.brhn.xpnsr.services;
 
 import com.brhn.xpnsr.exceptions.BadRequestError;
 import com.brhn.xpnsr.exceptions.NotFoundError;
-import com.brhn.xpnsr.models.Category;
+import com.brhn.xpnsr.exceptions.PreconditionFailedError;
+import com.brhn.xpnsr.models.ReportBucket;
 import com.brhn.xpnsr.models.Transaction;
 import com.brhn.xpnsr.models.TransactionType;
 import com.brhn.xpnsr.models.User;
+import com.brhn.xpnsr.repositories.CategoryAmount;
 import com.brhn.xpnsr.repositories.CategoryRepository;
+import com.brhn.xpnsr.repositories.DailyCategoryAmount;
+import com.brhn.xpnsr.repositories.TransactionDailySummaryRepository;
 import com.brhn.xpnsr.repositories.TransactionRepository;
 import com.brhn.xpnsr.repositories.UserRepository;
-import com.brhn.xpnsr.security.AuthenticationProvider;
+import com.brhn.xpnsr.security.CurrentUserProvider;
+import com.brhn.xpnsr.services.dtos.BatchResultDTO;
+import com.brhn.xpnsr.services.dtos.CategoryDTO;
+import com.brhn.xpnsr.services.dtos.CategoryReportDTO;
+import com.brhn.xpnsr.services.dtos.CursorSliceDTO;
 import com.brhn.xpnsr.services.dtos.ReportDTO;
+import com.brhn.xpnsr.services.dtos.TimeseriesBucketDTO;
 import com.brhn.xpnsr.services.dtos.TransactionDTO;
 import com.brhn.xpnsr.services.mappers.TransactionMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.sql.Timestamp;
 import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service class for managing operations related to transactions.
@@ -37,6 +60,23 @@ public class TransactionService {
     private final CategoryRepository categoryRepository;
     private final UserRepository userRepository;
     private final TransactionMapper transactionMapper;
+    private final TransactionDailySummaryRepository summaryRepository;
+    private final TransactionSummaryService summaryService;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final CurrentUserProvider currentUserProvider;
+    private final CategoryCatalog categoryCatalog;
+    private final ReportCache reportCache;
+    private final CollectionVersions collectionVersions;
+
+    @Value("${xpnsr.reports.use-daily-summaries:true}")
+    private boolean useDailySummaries; // Whether reports read the daily summaries or the transactions table
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int jdbcBatchSize; // Number of inserts flushed together in a batch
+
+    @Value("${xpnsr.transactions.batch.max-items:10000}")
+    private int maxBatchItems; // Maximum number of transactions accepted in one batch
 
     /**
      * Constructs a TransactionService with necessary repositories and mappers.
@@ -45,16 +85,40 @@ public class TransactionService {
      * @param categoryRepository The repository for accessing Category entities.
      * @param transactionMapper The mapper for converting between Transaction and TransactionDTO.
      * @param userRepository The repository for accessing User entities.
+     * @param summaryRepository The repository for accessing TransactionDailySummary entities.
+     * @param summaryService The service maintaining the daily transaction summaries.
+     * @param entityManager The entity manager used to flush and clear batches.
+     * @param validator The validator used for items of a batch.
+     * @param currentUserProvider The provider of the current user.
+     * @param categoryCatalog The in-memory catalog of categories.
+     * @param reportCache The cache of the report totals.
+     * @param collectionVersions The modification counters of the collections.
      */
     @Autowired
     public TransactionService(TransactionRepository transactionRepository,
                               CategoryRepository categoryRepository,
                               TransactionMapper transactionMapper,
-                              UserRepository userRepository) {
+                              UserRepository userRepository,
+                              TransactionDailySummaryRepository summaryRepository,
+                              TransactionSummaryService summaryService,
+                              EntityManager entityManager,
+                              Validator validator,
+                              CurrentUserProvider currentUserProvider,
+                              CategoryCatalog categoryCatalog,
+                              ReportCache reportCache,
+                              CollectionVersions collectionVersions) {
         this.transactionRepository = transactionRepository;
         this.categoryRepository = categoryRepository;
         this.transactionMapper = transactionMapper;
         this.userRepository = userRepository;
+        this.summaryRepository = summaryRepository;
+        this.summaryService = summaryService;
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.currentUserProvider = currentUserProvider;
+        this.categoryCatalog = categoryCatalog;
+        this.reportCache = reportCache;
+        this.collectionVersions = collectionVersions;
     }
 
     /**
@@ -67,20 +131,19 @@ public class TransactionService {
      */
     private void updatePrimaryAndSecondaryCategoryFromDTO(Transaction transaction, TransactionDTO transactionDTO) {
         if (!StringUtils.isEmpty(transactionDTO.getPrimaryCategoryId())) {
-            Optional<Category> primaryCategory = categoryRepository.findById(transactionDTO.getPrimaryCategoryId());
-            if (primaryCategory.isEmpty()) {
+            CategorySnapshot categories = categoryCatalog.get();
+            if (!categories.contains(transactionDTO.getPrimaryCategoryId())) {
                 throw new NotFoundError(String.format("Primary category with id : %s not found",
                         transactionDTO.getPrimaryCategoryId()));
             }
-            transaction.setPrimaryCategory(primaryCategory.get());
+            transaction.setPrimaryCategory(categoryRepository.getReferenceById(transactionDTO.getPrimaryCategoryId()));
 
             if (!StringUtils.isEmpty(transactionDTO.getSecondaryCategoryId())) {
-                Optional<Category> secondaryCategory = categoryRepository.findById(transactionDTO.getSecondaryCategoryId());
-                if (secondaryCategory.isEmpty()) {
+                if (!categories.contains(transactionDTO.getSecondaryCategoryId())) {
                     throw new NotFoundError(String.format("Secondary category with id : %s not found",
                             transactionDTO.getSecondaryCategoryId()));
                 }
-                transaction.setSecondaryCategory(secondaryCategory.get());
+                transaction.setSecondaryCategory(categoryRepository.getReferenceById(transactionDTO.getSecondaryCategoryId()));
             }
         } else {
             throw new BadRequestError("Primary category ID cannot be empty");
@@ -93,39 +156,142 @@ public class TransactionService {
      * @param transactionDTO The DTO containing transaction information.
      * @return The created TransactionDTO.
      */
+    @Transactional
     public TransactionDTO add(TransactionDTO transactionDTO) {
         Transaction transaction = transactionMapper.transactionDTOToTransaction(transactionDTO);
+        transaction.setId(null); // Existing transactions are only overwritten by a versioned update
 
-        String username = AuthenticationProvider.getCurrentUsername();
-        User user = userRepository.findByEmail("sample.user@example.com")
-                .orElseThrow(() -> new NotFoundError("User not found with username: " + username));
+        User user = userRepository.getReferenceById(currentUserProvider.getUserId());
         transaction.setUser(user);
         updatePrimaryAndSecondaryCategoryFromDTO(transaction, transactionDTO);
-        transactionRepository.save(transaction);
+        transaction = transactionRepository.saveAndFlush(transaction); // Flushed so the new version is returned
+        summaryService.record(transaction);
+        collectionVersions.increment(CollectionVersions.TRANSACTIONS);
 
         return transactionMapper.transactionToTransactionDTO(transaction);
     }
 
+    /**
+     * Adds a batch of transactions read from a stream of TransactionDTOs.
+     * The user and the categories are resolved once for the whole batch, valid transactions are
+     * inserted in JDBC batches and invalid ones are reported by their position without aborting the batch.
+     *
+     * @param transactionDTOs The transactions to add, in batch order.
+     * @return A BatchResultDTO with the IDs of the added transactions and the errors of the rejected ones.
+     * @throws BadRequestError if the batch contains more transactions than allowed.
+     */
+    @Transactional
+    public BatchResultDTO addAll(Iterator<TransactionDTO> transactionDTOs) {
+        User user = userRepository.getReferenceById(currentUserProvider.getUserId());
+        CategorySnapshot categories = categoryCatalog.get();
+
+        BatchResultDTO result = new BatchResultDTO();
+        List<Transaction> pending = new ArrayList<>(jdbcBatchSize);
+        int index = 0;
+        while (transactionDTOs.hasNext()) {
+            if (index == maxBatchItems) {
+                throw new BadRequestError("A batch cannot contain more than " + maxBatchItems + " transactions");
+            }
+            TransactionDTO transactionDTO = transactionDTOs.next();
+            String error = validateBatchItem(transactionDTO, categories);
+            if (error != null) {
+                result.addError(index++, error);
+                continue;
+            }
+
+            Transaction transaction = transactionMapper.transactionDTOToTransaction(transactionDTO);
+            transaction.setId(null);
+            transaction.setUser(user);
+            transaction.setPrimaryCategory(categoryRepository.getReferenceById(transactionDTO.getPrimaryCategoryId()));
+            transaction.setSecondaryCategory(StringUtils.isEmpty(transactionDTO.getSecondaryCategoryId())
+                    ? null : categoryRepository.getReferenceById(transactionDTO.getSecondaryCategoryId()));
+            pending.add(transaction);
+            if (pending.size() == jdbcBatchSize) {
+                insertBatch(pending, result);
+            }
+            index++;
+        }
+        if (!pending.isEmpty()) {
+            insertBatch(pending, result);
+        }
+        result.setReceived(index);
+        collectionVersions.increment(CollectionVersions.TRANSACTIONS);
+        return result;
+    }
+
+    /**
+     * Validates an item of a batch against its constraints and the categories of the batch.
+     *
+     * @param transactionDTO The item to validate.
+     * @param categories The snapshot of the categories.
+     * @return The validation error, or null if the item is valid.
+     */
+    private String validateBatchItem(TransactionDTO transactionDTO, CategorySnapshot categories) {
+        if (transactionDTO == null) {
+            return "Transaction cannot be null";
+        }
+        Set<ConstraintViolation<TransactionDTO>> violations = validator.validate(transactionDTO);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        if (!categories.contains(transactionDTO.getPrimaryCategoryId())) {
+            return String.format("Primary category with id : %s not found", transactionDTO.getPrimaryCategoryId());
+        }
+        if (!StringUtils.isEmpty(transactionDTO.getSecondaryCategoryId())
+                && !categories.contains(transactionDTO.getSecondaryCategoryId())) {
+            return String.format("Secondary category with id : %s not found", transactionDTO.getSecondaryCategoryId());
+        }
+        return null;
+    }
+
+    /**
+     * Inserts the pending transactions of a batch, records them in the summaries and detaches them.
+     *
+     * @param pending The transactions to insert; emptied afterwards.
+     * @param result The batch result receiving the generated IDs.
+     */
+    private void insertBatch(List<Transaction> pending, BatchResultDTO result) {
+        transactionRepository.saveAll(pending);
+        entityManager.flush();
+        summaryService.recordAll(pending);
+        entityManager.clear();
+        pending.forEach(transaction -> result.addId(transaction.getId()));
+        pending.clear();
+    }
+
     /**
      * Updates an existing transaction identified by its ID.
      *
      * @param id The ID of the transaction to update.
      * @param transactionDTO The updated TransactionDTO.
+     * @param expectedVersion The version the client last read, or null to update any version.
      * @return The updated TransactionDTO.
      * @throws NotFoundError if the transaction with the specified ID cannot be found.
+     * @throws PreconditionFailedError if the transaction is no longer at the expected version.
      */
-    public TransactionDTO update(Long id, TransactionDTO transactionDTO) {
+    @Transactional
+    public TransactionDTO update(Long id, TransactionDTO transactionDTO, Long expectedVersion) {
         Transaction transaction = transactionRepository.findById(id)
                 .orElseThrow(() -> new NotFoundError("Transaction not found with id " + id));
+        if (expectedVersion != null && !expectedVersion.equals(transaction.getVersion())) {
+            throw new PreconditionFailedError("Transaction " + id + " has been modified since version " + expectedVersion);
+        }
+        Long version = transaction.getVersion();
+        // remove the old values from the summaries before the merge overwrites them
+        summaryService.revert(transaction);
 
         transaction = transactionMapper.transactionDTOToTransaction(transactionDTO);
         transaction.setId(id);
-        String username = AuthenticationProvider.getCurrentUsername();
-        User user = userRepository.findByEmail("sample.user@example.com")
-                .orElseThrow(() -> new NotFoundError("User not found with username: " + username));
+        transaction.setVersion(version);
+        User user = userRepository.getReferenceById(currentUserProvider.getUserId());
         transaction.setUser(user);
         updatePrimaryAndSecondaryCategoryFromDTO(transaction, transactionDTO);
-        transaction = transactionRepository.save(transaction);
+        transaction = transactionRepository.saveAndFlush(transaction); // Flushed so the new version is returned
+        summaryService.record(transaction);
+        collectionVersions.increment(CollectionVersions.TRANSACTIONS);
         return transactionMapper.transactionToTransactionDTO(transaction);
     }
 
@@ -142,6 +308,18 @@ public class TransactionService {
         return transactionMapper.transactionToTransactionDTO(transaction);
     }
 
+    /**
+     * Retrieves the version of a transaction without loading it.
+     *
+     * @param id The ID of the transaction.
+     * @return The version of the transaction.
+     * @throws NotFoundError if the transaction with the specified ID cannot be found.
+     */
+    public Long getVersion(Long id) throws NotFoundError {
+        return transactionRepository.findVersionById(id)
+                .orElseThrow(() -> new NotFoundError("Transaction not found with id " + id));
+    }
+
     /**
      * Retrieves all transactions paginated.
      *
@@ -153,43 +331,291 @@ public class TransactionService {
         return transactions.map(transactionMapper::transactionToTransactionDTO);
     }
 
+    /**
+     * Retrieves a slice of the current user's transactions, newest first, using keyset pagination.
+     * Slices are located by seeking to the (date, ID) position of the cursor, so no rows are skipped
+     * and no total count is computed however deep the client scrolls.
+     *
+     * @param cursor The token returned with the previous slice, or null for the first slice.
+     * @param size   The maximum number of transactions in the slice.
+     * @return A CursorSliceDTO of TransactionDTOs with the token of the next slice.
+     * @throws BadRequestError if the cursor is malformed.
+     */
+    @Transactional(readOnly = true)
+    public CursorSliceDTO<TransactionDTO> scroll(String cursor, int size) {
+        Long userId = currentUserProvider.getUserId();
+
+        // Fetch one extra row to find out whether a next slice exists
+        Limit limit = Limit.of(size + 1);
+        List<Transaction> transactions;
+        if (StringUtils.isEmpty(cursor)) {
+            transactions = transactionRepository.findNewestByUser(userId, limit);
+        } else {
+            TransactionCursor position = TransactionCursor.decode(cursor);
+            transactions = transactionRepository.findByUserBefore(userId, position.getDate(), position.getId(), limit);
+        }
+
+        String nextCursor = null;
+        if (transactions.size() > size) {
+            transactions = transactions.subList(0, size);
+            nextCursor = TransactionCursor.of(transactions.get(size - 1)).encode();
+        }
+        List<TransactionDTO> content = transactions.stream()
+                .map(transactionMapper::transactionToTransactionDTO)
+                .collect(Collectors.toList());
+        return new CursorSliceDTO<>(content, nextCursor);
+    }
+
+    /**
+     * Streams a user's transactions within a date range, oldest first, to a consumer.
+     * Rows are read through a forward-only cursor and detached once consumed, so memory use does
+     * not grow with the number of exported transactions.
+     *
+     * @param userId The ID of the user, resolved by the caller before the response is streamed.
+     * @param startDate The start date (inclusive) of the export.
+     * @param endDate The end date (inclusive) of the export.
+     * @param consumer The consumer receiving the transactions in date order.
+     * @throws BadRequestError if the start date is after the end date.
+     */
+    @Transactional(readOnly = true)
+    public void exportTransactions(Long userId, LocalDate startDate, LocalDate endDate, Consumer<TransactionDTO> consumer) {
+        if (startDate.isAfter(endDate)) {
+            throw new BadRequestError("The start date must not be after the end date");
+        }
+
+        try (Stream<Transaction> transactions = transactionRepository.streamByUserAndDateRange(userId,
+                Timestamp.valueOf(startDate.atStartOfDay()), Timestamp.valueOf(endDate.plusDays(1).atStartOfDay()))) {
+            transactions.forEach(transaction -> {
+                consumer.accept(transactionMapper.transactionToTransactionDTO(transaction));
+                entityManager.detach(transaction);
+            });
+        }
+    }
+
     /**
      * Deletes a transaction by its ID.
      *
      * @param id The ID of the transaction to delete.
      * @throws NotFoundError if the transaction with the specified ID cannot be found.
      */
+    @Transactional
     public void delete(Long id) throws NotFoundError {
         Transaction transaction = transactionRepository.findById(id)
                 .orElseThrow(() -> new NotFoundError("Transaction not found with id " + id));
+        summaryService.revert(transaction);
         transactionRepository.delete(transaction);
+        collectionVersions.increment(CollectionVersions.TRANSACTIONS);
     }
 
     /**
-     * Generates a report of transactions based on transaction type, start date, and end date.
+     * Generates a report of the current user's transactions based on transaction type, start date, and end date.
+     * Amounts are summed per category in the database, or read from the report cache for calendar periods.
      *
      * @param transactionType The type of transactions to include in the report.
      * @param startDate The start date (inclusive) for filtering transactions.
      * @param endDate The end date (inclusive) for filtering transactions.
      * @return A list of ReportDTO objects containing category-wise transaction amounts.
      */
+    @Transactional(readOnly = true)
     public List<ReportDTO> getTransactionsReport(TransactionType transactionType, LocalDate startDate, LocalDate endDate) {
-        Timestamp startTimestamp = Timestamp.valueOf(startDate.atStartOfDay());
-        Timestamp endTimestamp = Timestamp.valueOf(endDate.plusDays(1).atStartOfDay().minusNanos(1));
-
-        List<Transaction> transactions = transactionRepository.findByTypeAndDateBetween(transactionType, startTimestamp, endTimestamp);
-
-        Map<Category, BigDecimal> collection = transactions.stream()
-                .collect(Collectors.groupingBy(Transaction::getPrimaryCategory,
-                        Collectors.reducing(BigDecimal.ZERO, Transaction::getAmount, BigDecimal::add)));
-
-        return collection.entrySet().stream()
-                .map(entry -> {
+        CategorySnapshot categories = categoryCatalog.get();
+        return sumAmountByCategory(transactionType, startDate, endDate).entrySet().stream()
+                .map(total -> {
                     ReportDTO reportDTO = new ReportDTO();
-                    reportDTO.setCategory(entry.getKey().getName());
-                    reportDTO.setAmount(entry.getValue());
+                    reportDTO.setCategory(categories.find(total.getKey()).map(CategoryDTO::getName)
+                            .orElse(total.getKey()));
+                    reportDTO.setAmount(total.getValue());
                     return reportDTO;
                 })
                 .collect(Collectors.toList());
     }
+
+    /**
+     * Generates a hierarchical report of the current user's transactions in which the totals are rolled up
+     * the category tree. The per-category totals are aggregated once, and the subtree totals are then computed
+     * in a single children-before-parents pass over the category hierarchy of the catalog.
+     * Categories without transactions in their subtree are left out.
+     *
+     * @param transactionType The type of transactions to include in the report.
+     * @param startDate The start date (inclusive) for filtering transactions.
+     * @param endDate The end date (inclusive) for filtering transactions.
+     * @param depth The number of tree levels to return, or null for the whole tree.
+     * @return A list of CategoryReportDTO trees, one per root category.
+     * @throws BadRequestError if the depth is less than 1.
+     */
+    @Transactional(readOnly = true)
+    public List<CategoryReportDTO> getTransactionsReportTree(TransactionType transactionType, LocalDate startDate,
+                                                             LocalDate endDate, Integer depth) {
+        if (depth != null && depth < 1) {
+            throw new BadRequestError("The depth must be at least 1");
+        }
+        Map<String, BigDecimal> ownTotals = sumAmountByCategory(transactionType, startDate, endDate);
+
+        CategorySnapshot categories = categoryCatalog.get();
+        List<String> rootIds = new ArrayList<>(categories.getRootIds());
+        ownTotals.keySet().stream()
+                .filter(categoryId -> !categories.contains(categoryId))
+                .forEach(rootIds::add); // Totals of categories deleted since are reported as roots
+
+        // Pre-order walk; visiting it in reverse processes every child before its parent
+        List<String> preOrder = new ArrayList<>();
+        Deque<String> pending = new ArrayDeque<>(rootIds);
+        while (!pending.isEmpty()) {
+            String categoryId = pending.pop();
+            preOrder.add(categoryId);
+            categories.getChildIds(categoryId).forEach(pending::push);
+        }
+        Map<String, BigDecimal> subtreeTotals = new HashMap<>();
+        for (int i = preOrder.size() - 1; i >= 0; i--) {
+            String categoryId = preOrder.get(i);
+            BigDecimal total = ownTotals.getOrDefault(categoryId, BigDecimal.ZERO);
+            for (String childId : categories.getChildIds(categoryId)) {
+                total = total.add(subtreeTotals.getOrDefault(childId, BigDecimal.ZERO));
+            }
+            if (ownTotals.containsKey(categoryId) || total.signum() != 0) {
+                subtreeTotals.put(categoryId, total);
+            }
+        }
+
+        int levels = depth == null ? Integer.MAX_VALUE : depth;
+        return rootIds.stream()
+                .filter(subtreeTotals::containsKey)
+                .map(rootId -> toReportNode(rootId, levels, categories, subtreeTotals))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Builds the report node of a category and its descendants down to the given number of levels.
+     *
+     * @param categoryId The ID of the category.
+     * @param levels The number of levels to build, including this one.
+     * @param categories The snapshot of the categories.
+     * @param subtreeTotals The rolled-up totals keyed by category ID.
+     * @return The CategoryReportDTO of the category.
+     */
+    private static CategoryReportDTO toReportNode(String categoryId, int levels, CategorySnapshot categories,
+                                                  Map<String, BigDecimal> subtreeTotals) {
+        CategoryReportDTO node = new CategoryReportDTO();
+        node.setCategoryId(categoryId);
+        node.setCategory(categories.find(categoryId).map(CategoryDTO::getName).orElse(categoryId));
+        node.setAmount(subtreeTotals.get(categoryId));
+        if (levels > 1) {
+            for (String childId : categories.getChildIds(categoryId)) {
+                if (subtreeTotals.containsKey(childId)) {
+                    node.getChildren().add(toReportNode(childId, levels - 1, categories, subtreeTotals));
+                }
+            }
+        }
+        return node;
+    }
+
+    /**
+     * Sums the current user's transactions per category in the database, either over the daily summaries
+     * (the default) or directly over the transactions table when the summaries are disabled.
+     * The totals of a calendar month or year are served from the report cache.
+     *
+     * @param transactionType The type of transactions to sum.
+     * @param startDate The start date (inclusive) for filtering transactions.
+     * @param endDate The end date (inclusive) for filtering transactions.
+     * @return The total amounts keyed by category ID, in the order returned by the database.
+     */
+    private Map<String, BigDecimal> sumAmountByCategory(TransactionType transactionType, LocalDate startDate,
+                                                        LocalDate endDate) {
+        Long userId = currentUserProvider.getUserId();
+        return reportCache.get(userId, transactionType, startDate, endDate, () -> {
+            List<CategoryAmount> amounts;
+            if (useDailySummaries) {
+                amounts = summaryRepository.sumAmountByCategory(userId, transactionType, startDate, endDate);
+            } else {
+                Timestamp startTimestamp = Timestamp.valueOf(startDate.atStartOfDay());
+                Timestamp endTimestamp = Timestamp.valueOf(endDate.plusDays(1).atStartOfDay().minusNanos(1));
+                amounts = transactionRepository.sumAmountByPrimaryCategory(userId, transactionType, startTimestamp,
+                        endTimestamp);
+            }
+            Map<String, BigDecimal> totals = new LinkedHashMap<>();
+            amounts.forEach(amount -> totals.put(amount.getCategoryId(), amount.getAmount()));
+            return totals;
+        });
+    }
+
+    /**
+     * Streams a time-series report of a user's transactions, one bucket at a time.
+     * The daily summaries are read in day order in a single pass, so only the totals of the
+     * current bucket are held in memory. Buckets without transactions are emitted with a zero total.
+     * The first and last buckets are clamped to the range, as only its transactions are summed.
+     *
+     * @param userId The ID of the user, resolved by the caller before the response is streamed.
+     * @param transactionType The type of transactions to include in the report.
+     * @param startDate The start date (inclusive) of the report.
+     * @param endDate The end date (inclusive) of the report.
+     * @param bucket The width of the buckets.
+     * @param consumer The consumer receiving the buckets in chronological order.
+     * @throws BadRequestError if the start date is after the end date.
+     */
+    @Transactional(readOnly = true)
+    public void streamTransactionsTimeseries(Long userId, TransactionType transactionType, LocalDate startDate,
+                                             LocalDate endDate, ReportBucket bucket,
+                                             Consumer<TimeseriesBucketDTO> consumer) {
+        if (startDate.isAfter(endDate)) {
+            throw new BadRequestError("The start date must not be after the end date");
+        }
+        Map<String, String> categoryNames = categoryCatalog.get().getAll().stream()
+                .collect(Collectors.toMap(CategoryDTO::getId, CategoryDTO::getName));
+
+        LocalDate bucketStart = bucket.startOf(startDate);
+        Map<String, BigDecimal> totals = new LinkedHashMap<>();
+        try (Stream<DailyCategoryAmount> amounts = summaryRepository.streamDailyAmounts(userId, transactionType,
+                startDate, endDate)) {
+            Iterator<DailyCategoryAmount> iterator = amounts.iterator();
+            while (iterator.hasNext()) {
+                DailyCategoryAmount amount = iterator.next();
+                LocalDate amountBucketStart = bucket.startOf(amount.getDay());
+                while (bucketStart.isBefore(amountBucketStart)) {
+                    consumer.accept(toTimeseriesBucket(bucketStart, bucket, startDate, endDate, totals, categoryNames));
+                    totals.clear();
+                    bucketStart = bucket.next(bucketStart);
+                }
+                totals.merge(amount.getCategoryId(), amount.getAmount(), BigDecimal::add);
+            }
+        }
+        while (!bucketStart.isAfter(endDate)) {
+            consumer.accept(toTimeseriesBucket(bucketStart, bucket, startDate, endDate, totals, categoryNames));
+            totals.clear();
+            bucketStart = bucket.next(bucketStart);
+        }
+    }
+
+    /**
+     * Builds a time-series bucket from the per-category totals accumulated for it.
+     *
+     * @param bucketStart The first day of the bucket.
+     * @param bucket The width of the bucket.
+     * @param startDate The start date of the report, which the first bucket does not begin before.
+     * @param endDate The end date of the report, which the last bucket does not end after.
+     * @param totals The accumulated totals keyed by category ID.
+     * @param categoryNames The category names keyed by category ID.
+     * @return The TimeseriesBucketDTO for the bucket.
+     */
+    private static TimeseriesBucketDTO toTimeseriesBucket(LocalDate bucketStart, ReportBucket bucket,
+                                                          LocalDate startDate, LocalDate endDate,
+                                                          Map<String, BigDecimal> totals,
+                                                          Map<String, String> categoryNames) {
+        List<ReportDTO> categories = new ArrayList<>(totals.size());
+        BigDecimal total = BigDecimal.ZERO;
+        for (Map.Entry<String, BigDecimal> entry : totals.entrySet()) {
+            ReportDTO reportDTO = new ReportDTO();
+            reportDTO.setCategory(categoryNames.getOrDefault(entry.getKey(), entry.getKey()));
+            reportDTO.setAmount(entry.getValue());
+            categories.add(reportDTO);
+            total = total.add(entry.getValue());
+        }
+
+        TimeseriesBucketDTO bucketDTO = new TimeseriesBucketDTO();
+        LocalDate bucketEnd = bucket.next(bucketStart).minusDays(1);
+        bucketDTO.setStart(bucketStart.isBefore(startDate) ? startDate : bucketStart);
+        bucketDTO.setEnd(bucketEnd.isAfter(endDate) ? endDate : bucketEnd);
+        bucketDTO.setTotal(total);
+        bucketDTO.setCategories(categories);
+        return bucketDTO;
+    }
 }
@@ -0,0 +1,137 @@
+package com.brhn.xpnsr.services;
+
+import com.brhn.xpnsr.models.Transaction;
+import com.brhn.xpnsr.models.TransactionDailySummaryId;
+import com.brhn.xpnsr.models.TransactionType;
+import com.brhn.xpnsr.repositories.TransactionDailySummaryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Service class maintaining the per-user, per-day, per-category daily transaction summaries and the spend
+ * counters of the budgets, and invalidating the cached reports of the periods they belong to.
+ * Every write must run inside the transaction that changes the underlying transaction row.
+ */
+@Service
+public class TransactionSummaryService {
+
+    private final TransactionDailySummaryRepository summaryRepository;
+    private final ReportCache reportCache;
+    private final BudgetUtilizationService budgetUtilizationService;
+
+    /**
+     * Constructs a TransactionSummaryService with the necessary repository and cache.
+     *
+     * @param summaryRepository The repository for accessing TransactionDailySummary entities.
+     * @param reportCache The cache of the report totals.
+     * @param budgetUtilizationService The service maintaining the spend counters of the budgets.
+     */
+    @Autowired
+    public TransactionSummaryService(TransactionDailySummaryRepository summaryRepository, ReportCache reportCache,
+                                     BudgetUtilizationService budgetUtilizationService) {
+        this.summaryRepository = summaryRepository;
+        this.reportCache = reportCache;
+        this.budgetUtilizationService = budgetUtilizationService;
+    }
+
+    /**
+     * Adds a transaction to the summary row of its user, day, primary category and type.
+     *
+     * @param transaction The transaction that has been created.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Transaction transaction) {
+        summaryRepository.upsert(transaction.getUser().getId(), dayOf(transaction),
+                transaction.getPrimaryCategory().getId(), transaction.getType().name(), transaction.getAmount(), 1);
+        budgetUtilizationService.add(transaction.getUser().getId(), transaction.getPrimaryCategory().getId(),
+                transaction.getType(), transaction.getAmount());
+        reportCache.invalidate(transaction.getUser().getId(), transaction.getType(), dayOf(transaction));
+    }
+
+    /**
+     * Adds a batch of transactions to the summaries with one upsert per affected summary row, and to the
+     * budgets with one update per affected user and category.
+     *
+     * @param transactions The transactions that have been created.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(Collection<Transaction> transactions) {
+        Map<TransactionDailySummaryId, BigDecimal> amounts = new HashMap<>();
+        Map<TransactionDailySummaryId, Long> counts = new HashMap<>();
+        Map<CategoryKey, BigDecimal> categoryAmounts = new HashMap<>();
+        Set<ReportCache.Key> reportKeys = new HashSet<>();
+        for (Transaction transaction : transactions) {
+            TransactionDailySummaryId id = new TransactionDailySummaryId(transaction.getUser().getId(),
+                    dayOf(transaction), transaction.getPrimaryCategory().getId(), transaction.getType());
+            amounts.merge(id, transaction.getAmount(), BigDecimal::add);
+            counts.merge(id, 1L, Long::sum);
+            categoryAmounts.merge(new CategoryKey(id.getUserId(), id.getCategoryId(), id.getType()),
+                    transaction.getAmount(), BigDecimal::add);
+            reportKeys.addAll(ReportCache.periodKeys(id.getUserId(), id.getType(), id.getDay()));
+        }
+        amounts.forEach((id, amount) -> summaryRepository.upsert(id.getUserId(), id.getDay(), id.getCategoryId(),
+                id.getType().name(), amount, counts.get(id)));
+        categoryAmounts.forEach((key, amount) -> budgetUtilizationService.add(key.userId(), key.categoryId(),
+                key.type(), amount));
+        reportCache.invalidateAll(reportKeys);
+    }
+
+    /**
+     * Removes a transaction from the summary row it was previously recorded in.
+     *
+     * @param transaction The transaction as it was before being updated or deleted.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void revert(Transaction transaction) {
+        Long userId = transaction.getUser().getId();
+        LocalDate day = dayOf(transaction);
+        String categoryId = transaction.getPrimaryCategory().getId();
+        summaryRepository.upsert(userId, day, categoryId, transaction.getType().name(),
+                transaction.getAmount().negate(), -1);
+        summaryRepository.deleteIfEmpty(userId, day, categoryId, transaction.getType());
+        budgetUtilizationService.add(userId, categoryId, transaction.getType(), transaction.getAmount().negate());
+        reportCache.invalidate(userId, transaction.getType(), day);
+    }
+
+    /**
+     * Discards all summary rows and recomputes them from the transactions table, then recomputes the spend
+     * counters of the budgets from the new summaries.
+     */
+    @Transactional
+    public void rebuild() {
+        summaryRepository.deleteAllInBatch();
+        summaryRepository.insertFromTransactions();
+        budgetUtilizationService.rebuild();
+        reportCache.clear();
+    }
+
+    /**
+     * The user, primary category and type the amounts of a batch are added to the budgets under.
+     *
+     * @param userId     The ID of the user.
+     * @param categoryId The ID of the primary category.
+     * @param type       The transaction type.
+     */
+    private record CategoryKey(Long userId, String categoryId, TransactionType type) {
+    }
+
+    /**
+     * Returns the calendar day a transaction is summarized under.
+     *
+     * @param transaction The transaction.
+     * @return The day of the transaction date.
+     */
+    private static LocalDate dayOf(Transaction transaction) {
+        return transaction.getDate().toLocalDateTime().toLocalDate();
+    }
+}
@@ -4,9 +4,11 @@ import com.brhn.xpnsr.exceptions.NotFoundError;
 import com.brhn.xpnsr.exceptions.UserExistsError;
 import com.brhn.xpnsr.models.User;
 import com.brhn.xpnsr.repositories.UserRepository;
+import com.brhn.xpnsr.security.PrincipalResolver;
 import com.brhn.xpnsr.services.dtos.UserDTO;
 import com.brhn.xpnsr.services.mappers.UserMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -69,6 +71,7 @@ public class UserService {
      * @throws NotFoundError if the user with the specified ID cannot be found.
      * @throws UserExistsError if another user already exists with the updated email.
      */
+    @CacheEvict(value = PrincipalResolver.PRINCIPALS_CACHE, allEntries = true)
     public UserDTO update(Long id, UserDTO u) throws NotFoundError, UserExistsError {
 
         User user = userRepository.findById(id)
@@ -135,6 +138,7 @@ public class UserService {
      *
      * @param id The ID of the user to delete.
      */
+    @CacheEvict(value = PrincipalResolver.PRINCIPALS_CACHE, allEntries = true)
     public void delete(Long id) {
         Optional<User> user = userRepository.findById(id);
         user.ifPresent(userRepository::delete);
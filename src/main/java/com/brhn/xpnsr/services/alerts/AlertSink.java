@@ -0,0 +1,15 @@
+package com.brhn.xpnsr.services.alerts;
+
+/**
+ * Destination of the budget alerts. Every AlertSink bean receives every alert, on the thread of the
+ * BudgetAlertEvaluator, so implementations should hand slow deliveries off rather than block.
+ */
+public interface AlertSink {
+
+    /**
+     * Delivers an alert.
+     *
+     * @param alert The alert raised for a budget.
+     */
+    void publish(BudgetAlert alert);
+}
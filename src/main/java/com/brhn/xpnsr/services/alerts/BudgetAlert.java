@@ -0,0 +1,23 @@
+package com.brhn.xpnsr.services.alerts;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Notification that the utilization of a budget has reached one of the alert thresholds.
+ *
+ * @param budgetId    The ID of the budget.
+ * @param userId      The ID of the user owning the budget.
+ * @param title       The title of the budget.
+ * @param categoryId  The ID of the category of the budget.
+ * @param threshold   The threshold that has been reached, in percent.
+ * @param utilization The percentage of the budget spent when the alert was raised.
+ * @param amount      The amount allocated for the budget.
+ * @param spent       The amount spent against the budget.
+ * @param currency    The currency of the budget.
+ * @param raisedAt    The time the alert was raised.
+ */
+public record BudgetAlert(Long budgetId, Long userId, String title, String categoryId, BigDecimal threshold,
+                          BigDecimal utilization, BigDecimal amount, BigDecimal spent, String currency,
+                          Instant raisedAt) {
+}
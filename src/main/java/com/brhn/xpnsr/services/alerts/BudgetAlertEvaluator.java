@@ -0,0 +1,215 @@
+package com.brhn.xpnsr.services.alerts;
+
+import com.brhn.xpnsr.repositories.BudgetSpendRepository;
+import com.brhn.xpnsr.repositories.BudgetUtilization;
+import com.brhn.xpnsr.services.BudgetUtilizationService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Background evaluator raising an alert when the utilization of a budget reaches one of the thresholds.
+ * A single thread drains the BudgetAlertQueue in micro-batches and reads the utilization of all budgets of a
+ * user in the touched categories with one query, so the transaction write path never waits for it.
+ * Each threshold is alerted once per budget; it is alerted again only after the budget has dropped below it.
+ * The thresholds already alerted are kept in memory until their budget is deleted, so after a restart a budget above a threshold is alerted
+ * again on its next write. Evaluations are serialized with a lock rather than a monitor, as they query the database
+ * and a virtual thread blocking inside a monitor would pin its carrier thread.
+ */
+@Component
+public class BudgetAlertEvaluator implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(BudgetAlertEvaluator.class);
+
+    private final BudgetAlertQueue queue;
+    private final BudgetSpendRepository budgetSpendRepository;
+    private final List<AlertSink> sinks;
+    private final List<BigDecimal> thresholds;
+    private final Duration batchWindow;
+    private final int maxBatch;
+
+    private final Map<Long, BigDecimal> alertedThresholds = new ConcurrentHashMap<>();
+    private final Lock evaluationLock = new ReentrantLock();
+    private volatile Thread worker;
+
+    /**
+     * Constructs a BudgetAlertEvaluator.
+     *
+     * @param queue                 The queue of the budgets to evaluate.
+     * @param budgetSpendRepository The repository for reading the utilization of the budgets.
+     * @param sinks                 The sinks every alert is published to.
+     * @param thresholds            The utilization percentages that raise an alert.
+     * @param batchWindow           How long to collect writes before evaluating them together.
+     * @param maxBatch              The maximum number of users and categories evaluated at once.
+     */
+    @Autowired
+    public BudgetAlertEvaluator(BudgetAlertQueue queue, BudgetSpendRepository budgetSpendRepository,
+                                List<AlertSink> sinks,
+                                @Value("${xpnsr.alerts.thresholds:80,100}") List<BigDecimal> thresholds,
+                                @Value("${xpnsr.alerts.batch-window:200ms}") Duration batchWindow,
+                                @Value("${xpnsr.alerts.max-batch:1000}") int maxBatch) {
+        this.queue = queue;
+        this.budgetSpendRepository = budgetSpendRepository;
+        this.sinks = List.copyOf(sinks);
+        this.thresholds = List.copyOf(new TreeSet<>(thresholds));
+        this.batchWindow = batchWindow;
+        this.maxBatch = maxBatch;
+    }
+
+    /**
+     * Evaluates the budgets of some users and categories and publishes the alerts raised.
+     *
+     * @param keys The users and categories whose budgets may have changed.
+     * @return The alerts raised.
+     */
+    public List<BudgetAlert> evaluate(Collection<BudgetAlertQueue.Key> keys) {
+        Map<Long, Set<String>> categoriesByUser = keys.stream().collect(Collectors.groupingBy(
+                BudgetAlertQueue.Key::userId, Collectors.mapping(BudgetAlertQueue.Key::categoryId, Collectors.toSet())));
+        List<BudgetAlert> alerts = new ArrayList<>();
+        evaluationLock.lock();
+        try {
+            categoriesByUser.forEach((userId, categoryIds) ->
+                    check(budgetSpendRepository.findUtilizationByUserIdAndCategoryIds(userId, categoryIds), alerts));
+        } finally {
+            evaluationLock.unlock();
+        }
+        return alerts;
+    }
+
+    /**
+     * Evaluates every budget and publishes the alerts raised.
+     *
+     * @return The alerts raised.
+     */
+    public List<BudgetAlert> evaluateAll() {
+        List<BudgetAlert> alerts = new ArrayList<>();
+        evaluationLock.lock();
+        try {
+            check(budgetSpendRepository.findAllUtilization(), alerts);
+        } finally {
+            evaluationLock.unlock();
+        }
+        return alerts;
+    }
+
+    /**
+     * Forgets the thresholds alerted for deleted budgets. Inside a transaction they are forgotten once the
+     * transaction has committed, and not at all if it rolls back.
+     *
+     * @param budgetIds The IDs of the budgets that are deleted.
+     */
+    public void forget(Collection<Long> budgetIds) {
+        List<Long> ids = List.copyOf(budgetIds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    ids.forEach(alertedThresholds::remove);
+                }
+            });
+        } else {
+            ids.forEach(alertedThresholds::remove);
+        }
+    }
+
+    @Override
+    public void start() {
+        Thread thread = new Thread(this::run, "budget-alerts");
+        thread.setDaemon(true);
+        worker = thread;
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        Thread thread = worker;
+        worker = null;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return worker != null;
+    }
+
+    /**
+     * Drains the queue until the evaluator is stopped.
+     */
+    private void run() {
+        while (worker == Thread.currentThread()) {
+            try {
+                List<BudgetAlertQueue.Key> batch = queue.take(batchWindow, maxBatch);
+                if (queue.takeOverflow()) {
+                    evaluateAll();
+                } else {
+                    evaluate(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Could not evaluate budget alerts", e);
+            }
+        }
+    }
+
+    /**
+     * Compares the utilization of budgets with the thresholds and publishes an alert for every budget that
+     * reached a higher threshold than the one last alerted.
+     *
+     * @param utilizations The budgets with their spend counters.
+     * @param alerts       The list the alerts raised are added to.
+     */
+    private void check(List<BudgetUtilization> utilizations, List<BudgetAlert> alerts) {
+        for (BudgetUtilization utilization : utilizations) {
+            BigDecimal spent = utilization.getSpent() != null ? utilization.getSpent() : BigDecimal.ZERO;
+            BigDecimal percentage = BudgetUtilizationService.percentage(spent, utilization.getAmount());
+            BigDecimal reached = percentage == null ? null : thresholds.stream()
+                    .filter(threshold -> percentage.compareTo(threshold) >= 0)
+                    .reduce((lower, higher) -> higher)
+                    .orElse(null);
+            BigDecimal alerted = reached == null
+                    ? alertedThresholds.remove(utilization.getBudgetId())
+                    : alertedThresholds.put(utilization.getBudgetId(), reached);
+            if (reached != null && (alerted == null || reached.compareTo(alerted) > 0)) {
+                BudgetAlert alert = new BudgetAlert(utilization.getBudgetId(), utilization.getUserId(),
+                        utilization.getTitle(), utilization.getCategoryId(), reached, percentage,
+                        utilization.getAmount(), spent, utilization.getCurrency(), Instant.now());
+                alerts.add(alert);
+                publish(alert);
+            }
+        }
+    }
+
+    private void publish(BudgetAlert alert) {
+        for (AlertSink sink : sinks) {
+            try {
+                sink.publish(alert);
+            } catch (RuntimeException e) {
+                log.error("Could not publish the alert of budget {} to {}", alert.budgetId(),
+                        sink.getClass().getSimpleName(), e);
+            }
+        }
+    }
+}
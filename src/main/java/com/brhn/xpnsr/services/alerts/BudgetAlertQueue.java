@@ -0,0 +1,105 @@
+package com.brhn.xpnsr.services.alerts;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-process queue of the budgets whose utilization may have changed, drained by the BudgetAlertEvaluator.
+ * Writes only record which user and category they touched, once their transaction has committed, and return
+ * immediately. A user and category already waiting in the queue is not queued again, so bursts of writes
+ * coalesce into a single evaluation. When the queue is full the key is dropped and the next batch evaluates
+ * every budget instead, so a burst never blocks writers nor loses an alert.
+ */
+@Component
+public class BudgetAlertQueue {
+
+    private final BlockingQueue<Key> queue;
+    private final Set<Key> pending = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean overflowed = new AtomicBoolean();
+
+    /**
+     * Constructs a BudgetAlertQueue.
+     *
+     * @param capacity The number of distinct users and categories the queue holds before it overflows.
+     */
+    public BudgetAlertQueue(@Value("${xpnsr.alerts.queue-capacity:10000}") int capacity) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+    }
+
+    /**
+     * Records that the budgets of a user in a category may have changed. Inside a transaction the key is
+     * queued once the transaction has committed, and not at all if it rolls back.
+     *
+     * @param userId     The ID of the user.
+     * @param categoryId The ID of the category.
+     */
+    public void submit(Long userId, String categoryId) {
+        Key key = new Key(userId, categoryId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    offer(key);
+                }
+            });
+        } else {
+            offer(key);
+        }
+    }
+
+    /**
+     * Waits for a key, then for the rest of the micro-batch window, and takes everything queued meanwhile.
+     * Keys are released before they are evaluated, so a write landing during the evaluation queues them again.
+     *
+     * @param window   How long to keep collecting keys after the first one arrived.
+     * @param maxBatch The maximum number of keys taken at once.
+     * @return The distinct keys of the batch.
+     * @throws InterruptedException if the thread is interrupted while waiting.
+     */
+    public List<Key> take(Duration window, int maxBatch) throws InterruptedException {
+        List<Key> batch = new ArrayList<>();
+        batch.add(queue.take());
+        if (!window.isZero()) {
+            Thread.sleep(window.toMillis());
+        }
+        queue.drainTo(batch, maxBatch - 1);
+        batch.forEach(pending::remove);
+        return batch;
+    }
+
+    /**
+     * Checks whether keys were dropped since the last call, in which case every budget must be evaluated.
+     *
+     * @return true if the queue overflowed, false otherwise.
+     */
+    public boolean takeOverflow() {
+        return overflowed.getAndSet(false);
+    }
+
+    private void offer(Key key) {
+        if (pending.add(key) && !queue.offer(key)) {
+            pending.remove(key);
+            overflowed.set(true); // A full queue wakes the evaluator, which then sees the flag
+        }
+    }
+
+    /**
+     * The user and category whose budgets are evaluated.
+     *
+     * @param userId     The ID of the user.
+     * @param categoryId The ID of the category.
+     */
+    public record Key(Long userId, String categoryId) {
+    }
+}
@@ -0,0 +1,52 @@
+package com.brhn.xpnsr.services.alerts;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * AlertSink keeping the most recent alerts in memory, oldest first, so they can be inspected without
+ * an external system.
+ */
+@Component
+public class InMemoryAlertSink implements AlertSink {
+
+    private final int capacity;
+    private final Deque<BudgetAlert> alerts = new ArrayDeque<>();
+
+    /**
+     * Constructs an InMemoryAlertSink.
+     *
+     * @param capacity The number of alerts kept; older ones are discarded.
+     */
+    public InMemoryAlertSink(@Value("${xpnsr.alerts.memory-capacity:1000}") int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public synchronized void publish(BudgetAlert alert) {
+        if (alerts.size() == capacity) {
+            alerts.removeFirst();
+        }
+        alerts.addLast(alert);
+    }
+
+    /**
+     * Retrieves the alerts kept, oldest first.
+     *
+     * @return A copy of the alerts.
+     */
+    public synchronized List<BudgetAlert> getAlerts() {
+        return List.copyOf(alerts);
+    }
+
+    /**
+     * Discards all alerts kept.
+     */
+    public synchronized void clear() {
+        alerts.clear();
+    }
+}
@@ -0,0 +1,20 @@
+package com.brhn.xpnsr.services.alerts;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * AlertSink writing every alert to the application log.
+ */
+@Component
+public class LoggingAlertSink implements AlertSink {
+
+    private static final Logger log = LoggerFactory.getLogger(LoggingAlertSink.class);
+
+    @Override
+    public void publish(BudgetAlert alert) {
+        log.warn("Budget '{}' ({}) of user {} reached {}%: {} of {} {} spent", alert.title(), alert.budgetId(),
+                alert.userId(), alert.threshold(), alert.spent(), alert.amount(), alert.currency());
+    }
+}
@@ -0,0 +1,77 @@
+package com.brhn.xpnsr.services.dtos;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * Data Transfer Object (DTO) describing why one item of a batch request was rejected.
+ */
+public class BatchErrorDTO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 113L;
+
+    private int index;
+    private String message;
+
+    /**
+     * Default constructor.
+     */
+    public BatchErrorDTO() {
+    }
+
+    /**
+     * Constructs an error for a batch item.
+     *
+     * @param index   The zero-based position of the item in the batch.
+     * @param message The reason the item was rejected.
+     */
+    public BatchErrorDTO(int index, String message) {
+        this.index = index;
+        this.message = message;
+    }
+
+    /**
+     * Retrieves the zero-based position of the item in the batch.
+     *
+     * @return The item index.
+     */
+    public int getIndex() {
+        return index;
+    }
+
+    /**
+     * Sets the zero-based position of the item in the batch.
+     *
+     * @param index The item index to set.
+     */
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    /**
+     * Retrieves the reason the item was rejected.
+     *
+     * @return The error message.
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Sets the reason the item was rejected.
+     *
+     * @param message The error message to set.
+     */
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchErrorDTO{" +
+                "index=" + index +
+                ", message='" + message + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,111 @@
+package com.brhn.xpnsr.services.dtos;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Data Transfer Object (DTO) summarizing the outcome of a batch request.
+ * Valid items are applied; rejected items are reported by their position in the batch.
+ */
+public class BatchResultDTO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 114L;
+
+    private int received;
+    private List<Long> ids = new ArrayList<>();
+    private List<BatchErrorDTO> errors = new ArrayList<>();
+
+    /**
+     * Retrieves the number of items received in the batch.
+     *
+     * @return The number of received items.
+     */
+    public int getReceived() {
+        return received;
+    }
+
+    /**
+     * Sets the number of items received in the batch.
+     *
+     * @param received The number of received items to set.
+     */
+    public void setReceived(int received) {
+        this.received = received;
+    }
+
+    /**
+     * Retrieves the number of items that were applied.
+     *
+     * @return The number of applied items.
+     */
+    public int getApplied() {
+        return ids.size();
+    }
+
+    /**
+     * Retrieves the IDs of the applied items, in batch order.
+     *
+     * @return The list of IDs.
+     */
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    /**
+     * Sets the IDs of the applied items.
+     *
+     * @param ids The list of IDs to set.
+     */
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    /**
+     * Retrieves the errors of the rejected items.
+     *
+     * @return The list of errors.
+     */
+    public List<BatchErrorDTO> getErrors() {
+        return errors;
+    }
+
+    /**
+     * Sets the errors of the rejected items.
+     *
+     * @param errors The list of errors to set.
+     */
+    public void setErrors(List<BatchErrorDTO> errors) {
+        this.errors = errors;
+    }
+
+    /**
+     * Records an applied item.
+     *
+     * @param id The ID of the applied item.
+     */
+    public void addId(Long id) {
+        ids.add(id);
+    }
+
+    /**
+     * Records a rejected item.
+     *
+     * @param index   The zero-based position of the item in the batch.
+     * @param message The reason the item was rejected.
+     */
+    public void addError(int index, String message) {
+        errors.add(new BatchErrorDTO(index, message));
+    }
+
+    @Override
+    public String toString() {
+        return "BatchResultDTO{" +
+                "received=" + received +
+                ", applied=" + getApplied() +
+                ", errors=" + errors +
+                '}';
+    }
+}
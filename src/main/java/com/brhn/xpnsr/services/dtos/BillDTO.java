@@ -1,5 +1,6 @@
 package com.brhn.xpnsr.services.dtos;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -8,6 +9,7 @@ import org.springframework.hateoas.RepresentationModel;
 import java.io.Serial;
 import java.io.Serializable;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.Objects;
 
 /**
@@ -20,6 +22,9 @@ public class BillDTO extends RepresentationModel<BillDTO> implements Serializabl
 
     private Long id;
 
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
     @NotNull(message = "Tenure is required")
     @Min(value = 0, message = "Tenure must be a positive integer")
     private Integer tenure;
@@ -31,6 +36,8 @@ public class BillDTO extends RepresentationModel<BillDTO> implements Serializabl
     @NotBlank(message = "Category is required")
     private String categoryId;
 
+    private LocalDate startDate; // Month of the first instalment, defaults to today
+
     /**
      * Retrieves the ID of the bill DTO.
      *
@@ -49,6 +56,24 @@ public class BillDTO extends RepresentationModel<BillDTO> implements Serializabl
         this.id = id;
     }
 
+    /**
+     * Retrieves the version of the bill, which its ETag is derived from.
+     *
+     * @return The version of the bill.
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the version of the bill.
+     *
+     * @param version The version to set.
+     */
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     /**
      * Retrieves the tenure of the bill DTO.
      *
@@ -103,6 +128,24 @@ public class BillDTO extends RepresentationModel<BillDTO> implements Serializabl
         this.categoryId = categoryId;
     }
 
+    /**
+     * Retrieves the date of the first instalment of the bill DTO.
+     *
+     * @return The start date of the bill DTO.
+     */
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    /**
+     * Sets the date of the first instalment of the bill DTO.
+     *
+     * @param startDate The start date to set.
+     */
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
     /**
      * Checks if this bill DTO is equal to another object based on their IDs.
      *
@@ -139,6 +182,7 @@ public class BillDTO extends RepresentationModel<BillDTO> implements Serializabl
                 ", tenure=" + tenure +
                 ", amount=" + amount +
                 ", categoryId='" + categoryId + '\'' +
+                ", startDate=" + startDate +
                 '}';
     }
 }
@@ -1,5 +1,6 @@
 package com.brhn.xpnsr.services.dtos;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -20,6 +21,9 @@ public class BudgetDTO implements Serializable {
 
     private Long id;
 
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
     @NotBlank(message = "Title is required")
     @Size(min = 1, max = 100, message = "Title must be between 1 and 100 characters")
     private String title;
@@ -59,6 +63,24 @@ public class BudgetDTO implements Serializable {
         this.id = id;
     }
 
+    /**
+     * Retrieves the version of the budget, which its ETag is derived from.
+     *
+     * @return The version of the budget.
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the version of the budget.
+     *
+     * @param version The version to set.
+     */
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     /**
      * Retrieves the title of the budget DTO.
      *
@@ -0,0 +1,214 @@
+package com.brhn.xpnsr.services.dtos;
+
+import org.springframework.hateoas.server.core.Relation;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * Data Transfer Object (DTO) representing how much of a budget has been spent.
+ */
+@Relation(collectionRelation = "utilizations")
+public class BudgetUtilizationDTO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 117L;
+
+    private Long budgetId;
+    private String title;
+    private String categoryId;
+    private String currency;
+    private BigDecimal amount;
+    private BigDecimal spent;
+    private BigDecimal remaining;
+    private BigDecimal utilization;
+
+    /**
+     * Retrieves the ID of the budget.
+     *
+     * @return The budget ID.
+     */
+    public Long getBudgetId() {
+        return budgetId;
+    }
+
+    /**
+     * Sets the ID of the budget.
+     *
+     * @param budgetId The budget ID to set.
+     */
+    public void setBudgetId(Long budgetId) {
+        this.budgetId = budgetId;
+    }
+
+    /**
+     * Retrieves the title of the budget.
+     *
+     * @return The budget title.
+     */
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * Sets the title of the budget.
+     *
+     * @param title The budget title to set.
+     */
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    /**
+     * Retrieves the ID of the category the budget applies to.
+     *
+     * @return The category ID.
+     */
+    public String getCategoryId() {
+        return categoryId;
+    }
+
+    /**
+     * Sets the ID of the category the budget applies to.
+     *
+     * @param categoryId The category ID to set.
+     */
+    public void setCategoryId(String categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    /**
+     * Retrieves the currency of the budget.
+     *
+     * @return The currency.
+     */
+    public String getCurrency() {
+        return currency;
+    }
+
+    /**
+     * Sets the currency of the budget.
+     *
+     * @param currency The currency to set.
+     */
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    /**
+     * Retrieves the amount allocated for the budget.
+     *
+     * @return The budget amount.
+     */
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    /**
+     * Sets the amount allocated for the budget.
+     *
+     * @param amount The budget amount to set.
+     */
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    /**
+     * Retrieves the amount spent against the budget.
+     *
+     * @return The amount spent.
+     */
+    public BigDecimal getSpent() {
+        return spent;
+    }
+
+    /**
+     * Sets the amount spent against the budget.
+     *
+     * @param spent The amount spent to set.
+     */
+    public void setSpent(BigDecimal spent) {
+        this.spent = spent;
+    }
+
+    /**
+     * Retrieves the amount left in the budget, negative once it is overspent.
+     *
+     * @return The remaining amount.
+     */
+    public BigDecimal getRemaining() {
+        return remaining;
+    }
+
+    /**
+     * Sets the amount left in the budget.
+     *
+     * @param remaining The remaining amount to set.
+     */
+    public void setRemaining(BigDecimal remaining) {
+        this.remaining = remaining;
+    }
+
+    /**
+     * Retrieves the percentage of the budget spent, or null for a budget of zero.
+     *
+     * @return The utilization percentage.
+     */
+    public BigDecimal getUtilization() {
+        return utilization;
+    }
+
+    /**
+     * Sets the percentage of the budget spent.
+     *
+     * @param utilization The utilization percentage to set.
+     */
+    public void setUtilization(BigDecimal utilization) {
+        this.utilization = utilization;
+    }
+
+    /**
+     * Generates a string representation of the utilization DTO.
+     *
+     * @return The string representation of the utilization DTO.
+     */
+    @Override
+    public String toString() {
+        return "BudgetUtilizationDTO{" +
+                "budgetId=" + budgetId +
+                ", title=" + title +
+                ", categoryId=" + categoryId +
+                ", currency=" + currency +
+                ", amount=" + amount +
+                ", spent=" + spent +
+                ", remaining=" + remaining +
+                ", utilization=" + utilization +
+                '}';
+    }
+
+    /**
+     * Checks if this utilization DTO is equal to another object based on its budget ID.
+     *
+     * @param o The object to compare.
+     * @return True if the objects are equal (same class and budget ID), false otherwise.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BudgetUtilizationDTO that = (BudgetUtilizationDTO) o;
+        return Objects.equals(budgetId, that.budgetId);
+    }
+
+    /**
+     * Computes the hash code of this utilization DTO based on its budget ID.
+     *
+     * @return The computed hash code.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(budgetId);
+    }
+}
@@ -0,0 +1,287 @@
+package com.brhn.xpnsr.services.dtos;
+
+import org.springframework.hateoas.server.core.Relation;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Data Transfer Object (DTO) representing the hit, miss, load and eviction statistics of an in-memory cache.
+ */
+@Relation(collectionRelation = "caches")
+public class CacheStatsDTO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 116L;
+
+    private String name;
+    private long estimatedSize;
+    private long hitCount;
+    private long missCount;
+    private double hitRate;
+    private long loadSuccessCount;
+    private long loadFailureCount;
+    private double averageLoadPenaltyMillis;
+    private long evictionCount;
+    private double loadLatencyP50Millis;
+    private double loadLatencyP95Millis;
+    private double loadLatencyP99Millis;
+
+    /**
+     * Retrieves the name of the cache.
+     *
+     * @return The cache name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Sets the name of the cache.
+     *
+     * @param name The cache name to set.
+     */
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Retrieves the approximate number of entries in the cache.
+     *
+     * @return The estimated number of entries.
+     */
+    public long getEstimatedSize() {
+        return estimatedSize;
+    }
+
+    /**
+     * Sets the approximate number of entries in the cache.
+     *
+     * @param estimatedSize The estimated number of entries to set.
+     */
+    public void setEstimatedSize(long estimatedSize) {
+        this.estimatedSize = estimatedSize;
+    }
+
+    /**
+     * Retrieves the number of lookups answered from the cache.
+     *
+     * @return The hit count.
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * Sets the number of lookups answered from the cache.
+     *
+     * @param hitCount The hit count to set.
+     */
+    public void setHitCount(long hitCount) {
+        this.hitCount = hitCount;
+    }
+
+    /**
+     * Retrieves the number of lookups that had to load their value.
+     *
+     * @return The miss count.
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * Sets the number of lookups that had to load their value.
+     *
+     * @param missCount The miss count to set.
+     */
+    public void setMissCount(long missCount) {
+        this.missCount = missCount;
+    }
+
+    /**
+     * Retrieves the ratio of lookups answered from the cache, 1 when there was no lookup.
+     *
+     * @return The hit rate.
+     */
+    public double getHitRate() {
+        return hitRate;
+    }
+
+    /**
+     * Sets the ratio of lookups answered from the cache, 1 when there was no lookup.
+     *
+     * @param hitRate The hit rate to set.
+     */
+    public void setHitRate(double hitRate) {
+        this.hitRate = hitRate;
+    }
+
+    /**
+     * Retrieves the number of successful loads, including background refreshes.
+     *
+     * @return The load success count.
+     */
+    public long getLoadSuccessCount() {
+        return loadSuccessCount;
+    }
+
+    /**
+     * Sets the number of successful loads, including background refreshes.
+     *
+     * @param loadSuccessCount The load success count to set.
+     */
+    public void setLoadSuccessCount(long loadSuccessCount) {
+        this.loadSuccessCount = loadSuccessCount;
+    }
+
+    /**
+     * Retrieves the number of failed loads, including background refreshes.
+     *
+     * @return The load failure count.
+     */
+    public long getLoadFailureCount() {
+        return loadFailureCount;
+    }
+
+    /**
+     * Sets the number of failed loads, including background refreshes.
+     *
+     * @param loadFailureCount The load failure count to set.
+     */
+    public void setLoadFailureCount(long loadFailureCount) {
+        this.loadFailureCount = loadFailureCount;
+    }
+
+    /**
+     * Retrieves the average time spent loading a value, in milliseconds.
+     *
+     * @return The average load penalty.
+     */
+    public double getAverageLoadPenaltyMillis() {
+        return averageLoadPenaltyMillis;
+    }
+
+    /**
+     * Sets the average time spent loading a value, in milliseconds.
+     *
+     * @param averageLoadPenaltyMillis The average load penalty to set.
+     */
+    public void setAverageLoadPenaltyMillis(double averageLoadPenaltyMillis) {
+        this.averageLoadPenaltyMillis = averageLoadPenaltyMillis;
+    }
+
+    /**
+     * Retrieves the number of entries evicted because of their size or expiration.
+     *
+     * @return The eviction count.
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Sets the number of entries evicted because of their size or expiration.
+     *
+     * @param evictionCount The eviction count to set.
+     */
+    public void setEvictionCount(long evictionCount) {
+        this.evictionCount = evictionCount;
+    }
+
+    /**
+     * Retrieves the median of the load latencies, in milliseconds, rounded up to a power of two microseconds.
+     *
+     * @return The median load latency.
+     */
+    public double getLoadLatencyP50Millis() {
+        return loadLatencyP50Millis;
+    }
+
+    /**
+     * Sets the median of the load latencies, in milliseconds.
+     *
+     * @param loadLatencyP50Millis The median load latency to set.
+     */
+    public void setLoadLatencyP50Millis(double loadLatencyP50Millis) {
+        this.loadLatencyP50Millis = loadLatencyP50Millis;
+    }
+
+    /**
+     * Retrieves the 95th percentile of the load latencies, in milliseconds, rounded up to a power of two microseconds.
+     *
+     * @return The 95th percentile load latency.
+     */
+    public double getLoadLatencyP95Millis() {
+        return loadLatencyP95Millis;
+    }
+
+    /**
+     * Sets the 95th percentile of the load latencies, in milliseconds.
+     *
+     * @param loadLatencyP95Millis The 95th percentile load latency to set.
+     */
+    public void setLoadLatencyP95Millis(double loadLatencyP95Millis) {
+        this.loadLatencyP95Millis = loadLatencyP95Millis;
+    }
+
+    /**
+     * Retrieves the 99th percentile of the load latencies, in milliseconds, rounded up to a power of two microseconds.
+     *
+     * @return The 99th percentile load latency.
+     */
+    public double getLoadLatencyP99Millis() {
+        return loadLatencyP99Millis;
+    }
+
+    /**
+     * Sets the 99th percentile of the load latencies, in milliseconds.
+     *
+     * @param loadLatencyP99Millis The 99th percentile load latency to set.
+     */
+    public void setLoadLatencyP99Millis(double loadLatencyP99Millis) {
+        this.loadLatencyP99Millis = loadLatencyP99Millis;
+    }
+
+    /**
+     * Generates a string representation of the cache statistics.
+     *
+     * @return The string representation of the cache statistics.
+     */
+    @Override
+    public String toString() {
+        return "CacheStatsDTO{" +
+                "name='" + name + '\'' +
+                ", estimatedSize=" + estimatedSize +
+                ", hitCount=" + hitCount +
+                ", missCount=" + missCount +
+                ", loadFailureCount=" + loadFailureCount +
+                ", evictionCount=" + evictionCount +
+                '}';
+    }
+
+    /**
+     * Checks if these cache statistics are equal to another object based on the cache name.
+     *
+     * @param o The object to compare.
+     * @return True if the objects are equal (same class and cache name), false otherwise.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CacheStatsDTO that = (CacheStatsDTO) o;
+        return Objects.equals(name, that.name);
+    }
+
+    /**
+     * Computes the hash code of these cache statistics based on the cache name.
+     *
+     * @return The computed hash code.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(name);
+    }
+}
@@ -1,6 +1,7 @@
 package com.brhn.xpnsr.services.dtos;
 
 import com.brhn.xpnsr.models.TransactionType;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -19,6 +20,9 @@ public class CategoryDTO implements Serializable {
 
     private String id;
 
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
     @NotBlank(message = "Name is required")
     @Size(min = 1, max = 100, message = "Name must be between 1 and 100 characters")
     private String name;
@@ -52,6 +56,24 @@ public class CategoryDTO implements Serializable {
         this.id = id;
     }
 
+    /**
+     * Retrieves the version of the category, which its ETag is derived from.
+     *
+     * @return The version of the category.
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the version of the category.
+     *
+     * @param version The version to set.
+     */
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     /**
      * Retrieves the name of the category DTO.
      *
@@ -0,0 +1,133 @@
+package com.brhn.xpnsr.services.dtos;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Data Transfer Object (DTO) representing a node of a hierarchical report.
+ * The amount of a node is the total of its own category and all of its descendants.
+ */
+public class CategoryReportDTO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 115L;
+
+    private String categoryId;
+    private String category;
+    private BigDecimal amount;
+    private List<CategoryReportDTO> children = new ArrayList<>();
+
+    /**
+     * Retrieves the ID of the category of the node.
+     *
+     * @return The category ID.
+     */
+    public String getCategoryId() {
+        return categoryId;
+    }
+
+    /**
+     * Sets the ID of the category of the node.
+     *
+     * @param categoryId The category ID to set.
+     */
+    public void setCategoryId(String categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    /**
+     * Retrieves the name of the category of the node.
+     *
+     * @return The category name.
+     */
+    public String getCategory() {
+        return category;
+    }
+
+    /**
+     * Sets the name of the category of the node.
+     *
+     * @param category The category name to set.
+     */
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    /**
+     * Retrieves the total amount of the category and its descendants.
+     *
+     * @return The rolled-up amount.
+     */
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    /**
+     * Sets the total amount of the category and its descendants.
+     *
+     * @param amount The rolled-up amount to set.
+     */
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+
+    /**
+     * Retrieves the child nodes, empty if the tree was truncated at this node.
+     *
+     * @return The child nodes.
+     */
+    public List<CategoryReportDTO> getChildren() {
+        return children;
+    }
+
+    /**
+     * Sets the child nodes.
+     *
+     * @param children The child nodes to set.
+     */
+    public void setChildren(List<CategoryReportDTO> children) {
+        this.children = children;
+    }
+
+    /**
+     * Generates a string representation of the report node.
+     *
+     * @return The string representation of the report node.
+     */
+    @Override
+    public String toString() {
+        return "CategoryReportDTO{" +
+                "categoryId='" + categoryId + '\'' +
+                ", amount=" + amount +
+                ", children=" + children +
+                '}';
+    }
+
+    /**
+     * Checks if this report node is equal to another object based on its category ID.
+     *
+     * @param o The object to compare.
+     * @return True if the objects are equal (same class and category ID), false otherwise.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CategoryReportDTO that = (CategoryReportDTO) o;
+        return Objects.equals(categoryId, that.categoryId);
+    }
+
+    /**
+     * Computes the hash code of this report node based on its category ID.
+     *
+     * @return The computed hash code.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(categoryId);
+    }
+}
@@ -0,0 +1,35 @@
+package com.brhn.xpnsr.services.dtos;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.springframework.hateoas.Link;
+import org.springframework.hateoas.PagedModel;
+
+import java.util.Collection;
+
+/**
+ * Page of plain items without per-item links, serialized like {@link CustomPagedModel}.
+ *
+ * @param <T> The type of the items.
+ */
+public class CompactPagedModel<T> extends PagedModel<T> {
+
+    public CompactPagedModel(Collection<T> content, PageMetadata metadata) {
+        super(content, metadata);
+    }
+
+    @JsonProperty("items")
+    public Collection<T> getItems() {
+        return super.getContent();
+    }
+
+    // Override getContent to prevent _embedded from being serialized
+    @Override
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    public Collection<T> getContent() {
+        return super.getContent();
+    }
+
+    public void addLinks(Iterable<Link> links) {
+        links.forEach(this::add);
+    }
+}
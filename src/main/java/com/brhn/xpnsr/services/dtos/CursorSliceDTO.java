@@ -0,0 +1,52 @@
+package com.brhn.xpnsr.services.dtos;
+
+import java.util.List;
+
+/**
+ * A slice of a keyset-paginated listing together with the token continuing after it.
+ *
+ * @param <T> The type of the items.
+ */
+public class CursorSliceDTO<T> {
+
+    private final List<T> content;
+    private final String nextCursor;
+
+    /**
+     * Constructs a slice.
+     *
+     * @param content    The items of the slice.
+     * @param nextCursor The token of the next slice, or null if this is the last one.
+     */
+    public CursorSliceDTO(List<T> content, String nextCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Retrieves the items of the slice.
+     *
+     * @return The items.
+     */
+    public List<T> getContent() {
+        return content;
+    }
+
+    /**
+     * Retrieves the token of the next slice.
+     *
+     * @return The token, or null if this is the last slice.
+     */
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Checks whether another slice follows this one.
+     *
+     * @return True if a next slice exists, false otherwise.
+     */
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,193 @@
+package com.brhn.xpnsr.services.dtos;
+
+import com.brhn.xpnsr.models.ReportJobStatus;
+import org.springframework.hateoas.server.core.Relation;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Data Transfer Object (DTO) representing the state of an asynchronous report job.
+ */
+@Relation(collectionRelation = "jobs")
+public class ReportJobDTO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 119L;
+
+    private String id;
+    private ReportJobStatus status;
+    private ReportJobRequestDTO request;
+    private Instant submittedAt;
+    private Instant startedAt;
+    private Instant completedAt;
+    private String error;
+
+    /**
+     * Retrieves the ID of the job.
+     *
+     * @return The ID of the job.
+     */
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Sets the ID of the job.
+     *
+     * @param id The ID of the job to set.
+     */
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    /**
+     * Retrieves the status of the job.
+     *
+     * @return The status of the job.
+     */
+    public ReportJobStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Sets the status of the job.
+     *
+     * @param status The status of the job to set.
+     */
+    public void setStatus(ReportJobStatus status) {
+        this.status = status;
+    }
+
+    /**
+     * Retrieves the report the job computes.
+     *
+     * @return The report the job computes.
+     */
+    public ReportJobRequestDTO getRequest() {
+        return request;
+    }
+
+    /**
+     * Sets the report the job computes.
+     *
+     * @param request The report the job computes to set.
+     */
+    public void setRequest(ReportJobRequestDTO request) {
+        this.request = request;
+    }
+
+    /**
+     * Retrieves the time the job was submitted.
+     *
+     * @return The time the job was submitted.
+     */
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+
+    /**
+     * Sets the time the job was submitted.
+     *
+     * @param submittedAt The time the job was submitted to set.
+     */
+    public void setSubmittedAt(Instant submittedAt) {
+        this.submittedAt = submittedAt;
+    }
+
+    /**
+     * Retrieves the time the job started, or null while it is queued.
+     *
+     * @return The time the job started, or null while it is queued.
+     */
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    /**
+     * Sets the time the job started, or null while it is queued.
+     *
+     * @param startedAt The time the job started, or null while it is queued to set.
+     */
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    /**
+     * Retrieves the time the job completed, or null until it has.
+     *
+     * @return The time the job completed, or null until it has.
+     */
+    public Instant getCompletedAt() {
+        return completedAt;
+    }
+
+    /**
+     * Sets the time the job completed, or null until it has.
+     *
+     * @param completedAt The time the job completed, or null until it has to set.
+     */
+    public void setCompletedAt(Instant completedAt) {
+        this.completedAt = completedAt;
+    }
+
+    /**
+     * Retrieves the reason the job failed, or null unless it has.
+     *
+     * @return The reason the job failed, or null unless it has.
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * Sets the reason the job failed, or null unless it has.
+     *
+     * @param error The reason the job failed, or null unless it has to set.
+     */
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    /**
+     * Generates a string representation of the report job.
+     *
+     * @return The string representation of the report job.
+     */
+    @Override
+    public String toString() {
+        return "ReportJobDTO{" +
+                "id='" + id + '\'' +
+                ", status=" + status +
+                ", request=" + request +
+                ", submittedAt=" + submittedAt +
+                ", completedAt=" + completedAt +
+                '}';
+    }
+
+    /**
+     * Checks if this report job is equal to another object based on its ID.
+     *
+     * @param o The object to compare.
+     * @return True if the objects are equal (same class and ID), false otherwise.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ReportJobDTO that = (ReportJobDTO) o;
+        return Objects.equals(id, that.id);
+    }
+
+    /**
+     * Computes the hash code of this report job based on its ID.
+     *
+     * @return The computed hash code.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(id);
+    }
+}
@@ -0,0 +1,189 @@
+package com.brhn.xpnsr.services.dtos;
+
+import com.brhn.xpnsr.models.ReportBucket;
+import com.brhn.xpnsr.models.ReportKind;
+import com.brhn.xpnsr.models.TransactionType;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Data Transfer Object (DTO) describing the report an asynchronous report job computes.
+ * The bucket only applies to time-series reports and the depth only to tree reports.
+ */
+public class ReportJobRequestDTO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 118L;
+
+    @NotNull(message = "Kind is required")
+    private ReportKind kind;
+
+    @NotNull(message = "Type is required")
+    private TransactionType type;
+
+    @NotNull(message = "Start date is required")
+    private LocalDate from;
+
+    @NotNull(message = "End date is required")
+    private LocalDate to;
+
+    private ReportBucket bucket = ReportBucket.DAY;
+
+    @Min(value = 1, message = "Depth must be at least 1")
+    private Integer depth;
+
+    /**
+     * Retrieves the kind of report computed.
+     *
+     * @return The kind of report computed.
+     */
+    public ReportKind getKind() {
+        return kind;
+    }
+
+    /**
+     * Sets the kind of report computed.
+     *
+     * @param kind The kind of report computed to set.
+     */
+    public void setKind(ReportKind kind) {
+        this.kind = kind;
+    }
+
+    /**
+     * Retrieves the type of the transactions reported.
+     *
+     * @return The type of the transactions reported.
+     */
+    public TransactionType getType() {
+        return type;
+    }
+
+    /**
+     * Sets the type of the transactions reported.
+     *
+     * @param type The type of the transactions reported to set.
+     */
+    public void setType(TransactionType type) {
+        this.type = type;
+    }
+
+    /**
+     * Retrieves the first day of the report.
+     *
+     * @return The first day of the report.
+     */
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    /**
+     * Sets the first day of the report.
+     *
+     * @param from The first day of the report to set.
+     */
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    /**
+     * Retrieves the last day of the report.
+     *
+     * @return The last day of the report.
+     */
+    public LocalDate getTo() {
+        return to;
+    }
+
+    /**
+     * Sets the last day of the report.
+     *
+     * @param to The last day of the report to set.
+     */
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    /**
+     * Retrieves the width of the buckets of a time-series report.
+     *
+     * @return The width of the buckets of a time-series report.
+     */
+    public ReportBucket getBucket() {
+        return bucket;
+    }
+
+    /**
+     * Sets the width of the buckets of a time-series report.
+     *
+     * @param bucket The width of the buckets of a time-series report to set.
+     */
+    public void setBucket(ReportBucket bucket) {
+        this.bucket = bucket;
+    }
+
+    /**
+     * Retrieves the number of levels of a tree report.
+     *
+     * @return The number of levels of a tree report.
+     */
+    public Integer getDepth() {
+        return depth;
+    }
+
+    /**
+     * Sets the number of levels of a tree report.
+     *
+     * @param depth The number of levels of a tree report to set.
+     */
+    public void setDepth(Integer depth) {
+        this.depth = depth;
+    }
+
+    /**
+     * Generates a string representation of the report job request.
+     *
+     * @return The string representation of the report job request.
+     */
+    @Override
+    public String toString() {
+        return "ReportJobRequestDTO{" +
+                "kind=" + kind +
+                ", type=" + type +
+                ", from=" + from +
+                ", to=" + to +
+                ", bucket=" + bucket +
+                ", depth=" + depth +
+                '}';
+    }
+
+    /**
+     * Checks if this report job request is equal to another object based on all its fields.
+     *
+     * @param o The object to compare.
+     * @return True if the objects describe the same report, false otherwise.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ReportJobRequestDTO that = (ReportJobRequestDTO) o;
+        return kind == that.kind && type == that.type && Objects.equals(from, that.from)
+                && Objects.equals(to, that.to) && bucket == that.bucket && Objects.equals(depth, that.depth);
+    }
+
+    /**
+     * Computes the hash code of this report job request based on all its fields.
+     *
+     * @return The computed hash code.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(kind, type, from, to, bucket, depth);
+    }
+}
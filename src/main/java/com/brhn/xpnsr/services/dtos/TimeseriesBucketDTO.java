@@ -0,0 +1,133 @@
+package com.brhn.xpnsr.services.dtos;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Data Transfer Object (DTO) representing one bucket of a time-series report with its per-category totals.
+ */
+public class TimeseriesBucketDTO implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 112L;
+
+    private LocalDate start;
+    private LocalDate end;
+    private BigDecimal total;
+    private List<ReportDTO> categories;
+
+    /**
+     * Retrieves the first day of the bucket.
+     *
+     * @return The first day of the bucket.
+     */
+    public LocalDate getStart() {
+        return start;
+    }
+
+    /**
+     * Sets the first day of the bucket.
+     *
+     * @param start The first day to set.
+     */
+    public void setStart(LocalDate start) {
+        this.start = start;
+    }
+
+    /**
+     * Retrieves the last day of the bucket.
+     *
+     * @return The last day of the bucket.
+     */
+    public LocalDate getEnd() {
+        return end;
+    }
+
+    /**
+     * Sets the last day of the bucket.
+     *
+     * @param end The last day to set.
+     */
+    public void setEnd(LocalDate end) {
+        this.end = end;
+    }
+
+    /**
+     * Retrieves the total amount of all categories in the bucket.
+     *
+     * @return The total amount.
+     */
+    public BigDecimal getTotal() {
+        return total;
+    }
+
+    /**
+     * Sets the total amount of all categories in the bucket.
+     *
+     * @param total The total amount to set.
+     */
+    public void setTotal(BigDecimal total) {
+        this.total = total;
+    }
+
+    /**
+     * Retrieves the per-category totals of the bucket.
+     *
+     * @return The per-category totals.
+     */
+    public List<ReportDTO> getCategories() {
+        return categories;
+    }
+
+    /**
+     * Sets the per-category totals of the bucket.
+     *
+     * @param categories The per-category totals to set.
+     */
+    public void setCategories(List<ReportDTO> categories) {
+        this.categories = categories;
+    }
+
+    /**
+     * Generates a string representation of the bucket DTO.
+     *
+     * @return The string representation of the bucket DTO.
+     */
+    @Override
+    public String toString() {
+        return "TimeseriesBucketDTO{" +
+                "start=" + start +
+                ", end=" + end +
+                ", total=" + total +
+                ", categories=" + categories +
+                '}';
+    }
+
+    /**
+     * Checks if this bucket DTO is equal to another object based on its start day.
+     *
+     * @param o The object to compare.
+     * @return True if the objects are equal (same class and start day), false otherwise.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TimeseriesBucketDTO that = (TimeseriesBucketDTO) o;
+        return Objects.equals(start, that.start);
+    }
+
+    /**
+     * Computes the hash code of this bucket DTO based on its start day.
+     *
+     * @return The computed hash code.
+     */
+    @Override
+    public int hashCode() {
+        return Objects.hash(start);
+    }
+}
@@ -1,6 +1,9 @@
 package com.brhn.xpnsr.services.dtos;
 
+import com.brhn.xpnsr.config.SparseFieldsetAdvice;
 import com.brhn.xpnsr.models.TransactionType;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -15,6 +18,7 @@ import java.util.Objects;
 /**
  * Data Transfer Object (DTO) representing a transaction.
  */
+@JsonFilter(SparseFieldsetAdvice.FILTER_ID)
 public class TransactionDTO implements Serializable {
 
     @Serial
@@ -22,6 +26,9 @@ public class TransactionDTO implements Serializable {
 
     private Long id;
 
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
     @NotNull(message = "Date is required")
     private Timestamp date;
 
@@ -77,6 +84,24 @@ public class TransactionDTO implements Serializable {
         this.id = id;
     }
 
+    /**
+     * Retrieves the version of the transaction, which its ETag is derived from.
+     *
+     * @return The version of the transaction.
+     */
+    public Long getVersion() {
+        return version;
+    }
+
+    /**
+     * Sets the version of the transaction.
+     *
+     * @param version The version to set.
+     */
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     /**
      * Retrieves the date of the transaction.
      *
@@ -27,8 +27,10 @@ public class BillMapper {
         // Set properties from Bill entity to BillDTO
         billDTO.setCategoryId(billCategoryId(bill));
         billDTO.setId(bill.getId());
+        billDTO.setVersion(bill.getVersion());
         billDTO.setTenure(bill.getTenure());
         billDTO.setAmount(bill.getAmount());
+        billDTO.setStartDate(bill.getStartDate());
 
         return billDTO;
     }
@@ -50,6 +52,7 @@ public class BillMapper {
         bill.setId(billDTO.getId());
         bill.setTenure(billDTO.getTenure());
         bill.setAmount(billDTO.getAmount());
+        bill.setStartDate(billDTO.getStartDate());
 
         // Set category
         if (billDTO.getCategoryId() != null) {
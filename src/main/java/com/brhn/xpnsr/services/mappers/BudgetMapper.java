@@ -27,6 +27,7 @@ public class BudgetMapper {
         // Set properties from Budget entity to BudgetDTO
         budgetDTO.setCategoryId(budgetCategoryId(budget));
         budgetDTO.setId(budget.getId());
+        budgetDTO.setVersion(budget.getVersion());
         budgetDTO.setTitle(budget.getTitle());
         budgetDTO.setDescription(budget.getDescription());
         budgetDTO.setAmount(budget.getAmount());
@@ -25,6 +25,7 @@ public class CategoryMapper {
 
         // Set properties from Category entity to CategoryDTO
         categoryDTO.setId(category.getId());
+        categoryDTO.setVersion(category.getVersion());
         categoryDTO.setName(category.getName());
         categoryDTO.setType(category.getType());
         categoryDTO.setIcon(category.getIcon());
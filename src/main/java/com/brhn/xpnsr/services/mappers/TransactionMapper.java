@@ -69,6 +69,7 @@ public class TransactionMapper {
 
         // Set properties from Transaction entity to TransactionDTO
         transactionDTO.setId(transaction.getId());
+        transactionDTO.setVersion(transaction.getVersion());
         transactionDTO.setDate(transaction.getDate());
         transactionDTO.setType(transaction.getType());
         transactionDTO.setAmount(transaction.getAmount());
@@ -1,8 +1,11 @@
 package com.brhn.xpnsr.apis;
 
 import com.brhn.xpnsr.repositories.ApplicationRepository;
+import com.brhn.xpnsr.security.CurrentUserProvider;
 import com.brhn.xpnsr.services.BillService;
 import com.brhn.xpnsr.services.dtos.BillDTO;
+import com.brhn.xpnsr.services.dtos.TimeseriesBucketDTO;
+import com.jayway.jsonpath.JsonPath;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,12 +13,20 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
@@ -32,6 +43,9 @@ public class BillApiTest {
     @Autowired
     private BillService billService;
 
+    @Autowired
+    private CurrentUserProvider currentUserProvider;
+
     @Autowired
     private ApplicationRepository applicationRepository;
 
@@ -122,7 +136,7 @@ public class BillApiTest {
     public void testGetAllBills() throws Exception {
         billService.createBill(billDTO);
 
-        mockMvc.perform(get("/api/bills/").header(API_KEY_HEADER, SAMPLE_API_KEY).accept(MediaType.APPLICATION_JSON)).andExpect(status().isOk()).andExpect(jsonPath("$.items[0].tenure").value(12)).andExpect(jsonPath("$.items[0].amount").value(1000.00)).andExpect(jsonPath("$.items[0].categoryId").value("groceries")).andExpect(jsonPath("$.items[0]._links.self.href").exists()).andExpect(jsonPath("$.items[0]._links.edit.href").exists()).andExpect(jsonPath("$.items[0]._links.delete.href").exists()).andExpect(jsonPath("$.items[0]._links.category.href").exists());
+        mockMvc.perform(get("/api/bills/").param("sort", "id,desc").header(API_KEY_HEADER, SAMPLE_API_KEY).accept(MediaType.APPLICATION_JSON)).andExpect(status().isOk()).andExpect(jsonPath("$.items[0].tenure").value(12)).andExpect(jsonPath("$.items[0].amount").value(1000.00)).andExpect(jsonPath("$.items[0].categoryId").value("groceries")).andExpect(jsonPath("$.items[0]._links.self.href").exists()).andExpect(jsonPath("$.items[0]._links.edit.href").exists()).andExpect(jsonPath("$.items[0]._links.delete.href").exists()).andExpect(jsonPath("$.items[0]._links.category.href").exists());
     }
 
     /**
@@ -252,4 +266,63 @@ public class BillApiTest {
 
         mockMvc.perform(get("/api/bills/" + createdBill.getId()).header(API_KEY_HEADER, SAMPLE_API_KEY).accept(MediaType.APPLICATION_JSON)).andExpect(status().isOk()).andExpect(jsonPath("$.tenure").value(12)).andExpect(jsonPath("$.amount").value(1000.00)).andExpect(jsonPath("$.categoryId").value("groceries")).andExpect(jsonPath("$._links.self.href").exists()).andExpect(jsonPath("$._links.edit.href").exists()).andExpect(jsonPath("$._links.delete.href").exists()).andExpect(jsonPath("$._links.category.href").exists());
     }
+
+    /**
+     * Test the monthly instalments of a bill, the last one taking the rounding remainder.
+     *
+     * @throws Exception if an error occurs during the request
+     */
+    @Test
+    public void testBillScheduleAndForecast() throws Exception {
+        BillDTO bill = new BillDTO();
+        bill.setTenure(3);
+        bill.setAmount(new BigDecimal("100.00"));
+        bill.setCategoryId("groceries");
+        bill.setStartDate(LocalDate.of(2031, 1, 15));
+        billService.createBill(bill);
+
+        List<TimeseriesBucketDTO> schedule = new ArrayList<>();
+        billService.streamSchedule(currentUserProvider.getUserId(), YearMonth.of(2030, 12), YearMonth.of(2031, 4), schedule::add);
+        assertEquals(List.of("0", "33.33", "33.33", "33.34", "0"),
+                schedule.stream().map(month -> month.getTotal().toPlainString()).toList());
+        assertEquals(LocalDate.of(2031, 2, 28), schedule.get(2).getEnd());
+
+        mockMvc.perform(get("/api/bills/forecast").param("from", "2031-01").param("months", "2").header(API_KEY_HEADER, SAMPLE_API_KEY).accept(MediaType.APPLICATION_JSON)).andExpect(status().isOk()).andExpect(jsonPath("$.start").value("2031-01-01")).andExpect(jsonPath("$.end").value("2031-02-28")).andExpect(jsonPath("$.total").value(66.66)).andExpect(jsonPath("$.categories.length()").value(1));
+
+        mockMvc.perform(get("/api/bills/forecast").param("months", "0").header(API_KEY_HEADER, SAMPLE_API_KEY).accept(MediaType.APPLICATION_JSON)).andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Test streaming the schedule of bill instalments.
+     *
+     * @throws Exception if an error occurs during the request
+     */
+    @Test
+    public void testGetBillSchedule() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/bills/schedule").param("from", "2030-12").param("to", "2031-04").header(API_KEY_HEADER, SAMPLE_API_KEY).accept(MediaType.APPLICATION_JSON)).andExpect(request().asyncStarted()).andReturn();
+
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk()).andExpect(jsonPath("$.length()").value(5)).andExpect(jsonPath("$[0].start").value("2030-12-01")).andExpect(jsonPath("$[4].end").value("2031-04-30"));
+
+        mockMvc.perform(get("/api/bills/schedule").param("from", "2031-04").param("to", "2030-12").header(API_KEY_HEADER, SAMPLE_API_KEY).accept(MediaType.APPLICATION_JSON)).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/bills/schedule").param("from", "2000-01").param("to", "2200-01").header(API_KEY_HEADER, SAMPLE_API_KEY).accept(MediaType.APPLICATION_JSON)).andExpect(request().asyncNotStarted()).andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Test creating, updating and deleting bills in batch, invalid items being reported by their index.
+     *
+     * @throws Exception if an error occurs during the request
+     */
+    @Test
+    public void testBillsBatch() throws Exception {
+        String body = mockMvc.perform(post("/api/bills/batch").header(API_KEY_HEADER, SAMPLE_API_KEY).contentType(MediaType.APPLICATION_JSON).content("[{\"tenure\": 12, \"amount\": 100.00, \"categoryId\": \"groceries\", \"startDate\": \"2031-01-01\"}, {\"tenure\": -1, \"amount\": 100.00, \"categoryId\": \"groceries\"}, {\"tenure\": 6, \"amount\": 60.00, \"categoryId\": \"groceries\"}]")).andExpect(status().isOk()).andExpect(jsonPath("$.received").value(3)).andExpect(jsonPath("$.applied").value(2)).andExpect(jsonPath("$.errors[0].index").value(1)).andExpect(jsonPath("$._links.collection.href").exists()).andReturn().getResponse().getContentAsString();
+        List<Integer> ids = JsonPath.read(body, "$.ids");
+
+        mockMvc.perform(put("/api/bills/batch").header(API_KEY_HEADER, SAMPLE_API_KEY).contentType(MediaType.APPLICATION_JSON).content("[{\"id\": " + ids.get(0) + ", \"tenure\": 24, \"amount\": 200.00, \"categoryId\": \"groceries\"}, {\"tenure\": 24, \"amount\": 200.00, \"categoryId\": \"groceries\"}]")).andExpect(status().isOk()).andExpect(jsonPath("$.applied").value(1)).andExpect(jsonPath("$.errors[0].index").value(1));
+        BillDTO updatedBill = billService.getBillById(ids.get(0).longValue());
+        assertEquals(24, updatedBill.getTenure());
+        assertEquals(LocalDate.of(2031, 1, 1), updatedBill.getStartDate());
+
+        mockMvc.perform(delete("/api/bills/batch").header(API_KEY_HEADER, SAMPLE_API_KEY).contentType(MediaType.APPLICATION_JSON).content("[" + ids.get(0) + ", " + ids.get(0) + ", " + ids.get(1) + "]")).andExpect(status().isOk()).andExpect(jsonPath("$.applied").value(2)).andExpect(jsonPath("$.errors[0].index").value(1));
+        mockMvc.perform(get("/api/bills/" + ids.get(1)).header(API_KEY_HEADER, SAMPLE_API_KEY).accept(MediaType.APPLICATION_JSON)).andExpect(status().isNotFound());
+    }
 }
@@ -1,18 +1,37 @@
 package com.brhn.xpnsr.apis;
 
+import com.brhn.xpnsr.models.TransactionType;
+import com.brhn.xpnsr.security.CurrentUserProvider;
 import com.brhn.xpnsr.services.BudgetService;
+import com.brhn.xpnsr.services.BudgetUtilizationService;
+import com.brhn.xpnsr.services.TransactionService;
+import com.brhn.xpnsr.services.alerts.BudgetAlert;
+import com.brhn.xpnsr.services.alerts.BudgetAlertEvaluator;
+import com.brhn.xpnsr.services.alerts.BudgetAlertQueue;
+import com.brhn.xpnsr.services.alerts.InMemoryAlertSink;
 import com.brhn.xpnsr.services.dtos.BudgetDTO;
+import com.brhn.xpnsr.services.dtos.TransactionDTO;
+import com.jayway.jsonpath.JsonPath;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.transaction.TestTransaction;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -31,6 +50,21 @@ public class BudgetApiTest {
     @Autowired
     private BudgetService budgetService;
 
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private BudgetUtilizationService budgetUtilizationService;
+
+    @Autowired
+    private CurrentUserProvider currentUserProvider;
+
+    @Autowired
+    private BudgetAlertEvaluator budgetAlertEvaluator;
+
+    @Autowired
+    private InMemoryAlertSink inMemoryAlertSink;
+
     private BudgetDTO budgetDTO;
     private static final String SAMPLE_API_KEY = "c779c66a194f4ddfbc22a9e2dacb5835";
     private static final String API_KEY_HEADER = "XPNSR-API-KEY";
@@ -276,6 +310,32 @@ public class BudgetApiTest {
                 .andExpect(status().isUnauthorized());
     }
 
+    /**
+     * Test that the ETag of a listing only matches the same page in the same order.
+     *
+     * @throws Exception if an error occurs during the request
+     */
+    @Test
+    public void testGetAllBudgetsNotModifiedPerPage() throws Exception {
+        String eTag = mockMvc.perform(get("/api/budgets/?page=0&size=5&sort=amount,desc")
+                        .header(API_KEY_HEADER, SAMPLE_API_KEY))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/budgets/?page=0&size=5&sort=amount,desc")
+                        .header(API_KEY_HEADER, SAMPLE_API_KEY)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/budgets/?page=1&size=5&sort=amount,desc")
+                        .header(API_KEY_HEADER, SAMPLE_API_KEY)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/budgets/?page=0&size=5&sort=amount,asc")
+                        .header(API_KEY_HEADER, SAMPLE_API_KEY)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk());
+    }
+
     /**
      * Test retrieving all budgets with pagination and sorting.
      *
@@ -353,4 +413,184 @@ public class BudgetApiTest {
                 .andExpect(jsonPath("$._links.edit.href").exists())
                 .andExpect(jsonPath("$._links.delete.href").exists());
     }
+
+    /**
+     * Test that the utilization of a budget follows the expenses recorded in its category.
+     *
+     * @throws Exception if an error occurs during the request
+     */
+    @Test
+    public void testGetBudgetUtilization() throws Exception {
+        budgetDTO.setId(null);
+        BudgetDTO createdBudget = budgetService.add(budgetDTO);
+        BigDecimal spentBefore = spent(createdBudget.getId());
+
+        TransactionDTO expense = new TransactionDTO();
+        expense.setDate(new Timestamp(System.currentTimeMillis()));
+        expense.setType(TransactionType.EXPENSE);
+        expense.setAmount(new BigDecimal("42.50"));
+        expense.setDue(BigDecimal.ZERO);
+        expense.setTitle("Farmers market");
+        expense.setCurrency("USD");
+        expense.setPrimaryCategoryId("groceries");
+        TransactionDTO createdExpense = transactionService.add(expense);
+
+        mockMvc.perform(get("/api/budgets/" + createdBudget.getId() + "/utilization")
+                        .header(API_KEY_HEADER, SAMPLE_API_KEY))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.spent").value(spentBefore.add(new BigDecimal("42.50")).doubleValue()))
+                .andExpect(jsonPath("$.remaining").value(new BigDecimal("457.50").subtract(spentBefore).doubleValue()))
+                .andExpect(jsonPath("$._links.budget.href").exists());
+
+        transactionService.delete(createdExpense.getId());
+
+        mockMvc.perform(get("/api/budgets/utilization")
+                        .header(API_KEY_HEADER, SAMPLE_API_KEY))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.utilizations[?(@.budgetId == " + createdBudget.getId() + ")].spent")
+                        .value(spentBefore.doubleValue()));
+    }
+
+    /**
+     * Test retrieving the utilization of a non-existing budget.
+     *
+     * @throws Exception if an error occurs during the request
+     */
+    @Test
+    public void testGetBudgetUtilizationNotFound() throws Exception {
+        mockMvc.perform(get("/api/budgets/999/utilization")
+                        .header(API_KEY_HEADER, SAMPLE_API_KEY))
+                .andExpect(status().isNotFound());
+    }
+
+    /**
+     * Test that a budget raises one alert per threshold crossed, and again only after dropping below it.
+     */
+    @Test
+    public void testBudgetAlertThresholds() {
+        budgetDTO.setId(null);
+        BudgetDTO createdBudget = budgetService.add(budgetDTO);
+        BigDecimal spent = budgetUtilizationService.get(createdBudget.getId()).getSpent();
+        assertTrue(spent.signum() > 0);
+        List<BudgetAlertQueue.Key> keys = List.of(new BudgetAlertQueue.Key(currentUserProvider.getUserId(), "groceries"));
+
+        // Just above 80% of the budget
+        createdBudget.setAmount(spent.multiply(new BigDecimal("1.20")));
+        budgetService.update(createdBudget.getId(), createdBudget, null);
+        List<BudgetAlert> alerts = alertsOf(createdBudget.getId(), budgetAlertEvaluator.evaluate(keys));
+        assertEquals(1, alerts.size());
+        assertEquals(0, new BigDecimal("80").compareTo(alerts.get(0).threshold()));
+        assertTrue(inMemoryAlertSink.getAlerts().contains(alerts.get(0)));
+        assertTrue(alertsOf(createdBudget.getId(), budgetAlertEvaluator.evaluate(keys)).isEmpty());
+
+        // Overspent
+        createdBudget.setAmount(spent.divide(new BigDecimal("2")));
+        budgetService.update(createdBudget.getId(), createdBudget, null);
+        alerts = alertsOf(createdBudget.getId(), budgetAlertEvaluator.evaluate(keys));
+        assertEquals(1, alerts.size());
+        assertEquals(0, new BigDecimal("100").compareTo(alerts.get(0).threshold()));
+
+        // Back under 80%, then over 100% again
+        createdBudget.setAmount(spent.multiply(new BigDecimal("10")));
+        budgetService.update(createdBudget.getId(), createdBudget, null);
+        assertTrue(alertsOf(createdBudget.getId(), budgetAlertEvaluator.evaluate(keys)).isEmpty());
+        createdBudget.setAmount(spent.divide(new BigDecimal("2")));
+        budgetService.update(createdBudget.getId(), createdBudget, null);
+        assertEquals(1, alertsOf(createdBudget.getId(), budgetAlertEvaluator.evaluate(keys)).size());
+    }
+
+    /**
+     * Test that the thresholds alerted for a budget are forgotten once its deletion has committed.
+     */
+    @Test
+    public void testDeletedBudgetAlertsAreForgotten() {
+        budgetDTO.setId(null);
+        BudgetDTO createdBudget = budgetService.add(budgetDTO);
+        BigDecimal spent = budgetUtilizationService.get(createdBudget.getId()).getSpent();
+        createdBudget.setAmount(spent.divide(new BigDecimal("2")));
+        budgetService.update(createdBudget.getId(), createdBudget, null);
+        budgetAlertEvaluator.evaluate(List.of(new BudgetAlertQueue.Key(currentUserProvider.getUserId(), "groceries")));
+        Map<?, ?> alertedThresholds = (Map<?, ?>) ReflectionTestUtils.getField(budgetAlertEvaluator, "alertedThresholds");
+        assertTrue(alertedThresholds.containsKey(createdBudget.getId()));
+
+        budgetService.delete(createdBudget.getId());
+        assertTrue(alertedThresholds.containsKey(createdBudget.getId()));
+
+        // The budget is created and deleted in the same transaction, so committing it leaves no data behind
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+        assertFalse(alertedThresholds.containsKey(createdBudget.getId()));
+    }
+
+    /**
+     * Test creating, updating and deleting budgets in batch, invalid items being reported by their index.
+     *
+     * @throws Exception if an error occurs during the request
+     */
+    @Test
+    public void testBudgetsBatch() throws Exception {
+        String body = mockMvc.perform(post("/api/budgets/batch")
+                        .header(API_KEY_HEADER, SAMPLE_API_KEY)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"title\": \"Groceries\", \"amount\": 500.00, \"currency\": \"USD\", \"categoryId\": \"groceries\", \"userId\": 1}," +
+                                "{\"title\": \"Unknown\", \"amount\": 100.00, \"currency\": \"USD\", \"categoryId\": \"unknown\", \"userId\": 1}," +
+                                "{\"title\": \"Groceries again\", \"amount\": 300.00, \"currency\": \"USD\", \"categoryId\": \"groceries\", \"userId\": 1}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(3))
+                .andExpect(jsonPath("$.applied").value(2))
+                .andExpect(jsonPath("$.errors[0].index").value(1))
+                .andExpect(jsonPath("$._links.collection.href").exists())
+                .andReturn().getResponse().getContentAsString();
+        List<Integer> ids = JsonPath.read(body, "$.ids");
+        budgetDTO.setId(null);
+        assertEquals(budgetUtilizationService.get(budgetService.add(budgetDTO).getId()).getSpent(),
+                budgetUtilizationService.get(ids.get(0).longValue()).getSpent());
+
+        mockMvc.perform(put("/api/budgets/batch")
+                        .header(API_KEY_HEADER, SAMPLE_API_KEY)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"id\": " + ids.get(0) + ", \"title\": \"Groceries\", \"amount\": 650.00, \"currency\": \"USD\", \"categoryId\": \"groceries\", \"userId\": 1}\n" +
+                                "{\"id\": 999999, \"title\": \"Missing\", \"amount\": 650.00, \"currency\": \"USD\", \"categoryId\": \"groceries\", \"userId\": 1}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.applied").value(1))
+                .andExpect(jsonPath("$.errors[0].index").value(1));
+        assertEquals(0, new BigDecimal("650.00").compareTo(budgetService.getBudgetById(ids.get(0).longValue()).getAmount()));
+
+        mockMvc.perform(delete("/api/budgets/batch")
+                        .header(API_KEY_HEADER, SAMPLE_API_KEY)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + ids.get(0) + ", " + ids.get(1) + ", 999999]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.applied").value(2))
+                .andExpect(jsonPath("$.errors[0].index").value(2));
+        mockMvc.perform(get("/api/budgets/" + ids.get(0) + "/utilization")
+                        .header(API_KEY_HEADER, SAMPLE_API_KEY))
+                .andExpect(status().isNotFound());
+    }
+
+    /**
+     * Keeps the alerts raised for a budget.
+     *
+     * @param budgetId the ID of the budget
+     * @param alerts   the alerts raised for any budget
+     * @return the alerts of the budget
+     */
+    private static List<BudgetAlert> alertsOf(Long budgetId, List<BudgetAlert> alerts) {
+        return alerts.stream().filter(alert -> alert.budgetId().equals(budgetId)).toList();
+    }
+
+    /**
+     * Reads the amount spent against a budget.
+     *
+     * @param budgetId the ID of the budget
+     * @return the amount spent
+     * @throws Exception if an error occurs during the request
+     */
+    private BigDecimal spent(Long budgetId) throws Exception {
+        String body = mockMvc.perform(get("/api/budgets/" + budgetId + "/utilization")
+                        .header(API_KEY_HEADER, SAMPLE_API_KEY))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return new BigDecimal(JsonPath.read(body, "$.spent").toString());
+    }
 }
@@ -0,0 +1,113 @@
+package com.brhn.xpnsr.apis;
+
+import com.brhn.xpnsr.data.DataLoader;
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Transactional
+public class CacheApiTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private DataLoader dataLoader;
+
+    private static final String SAMPLE_API_KEY = "c779c66a194f4ddfbc22a9e2dacb5835";
+    private static final String API_KEY_HEADER = "XPNSR-API-KEY";
+
+    @Test
+    public void testGetApiKeyCacheStats() throws Exception {
+        mockMvc.perform(get("/api/admin/caches/api-keys")
+                        .header(API_KEY_HEADER, SAMPLE_API_KEY)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("api-keys"))
+                .andExpect(jsonPath("$.hitCount").exists())
+                .andExpect(jsonPath("$.missCount").exists())
+                .andExpect(jsonPath("$._links.self.href").exists());
+    }
+
+    @Test
+    public void testGetAllCacheStats() throws Exception {
+        mockMvc.perform(get("/api/admin/caches/")
+                        .header(API_KEY_HEADER, SAMPLE_API_KEY)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._embedded.caches[?(@.name == 'api-keys')]").exists())
+                .andExpect(jsonPath("$._embedded.caches[0].loadLatencyP99Millis").exists())
+                .andExpect(jsonPath("$._embedded.caches[0].evictionCount").exists())
+                .andExpect(jsonPath("$._links.self.href").exists());
+    }
+
+    @Test
+    public void testGetUnknownCacheStats() throws Exception {
+        mockMvc.perform(get("/api/admin/caches/unknown")
+                        .header(API_KEY_HEADER, SAMPLE_API_KEY)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void testUnknownApiKeyIsCached() throws Exception {
+        long missesBefore = apiKeyCacheStat("missCount");
+        String unknownApiKey = UUID.randomUUID().toString().replace("-", "");
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/transactions/")
+                            .header(API_KEY_HEADER, unknownApiKey)
+                            .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isUnauthorized());
+        }
+
+        // Only the first lookup of the unknown key loads it; the sample key is already cached
+        assertEquals(missesBefore + 1, apiKeyCacheStat("missCount"));
+    }
+
+    @Test
+    public void testApiWaitsForSampleData() throws Exception {
+        long missesBefore = apiKeyCacheStat("missCount");
+        String unknownApiKey = UUID.randomUUID().toString().replace("-", "");
+
+        ReflectionTestUtils.setField(dataLoader, "loading", true);
+        try {
+            mockMvc.perform(get("/api/transactions/")
+                            .header(API_KEY_HEADER, unknownApiKey)
+                            .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+        } finally {
+            ReflectionTestUtils.setField(dataLoader, "loading", false);
+        }
+
+        // The key was not looked up before the sample applications were loaded
+        assertEquals(missesBefore, apiKeyCacheStat("missCount"));
+    }
+
+    private long apiKeyCacheStat(String stat) throws Exception {
+        String body = mockMvc.perform(get("/api/admin/caches/api-keys")
+                        .header(API_KEY_HEADER, SAMPLE_API_KEY)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return JsonPath.<Number>read(body, "$." + stat).longValue();
+    }
+}
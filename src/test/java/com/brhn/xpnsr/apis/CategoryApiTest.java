@@ -41,10 +41,10 @@ public class CategoryApiTest {
         // Setup sample categoryDTO
         categoryDTO = new CategoryDTO();
         categoryDTO.setId(UUID.randomUUID().toString());
-        categoryDTO.setName("Groceries");
+        categoryDTO.setName("Pet Care");
         categoryDTO.setType(com.brhn.xpnsr.models.TransactionType.EXPENSE);
-        categoryDTO.setIcon("groceries_icon");
-        categoryDTO.setDescription("Expenses for groceries");
+        categoryDTO.setIcon("pet_care_icon");
+        categoryDTO.setDescription("Expenses for pet care");
         categoryDTO.setParentId(null);
     }
 
@@ -58,12 +58,12 @@ public class CategoryApiTest {
         mockMvc.perform(post("/api/categories/")
                         .header(API_KEY_HEADER, SAMPLE_API_KEY)
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content("{\"name\": \"Groceries\", \"type\": \"EXPENSE\", \"icon\": \"groceries_icon\", \"description\": \"Expenses for groceries\", \"parentId\": null}"))
+                        .content("{\"name\": \"Pet Care\", \"type\": \"EXPENSE\", \"icon\": \"pet_care_icon\", \"description\": \"Expenses for pet care\", \"parentId\": null}"))
                 .andExpect(status().isCreated())
-                .andExpect(jsonPath("$.name").value("Groceries"))
+                .andExpect(jsonPath("$.name").value("Pet Care"))
                 .andExpect(jsonPath("$.type").value("EXPENSE"))
-                .andExpect(jsonPath("$.icon").value("groceries_icon"))
-                .andExpect(jsonPath("$.description").value("Expenses for groceries"))
+                .andExpect(jsonPath("$.icon").value("pet_care_icon"))
+                .andExpect(jsonPath("$.description").value("Expenses for pet care"))
                 .andExpect(jsonPath("$._links.self.href").exists())
                 .andExpect(jsonPath("$._links.edit.href").exists())
                 .andExpect(jsonPath("$._links.delete.href").exists());
@@ -133,10 +133,10 @@ public class CategoryApiTest {
                         .header(API_KEY_HEADER, SAMPLE_API_KEY)
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.name").value("Groceries"))
+                .andExpect(jsonPath("$.name").value("Pet Care"))
                 .andExpect(jsonPath("$.type").value("EXPENSE"))
-                .andExpect(jsonPath("$.icon").value("groceries_icon"))
-                .andExpect(jsonPath("$.description").value("Expenses for groceries"))
+                .andExpect(jsonPath("$.icon").value("pet_care_icon"))
+                .andExpect(jsonPath("$.description").value("Expenses for pet care"))
                 .andExpect(jsonPath("$._links.self.href").exists())
                 .andExpect(jsonPath("$._links.edit.href").exists())
                 .andExpect(jsonPath("$._links.delete.href").exists());
@@ -206,7 +206,7 @@ public class CategoryApiTest {
         mockMvc.perform(post("/api/categories/")
                         .header(API_KEY_HEADER, "invalid_api_key")
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content("{\"name\": \"Groceries\", \"type\": \"EXPENSE\", \"icon\": \"groceries_icon\", \"description\": \"Expenses for groceries\", \"parentId\": null}"))
+                        .content("{\"name\": \"Pet Care\", \"type\": \"EXPENSE\", \"icon\": \"pet_care_icon\", \"description\": \"Expenses for pet care\", \"parentId\": null}"))
                 .andExpect(status().isUnauthorized());
     }
 
@@ -306,21 +306,21 @@ public class CategoryApiTest {
         mockMvc.perform(post("/api/categories/")
                         .header(API_KEY_HEADER, SAMPLE_API_KEY)
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content("{\"name\": \"\", \"type\": \"EXPENSE\", \"icon\": \"groceries_icon\", \"description\": \"Expenses for groceries\", \"parentId\": null}"))
+                        .content("{\"name\": \"\", \"type\": \"EXPENSE\", \"icon\": \"pet_care_icon\", \"description\": \"Expenses for pet care\", \"parentId\": null}"))
                 .andExpect(status().isBadRequest());
 
         // Invalid type
         mockMvc.perform(post("/api/categories/")
                         .header(API_KEY_HEADER, SAMPLE_API_KEY)
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content("{\"name\": \"Groceries\", \"type\": \"\", \"icon\": \"groceries_icon\", \"description\": \"Expenses for groceries\", \"parentId\": null}"))
+                        .content("{\"name\": \"Pet Care\", \"type\": \"\", \"icon\": \"pet_care_icon\", \"description\": \"Expenses for pet care\", \"parentId\": null}"))
                 .andExpect(status().isBadRequest());
 
         // Missing type
         mockMvc.perform(post("/api/categories/")
                         .header(API_KEY_HEADER, SAMPLE_API_KEY)
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content("{\"name\": \"Groceries\", \"icon\": \"groceries_icon\", \"description\": \"Expenses for groceries\", \"parentId\": null}"))
+                        .content("{\"name\": \"Pet Care\", \"icon\": \"pet_care_icon\", \"description\": \"Expenses for pet care\", \"parentId\": null}"))
                 .andExpect(status().isBadRequest());
     }
 
@@ -337,12 +337,59 @@ public class CategoryApiTest {
                         .header(API_KEY_HEADER, SAMPLE_API_KEY)
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.name").value("Groceries"))
+                .andExpect(jsonPath("$.name").value("Pet Care"))
                 .andExpect(jsonPath("$.type").value("EXPENSE"))
-                .andExpect(jsonPath("$.icon").value("groceries_icon"))
-                .andExpect(jsonPath("$.description").value("Expenses for groceries"))
+                .andExpect(jsonPath("$.icon").value("pet_care_icon"))
+                .andExpect(jsonPath("$.description").value("Expenses for pet care"))
                 .andExpect(jsonPath("$._links.self.href").exists())
                 .andExpect(jsonPath("$._links.edit.href").exists())
                 .andExpect(jsonPath("$._links.delete.href").exists());
     }
-}
\ No newline at end of file
+
+    /**
+     * Test that a new category can be used as a parent right away and that cycles are rejected.
+     *
+     * @throws Exception if an error occurs during the request
+     */
+    @Test
+    public void testCategoryHierarchy() throws Exception {
+        categoryDTO.setName("Food");
+        CategoryDTO parent = categoryService.add(categoryDTO);
+        categoryDTO.setName("Street Food");
+        categoryDTO.setParentId(parent.getId());
+        CategoryDTO child = categoryService.add(categoryDTO);
+
+        mockMvc.perform(put("/api/categories/" + parent.getId())
+                        .header(API_KEY_HEADER, SAMPLE_API_KEY)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Food\", \"type\": \"EXPENSE\", \"parentId\": \"" + child.getId() + "\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Test that creating a category with the name of an existing one is rejected and leaves it unchanged.
+     *
+     * @throws Exception if an error occurs during the request
+     */
+    @Test
+    public void testCreateCategoryWithExistingIdIsRejected() throws Exception {
+        categoryDTO.setName("Food");
+        CategoryDTO parent = categoryService.add(categoryDTO);
+        categoryDTO.setName("Street Food");
+        categoryDTO.setParentId(parent.getId());
+        CategoryDTO child = categoryService.add(categoryDTO);
+
+        mockMvc.perform(post("/api/categories/")
+                        .header(API_KEY_HEADER, SAMPLE_API_KEY)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Food\", \"type\": \"EXPENSE\", \"parentId\": \"" + child.getId() + "\"}"))
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(get("/api/categories/" + parent.getId())
+                        .header(API_KEY_HEADER, SAMPLE_API_KEY)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.parentId").doesNotExist())
+                .andExpect(jsonPath("$.version").value(parent.getVersion().intValue()));
+    }
+}
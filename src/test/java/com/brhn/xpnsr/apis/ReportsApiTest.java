@@ -1,8 +1,19 @@
 package com.brhn.xpnsr.apis;
 
+import com.brhn.xpnsr.config.CacheMetrics;
+import com.brhn.xpnsr.models.TransactionType;
+import com.brhn.xpnsr.models.Category;
 import com.brhn.xpnsr.repositories.ApplicationRepository;
+import com.brhn.xpnsr.repositories.CategoryRepository;
 import com.brhn.xpnsr.repositories.TransactionRepository;
+import com.brhn.xpnsr.services.CategoryCatalog;
+import com.brhn.xpnsr.services.CategoryService;
+import com.brhn.xpnsr.services.ReportCache;
 import com.brhn.xpnsr.services.TransactionService;
+import com.brhn.xpnsr.services.dtos.CategoryDTO;
+import com.brhn.xpnsr.services.dtos.ReportDTO;
+import com.brhn.xpnsr.services.dtos.TransactionDTO;
+import com.jayway.jsonpath.JsonPath;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,9 +21,32 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -26,12 +60,27 @@ public class ReportsApiTest {
     @Autowired
     private TransactionService transactionService;
 
+    @Autowired
+    private CategoryService categoryService;
+
     @Autowired
     private TransactionRepository transactionRepository;
 
     @Autowired
     private ApplicationRepository applicationRepository;
 
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CategoryCatalog categoryCatalog;
+
+    @Autowired
+    private CacheMetrics cacheMetrics;
+
+    @Autowired
+    private ReportCache reportCache;
+
     private static final String SAMPLE_API_KEY = "c779c66a194f4ddfbc22a9e2dacb5835";
     private static final String API_KEY_HEADER = "XPNSR-API-KEY";
 
@@ -62,4 +111,284 @@ public class ReportsApiTest {
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk());
     }
+
+    @Test
+    public void testMonthlyReportReflectsTransactionWrites() throws Exception {
+        BigDecimal before = monthlyAmount("Groceries");
+
+        TransactionDTO created = transactionService.add(sampleTransaction(new BigDecimal("42.50")));
+        BigDecimal afterAdd = before.add(new BigDecimal("42.50"));
+        mockMvc.perform(get("/api/reports/monthly-expense")
+                        .header(API_KEY_HEADER, SAMPLE_API_KEY)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.category == 'Groceries')].amount").value(hasItem(afterAdd.doubleValue())));
+
+        created.setAmount(new BigDecimal("10.00"));
+        transactionService.update(created.getId(), created, null);
+        assertEquals(0, before.add(new BigDecimal("10.00")).compareTo(monthlyAmount("Groceries")));
+
+        transactionService.delete(created.getId());
+        assertEquals(0, before.compareTo(monthlyAmount("Groceries")));
+    }
+
+    @Test
+    public void testClosedMonthReportIsCachedUntilWritten() throws Exception {
+        YearMonth lastMonth = YearMonth.now().minusMonths(1);
+        BigDecimal before = monthlyAmount("Groceries", lastMonth);
+        long hitsBefore = cacheMetrics.getCache(ReportCache.CACHE_NAME).stats().hitCount();
+        assertEquals(0, before.compareTo(monthlyAmount("Groceries", lastMonth)));
+        assertEquals(hitsBefore + 1, cacheMetrics.getCache(ReportCache.CACHE_NAME).stats().hitCount());
+
+        TransactionDTO backdated = sampleTransaction(new BigDecimal("7.25"));
+        backdated.setDate(Timestamp.valueOf(lastMonth.atDay(15).atTime(12, 0)));
+        transactionService.add(backdated);
+        assertEquals(0, before.add(new BigDecimal("7.25")).compareTo(monthlyAmount("Groceries", lastMonth)));
+    }
+
+    @Test
+    public void testGetMonthlyReportTree() throws Exception {
+        CategoryDTO food = new CategoryDTO();
+        food.setName("Food");
+        food.setType(TransactionType.EXPENSE);
+        food = categoryService.add(food);
+        CategoryDTO groceries = categoryService.getCategoryById("groceries");
+        groceries.setParentId(food.getId());
+        categoryService.update(groceries.getId(), groceries, null);
+        transactionService.add(sampleTransaction(new BigDecimal("42.50")));
+        BigDecimal total = monthlyAmount("Groceries");
+
+        mockMvc.perform(get("/api/reports/monthly-expense/tree")
+                        .header(API_KEY_HEADER, SAMPLE_API_KEY)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.categoryId == 'food')].amount").value(hasItem(total.doubleValue())))
+                .andExpect(jsonPath("$[?(@.categoryId == 'food')].children[0].categoryId").value(hasItem("groceries")));
+
+        mockMvc.perform(get("/api/reports/monthly-expense/tree")
+                        .param("depth", "1")
+                        .header(API_KEY_HEADER, SAMPLE_API_KEY)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.categoryId == 'food')].children.length()").value(hasItem(0)));
+
+        mockMvc.perform(get("/api/reports/monthly-expense/tree")
+                        .param("depth", "0")
+                        .header(API_KEY_HEADER, SAMPLE_API_KEY)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testReportTreeWithParentCycle() throws Exception {
+        CategoryDTO loopA = new CategoryDTO();
+        loopA.setName("Loop A");
+        loopA.setType(TransactionType.EXPENSE);
+        loopA = categoryService.add(loopA);
+        CategoryDTO loopB = new CategoryDTO();
+        loopB.setName("Loop B");
+        loopB.setType(TransactionType.EXPENSE);
+        loopB.setParentId(loopA.getId());
+        loopB = categoryService.add(loopB);
+        // Closes the cycle behind the back of the service, which rejects it
+        Category category = categoryRepository.findById(loopA.getId()).orElseThrow();
+        category.setParentId(loopB.getId());
+        categoryRepository.saveAndFlush(category);
+        categoryCatalog.invalidate();
+
+        TransactionDTO transaction = sampleTransaction(new BigDecimal("42.50"));
+        transaction.setPrimaryCategoryId(loopB.getId());
+        transactionService.add(transaction);
+
+        mockMvc.perform(get("/api/reports/monthly-expense/tree")
+                        .header(API_KEY_HEADER, SAMPLE_API_KEY)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.categoryId == '" + loopA.getId() + "')].amount").value(hasItem(42.5)))
+                .andExpect(jsonPath("$[?(@.categoryId == '" + loopA.getId() + "')].children[0].categoryId")
+                        .value(hasItem(loopB.getId())));
+    }
+
+    @Test
+    public void testGetTimeseriesReport() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/reports/timeseries")
+                        .param("type", "expense")
+                        .param("from", "2024-01-15")
+                        .param("to", "2024-03-10")
+                        .param("bucket", "month")
+                        .header(API_KEY_HEADER, SAMPLE_API_KEY)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].start").value("2024-01-15"))
+                .andExpect(jsonPath("$[0].end").value("2024-01-31"))
+                .andExpect(jsonPath("$[2].start").value("2024-03-01"))
+                .andExpect(jsonPath("$[2].end").value("2024-03-10"));
+    }
+
+    @Test
+    public void testGetTimeseriesReportWithInvalidRange() throws Exception {
+        mockMvc.perform(get("/api/reports/timeseries")
+                        .param("type", "expense")
+                        .param("from", "2024-03-01")
+                        .param("to", "2024-01-01")
+                        .header(API_KEY_HEADER, SAMPLE_API_KEY)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testReportJobComputesResult() throws Exception {
+        String body = mockMvc.perform(post("/api/reports/jobs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"kind\": \"TIMESERIES\", \"type\": \"EXPENSE\", \"from\": \"2023-01-15\", " +
+                                "\"to\": \"2023-03-10\", \"bucket\": \"MONTH\"}")
+                        .header(API_KEY_HEADER, SAMPLE_API_KEY)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists("Location"))
+                .andReturn().getResponse().getContentAsString();
+        String id = JsonPath.read(body, "$.id");
+
+        String status = JsonPath.read(body, "$.status");
+        for (int i = 0; i < 100 && !status.equals("SUCCEEDED") && !status.equals("FAILED"); i++) {
+            Thread.sleep(100);
+            status = JsonPath.read(mockMvc.perform(get("/api/reports/jobs/" + id)
+                            .header(API_KEY_HEADER, SAMPLE_API_KEY)
+                            .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString(), "$.status");
+        }
+        assertEquals("SUCCEEDED", status);
+
+        mockMvc.perform(get("/api/reports/jobs/" + id)
+                        .header(API_KEY_HEADER, SAMPLE_API_KEY)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Retry-After"))
+                .andExpect(jsonPath("$._links.result.href").exists());
+
+        mockMvc.perform(get("/api/reports/jobs/" + id + "/result")
+                        .header(API_KEY_HEADER, SAMPLE_API_KEY)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].start").value("2023-01-15"))
+                .andExpect(jsonPath("$[2].start").value("2023-03-01"));
+    }
+
+    @Test
+    public void testIdenticalReportJobIsNotSubmittedTwice() throws Exception {
+        String request = "{\"kind\": \"CATEGORIES\", \"type\": \"EXPENSE\", \"from\": \"2022-01-01\", " +
+                "\"to\": \"2022-12-31\"}";
+        String first = mockMvc.perform(post("/api/reports/jobs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(request)
+                        .header(API_KEY_HEADER, SAMPLE_API_KEY)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString();
+
+        mockMvc.perform(post("/api/reports/jobs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(request)
+                        .header(API_KEY_HEADER, SAMPLE_API_KEY)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.id").value((String) JsonPath.read(first, "$.id")));
+    }
+
+    @Test
+    public void testReportJobWithInvalidRange() throws Exception {
+        mockMvc.perform(post("/api/reports/jobs")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"kind\": \"TREE\", \"type\": \"EXPENSE\", \"from\": \"2024-03-01\", " +
+                                "\"to\": \"2024-01-01\"}")
+                        .header(API_KEY_HEADER, SAMPLE_API_KEY)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testGetUnknownReportJob() throws Exception {
+        mockMvc.perform(get("/api/reports/jobs/unknown")
+                        .header(API_KEY_HEADER, SAMPLE_API_KEY)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void testConcurrentReportMissesLoadOnce() throws Exception {
+        YearMonth month = YearMonth.of(1999, 1); // A period no other test caches
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Map<String, BigDecimal>>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(executor.submit(() -> reportCache.get(-1L, TransactionType.EXPENSE, month.atDay(1),
+                        month.atEndOfMonth(), () -> {
+                            loads.incrementAndGet();
+                            awaitQuietly(loading); // Keeps the load in flight while the other threads miss
+                            return Map.of("groceries", BigDecimal.TEN);
+                        })));
+            }
+            Thread.sleep(200);
+            loading.countDown();
+            for (Future<Map<String, BigDecimal>> result : results) {
+                assertEquals(BigDecimal.TEN, result.get(10, TimeUnit.SECONDS).get("groceries"));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void testFailedReportLoadIsNotCached() {
+        YearMonth month = YearMonth.of(1998, 1); // A period no other test caches
+        assertThrows(StackOverflowError.class, () -> reportCache.get(-1L, TransactionType.EXPENSE,
+                month.atDay(1), month.atEndOfMonth(), () -> {
+                    throw new StackOverflowError();
+                }));
+
+        assertEquals(BigDecimal.TEN, reportCache.get(-1L, TransactionType.EXPENSE, month.atDay(1),
+                month.atEndOfMonth(), () -> Map.of("groceries", BigDecimal.TEN)).get("groceries"));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private BigDecimal monthlyAmount(String category) {
+        return monthlyAmount(category, YearMonth.now());
+    }
+
+    private BigDecimal monthlyAmount(String category, YearMonth month) {
+        return transactionService.getTransactionsReport(TransactionType.EXPENSE, month.atDay(1),
+                        month.atEndOfMonth()).stream()
+                .filter(report -> category.equals(report.getCategory()))
+                .map(ReportDTO::getAmount)
+                .findFirst()
+                .orElse(BigDecimal.ZERO);
+    }
+
+    private TransactionDTO sampleTransaction(BigDecimal amount) {
+        TransactionDTO transactionDTO = new TransactionDTO();
+        transactionDTO.setDate(Timestamp.valueOf(LocalDate.now().atTime(12, 0)));
+        transactionDTO.setType(TransactionType.EXPENSE);
+        transactionDTO.setAmount(amount);
+        transactionDTO.setCurrency("EUR");
+        transactionDTO.setTitle("Report test");
+        transactionDTO.setPrimaryCategoryId("groceries");
+        return transactionDTO;
+    }
 }
@@ -1,6 +1,7 @@
 package com.brhn.xpnsr.apis;
 
 import com.brhn.xpnsr.services.TransactionService;
+import com.jayway.jsonpath.JsonPath;
 import com.brhn.xpnsr.services.dtos.TransactionDTO;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,8 +13,10 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
@@ -21,7 +24,12 @@ import java.sql.Timestamp;
 import java.util.Collections;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
@@ -83,6 +91,30 @@ public class TransactionApiTest {
                 .andExpect(jsonPath("$._links.delete.href").exists());
     }
 
+    /**
+     * Test that creating a transaction with the ID of an existing one creates a new transaction.
+     *
+     * @throws Exception if an error occurs during the request
+     */
+    @Test
+    public void testCreateTransactionIgnoresExistingId() throws Exception {
+        TransactionDTO createdTransaction = transactionService.add(transactionDTO);
+
+        mockMvc.perform(post("/api/transactions/")
+                        .header(API_KEY_HEADER, SAMPLE_API_KEY)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\": " + createdTransaction.getId() + ", \"date\": \"2024-06-21T12:34:56.789Z\", \"type\": \"EXPENSE\", \"amount\": 150.00, \"due\": 0.00, \"title\": \"Restaurant Bill\", \"currency\": \"USD\", \"primaryCategoryId\": \"groceries\", \"userId\": 1}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(not(createdTransaction.getId().intValue())));
+
+        mockMvc.perform(get("/api/transactions/" + createdTransaction.getId())
+                        .header(API_KEY_HEADER, SAMPLE_API_KEY)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Grocery Shopping"))
+                .andExpect(jsonPath("$.amount").value(100.00));
+    }
+
     /**
      * Test creating a transaction with invalid input.
      *
@@ -154,6 +186,63 @@ public class TransactionApiTest {
                 .andExpect(jsonPath("$._links.delete.href").exists());
     }
 
+    /**
+     * Test that a transaction is not sent again to a client holding its current ETag.
+     *
+     * @throws Exception if an error occurs during the request
+     */
+    @Test
+    public void testGetTransactionByIdNotModified() throws Exception {
+        TransactionDTO createdTransaction = transactionService.add(transactionDTO);
+
+        String eTag = mockMvc.perform(get("/api/transactions/" + createdTransaction.getId())
+                        .header(API_KEY_HEADER, SAMPLE_API_KEY))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/transactions/" + createdTransaction.getId())
+                        .header(API_KEY_HEADER, SAMPLE_API_KEY)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+    }
+
+    /**
+     * Test that an update based on an outdated version of a transaction is rejected.
+     *
+     * @throws Exception if an error occurs during the request
+     */
+    @Test
+    public void testUpdateTransactionPreconditionFailed() throws Exception {
+        TransactionDTO createdTransaction = transactionService.add(transactionDTO);
+        String content = "{\"date\": \"2024-06-21T12:34:56.789Z\", \"type\": \"EXPENSE\", \"amount\": 150.00," +
+                " \"due\": 0.00, \"title\": \"Restaurant Bill\", \"currency\": \"USD\", \"primaryCategoryId\": \"travel\"}";
+
+        String eTag = mockMvc.perform(put("/api/transactions/" + createdTransaction.getId())
+                        .header(API_KEY_HEADER, SAMPLE_API_KEY)
+                        .header(HttpHeaders.IF_MATCH, "\"" + createdTransaction.getVersion() + "\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(content))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(put("/api/transactions/" + createdTransaction.getId())
+                        .header(API_KEY_HEADER, SAMPLE_API_KEY)
+                        .header(HttpHeaders.IF_MATCH, "\"" + createdTransaction.getVersion() + "\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(content))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(put("/api/transactions/" + createdTransaction.getId())
+                        .header(API_KEY_HEADER, SAMPLE_API_KEY)
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(content))
+                .andExpect(status().isOk());
+    }
+
     /**
      * Test retrieving a non-existing transaction by ID.
      *
@@ -167,6 +256,29 @@ public class TransactionApiTest {
                 .andExpect(status().isNotFound());
     }
 
+    /**
+     * Test that the precomputed detail links expand to the same URIs the controller mappings resolve to.
+     *
+     * @throws Exception if an error occurs during the request
+     */
+    @Test
+    public void testTransactionDetailLinks() throws Exception {
+        TransactionDTO createdTransaction = transactionService.add(transactionDTO);
+        String self = "http://localhost/api/transactions/" + createdTransaction.getId();
+
+        mockMvc.perform(get("/api/transactions/" + createdTransaction.getId())
+                        .header(API_KEY_HEADER, SAMPLE_API_KEY)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$._links.self.href").value(self))
+                .andExpect(jsonPath("$._links.edit.href").value(self))
+                .andExpect(jsonPath("$._links.delete.href").value(self))
+                .andExpect(jsonPath("$._links.collection.href").value("http://localhost/api/transactions/"))
+                .andExpect(jsonPath("$._links.primaryCategory.href").value("http://localhost/api/categories/groceries"))
+                .andExpect(jsonPath("$._links.secondaryCategory.href").value("http://localhost/api/categories/{id}"))
+                .andExpect(jsonPath("$._links.secondaryCategory.templated").value(true));
+    }
+
     /**
      * Test retrieving all transactions.
      *
@@ -180,6 +292,7 @@ public class TransactionApiTest {
         Page<TransactionDTO> page = new PageImpl<>(Collections.singletonList(transactionDTO), pageable, 1);
 
         mockMvc.perform(get("/api/transactions/")
+                        .param("sort", "id,desc") // Newest first, after the sample transactions
                         .header(API_KEY_HEADER, SAMPLE_API_KEY)
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
@@ -191,6 +304,45 @@ public class TransactionApiTest {
                 .andExpect(jsonPath("$.items[0]._links.delete.href").exists());
     }
 
+    /**
+     * Test retrieving a compact listing of transactions with a sparse fieldset and fewer links.
+     *
+     * @throws Exception if an error occurs during the request
+     */
+    @Test
+    public void testGetAllTransactionsCompact() throws Exception {
+        transactionService.add(transactionDTO);
+
+        mockMvc.perform(get("/api/transactions/")
+                        .param("fields", "id,date,amount,primaryCategoryId")
+                        .param("links", "none")
+                        .header(API_KEY_HEADER, SAMPLE_API_KEY)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").exists())
+                .andExpect(jsonPath("$.items[0].amount").exists())
+                .andExpect(jsonPath("$.items[0].primaryCategoryId").exists())
+                .andExpect(jsonPath("$.items[0].title").doesNotExist())
+                .andExpect(jsonPath("$.items[0]._links").doesNotExist())
+                .andExpect(jsonPath("$.page.totalElements").exists())
+                .andExpect(jsonPath("$._links.self.href").exists());
+
+        mockMvc.perform(get("/api/transactions/")
+                        .param("links", "self")
+                        .header(API_KEY_HEADER, SAMPLE_API_KEY)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].title").exists())
+                .andExpect(jsonPath("$.items[0]._links.self.href").exists())
+                .andExpect(jsonPath("$.items[0]._links.edit").doesNotExist());
+
+        mockMvc.perform(get("/api/transactions/")
+                        .param("fields", "id,password")
+                        .header(API_KEY_HEADER, SAMPLE_API_KEY)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
     /**
      * Test deleting a transaction.
      *
@@ -364,4 +516,127 @@ public class TransactionApiTest {
                 .andExpect(jsonPath("$._links.edit.href").exists())
                 .andExpect(jsonPath("$._links.delete.href").exists());
     }
+
+    /**
+     * Test scrolling through transactions by following the next link.
+     *
+     * @throws Exception if an error occurs during the request
+     */
+    @Test
+    public void testScrollTransactions() throws Exception {
+        transactionDTO.setId(null);
+        transactionDTO.setDate(Timestamp.valueOf("2100-01-02 10:00:00"));
+        transactionDTO.setTitle("Newest");
+        transactionService.add(transactionDTO);
+        transactionDTO.setDate(Timestamp.valueOf("2100-01-01 10:00:00"));
+        transactionDTO.setTitle("Second newest");
+        transactionService.add(transactionDTO);
+
+        MvcResult result = mockMvc.perform(get("/api/transactions/scroll")
+                        .param("size", "1")
+                        .header(API_KEY_HEADER, SAMPLE_API_KEY)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].title").value("Newest"))
+                .andExpect(jsonPath("$.page").doesNotExist())
+                .andExpect(jsonPath("$._links.next.href").exists())
+                .andReturn();
+
+        String next = JsonPath.read(result.getResponse().getContentAsString(), "$._links.next.href");
+        mockMvc.perform(get(next)
+                        .header(API_KEY_HEADER, SAMPLE_API_KEY)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].title").value("Second newest"));
+    }
+
+    /**
+     * Test scrolling with a malformed cursor.
+     *
+     * @throws Exception if an error occurs during the request
+     */
+    @Test
+    public void testScrollTransactionsInvalidCursor() throws Exception {
+        mockMvc.perform(get("/api/transactions/scroll")
+                        .param("cursor", "not-a-cursor")
+                        .header(API_KEY_HEADER, SAMPLE_API_KEY)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Test creating transactions in batch from a JSON array with an invalid item.
+     *
+     * @throws Exception if an error occurs during the request
+     */
+    @Test
+    public void testCreateTransactionsBatch() throws Exception {
+        mockMvc.perform(post("/api/transactions/batch")
+                        .header(API_KEY_HEADER, SAMPLE_API_KEY)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"date\": \"2024-06-20T12:34:56.789Z\", \"type\": \"EXPENSE\", \"amount\": 10.00, \"currency\": \"USD\", \"primaryCategoryId\": \"groceries\"}," +
+                                "{\"date\": \"2024-06-21T12:34:56.789Z\", \"type\": \"EXPENSE\", \"amount\": 20.00, \"currency\": \"USD\", \"primaryCategoryId\": \"groceries\"}," +
+                                "{\"date\": \"2024-06-22T12:34:56.789Z\", \"type\": \"EXPENSE\", \"amount\": 30.00, \"currency\": \"USD\", \"primaryCategoryId\": \"unknown\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(3))
+                .andExpect(jsonPath("$.applied").value(2))
+                .andExpect(jsonPath("$.ids.length()").value(2))
+                .andExpect(jsonPath("$.errors[0].index").value(2))
+                .andExpect(jsonPath("$._links.collection.href").exists());
+    }
+
+    /**
+     * Test creating transactions in batch from an NDJSON stream.
+     *
+     * @throws Exception if an error occurs during the request
+     */
+    @Test
+    public void testCreateTransactionsBatchNdjson() throws Exception {
+        mockMvc.perform(post("/api/transactions/batch")
+                        .header(API_KEY_HEADER, SAMPLE_API_KEY)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"date\": \"2024-06-20T12:34:56.789Z\", \"type\": \"EXPENSE\", \"amount\": 10.00, \"currency\": \"USD\", \"primaryCategoryId\": \"groceries\"}\n" +
+                                "{\"date\": \"2024-06-21T12:34:56.789Z\", \"type\": \"EARNING\", \"amount\": 20.00, \"primaryCategoryId\": \"groceries\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(2))
+                .andExpect(jsonPath("$.applied").value(1))
+                .andExpect(jsonPath("$.errors[0].index").value(1));
+    }
+
+    /**
+     * Test exporting transactions as CSV.
+     *
+     * @throws Exception if an error occurs during the request
+     */
+    @Test
+    public void testExportTransactionsCsv() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/transactions/export")
+                        .param("format", "csv")
+                        .param("from", "2000-01-01")
+                        .param("to", "2100-12-31")
+                        .header(API_KEY_HEADER, SAMPLE_API_KEY))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv"))
+                .andExpect(content().string(startsWith("id,date,type,amount,")));
+    }
+
+    /**
+     * Test exporting transactions with an inverted date range.
+     *
+     * @throws Exception if an error occurs during the request
+     */
+    @Test
+    public void testExportTransactionsInvalidRange() throws Exception {
+        mockMvc.perform(get("/api/transactions/export")
+                        .param("format", "ndjson")
+                        .param("from", "2024-02-01")
+                        .param("to", "2024-01-01")
+                        .header(API_KEY_HEADER, SAMPLE_API_KEY))
+                .andExpect(status().isBadRequest());
+    }
 }